@@ -0,0 +1,48 @@
+package com.zomato.plugin.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.zomato.plugin.repository.OrderSummary;
+import com.zomato.plugin.service.OrderCorpus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of {@code /api/orders} response bodies, with the
+ * mapper configured the way Spring Boot configures it for the web layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderJsonBenchmark {
+
+    @Param({"100", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<OrderSummary> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        page = new OrderCorpus(42).summaries(pageSize);
+    }
+
+    @Benchmark
+    public byte[] serializeOrdersPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+}
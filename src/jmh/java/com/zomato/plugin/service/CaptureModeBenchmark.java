@@ -0,0 +1,130 @@
+package com.zomato.plugin.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the Page listener and CDP Network-domain capture modes in a
+ * headless Chromium against a local portal stub. Each invocation fetches a
+ * burst of order payloads mixed with the same number of unrelated responses
+ * and waits until the order pipeline has parsed every order. Needs the
+ * Playwright Chromium build installed; run with {@code -prof gc} for the
+ * allocation rate per captured order.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class CaptureModeBenchmark {
+
+    private static final String ACCOUNT = "bench";
+
+    private static final int BURST = 50;
+
+    private static final String FETCH_BURST = """
+            async n => {
+              const requests = [];
+              for (let i = 0; i < n; i++) {
+                requests.push(fetch('/api/orders/' + i).then(r => r.text()));
+                requests.push(fetch('/assets/' + i + '.png').then(r => r.arrayBuffer()));
+              }
+              await Promise.all(requests);
+            }""";
+
+    @Param({"PAGE", "CDP"})
+    private PlaywrightService.CaptureMode mode;
+
+    @Param({"5"})
+    private int payloadKb;
+
+    private HttpServer server;
+    private Playwright playwright;
+    private Browser browser;
+    private Page page;
+    private PlaywrightService playwrightService;
+    private OrderSourceStats captured;
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[][] orders = new OrderCorpus(42).payloads(BURST, payloadKb * 1024).stream()
+                .map(payload -> payload.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+        byte[] asset = new byte[payloadKb * 1024];
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/orders/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            int index = Integer.parseInt(path.substring(path.lastIndexOf('/') + 1));
+            respond(exchange, "application/json", orders[index % BURST]);
+        });
+        server.createContext("/assets/", exchange -> respond(exchange, "image/png", asset));
+        server.createContext("/", exchange -> respond(exchange, "text/html",
+                "<html><body>portal</body></html>".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+
+        playwright = Playwright.create();
+        browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+        page = browser.newPage();
+
+        OrderPipeline orderPipeline = new OrderPipeline(new IngestionExecutor(false, 2, 10_000, 1000),
+                new HandoverDeduplicator(10_000, 5_000), batch -> { }, new OrderLatencyMetrics(2000), 10_000);
+        playwrightService = new PlaywrightService(orderPipeline,
+                new ResponseFilter(List.of("xhr", "fetch"), List.of("*/api/orders/*"), List.of("application/json")),
+                new WebSocketFrameDecoder(List.of("order")), new ResourceBlocker(false, List.of(), List.of(), List.of()),
+                new CaptureRecorder("build/captures", false, 1000, 1000), new OrderLatencyMetrics(2000));
+        playwrightService.setCaptureMode(mode);
+        captured = orderPipeline.getStats("xhr").orElseThrow();
+        playwrightService.attach(page, ACCOUNT);
+        playwrightService.startListening(ACCOUNT);
+        page.navigate("http://127.0.0.1:" + server.getAddress().getPort() + "/");
+    }
+
+    // The wait pumps Playwright events until the ingestion threads caught up
+    @Benchmark
+    @OperationsPerInvocation(BURST)
+    public long captureBurst() {
+        long target = captured.getOrders() + BURST;
+        page.evaluate(FETCH_BURST, BURST);
+        page.waitForCondition(() -> captured.getOrders() >= target);
+        return captured.getOrders();
+    }
+
+    @TearDown
+    public void tearDown() {
+        playwrightService.cleanup();
+        browser.close();
+        playwright.close();
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.repository.OrderSummary;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic order corpus for the benchmarks. Payloads are shaped like portal
+ * responses (identifiers up front, a variable item list, totals and status at
+ * the end) and are reproducible for a given seed, so runs stay comparable.
+ */
+public class OrderCorpus {
+
+    private static final String[] CUSTOMERS = {
+            "Priya \\\"Pri\\\" Sharma", "Rahul Verma", "Ananya Iyer", "Mohammed Khan",
+            "Sneha Reddy", "Arjun Nair", "Kavya Menon", "Rohan D'Souza"
+    };
+    private static final String[] DISHES = {
+            "Paneer Tikka Masala", "Chicken Biryani", "Masala Dosa", "Dal Makhani",
+            "Butter Naan", "Veg Hakka Noodles", "Gulab Jamun", "Mutton Rogan Josh"
+    };
+    private static final String[] RESTAURANTS = {"Spice Route", "Biryani House", "Dosa Corner", "Punjab Grill"};
+    private static final String[] STATUSES = {"NEW", "ACCEPTED", "PREPARING", "READY", "DELIVERED"};
+
+    private final Random random;
+    private int sequence;
+
+    public OrderCorpus(long seed) {
+        this.random = new Random(seed);
+    }
+
+    // count payloads whose sizes spread evenly over +/-25% of targetBytes
+    public List<String> payloads(int count, int targetBytes) {
+        List<String> payloads = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int spread = targetBytes / 4;
+            payloads.add(nextPayload(targetBytes - spread + random.nextInt(2 * spread + 1)));
+        }
+        return payloads;
+    }
+
+    public String nextPayload(int targetBytes) {
+        int id = ++sequence;
+        StringBuilder json = new StringBuilder(targetBytes + 512);
+        json.append("{\"orderId\":\"ZMT-").append(880000 + id)
+                .append("\",\"customerName\":\"").append(pick(CUSTOMERS)).append("\",")
+                .append("\"restaurant\":{\"id\":").append(20000 + random.nextInt(1000))
+                .append(",\"name\":\"").append(pick(RESTAURANTS)).append("\",\"city\":\"Bengaluru\"},")
+                .append("\"items\":[");
+        BigDecimal total = BigDecimal.ZERO;
+        int i = 0;
+        while (json.length() < targetBytes) {
+            if (i > 0) {
+                json.append(',');
+            }
+            int quantity = 1 + random.nextInt(3);
+            BigDecimal price = BigDecimal.valueOf(120 + random.nextInt(300)).setScale(2);
+            total = total.add(price.multiply(BigDecimal.valueOf(quantity)));
+            json.append("{\"itemId\":").append(1000 + i)
+                    .append(",\"name\":\"").append(pick(DISHES))
+                    .append("\",\"quantity\":").append(quantity)
+                    .append(",\"price\":").append(price)
+                    .append(",\"addons\":[{\"name\":\"Extra butter\",\"price\":20.00}]")
+                    .append(",\"instructions\":\"less spicy, no onion\"}");
+            i++;
+        }
+        json.append("],\"totalAmount\":").append(total)
+                .append(",\"status\":\"").append(pick(STATUSES)).append("\"}");
+        return json.toString();
+    }
+
+    // Rows as returned by /api/orders, newest first
+    public List<OrderSummary> summaries(int count) {
+        List<OrderSummary> summaries = new ArrayList<>(count);
+        LocalDateTime time = LocalDateTime.of(2026, 1, 15, 21, 0);
+        for (int i = 0; i < count; i++) {
+            int id = ++sequence;
+            summaries.add(new OrderSummary((long) id, "ZMT-" + (880000 + id), pick(CUSTOMERS),
+                    BigDecimal.valueOf(150 + random.nextInt(2000)).setScale(2),
+                    time.minusSeconds(37L * i), pick(STATUSES)));
+        }
+        return summaries;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+}
@@ -0,0 +1,106 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the streaming {@link OrderJsonParser} against the legacy
+ * per-field {@code extractJsonField} scan on order payloads of 5-50 KB.
+ * Each invocation takes the next payload of a synthetic corpus.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderParserBenchmark {
+
+    private static final int CORPUS_SIZE = 64;
+
+    @Param({"5", "20", "50"})
+    private int payloadKb;
+
+    private OrderPipeline orderPipeline;
+    private OrderJsonParser parser;
+    private String[] payloads;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        orderPipeline = new OrderPipeline(new IngestionExecutor(false, 1, 1, 1000), new HandoverDeduplicator(10_000, 5_000),
+                batch -> { }, new OrderLatencyMetrics(2000), 10_000);
+        parser = new OrderJsonParser();
+        payloads = new OrderCorpus(42).payloads(CORPUS_SIZE, payloadKb * 1024).toArray(new String[0]);
+    }
+
+    @Benchmark
+    public Order streamingParser() {
+        return parser.parse(nextPayload());
+    }
+
+    @Benchmark
+    public Order parseOrderFromJson() {
+        return orderPipeline.parseOrderFromJson(nextPayload());
+    }
+
+    @Benchmark
+    public Order legacyExtractJsonField() {
+        String payload = nextPayload();
+        Order order = new Order();
+        order.setOrderId(extractJsonField(payload, "orderId"));
+        order.setCustomerName(extractJsonField(payload, "customerName"));
+        String amount = extractJsonField(payload, "totalAmount");
+        if (amount != null) {
+            order.setTotalAmount(new BigDecimal(amount));
+        }
+        order.setStatus(extractJsonField(payload, "status"));
+        order.setOrderTime(LocalDateTime.now());
+        order.setRawJson(payload);
+        return order;
+    }
+
+    // Single lookup of the last field: the full-payload scan extractJsonField pays per field
+    @Benchmark
+    public String extractJsonField() {
+        return extractJsonField(nextPayload(), "status");
+    }
+
+    private String nextPayload() {
+        return payloads[next++ & (CORPUS_SIZE - 1)];
+    }
+
+    // The substring scan OrderPipeline used before OrderJsonParser, kept as the baseline
+    private static String extractJsonField(String json, String field) {
+        String pattern = "\"" + field + "\"";
+        int idx = json.indexOf(pattern);
+        if (idx < 0) return null;
+        int colonIdx = json.indexOf(':', idx + pattern.length());
+        if (colonIdx < 0) return null;
+        // Skip whitespace after colon
+        int valueStart = colonIdx + 1;
+        while (valueStart < json.length() && json.charAt(valueStart) == ' ') valueStart++;
+        if (valueStart >= json.length()) return null;
+        char firstChar = json.charAt(valueStart);
+        if (firstChar == '"') {
+            // String value
+            int end = json.indexOf('"', valueStart + 1);
+            if (end < 0) return null;
+            return json.substring(valueStart + 1, end);
+        } else if (Character.isDigit(firstChar) || firstChar == '-') {
+            // Numeric value
+            int numEnd = valueStart;
+            while (numEnd < json.length() && (Character.isDigit(json.charAt(numEnd)) || json.charAt(numEnd) == '.' || json.charAt(numEnd) == '-')) numEnd++;
+            return json.substring(valueStart, numEnd);
+        }
+        return null;
+    }
+}
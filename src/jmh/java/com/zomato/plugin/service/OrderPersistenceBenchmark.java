@@ -0,0 +1,97 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.ZomatoPluginApplication;
+import com.zomato.plugin.entity.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link OrderService} writes against the application's in-memory H2
+ * database: a new order, a duplicate capture, and a batch of 100 new orders.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPersistenceBenchmark {
+
+    private static final int CORPUS_SIZE = 64;
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private OrderService orderService;
+    private Order[] templates;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ZomatoPluginApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:jmh",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        orderService = context.getBean(OrderService.class);
+        OrderJsonParser parser = new OrderJsonParser();
+        templates = new OrderCorpus(42).payloads(CORPUS_SIZE, 5 * 1024).stream()
+                .map(parser::parse)
+                .toArray(Order[]::new);
+        orderService.saveOrder(copy(templates[0], "ZMT-DUPLICATE"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean saveOrder() {
+        return orderService.saveOrder(nextOrder());
+    }
+
+    @Benchmark
+    public boolean saveDuplicateOrder() {
+        return orderService.saveOrder(copy(templates[0], "ZMT-DUPLICATE"));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Order> saveOrdersBatch() {
+        List<Order> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(nextOrder());
+        }
+        return orderService.saveOrders(batch);
+    }
+
+    private Order nextOrder() {
+        long id = sequence++;
+        return copy(templates[(int) (id & (CORPUS_SIZE - 1))], "JMH-" + id);
+    }
+
+    private static Order copy(Order template, String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCustomerName(template.getCustomerName());
+        order.setTotalAmount(template.getTotalAmount());
+        order.setOrderTime(template.getOrderTime());
+        order.setStatus(template.getStatus());
+        order.setRawJson(template.getRawJson());
+        return order;
+    }
+}
@@ -0,0 +1,77 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.ZomatoPluginApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drives the application's {@link OrderPipeline} with a
+ * {@link SyntheticOrderSource}: parse, dedup and hand-off to the batch
+ * writer, against the in-memory H2 database and without a browser. Each
+ * invocation emits a burst of payloads and waits until the pipeline has
+ * processed all of them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrderPipelineBenchmark {
+
+    private static final int PAYLOADS = 1000;
+
+    @Param({"1", "20"})
+    private int ordersPerPayload;
+
+    @Param({"0", "0.5"})
+    private double duplicateRatio;
+
+    private ConfigurableApplicationContext context;
+    private OrderPipeline orderPipeline;
+    private long seed;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ZomatoPluginApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.datasource.url=jdbc:h2:mem:jmh-pipeline",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        orderPipeline = context.getBean(OrderPipeline.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAYLOADS)
+    public long syntheticBurst() throws InterruptedException {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic", SyntheticOrderSource.Load.of(PAYLOADS)
+                .withOrdersPerPayload(ordersPerPayload)
+                .withDuplicateRatio(duplicateRatio), seed++);
+        OrderSourceStats stats = orderPipeline.start(source);
+        try {
+            source.run();
+            stats.awaitProcessed(TimeUnit.MINUTES.toMillis(1));
+            return stats.getOrders();
+        } finally {
+            orderPipeline.stop(source);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Steady-state cost of the portal dashboard with and without the
+ * {@link ResourceBlocker}. Each invocation reloads a stub dashboard with
+ * large images, a third-party tracker (served from {@code localhost}, the
+ * page itself from {@code 127.0.0.1}) and an order poll. Besides the reload
+ * time, the summed resident memory of all Chromium processes after the
+ * reload is reported as the {@code browserRssKb} counter. Needs the
+ * Playwright Chromium build and Linux /proc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+public class ResourceBlockingBenchmark {
+
+    private static final String ACCOUNT = "bench";
+    private static final int IMAGES = 20;
+
+    @Param({"true", "false"})
+    private boolean blocking;
+
+    private HttpServer server;
+    private Playwright playwright;
+    private Browser browser;
+    private CDPSession browserSession;
+    private Page page;
+    private PlaywrightService playwrightService;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Memory {
+        // Last sample of the iteration, not a sum
+        public long browserRssKb;
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        byte[] image = noisePng(800, 800);
+        byte[] tracker = "setInterval(() => fetch('/collect?t=' + Date.now()), 1000);".getBytes(StandardCharsets.UTF_8);
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        int port = server.getAddress().getPort();
+        StringBuilder dashboard = new StringBuilder("<html><body>");
+        for (int i = 0; i < IMAGES; i++) {
+            dashboard.append("<img src=\"/img/").append(i).append(".png\">");
+        }
+        dashboard.append("<script src=\"http://localhost:").append(port).append("/tracker.js\"></script>")
+                .append("<script>fetch('/api/orders').then(r => r.text())</script></body></html>");
+        byte[] html = dashboard.toString().getBytes(StandardCharsets.UTF_8);
+        server.createContext("/img/", exchange -> respond(exchange, "image/png", image));
+        server.createContext("/tracker.js", exchange -> respond(exchange, "text/javascript", tracker));
+        server.createContext("/collect", exchange -> respond(exchange, "image/gif", new byte[0]));
+        server.createContext("/api/orders", exchange -> respond(exchange, "application/json",
+                "[]".getBytes(StandardCharsets.UTF_8)));
+        server.createContext("/", exchange -> respond(exchange, "text/html", html));
+        server.start();
+
+        playwright = Playwright.create();
+        browser = playwright.chromium().launch(new BrowserType.LaunchOptions().setHeadless(true));
+        browserSession = browser.newBrowserCDPSession();
+        page = browser.newPage();
+        OrderPipeline orderPipeline = new OrderPipeline(new IngestionExecutor(false, 1, 1000, 1000),
+                new HandoverDeduplicator(10_000, 5_000), batch -> { }, new OrderLatencyMetrics(2000), 10_000);
+        playwrightService = new PlaywrightService(orderPipeline,
+                new ResponseFilter(List.of("xhr", "fetch"), List.of("*/api/orders*"), List.of("application/json")),
+                new WebSocketFrameDecoder(List.of("order")),
+                new ResourceBlocker(blocking, List.of("image", "media", "font"), List.of("localhost"), List.of()),
+                new CaptureRecorder("build/captures", false, 1000, 1000), new OrderLatencyMetrics(2000));
+        playwrightService.attach(page, ACCOUNT);
+        playwrightService.startListening(ACCOUNT);
+        page.navigate("http://127.0.0.1:" + port + "/");
+    }
+
+    @Benchmark
+    public void reloadDashboard(Memory memory) throws IOException {
+        page.reload();
+        memory.browserRssKb = browserRssKb();
+    }
+
+    @TearDown
+    public void tearDown() {
+        playwrightService.cleanup();
+        browserSession.detach();
+        browser.close();
+        playwright.close();
+        server.stop(0);
+    }
+
+    private long browserRssKb() throws IOException {
+        long total = 0;
+        JsonObject info = browserSession.send("SystemInfo.getProcessInfo");
+        for (JsonElement process : info.getAsJsonArray("processInfo")) {
+            Path status = Path.of("/proc", process.getAsJsonObject().get("id").getAsString(), "status");
+            if (!Files.exists(status)) {
+                continue;
+            }
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    total += Long.parseLong(line.replaceAll("\\D", ""));
+                }
+            }
+        }
+        return total;
+    }
+
+    private static byte[] noisePng(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        return png.toByteArray();
+    }
+
+    private static void respond(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(200, body.length == 0 ? -1 : body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.CaptureRecorder;
+import com.zomato.plugin.service.CaptureReplayer;
+import com.zomato.plugin.service.OrderPipeline;
+import com.zomato.plugin.service.OrderSourceStats;
+import com.zomato.plugin.service.ReplayRun;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/capture")
+public class CaptureApiController {
+
+    private final CaptureRecorder captureRecorder;
+    private final CaptureReplayer captureReplayer;
+    private final OrderPipeline orderPipeline;
+
+    public CaptureApiController(CaptureRecorder captureRecorder, CaptureReplayer captureReplayer,
+                                OrderPipeline orderPipeline) {
+        this.captureRecorder = captureRecorder;
+        this.captureReplayer = captureReplayer;
+        this.orderPipeline = orderPipeline;
+    }
+
+    // Pipeline counts of every order source seen since startup
+    @GetMapping("/sources")
+    public Collection<OrderSourceStats> getSources() {
+        return orderPipeline.getStats();
+    }
+
+    @GetMapping("/recording")
+    public Map<String, Object> getRecording() {
+        Path file = captureRecorder.getFile();
+        Map<String, Object> recording = new HashMap<>();
+        recording.put("recording", captureRecorder.isRecording());
+        recording.put("file", file == null ? null : file.getFileName().toString());
+        recording.put("records", captureRecorder.getRecordCount());
+        recording.put("dropped", captureRecorder.getDroppedCount());
+        return recording;
+    }
+
+    @PostMapping("/recording/start")
+    public Map<String, Object> startRecording() throws IOException {
+        captureRecorder.startRecording();
+        return getRecording();
+    }
+
+    @PostMapping("/recording/stop")
+    public Map<String, Object> stopRecording() {
+        captureRecorder.stopRecording();
+        return getRecording();
+    }
+
+    // Replays a file of the recordings directory as an order source of the
+    // given name; speed 0 replays as fast as possible
+    @PostMapping("/replay")
+    public ResponseEntity<ReplayRun> startReplay(@RequestParam String file,
+                                                 @RequestParam(defaultValue = "1") double speed,
+                                                 @RequestParam(defaultValue = "replay") String source) {
+        try {
+            return ResponseEntity.accepted().body(captureReplayer.start(file, source, speed));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    // The running replay, or the last one
+    @GetMapping("/replay")
+    public ResponseEntity<ReplayRun> getReplay() {
+        return ResponseEntity.of(captureReplayer.getLastRun());
+    }
+}
@@ -0,0 +1,26 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.LoginJob;
+import com.zomato.plugin.service.LoginJobService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api")
+public class ConnectApiController {
+
+    private final LoginJobService loginJobService;
+
+    public ConnectApiController(LoginJobService loginJobService) {
+        this.loginJobService = loginJobService;
+    }
+
+    // Stage of a connect started by POST /connect; 404 once the job has expired
+    @GetMapping("/connect/{jobId}")
+    public ResponseEntity<LoginJob> getConnectJob(@PathVariable String jobId) {
+        return ResponseEntity.of(loginJobService.getJob(jobId));
+    }
+}
@@ -1,7 +1,9 @@
 package com.zomato.plugin.controller;
 
+import com.zomato.plugin.service.BrowserPool;
 import com.zomato.plugin.service.ConnectionService;
-import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.LoginJob;
+import com.zomato.plugin.service.LoginJobService;
 import com.zomato.plugin.service.PlaywrightService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -15,33 +17,35 @@ public class LoginController {
 
     private final ConnectionService connectionService;
     private final PlaywrightService playwrightService;
-    private final OrderService orderService;
+    private final BrowserPool browserPool;
+    private final LoginJobService loginJobService;
 
     public LoginController(ConnectionService connectionService,
                           PlaywrightService playwrightService,
-                          OrderService orderService) {
+                          BrowserPool browserPool,
+                          LoginJobService loginJobService) {
         this.connectionService = connectionService;
         this.playwrightService = playwrightService;
-        this.orderService = orderService;
+        this.browserPool = browserPool;
+        this.loginJobService = loginJobService;
     }
 
     @GetMapping("/login")
-    public String loginPage(Model model) {
+    public String loginPage(@RequestParam(required = false) String job, Model model) {
         model.addAttribute("connected", connectionService.isConnected());
+        model.addAttribute("jobId", job);
         return "login";
     }
 
+    // Returns at once; the login page follows the job through /api/connect/{jobId}
     @PostMapping("/connect")
     public String connect(@RequestParam String username,
                          @RequestParam String password,
                          RedirectAttributes redirectAttributes) {
         try {
-            String sessionPath = playwrightService.login(username, password);
-            connectionService.connect(username, sessionPath);
-            playwrightService.setOrderCallback(order -> orderService.saveOrder(order));
-            playwrightService.startListening();
-            redirectAttributes.addFlashAttribute("message", "Connected successfully");
-            return "redirect:/orders";
+            LoginJob job = loginJobService.submit(username, password);
+            redirectAttributes.addAttribute("job", job.getId());
+            return "redirect:/login";
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("error", "Login failed: " + e.getMessage());
             return "redirect:/login";
@@ -52,7 +56,8 @@ public class LoginController {
     public String disconnect(@RequestParam String username,
                             RedirectAttributes redirectAttributes) {
         try {
-            playwrightService.stopListening();
+            playwrightService.stopListening(username);
+            browserPool.release(username);
             connectionService.disconnect(username);
             redirectAttributes.addFlashAttribute("message", "Disconnected successfully");
         } catch (Exception e) {
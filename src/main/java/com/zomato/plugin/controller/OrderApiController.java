@@ -1,12 +1,21 @@
 package com.zomato.plugin.controller;
 
-import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.repository.OrderSummary;
 import com.zomato.plugin.service.ConnectionService;
+import com.zomato.plugin.service.OrderCursor;
+import com.zomato.plugin.service.OrderSequenceCursor;
 import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.OrderStreamService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.HashMap;
 import java.util.List;
@@ -16,24 +25,81 @@ import java.util.Map;
 @RequestMapping("/api")
 public class OrderApiController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String LATEST_CURSOR_HEADER = "X-Latest-Cursor";
+    static final int MAX_PAGE_SIZE = 500;
+
     private final OrderService orderService;
     private final ConnectionService connectionService;
+    private final OrderStreamService orderStreamService;
 
-    public OrderApiController(OrderService orderService, ConnectionService connectionService) {
+    public OrderApiController(OrderService orderService, ConnectionService connectionService,
+                              OrderStreamService orderStreamService) {
         this.orderService = orderService;
         this.connectionService = connectionService;
+        this.orderStreamService = orderStreamService;
     }
 
+    // Keyset paging: without parameters returns the newest page; "before" pages
+    // backwards and "since" returns the orders inserted after the cursor. The
+    // cursor to continue from is returned in X-Next-Cursor; the newest page also
+    // carries X-Latest-Cursor, the starting point for "since" polling.
     @GetMapping("/orders")
-    public ResponseEntity<List<Order>> getOrders() {
-        return ResponseEntity.ok(orderService.getAllOrders());
+    public ResponseEntity<List<OrderSummary>> getOrders(@RequestParam(required = false) String before,
+                                                 @RequestParam(required = false) String since,
+                                                 @RequestParam(defaultValue = "100") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        try {
+            if (since != null) {
+                OrderSequenceCursor cursor = OrderSequenceCursor.decode(since);
+                List<OrderSummary> orders = orderService.getOrdersSince(cursor, pageSize);
+                OrderSequenceCursor next = orders.isEmpty() ? cursor
+                        : new OrderSequenceCursor(orders.get(orders.size() - 1).id());
+                return ResponseEntity.ok().header(NEXT_CURSOR_HEADER, next.encode()).body(orders);
+            }
+            OrderCursor cursor = before == null ? null : OrderCursor.decode(before);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (cursor == null) {
+                response.header(LATEST_CURSOR_HEADER, orderService.getLatestCursor().encode());
+            }
+            List<OrderSummary> orders = orderService.getOrdersPage(cursor, pageSize);
+            if (orders.size() == pageSize) {
+                response.header(NEXT_CURSOR_HEADER, OrderCursor.of(orders.get(orders.size() - 1)).encode());
+            }
+            return response.body(orders);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    // The raw captured payload, kept off every list path
+    @GetMapping(value = "/orders/{orderId}/raw", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getRawOrder(@PathVariable String orderId) {
+        return ResponseEntity.of(orderService.getRawJson(orderId));
+    }
+
+    // New orders as Server-Sent Events. EventSource sends Last-Event-ID on
+    // reconnect; the page passes lastEventId on its first connect.
+    @GetMapping(value = "/orders/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamOrders(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventIdHeader,
+            @RequestParam(value = "lastEventId", required = false) Long lastEventIdParam) {
+        Long lastEventId = lastEventIdHeader != null ? lastEventIdHeader : lastEventIdParam;
+        SseEmitter emitter = orderStreamService.subscribe(lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(emitter);
     }
 
+    // Served from in-memory state; the ETag lets an unchanged poll end in 304
     @GetMapping("/status")
     public ResponseEntity<Map<String, Object>> getStatus() {
+        boolean connected = connectionService.isConnected();
+        long orderCount = orderService.getOrderCount();
         Map<String, Object> status = new HashMap<>();
-        status.put("connected", connectionService.isConnected());
-        status.put("orderCount", orderService.getOrderCount());
-        return ResponseEntity.ok(status);
+        status.put("connected", connected);
+        status.put("orderCount", orderCount);
+        return ResponseEntity.ok().eTag(orderCount + "-" + connected).body(status);
     }
 }
@@ -2,6 +2,7 @@ package com.zomato.plugin.controller;
 
 import com.zomato.plugin.service.ConnectionService;
 import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.OrderStreamService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,14 +12,19 @@ public class OrderController {
 
     private final OrderService orderService;
     private final ConnectionService connectionService;
+    private final OrderStreamService orderStreamService;
 
-    public OrderController(OrderService orderService, ConnectionService connectionService) {
+    public OrderController(OrderService orderService, ConnectionService connectionService,
+                           OrderStreamService orderStreamService) {
         this.orderService = orderService;
         this.connectionService = connectionService;
+        this.orderStreamService = orderStreamService;
     }
 
     @GetMapping("/orders")
     public String ordersPage(Model model) {
+        // Read before the table so the page's stream resumes without a gap
+        model.addAttribute("streamPosition", orderStreamService.getLastEventId());
         model.addAttribute("orders", orderService.getAllOrders());
         model.addAttribute("orderCount", orderService.getOrderCount());
         model.addAttribute("connected", connectionService.isConnected());
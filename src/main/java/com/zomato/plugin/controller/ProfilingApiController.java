@@ -0,0 +1,62 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.FlightRecordingService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/profiling")
+public class ProfilingApiController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    public ProfilingApiController(FlightRecordingService flightRecordingService) {
+        this.flightRecordingService = flightRecordingService;
+    }
+
+    @GetMapping("/recording")
+    public Map<String, Object> getRecording() {
+        Instant started = flightRecordingService.getStartTime();
+        Path dump = flightRecordingService.getLastDump();
+        Map<String, Object> recording = new HashMap<>();
+        recording.put("recording", flightRecordingService.isRecording());
+        recording.put("started", started == null ? null : started.toString());
+        recording.put("maxAgeSeconds", flightRecordingService.getMaxAge().toSeconds());
+        recording.put("maxSizeBytes", flightRecordingService.getMaxSizeBytes());
+        recording.put("lastDump", dump == null ? null : dump.getFileName().toString());
+        return recording;
+    }
+
+    @PostMapping("/recording/start")
+    public Map<String, Object> startRecording() throws IOException {
+        flightRecordingService.start();
+        return getRecording();
+    }
+
+    // Writes what the recording holds to a new .jfr file of the recordings directory
+    @PostMapping("/recording/dump")
+    public ResponseEntity<Map<String, Object>> dumpRecording() throws IOException {
+        try {
+            flightRecordingService.dump();
+            return ResponseEntity.ok(getRecording());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @PostMapping("/recording/stop")
+    public Map<String, Object> stopRecording() {
+        flightRecordingService.stop();
+        return getRecording();
+    }
+}
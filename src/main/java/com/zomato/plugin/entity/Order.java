@@ -5,8 +5,10 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import jakarta.persistence.Lob;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -15,14 +17,17 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_order_time_id", columnList = "order_time DESC, id DESC"))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Order {
 
+    // Pooled sequence instead of IDENTITY so Hibernate can batch inserts;
+    // the JDBC insert path in OrderRepositoryImpl draws from the same sequence
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     @Column(unique = true)
@@ -36,6 +41,11 @@ public class Order {
 
     private String status;
 
-    @Lob
+    // Carried through the capture pipeline only; persisted in order_payloads
+    @Transient
     private String rawJson;
+
+    // System.nanoTime() when the payload was intercepted, 0 if unknown; feeds the latency metrics
+    @Transient
+    private long capturedNanos;
 }
@@ -0,0 +1,24 @@
+package com.zomato.plugin.entity;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Raw captured payload, deflated and kept apart from orders so list queries never touch it
+@Entity
+@Table(name = "order_payloads")
+@Getter
+@Setter
+@NoArgsConstructor
+public class OrderPayload {
+
+    @Id
+    private String orderId;
+
+    @Lob
+    private byte[] compressedJson;
+}
@@ -4,10 +4,13 @@ import com.zomato.plugin.entity.ConnectionConfig;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ConnectionConfigRepository extends JpaRepository<ConnectionConfig, Long> {
     Optional<ConnectionConfig> findByUsername(String username);
     Optional<ConnectionConfig> findFirstByConnectedTrue();
+    List<ConnectionConfig> findByConnectedTrue();
+    List<ConnectionConfig> findAllByOrderByConnectedAtDesc();
 }
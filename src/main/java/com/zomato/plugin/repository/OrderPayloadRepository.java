@@ -0,0 +1,9 @@
+package com.zomato.plugin.repository;
+
+import com.zomato.plugin.entity.OrderPayload;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OrderPayloadRepository extends JpaRepository<OrderPayload, String> {
+}
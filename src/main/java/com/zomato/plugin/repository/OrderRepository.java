@@ -1,15 +1,41 @@
 package com.zomato.plugin.repository;
 
 import com.zomato.plugin.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    String SUMMARY_SELECT = "select new com.zomato.plugin.repository.OrderSummary("
+            + "o.id, o.orderId, o.customerName, o.totalAmount, o.orderTime, o.status) from Order o ";
+
     Optional<Order> findByOrderId(String orderId);
     boolean existsByOrderId(String orderId);
-    List<Order> findAllByOrderByOrderTimeDesc();
+    List<OrderSummary> findAllByOrderByOrderTimeDesc();
+
+    // Keyset queries over (orderTime, id), served by idx_orders_order_time_id
+
+    @Query(SUMMARY_SELECT + "order by o.orderTime desc, o.id desc")
+    List<OrderSummary> findLatest(Pageable page);
+
+    @Query(SUMMARY_SELECT + "where o.orderTime < :orderTime or (o.orderTime = :orderTime and o.id < :id) "
+            + "order by o.orderTime desc, o.id desc")
+    List<OrderSummary> findOlderThan(@Param("orderTime") LocalDateTime orderTime, @Param("id") Long id, Pageable page);
+
+    // Insert order, for "since" polling: orderTime is set at parse time, so a
+    // row may commit with an orderTime older than ones already read
+
+    @Query(SUMMARY_SELECT + "where o.id > :id order by o.id asc")
+    List<OrderSummary> findInsertedAfter(@Param("id") long id, Pageable page);
+
+    @Query("select coalesce(max(o.id), 0) from Order o")
+    long findLastInsertedId();
 }
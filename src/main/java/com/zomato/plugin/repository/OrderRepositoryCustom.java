@@ -0,0 +1,15 @@
+package com.zomato.plugin.repository;
+
+import com.zomato.plugin.entity.Order;
+
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    // Returns 1 when the row was inserted, 0 when the orderId already exists;
+    // an inserted order gets its generated id set
+    int insertIfAbsent(Order order);
+
+    // Same statement as insertIfAbsent, sent as one JDBC batch; one result per order
+    int[] insertAllIfAbsent(List<Order> orders);
+}
@@ -0,0 +1,109 @@
+package com.zomato.plugin.repository;
+
+import com.zomato.plugin.entity.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    // Atomic insert-if-absent keyed on order_id; ids come from the same
+    // pooled sequence Hibernate uses for Order
+    static final String INSERT_IF_ABSENT_SQL = "MERGE INTO orders o "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS order_id) s ON o.order_id = s.order_id "
+            + "WHEN NOT MATCHED THEN INSERT (id, order_id, customer_name, total_amount, order_time, status) "
+            + "VALUES (NEXT VALUE FOR orders_seq, s.order_id, ?, ?, ?, ?)";
+
+    static final String INSERT_PAYLOAD_SQL = "MERGE INTO order_payloads p "
+            + "USING (SELECT CAST(? AS VARCHAR(255)) AS order_id) s ON p.order_id = s.order_id "
+            + "WHEN NOT MATCHED THEN INSERT (order_id, compressed_json) VALUES (s.order_id, ?)";
+
+    // MERGE reports no generated keys, so the ids of inserted orders are read back
+    static final String SELECT_IDS_SQL = "SELECT order_id, id FROM orders WHERE order_id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PayloadCodec payloadCodec;
+
+    public OrderRepositoryImpl(JdbcTemplate jdbcTemplate, PayloadCodec payloadCodec) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.payloadCodec = payloadCodec;
+    }
+
+    @Override
+    @Transactional
+    public int insertIfAbsent(Order order) {
+        int inserted = jdbcTemplate.update(INSERT_IF_ABSENT_SQL, ps -> bind(ps, order));
+        if (inserted == 1) {
+            assignIds(List.of(order));
+            if (order.getRawJson() != null) {
+                jdbcTemplate.update(INSERT_PAYLOAD_SQL, ps -> bindPayload(ps, order));
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    @Transactional
+    public int[] insertAllIfAbsent(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return new int[0];
+        }
+        int[] counts = jdbcTemplate.batchUpdate(INSERT_IF_ABSENT_SQL, orders, orders.size(), this::bind)[0];
+        List<Order> inserted = new ArrayList<>();
+        List<Order> payloads = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 1) {
+                inserted.add(orders.get(i));
+                if (orders.get(i).getRawJson() != null) {
+                    payloads.add(orders.get(i));
+                }
+            }
+        }
+        if (!inserted.isEmpty()) {
+            assignIds(inserted);
+        }
+        if (!payloads.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_PAYLOAD_SQL, payloads, payloads.size(), this::bindPayload);
+        }
+        return counts;
+    }
+
+    // Inserted orders have distinct orderIds, each matching the row just inserted
+    private void assignIds(List<Order> inserted) {
+        Map<String, Order> byOrderId = new HashMap<>();
+        for (Order order : inserted) {
+            byOrderId.put(order.getOrderId(), order);
+        }
+        String placeholders = String.join(",", Collections.nCopies(inserted.size(), "?"));
+        jdbcTemplate.query(String.format(SELECT_IDS_SQL, placeholders),
+                (RowCallbackHandler) rs -> byOrderId.get(rs.getString(1)).setId(rs.getLong(2)),
+                byOrderId.keySet().toArray());
+    }
+
+    private void bind(PreparedStatement ps, Order order) throws SQLException {
+        ps.setString(1, order.getOrderId());
+        ps.setString(2, order.getCustomerName());
+        ps.setBigDecimal(3, order.getTotalAmount());
+        if (order.getOrderTime() != null) {
+            ps.setTimestamp(4, Timestamp.valueOf(order.getOrderTime()));
+        } else {
+            ps.setNull(4, Types.TIMESTAMP);
+        }
+        ps.setString(5, order.getStatus());
+    }
+
+    private void bindPayload(PreparedStatement ps, Order order) throws SQLException {
+        ps.setString(1, order.getOrderId());
+        ps.setBytes(2, payloadCodec.compress(order.getRawJson()));
+    }
+}
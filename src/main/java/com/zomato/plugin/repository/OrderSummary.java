@@ -0,0 +1,16 @@
+package com.zomato.plugin.repository;
+
+import com.zomato.plugin.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Order columns shown on list and dashboard paths; never carries the raw payload
+public record OrderSummary(Long id, String orderId, String customerName, BigDecimal totalAmount,
+                           LocalDateTime orderTime, String status) {
+
+    public static OrderSummary from(Order order) {
+        return new OrderSummary(order.getId(), order.getOrderId(), order.getCustomerName(),
+                order.getTotalAmount(), order.getOrderTime(), order.getStatus());
+    }
+}
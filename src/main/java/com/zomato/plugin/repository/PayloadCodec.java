@@ -0,0 +1,113 @@
+package com.zomato.plugin.repository;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate codec for raw order payloads. A preset dictionary of field names
+ * and values common to portal order payloads lets even small orders compress
+ * well. Raw and stored byte totals are published as the
+ * {@code order.payload.compression.ratio} and {@code order.payload.bytes.saved} gauges.
+ */
+@Component
+public class PayloadCodec implements MeterBinder {
+
+    static final String DICTIONARY_RESOURCE = "compression/order-payload.dict";
+
+    private final byte[] dictionary;
+    private final AtomicLong rawBytes = new AtomicLong();
+    private final AtomicLong storedBytes = new AtomicLong();
+
+    public PayloadCodec() {
+        this(loadDictionary(DICTIONARY_RESOURCE));
+    }
+
+    PayloadCodec(byte[] dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.payload.compression.ratio", this, PayloadCodec::getCompressionRatio)
+                .description("Raw size divided by stored size of compressed order payloads")
+                .register(meterRegistry);
+        Gauge.builder("order.payload.bytes.saved", this, PayloadCodec::getBytesSaved)
+                .description("Bytes saved by compressing order payloads")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    // zlib format, so the stream header carries the dictionary's Adler-32 id
+    public byte[] compress(String json) {
+        byte[] input = json.getBytes(StandardCharsets.UTF_8);
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setDictionary(dictionary);
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 4 + 64);
+            byte[] buffer = new byte[4096];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                out.write(buffer, 0, length);
+            }
+            byte[] compressed = out.toByteArray();
+            rawBytes.addAndGet(input.length);
+            storedBytes.addAndGet(compressed.length);
+            return compressed;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public String decompress(byte[] compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsDictionary()) {
+                    inflater.setDictionary(dictionary);
+                } else if (length == 0 && inflater.needsInput()) {
+                    throw new IllegalArgumentException("Truncated compressed payload");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt compressed payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    public double getCompressionRatio() {
+        long stored = storedBytes.get();
+        return stored == 0 ? 0.0 : (double) rawBytes.get() / stored;
+    }
+
+    public long getBytesSaved() {
+        return rawBytes.get() - storedBytes.get();
+    }
+
+    static byte[] loadDictionary(String resource) {
+        try {
+            return new ClassPathResource(resource).getContentAsByteArray();
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot load payload dictionary " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.zomato.plugin.service;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Listener state of one partner account: whether captures from its portal
+ * context are forwarded to the order pipeline. Listeners attached
+ * to the account's page hold on to this object, so accounts never see each
+ * other's captures.
+ */
+class AccountCapture {
+
+    private final AtomicBoolean listening = new AtomicBoolean(false);
+
+    // Latest CDP capture; a replaced one dies with its recycled context
+    private volatile CdpNetworkCapture cdpCapture;
+
+    boolean isListening() {
+        return listening.get();
+    }
+
+    // Both return false if the state did not change
+    boolean startListening() {
+        return listening.compareAndSet(false, true);
+    }
+
+    boolean stopListening() {
+        return listening.compareAndSet(true, false);
+    }
+
+    CdpNetworkCapture getCdpCapture() {
+        return cdpCapture;
+    }
+
+    void setCdpCapture(CdpNetworkCapture cdpCapture) {
+        this.cdpCapture = cdpCapture;
+    }
+}
@@ -0,0 +1,120 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memory limits for the long-lived portal page. Samples the renderer through
+ * the DevTools {@code Performance.getMetrics} call (JS heap and DOM size) and
+ * tells the {@link PortalSession} when a recycle is due. Also keeps the
+ * handover time of the recycles that followed.
+ */
+@Component
+public class BrowserMemoryWatchdog implements MeterBinder {
+
+    private static final long MB = 1024 * 1024;
+
+    public record Sample(long jsHeapUsedBytes, long jsHeapTotalBytes, long domNodes, long documents) {
+    }
+
+    private final long intervalMs;
+    private final long maxJsHeapBytes;
+    private final long maxDomNodes;
+    private final AtomicLong recycles = new AtomicLong();
+    private final AtomicLong lastHandoverMs = new AtomicLong();
+    private final AtomicLong maxHandoverMs = new AtomicLong();
+    private volatile Sample lastSample = new Sample(0, 0, 0, 0);
+
+    public BrowserMemoryWatchdog(@Value("${app.playwright.watchdog.interval-ms:60000}") long intervalMs,
+                                 @Value("${app.playwright.watchdog.max-js-heap-mb:512}") long maxJsHeapMb,
+                                 @Value("${app.playwright.watchdog.max-dom-nodes:200000}") long maxDomNodes) {
+        this.intervalMs = intervalMs;
+        this.maxJsHeapBytes = maxJsHeapMb * MB;
+        this.maxDomNodes = maxDomNodes;
+    }
+
+    public long getIntervalMs() {
+        return intervalMs;
+    }
+
+    // The Performance domain must have been enabled on the session
+    public Sample sample(CDPSession session) {
+        JsonObject result = session.send("Performance.getMetrics");
+        long jsHeapUsed = 0;
+        long jsHeapTotal = 0;
+        long nodes = 0;
+        long documents = 0;
+        for (JsonElement element : result.getAsJsonArray("metrics")) {
+            JsonObject metric = element.getAsJsonObject();
+            long value = metric.get("value").getAsLong();
+            switch (metric.get("name").getAsString()) {
+                case "JSHeapUsedSize" -> jsHeapUsed = value;
+                case "JSHeapTotalSize" -> jsHeapTotal = value;
+                case "Nodes" -> nodes = value;
+                case "Documents" -> documents = value;
+                default -> {
+                    // not tracked
+                }
+            }
+        }
+        lastSample = new Sample(jsHeapUsed, jsHeapTotal, nodes, documents);
+        return lastSample;
+    }
+
+    public boolean isOverThreshold(Sample sample) {
+        return sample.jsHeapUsedBytes() > maxJsHeapBytes || sample.domNodes() > maxDomNodes;
+    }
+
+    public void recordRecycle(long handoverMs) {
+        recycles.incrementAndGet();
+        lastHandoverMs.set(handoverMs);
+        maxHandoverMs.accumulateAndGet(handoverMs, Math::max);
+    }
+
+    public Sample getLastSample() {
+        return lastSample;
+    }
+
+    public long getRecycleCount() {
+        return recycles.get();
+    }
+
+    public long getLastHandoverMs() {
+        return lastHandoverMs.get();
+    }
+
+    public long getMaxHandoverMs() {
+        return maxHandoverMs.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.browser.js.heap.used", this, watchdog -> watchdog.getLastSample().jsHeapUsedBytes())
+                .description("JS heap in use by the portal page at the last watchdog sample")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.browser.dom.nodes", this, watchdog -> watchdog.getLastSample().domNodes())
+                .description("DOM nodes of the portal page at the last watchdog sample")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.browser.recycles", this, BrowserMemoryWatchdog::getRecycleCount)
+                .description("Portal browser contexts recycled by the memory watchdog")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.browser.handover.last", this, BrowserMemoryWatchdog::getLastHandoverMs)
+                .description("Time for the last recycle to bring the fresh page up while the old one kept capturing")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.browser.handover.max", this, BrowserMemoryWatchdog::getMaxHandoverMs)
+                .description("Longest recycle handover so far")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+}
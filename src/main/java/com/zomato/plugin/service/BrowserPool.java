@@ -0,0 +1,445 @@
+package com.zomato.plugin.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * One Chromium process shared by every connected partner account, each in its
+ * own isolated {@link PortalSession} context. Playwright objects are not
+ * thread-safe, so a single browser thread owns all of them: callers queue
+ * commands, and between commands the thread pumps browser events, runs the
+ * memory checks and evicts contexts idle past the timeout. At most
+ * {@code max-contexts} contexts are open; a new account evicts the least
+ * recently used idle one, or is refused if all of them are connected.
+ * Connect latency is tracked by how warm the pool was when it started. If
+ * the browser thread dies, the commands still queued fail, and the next
+ * command starts a new thread.
+ */
+@Service
+public class BrowserPool implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserPool.class);
+
+    // Upper bound on how long a queued command waits while pages are open
+    private static final double PUMP_INTERVAL_MS = 250;
+
+    public enum ConnectStart {
+        // The browser had to be launched first
+        COLD,
+        // The browser was running; a fresh context was opened
+        WARM,
+        // The account's context was already open, pre-warmed or released
+        PRELOADED
+    }
+
+    private final PlaywrightService playwrightService;
+    private final BrowserMemoryWatchdog watchdog;
+    private final HandoverDeduplicator deduplicator;
+    private final boolean headless;
+    private final String partnerUrl;
+    private final int maxContexts;
+    private final long idleTimeoutNanos;
+    private final BlockingQueue<Command> commands = new LinkedBlockingQueue<>();
+    // Access-ordered, so iteration starts at the least recently used account; browser thread only
+    private final LinkedHashMap<String, PortalSession> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    private final AtomicLong launches = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final Map<ConnectStart, AtomicLong> connectCounts = new EnumMap<>(ConnectStart.class);
+    private final Map<ConnectStart, AtomicLong> connectNanos = new EnumMap<>(ConnectStart.class);
+    private final Map<ConnectStart, AtomicLong> lastConnectMs = new EnumMap<>(ConnectStart.class);
+
+    private volatile int activeCount;
+    private volatile int idleCount;
+    private volatile boolean running;
+    private Thread browserThread;
+    private Supplier<Playwright> playwrightFactory = Playwright::create;
+    private Playwright playwright;
+    private Browser browser;
+
+    public BrowserPool(PlaywrightService playwrightService, BrowserMemoryWatchdog watchdog,
+                       HandoverDeduplicator deduplicator,
+                       @Value("${app.playwright.headless:true}") boolean headless,
+                       @Value("${app.zomato.partner-url:https://www.zomato.com/partners}") String partnerUrl,
+                       @Value("${app.playwright.pool.max-contexts:10}") int maxContexts,
+                       @Value("${app.playwright.pool.idle-timeout-ms:600000}") long idleTimeoutMs) {
+        this.playwrightService = playwrightService;
+        this.watchdog = watchdog;
+        this.deduplicator = deduplicator;
+        this.headless = headless;
+        this.partnerUrl = partnerUrl;
+        this.maxContexts = maxContexts;
+        this.idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(idleTimeoutMs);
+        for (ConnectStart start : ConnectStart.values()) {
+            connectCounts.put(start, new AtomicLong());
+            connectNanos.put(start, new AtomicLong());
+            lastConnectMs.put(start, new AtomicLong());
+        }
+    }
+
+    // Opens the account's portal page, reusing its context if still warm.
+    // Completes once the page is loaded, or exceptionally if the pool is full.
+    public CompletableFuture<Void> open(String username, Path sessionFile) {
+        long requested = System.nanoTime();
+        CompletableFuture<Void> opened = new CompletableFuture<>();
+        submit(opened, () -> {
+            try {
+                ConnectStart start = openSession(username, sessionFile);
+                long elapsed = System.nanoTime() - requested;
+                recordConnect(start, elapsed);
+                log.info("Portal of {} ready in {} ms ({} start)", username,
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), start.name().toLowerCase());
+                opened.complete(null);
+            } catch (RuntimeException e) {
+                opened.completeExceptionally(e);
+            }
+        });
+        return opened;
+    }
+
+    // Launches the browser ahead of the first connect and opens the given
+    // accounts' contexts from their stored sessions, idle until they connect.
+    // Stops preloading once the pool is full.
+    public CompletableFuture<Void> prewarm(Map<String, Path> storedSessions) {
+        CompletableFuture<Void> warmed = new CompletableFuture<>();
+        submit(warmed, () -> {
+            try {
+                long start = System.nanoTime();
+                launchBrowserIfNeeded();
+                long launched = System.nanoTime();
+                int preloaded = 0;
+                for (Map.Entry<String, Path> stored : storedSessions.entrySet()) {
+                    if (sessions.size() >= maxContexts) {
+                        break;
+                    }
+                    if (!sessions.containsKey(stored.getKey())
+                            && preload(stored.getKey(), stored.getValue(), launched)) {
+                        preloaded++;
+                    }
+                }
+                log.info("Browser pre-warmed: launch took {} ms, {} stored contexts preloaded in {} ms",
+                        TimeUnit.NANOSECONDS.toMillis(launched - start), preloaded,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - launched));
+                warmed.complete(null);
+            } catch (RuntimeException e) {
+                warmed.completeExceptionally(e);
+            }
+        });
+        return warmed;
+    }
+
+    // The context stays open for a quick reconnect until the idle timeout evicts it
+    public void release(String username) {
+        submit(null, () -> {
+            PortalSession session = sessions.get(username);
+            if (session != null && !session.isIdle()) {
+                session.markIdle(System.nanoTime());
+                updateCounts();
+                log.info("Released portal context of {}", username);
+            }
+        });
+    }
+
+    public int getActiveContextCount() {
+        return activeCount;
+    }
+
+    public int getIdleContextCount() {
+        return idleCount;
+    }
+
+    public long getLaunchCount() {
+        return launches.get();
+    }
+
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getConnectCount(ConnectStart start) {
+        return connectCounts.get(start).get();
+    }
+
+    public double getConnectTotalMs(ConnectStart start) {
+        return connectNanos.get(start).get() / 1_000_000.0;
+    }
+
+    public long getLastConnectMs(ConnectStart start) {
+        return lastConnectMs.get(start).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.browser.contexts", this, BrowserPool::getActiveContextCount)
+                .description("Portal contexts open in the shared browser")
+                .tag("state", "active")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.browser.contexts", this, BrowserPool::getIdleContextCount)
+                .description("Portal contexts open in the shared browser")
+                .tag("state", "idle")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.browser.launches", this, BrowserPool::getLaunchCount)
+                .description("Browser processes launched")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.browser.contexts.evicted", this, BrowserPool::getEvictionCount)
+                .description("Idle portal contexts closed to free the pool")
+                .register(meterRegistry);
+        for (ConnectStart start : ConnectStart.values()) {
+            FunctionTimer.builder("order.capture.connect.latency", this,
+                            pool -> pool.getConnectCount(start), pool -> pool.getConnectTotalMs(start),
+                            TimeUnit.MILLISECONDS)
+                    .description("Time from a connect request until the account's portal page is loaded")
+                    .tag("start", start.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Thread thread;
+        synchronized (this) {
+            running = false;
+            thread = browserThread;
+        }
+        if (thread != null) {
+            thread.join(5000);
+        }
+        log.info("Browser pool stopped");
+    }
+
+    // The browser thread starts with the first command; the future, if any,
+    // is failed should the thread exit before running it
+    private synchronized void submit(CompletableFuture<?> result, Runnable action) {
+        commands.add(new Command(action, result));
+        if (!running) {
+            running = true;
+            browserThread = new Thread(this::runLoop, "playwright-browser");
+            browserThread.setDaemon(true);
+            browserThread.start();
+        }
+    }
+
+    private void runLoop() {
+        Command current = null;
+        try {
+            while (running) {
+                current = sessions.isEmpty()
+                        ? commands.poll((long) PUMP_INTERVAL_MS, TimeUnit.MILLISECONDS)
+                        : commands.poll();
+                try {
+                    if (current != null) {
+                        current.action().run();
+                    } else if (!sessions.isEmpty()) {
+                        pumpAndMaintain();
+                    }
+                } catch (RuntimeException e) {
+                    log.error("Browser thread task failed", e);
+                }
+                current = null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exitLoop(current);
+        }
+    }
+
+    // Fails the command that was running, if the thread died in it, and the
+    // queued ones, unless a new browser thread has already taken over
+    private void exitLoop(Command current) {
+        List<Command> abandoned = new ArrayList<>();
+        if (current != null) {
+            abandoned.add(current);
+        }
+        try {
+            closeBrowser();
+        } finally {
+            synchronized (this) {
+                if (browserThread == Thread.currentThread()) {
+                    running = false;
+                    browserThread = null;
+                    commands.drainTo(abandoned);
+                }
+            }
+            for (Command command : abandoned) {
+                if (command.result() != null) {
+                    command.result().completeExceptionally(new IllegalStateException("Browser pool stopped"));
+                }
+            }
+        }
+    }
+
+    private ConnectStart openSession(String username, Path sessionFile) {
+        PortalSession existing = sessions.get(username);
+        if (existing != null) {
+            existing.markActive();
+            updateCounts();
+            return ConnectStart.PRELOADED;
+        }
+        if (sessions.size() >= maxContexts && !evictLeastRecentlyUsedIdle()) {
+            throw new IllegalStateException("Browser context pool is full (" + maxContexts + " accounts connected)");
+        }
+        ConnectStart start = browser == null ? ConnectStart.COLD : ConnectStart.WARM;
+        launchBrowserIfNeeded();
+        PortalSession session = new PortalSession(browser, username, playwrightService, watchdog, deduplicator,
+                sessionFile, partnerUrl);
+        session.open();
+        sessions.put(username, session);
+        updateCounts();
+        log.info("Opened portal context of {} ({} of {} in use)", username, sessions.size(), maxContexts);
+        return start;
+    }
+
+    // A stored session that fails to load is skipped; the account connects warm instead
+    private boolean preload(String username, Path sessionFile, long nowNanos) {
+        PortalSession session = new PortalSession(browser, username, playwrightService, watchdog, deduplicator,
+                sessionFile, partnerUrl);
+        try {
+            session.open();
+        } catch (PlaywrightException e) {
+            log.warn("Failed to preload the stored context of {}", username, e);
+            return false;
+        }
+        session.markIdle(nowNanos);
+        sessions.put(username, session);
+        updateCounts();
+        return true;
+    }
+
+    private void recordConnect(ConnectStart start, long elapsedNanos) {
+        connectCounts.get(start).incrementAndGet();
+        connectNanos.get(start).addAndGet(elapsedNanos);
+        lastConnectMs.get(start).set(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+    }
+
+    private void pumpAndMaintain() {
+        PortalSession pumped = sessions.values().iterator().next();
+        try {
+            pumped.pump(PUMP_INTERVAL_MS);
+        } catch (RuntimeException e) {
+            log.error("Portal page of {} failed, closing its context", pumped.getUsername(), e);
+            sessions.remove(pumped.getUsername());
+            closeQuietly(pumped);
+            updateCounts();
+            return;
+        }
+        long now = System.nanoTime();
+        for (Iterator<PortalSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            PortalSession session = it.next();
+            if (session.isIdle() && now - session.getIdleSinceNanos() >= idleTimeoutNanos) {
+                it.remove();
+                evict(session);
+                continue;
+            }
+            try {
+                session.checkMemoryIfDue(now);
+            } catch (RuntimeException e) {
+                log.error("Memory check of {} failed, closing its context", session.getUsername(), e);
+                it.remove();
+                closeQuietly(session);
+            }
+        }
+        updateCounts();
+    }
+
+    private boolean evictLeastRecentlyUsedIdle() {
+        for (Iterator<PortalSession> it = sessions.values().iterator(); it.hasNext(); ) {
+            PortalSession session = it.next();
+            if (session.isIdle()) {
+                it.remove();
+                evict(session);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void evict(PortalSession session) {
+        closeQuietly(session);
+        evictions.incrementAndGet();
+        log.info("Evicted idle portal context of {}", session.getUsername());
+    }
+
+    private void launchBrowserIfNeeded() {
+        if (browser != null) {
+            return;
+        }
+        Playwright created = playwrightFactory.get();
+        try {
+            browser = created.chromium().launch(new BrowserType.LaunchOptions().setHeadless(headless));
+        } catch (PlaywrightException e) {
+            created.close();
+            throw e;
+        }
+        playwright = created;
+        launches.incrementAndGet();
+        log.info("Launched shared browser");
+    }
+
+    private void closeBrowser() {
+        sessions.values().forEach(this::closeQuietly);
+        sessions.clear();
+        updateCounts();
+        if (browser != null) {
+            try {
+                browser.close();
+                playwright.close();
+            } catch (PlaywrightException e) {
+                log.warn("Failed to close the shared browser", e);
+            }
+            browser = null;
+            playwright = null;
+        }
+    }
+
+    private void closeQuietly(PortalSession session) {
+        try {
+            session.close();
+        } catch (PlaywrightException e) {
+            log.warn("Failed to close portal context of {}", session.getUsername(), e);
+        }
+    }
+
+    private void updateCounts() {
+        int idle = 0;
+        for (PortalSession session : sessions.values()) {
+            if (session.isIdle()) {
+                idle++;
+            }
+        }
+        idleCount = idle;
+        activeCount = sessions.size() - idle;
+    }
+
+    private record Command(Runnable action, CompletableFuture<?> result) {
+    }
+}
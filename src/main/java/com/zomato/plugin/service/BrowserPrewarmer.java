@@ -0,0 +1,49 @@
+package com.zomato.plugin.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Optional warm-up once the application is ready: launches the shared browser
+ * in the background and preloads the context of every account with a stored
+ * session, most recently saved first, so the first Connect only pays for the
+ * portal navigation instead of the Playwright driver and Chromium start.
+ * Accounts are found from the session files on disk, since the connection
+ * table does not outlive the process.
+ */
+@Component
+public class BrowserPrewarmer {
+
+    private static final Logger log = LoggerFactory.getLogger(BrowserPrewarmer.class);
+
+    private final BrowserPool browserPool;
+    private final PlaywrightService playwrightService;
+    private final boolean enabled;
+
+    public BrowserPrewarmer(BrowserPool browserPool, PlaywrightService playwrightService,
+                            @Value("${app.playwright.prewarm.enabled:false}") boolean enabled) {
+        this.browserPool = browserPool;
+        this.playwrightService = playwrightService;
+        this.enabled = enabled;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void prewarm() {
+        if (!enabled) {
+            return;
+        }
+        Map<String, Path> storedSessions = playwrightService.findStoredSessions();
+        log.info("Pre-warming the browser with {} stored sessions", storedSessions.size());
+        browserPool.prewarm(storedSessions).exceptionally(e -> {
+            log.warn("Browser pre-warm failed, the first connect will start it", e);
+            return null;
+        });
+    }
+}
@@ -0,0 +1,49 @@
+package com.zomato.plugin.service;
+
+/**
+ * Payloads the portal pages hand over on one channel, XHR responses or
+ * WebSocket messages, across all accounts. Listener threads push into it;
+ * while it is not started, payloads are dropped.
+ */
+public class CaptureChannelSource implements OrderSource {
+
+    private final String name;
+    private volatile OrderSink sink;
+
+    public CaptureChannelSource(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void start(OrderSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void stop() {
+        this.sink = null;
+    }
+
+    public boolean submit(String json) {
+        return submit(json, System.nanoTime());
+    }
+
+    public boolean submit(String json, long capturedNanos) {
+        OrderSink current = sink;
+        return current != null && current.submit(json, capturedNanos);
+    }
+
+    public boolean submit(byte[] utf8Json) {
+        return submit(utf8Json, System.nanoTime());
+    }
+
+    public boolean submit(byte[] utf8Json, long capturedNanos) {
+        OrderSink current = sink;
+        return current != null && current.submit(utf8Json, capturedNanos);
+    }
+}
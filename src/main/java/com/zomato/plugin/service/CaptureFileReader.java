@@ -0,0 +1,39 @@
+package com.zomato.plugin.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the records of a capture file written by {@link CaptureRecorder} in
+ * append order. A record cut short at the end of the file, as left by a
+ * crash, ends the file like a clean end does.
+ */
+public class CaptureFileReader implements Closeable {
+
+    private final DataInputStream in;
+
+    public CaptureFileReader(Path file) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(
+                new GZIPInputStream(Files.newInputStream(file), 64 * 1024)));
+    }
+
+    // Null at the end of the file
+    public CaptureRecord read() throws IOException {
+        try {
+            return CaptureRecord.readFrom(in);
+        } catch (EOFException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
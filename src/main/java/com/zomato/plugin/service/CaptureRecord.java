@@ -0,0 +1,44 @@
+package com.zomato.plugin.service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One intercepted order payload as stored in a capture file: when it was
+ * intercepted (microseconds since the epoch), the channel it came over, the
+ * response or socket URL and the payload itself. WebSocket payloads are kept
+ * as decoded, without their Socket.IO framing.
+ */
+public record CaptureRecord(long timestampMicros, Source source, String url, String body) {
+
+    public enum Source {XHR, WS}
+
+    private static final int VERSION = 1;
+
+    // version, timestamp, source, URL, body length, UTF-8 body
+    void writeTo(DataOutputStream out) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        out.writeByte(VERSION);
+        out.writeLong(timestampMicros);
+        out.writeByte(source.ordinal());
+        out.writeUTF(url == null ? "" : url);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static CaptureRecord readFrom(DataInputStream in) throws IOException {
+        int version = in.readUnsignedByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported capture record version " + version);
+        }
+        long timestampMicros = in.readLong();
+        Source source = Source.values()[in.readUnsignedByte()];
+        String url = in.readUTF();
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new CaptureRecord(timestampMicros, source, url.isEmpty() ? null : url,
+                new String(bytes, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,213 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Records every intercepted order payload, before it is parsed, into a
+ * gzip-compressed capture file of {@link CaptureRecord}s. Each recording gets
+ * its own file in the recordings directory and is only ever appended to.
+ * The capture thread only queues records; a writer thread per recording
+ * compresses them and flushes at most once per flush interval. A full queue
+ * drops the record rather than stall the capture. A crash loses at most the
+ * queue and one flush interval and leaves a file that still reads to its last
+ * complete record.
+ */
+@Service
+public class CaptureRecorder implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureRecorder.class);
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final long POLL_MS = 100;
+
+    private final Path directory;
+    private final boolean enabled;
+    private final long flushIntervalNanos;
+    private final int queueSize;
+    private final AtomicLong records = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    // The current recording, or the last one once stopped; replaced under this
+    private volatile Writer writer;
+
+    public CaptureRecorder(@Value("${app.capture.recording.directory:captures}") String directory,
+                           @Value("${app.capture.recording.enabled:false}") boolean enabled,
+                           @Value("${app.capture.recording.flush-interval-ms:1000}") long flushIntervalMs,
+                           @Value("${app.capture.recording.queue-size:10000}") int queueSize) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.enabled = enabled;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.queueSize = queueSize;
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        if (enabled) {
+            startRecording();
+        }
+    }
+
+    public boolean isRecording() {
+        Writer current = writer;
+        return current != null && current.running;
+    }
+
+    public Path getFile() {
+        Writer current = writer;
+        return current == null ? null : current.file;
+    }
+
+    // Records written to a capture file, not just queued
+    public long getRecordCount() {
+        return records.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    // Starts a new capture file; a running recording is kept
+    public synchronized Path startRecording() throws IOException {
+        if (isRecording()) {
+            return writer.file;
+        }
+        Files.createDirectories(directory);
+        String name = "capture-" + LocalDateTime.now().format(FILE_TIME);
+        Path next = directory.resolve(name + ".gz");
+        for (int i = 2; Files.exists(next); i++) {
+            next = directory.resolve(name + "-" + i + ".gz");
+        }
+        DataOutputStream out = new DataOutputStream(new GZIPOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(next), 64 * 1024), 64 * 1024, true));
+        writer = new Writer(next, out);
+        log.info("Recording captured payloads to {}", next);
+        return next;
+    }
+
+    // Waits for the writer to write out what was queued before the stop
+    @PreDestroy
+    public synchronized Path stopRecording() {
+        Writer current = writer;
+        if (current == null) {
+            return null;
+        }
+        if (current.running) {
+            current.running = false;
+            log.info("Stopped recording to {}", current.file);
+        }
+        try {
+            current.thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return current.file;
+    }
+
+    // Called on the capture thread; never blocks, and a write failure ends the recording, never the capture
+    public void record(CaptureRecord.Source source, String url, String body) {
+        Writer current = writer;
+        if (current == null || !current.running || body == null) {
+            return;
+        }
+        Instant now = Instant.now();
+        CaptureRecord record = new CaptureRecord(now.getEpochSecond() * 1_000_000 + now.getNano() / 1_000,
+                source, url, body);
+        if (!current.queue.offer(record)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // A capture file by name; only files directly inside the recordings directory resolve
+    public Path resolve(String name) {
+        Path resolved = directory.resolve(name).normalize();
+        if (!directory.equals(resolved.getParent()) || !Files.isRegularFile(resolved)) {
+            throw new IllegalArgumentException("No capture file named " + name);
+        }
+        return resolved;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("order.capture.recorded", this, CaptureRecorder::getRecordCount)
+                .description("Payloads written to capture files")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.recording.dropped", this, CaptureRecorder::getDroppedCount)
+                .description("Payloads not recorded because the capture file writer fell behind")
+                .register(meterRegistry);
+    }
+
+    // One recording: its file, queue and writer thread, which alone touches the stream
+    private final class Writer {
+
+        private final Path file;
+        private final DataOutputStream out;
+        private final BlockingQueue<CaptureRecord> queue = new ArrayBlockingQueue<>(queueSize);
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        private Writer(Path file, DataOutputStream out) {
+            this.file = file;
+            this.out = out;
+            thread = new Thread(this::writeLoop, "capture-recorder");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private void writeLoop() {
+            long lastFlushNanos = System.nanoTime();
+            boolean unflushed = false;
+            try {
+                while (true) {
+                    CaptureRecord record = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                    if (record != null) {
+                        record.writeTo(out);
+                        records.incrementAndGet();
+                        unflushed = true;
+                    } else if (!running) {
+                        break;
+                    }
+                    long nanos = System.nanoTime();
+                    if (unflushed && nanos - lastFlushNanos >= flushIntervalNanos) {
+                        out.flush();
+                        lastFlushNanos = nanos;
+                        unflushed = false;
+                    }
+                }
+            } catch (IOException e) {
+                log.error("Failed to write capture file {}, recording stopped", file, e);
+                running = false;
+                queue.clear();
+            } catch (InterruptedException e) {
+                running = false;
+                Thread.currentThread().interrupt();
+            }
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("Failed to close capture file {}", file, e);
+            }
+        }
+    }
+}
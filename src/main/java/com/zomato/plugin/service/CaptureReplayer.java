@@ -0,0 +1,123 @@
+package com.zomato.plugin.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replays capture files through the {@link OrderPipeline}, each as a
+ * {@link ReplayOrderSource}, so the payloads take the same path as when the
+ * portal pages intercepted them. Replays run one at a time on their own
+ * thread; a run finishes once the pipeline processed every record.
+ */
+@Service
+public class CaptureReplayer {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureReplayer.class);
+
+    private static final long PROCESSING_TIMEOUT_MS = 60_000;
+
+    private final OrderPipeline orderPipeline;
+    private final CaptureRecorder captureRecorder;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "capture-replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ReplayRun lastRun;
+
+    public CaptureReplayer(OrderPipeline orderPipeline, CaptureRecorder captureRecorder) {
+        this.orderPipeline = orderPipeline;
+        this.captureRecorder = captureRecorder;
+    }
+
+    // Starts replaying a file of the recordings directory. Throws
+    // IllegalArgumentException for an unknown file or a negative speed and
+    // IllegalStateException while another replay runs.
+    public synchronized ReplayRun start(String fileName, String source, double speed) {
+        if (speed < 0) {
+            throw new IllegalArgumentException("Replay speed must not be negative");
+        }
+        Path file = captureRecorder.resolve(fileName);
+        if (lastRun != null && lastRun.getState() == ReplayRun.State.RUNNING) {
+            throw new IllegalStateException("A replay of " + lastRun.getFile() + " is already running");
+        }
+        ReplayRun run = new ReplayRun(file.getFileName().toString(), source, speed);
+        lastRun = run;
+        executor.execute(() -> replay(run, file));
+        return run;
+    }
+
+    public Optional<ReplayRun> getLastRun() {
+        return Optional.ofNullable(lastRun);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void replay(ReplayRun run, Path file) {
+        ReplayOrderSource source = new ReplayOrderSource(run.getSource(), file, run.getSpeed());
+        OrderSourceStats stats;
+        try {
+            stats = orderPipeline.start(source);
+        } catch (IllegalStateException e) {
+            run.fail(e.getMessage());
+            return;
+        }
+        ReplayProgress progress = new ReplayProgress(run, stats);
+        log.info("Replaying {} as order source {} at speed {}", run.getFile(), run.getSource(), run.getSpeed());
+        try {
+            source.replay(progress::report);
+            if (!stats.awaitProcessed(PROCESSING_TIMEOUT_MS)) {
+                log.warn("Replay of {} finished before the pipeline caught up", run.getFile());
+            }
+            progress.report(source.getRecords());
+            run.finish();
+            log.info("Replayed {} records of {} in {} ms: {} orders, {} duplicates", run.getRecords(), run.getFile(),
+                    run.getElapsedMs(), run.getOrders(), run.getDuplicates());
+        } catch (IOException | RuntimeException e) {
+            progress.report(source.getRecords());
+            run.fail(e.getMessage());
+            log.error("Replay of {} failed after {} records", run.getFile(), run.getRecords(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.report(source.getRecords());
+            run.fail("Replay was interrupted");
+        } finally {
+            orderPipeline.stop(source);
+        }
+    }
+
+    // Order counts are the source's pipeline counts since the replay started
+    private static class ReplayProgress {
+
+        private final ReplayRun run;
+        private final OrderSourceStats stats;
+        private final long baseOrders;
+        private final long baseDuplicates;
+        private final long startNanos = System.nanoTime();
+
+        ReplayProgress(ReplayRun run, OrderSourceStats stats) {
+            this.run = run;
+            this.stats = stats;
+            this.baseOrders = stats.getOrders();
+            this.baseDuplicates = stats.getDuplicates();
+        }
+
+        void report(long records) {
+            run.progress(records, stats.getOrders() - baseOrders, stats.getDuplicates() - baseDuplicates,
+                    Duration.ofNanos(System.nanoTime() - startNanos));
+        }
+    }
+}
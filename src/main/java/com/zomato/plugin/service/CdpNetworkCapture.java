@@ -0,0 +1,156 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.PlaywrightException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * Capture through the Chromium DevTools Network domain instead of Playwright's
+ * Page.onResponse/onWebSocket wrappers. Responses are filtered on the
+ * responseReceived metadata and only the accepted request ids are kept; their
+ * bodies are fetched with Network.getResponseBody once loading finishes and
+ * passed on with the response URL. WebSocket frames go to a
+ * {@link WebSocketFrameDecoder.Channel} per socket, opened for the socket URL.
+ * No Response, Request or WebSocketFrame objects are created.
+ * All events arrive on the Playwright thread.
+ */
+public class CdpNetworkCapture {
+
+    private static final Logger log = LoggerFactory.getLogger(CdpNetworkCapture.class);
+
+    private static final int TEXT_OPCODE = 1;
+    private static final int BINARY_OPCODE = 2;
+
+    private final CDPSession session;
+    private final ResponseFilter responseFilter;
+    private final BooleanSupplier active;
+    // Called with the response URL and body
+    private final BiConsumer<String, String> payloadSink;
+    private final Function<String, WebSocketFrameDecoder.Channel> channelFactory;
+    // Accepted request id to response URL
+    private final Map<String, String> acceptedRequests = new HashMap<>();
+    private final Map<String, String> socketUrls = new HashMap<>();
+    private final Map<String, WebSocketFrameDecoder.Channel> channels = new HashMap<>();
+
+    public CdpNetworkCapture(CDPSession session, ResponseFilter responseFilter, BooleanSupplier active,
+                             BiConsumer<String, String> payloadSink,
+                             Function<String, WebSocketFrameDecoder.Channel> channelFactory) {
+        this.session = session;
+        this.responseFilter = responseFilter;
+        this.active = active;
+        this.payloadSink = payloadSink;
+        this.channelFactory = channelFactory;
+    }
+
+    public void start() {
+        session.on("Network.responseReceived", this::onResponseReceived);
+        session.on("Network.loadingFinished", this::onLoadingFinished);
+        session.on("Network.loadingFailed", this::onLoadingFailed);
+        session.on("Network.webSocketCreated", this::onWebSocketCreated);
+        session.on("Network.webSocketFrameReceived", this::onWebSocketFrameReceived);
+        session.on("Network.webSocketClosed", this::onWebSocketClosed);
+        session.send("Network.enable");
+    }
+
+    public void stop() {
+        acceptedRequests.clear();
+        socketUrls.clear();
+        channels.clear();
+        try {
+            session.detach();
+        } catch (PlaywrightException e) {
+            // Already gone with its page or browser
+            log.debug("CDP session was already detached", e);
+        }
+    }
+
+    int getPendingRequestCount() {
+        return acceptedRequests.size();
+    }
+
+    int getOpenChannelCount() {
+        return channels.size();
+    }
+
+    // CDP resource types are capitalised ("XHR", "Fetch"); Playwright's are lower case
+    void onResponseReceived(JsonObject event) {
+        if (!active.getAsBoolean()) {
+            return;
+        }
+        JsonObject response = event.getAsJsonObject("response");
+        String resourceType = event.get("type").getAsString().toLowerCase(Locale.ROOT);
+        String url = response.get("url").getAsString();
+        if (responseFilter.accept(resourceType, url, text(response, "mimeType"))) {
+            acceptedRequests.put(event.get("requestId").getAsString(), url);
+        }
+    }
+
+    void onLoadingFinished(JsonObject event) {
+        String requestId = event.get("requestId").getAsString();
+        String url = acceptedRequests.remove(requestId);
+        if (url == null) {
+            return;
+        }
+        JsonObject params = new JsonObject();
+        params.addProperty("requestId", requestId);
+        try {
+            JsonObject result = session.send("Network.getResponseBody", params);
+            String body = result.get("body").getAsString();
+            if (result.get("base64Encoded").getAsBoolean()) {
+                body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+            }
+            payloadSink.accept(url, body);
+        } catch (PlaywrightException e) {
+            // Evicted from the browser's buffer or the target navigated away
+            log.warn("Response body for request {} is no longer available", requestId, e);
+        }
+    }
+
+    void onLoadingFailed(JsonObject event) {
+        acceptedRequests.remove(event.get("requestId").getAsString());
+    }
+
+    void onWebSocketCreated(JsonObject event) {
+        socketUrls.put(event.get("requestId").getAsString(), event.get("url").getAsString());
+    }
+
+    // Binary payloadData is base64; CDP reports data frames only
+    void onWebSocketFrameReceived(JsonObject event) {
+        if (!active.getAsBoolean()) {
+            return;
+        }
+        WebSocketFrameDecoder.Channel channel =
+                channels.computeIfAbsent(event.get("requestId").getAsString(),
+                        id -> channelFactory.apply(socketUrls.get(id)));
+        JsonObject frame = event.getAsJsonObject("response");
+        int opcode = frame.get("opcode").getAsInt();
+        if (opcode == TEXT_OPCODE) {
+            channel.onText(frame.get("payloadData").getAsString());
+        } else if (opcode == BINARY_OPCODE) {
+            channel.onBinary(Base64.getDecoder().decode(frame.get("payloadData").getAsString()));
+        }
+    }
+
+    void onWebSocketClosed(JsonObject event) {
+        String requestId = event.get("requestId").getAsString();
+        socketUrls.remove(requestId);
+        channels.remove(requestId);
+    }
+
+    private static String text(JsonObject object, String member) {
+        JsonElement value = object.get(member);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+}
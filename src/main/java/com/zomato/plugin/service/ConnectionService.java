@@ -2,20 +2,39 @@ package com.zomato.plugin.service;
 
 import com.zomato.plugin.entity.ConnectionConfig;
 import com.zomato.plugin.repository.ConnectionConfigRepository;
+import jakarta.annotation.PostConstruct;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ConnectionService {
 
     private final ConnectionConfigRepository repository;
+    // Kept by connect/disconnect themselves, so status reads skip the connected-row lookup
+    // and a disconnect never races a concurrent connect's commit through a re-read
+    private final Set<String> connectedAccounts = ConcurrentHashMap.newKeySet();
 
     public ConnectionService(ConnectionConfigRepository repository) {
         this.repository = repository;
     }
 
+    // Seeds the connected accounts; needed only if connections are written around this service
+    @PostConstruct
+    public void reloadConnectionState() {
+        Set<String> stored = new HashSet<>();
+        for (ConnectionConfig config : repository.findByConnectedTrue()) {
+            stored.add(config.getUsername());
+        }
+        connectedAccounts.retainAll(stored);
+        connectedAccounts.addAll(stored);
+    }
+
     public ConnectionConfig connect(String username, String sessionPath) {
         ConnectionConfig config = repository.findByUsername(username)
                 .orElse(new ConnectionConfig());
@@ -23,14 +42,18 @@ public class ConnectionService {
         config.setSessionPath(sessionPath);
         config.setConnected(true);
         config.setConnectedAt(LocalDateTime.now());
-        return repository.save(config);
+        ConnectionConfig saved = repository.save(config);
+        connectedAccounts.add(username);
+        return saved;
     }
 
     public ConnectionConfig disconnect(String username) {
         ConnectionConfig config = repository.findByUsername(username)
                 .orElseThrow(() -> new IllegalArgumentException("No connection found for: " + username));
         config.setConnected(false);
-        return repository.save(config);
+        ConnectionConfig saved = repository.save(config);
+        connectedAccounts.remove(username);
+        return saved;
     }
 
     public Optional<ConnectionConfig> getActiveConnection() {
@@ -41,7 +64,17 @@ public class ConnectionService {
         return repository.findByUsername(username);
     }
 
+    // Most recently connected first
+    public List<ConnectionConfig> getAllConnections() {
+        return repository.findAllByOrderByConnectedAtDesc();
+    }
+
+    // True while any account is connected
     public boolean isConnected() {
-        return repository.findFirstByConnectedTrue().isPresent();
+        return !connectedAccounts.isEmpty();
+    }
+
+    public int getConnectedCount() {
+        return connectedAccounts.size();
     }
 }
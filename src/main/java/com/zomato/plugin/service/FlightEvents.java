@@ -0,0 +1,103 @@
+package com.zomato.plugin.service;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder events of the order path, recorded with the settings
+ * of {@code jfr/order-capture.jfc} next to GC, safepoint and lock events so
+ * ingestion stalls can be lined up with pauses. Fields are only filled in
+ * when the event will be committed; a disabled event costs little more than
+ * its allocation.
+ */
+final class FlightEvents {
+
+    private static final String CATEGORY = "Zomato Plugin";
+
+    private FlightEvents() {
+    }
+
+    @Name("com.zomato.plugin.OrderCaptured")
+    @Label("Order Captured")
+    @Category({CATEGORY, "Order Capture"})
+    @Description("Intercepted payload handed to the order pipeline on the listener thread")
+    @StackTrace(false)
+    static class OrderCaptured extends Event {
+
+        @Label("Channel")
+        String channel;
+
+        @Label("URL")
+        String url;
+
+        @Label("Payload Length")
+        @Description("Characters, or bytes of an undecoded WebSocket frame")
+        int payloadLength;
+
+        @Label("Accepted")
+        boolean accepted;
+    }
+
+    @Name("com.zomato.plugin.OrderParsed")
+    @Label("Order Parsed")
+    @Category({CATEGORY, "Order Capture"})
+    @Description("One payload parsed on the ingestion executor")
+    @StackTrace(false)
+    static class OrderParsed extends Event {
+
+        @Label("Source")
+        String source;
+
+        @Label("Payload Length")
+        int payloadLength;
+
+        @Label("Orders")
+        int orders;
+
+        @Label("Field Count")
+        @Description("Order fields found across the payload's orders")
+        int fieldCount;
+
+        @Label("Failed")
+        boolean failed;
+    }
+
+    @Name("com.zomato.plugin.OrderPersisted")
+    @Label("Order Persisted")
+    @Category({CATEGORY, "Order Persistence"})
+    @Description("One saveOrder or saveOrders call")
+    @StackTrace(false)
+    static class OrderPersisted extends Event {
+
+        @Label("Order Id")
+        @Description("Set for single saves only")
+        String orderId;
+
+        @Label("Outcome")
+        @Description("new, duplicate, mixed for a batch with both, or failed if the database rejected any")
+        String outcome;
+
+        @Label("Orders")
+        int orders;
+
+        @Label("Inserted")
+        int inserted;
+    }
+
+    @Name("com.zomato.plugin.ListenerStateChanged")
+    @Label("Listener State Changed")
+    @Category({CATEGORY, "Order Capture"})
+    @StackTrace(false)
+    static class ListenerStateChanged extends Event {
+
+        @Label("Account")
+        String account;
+
+        @Label("Listening")
+        boolean listening;
+    }
+}
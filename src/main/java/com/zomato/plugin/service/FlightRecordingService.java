@@ -0,0 +1,145 @@
+package com.zomato.plugin.service;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * On-demand JDK Flight Recorder recording with the bundled order capture
+ * settings, for profiling a running instance. The recording is bounded: it
+ * keeps at most max-age and max-size of data and stops by itself after
+ * max-duration. Dumps go to new files in the recordings directory; a
+ * stopped recording can still be dumped until the next one starts.
+ */
+@Service
+public class FlightRecordingService {
+
+    private static final Logger log = LoggerFactory.getLogger(FlightRecordingService.class);
+
+    static final String SETTINGS = "jfr/order-capture.jfc";
+
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path directory;
+    private final Duration maxAge;
+    private final long maxSizeBytes;
+    private final Duration maxDuration;
+
+    // Guarded by this
+    private Recording recording;
+    private Path lastDump;
+
+    public FlightRecordingService(@Value("${app.profiling.directory:recordings}") String directory,
+                                  @Value("${app.profiling.max-age-ms:900000}") long maxAgeMs,
+                                  @Value("${app.profiling.max-size-mb:200}") long maxSizeMb,
+                                  @Value("${app.profiling.max-duration-ms:3600000}") long maxDurationMs) {
+        this.directory = Path.of(directory).toAbsolutePath().normalize();
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+        this.maxSizeBytes = maxSizeMb * 1024 * 1024;
+        this.maxDuration = Duration.ofMillis(maxDurationMs);
+    }
+
+    public synchronized boolean isRecording() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+
+    // Start of the current or last recording
+    public synchronized Instant getStartTime() {
+        return recording == null ? null : recording.getStartTime();
+    }
+
+    public synchronized Path getLastDump() {
+        return lastDump;
+    }
+
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    public long getMaxSizeBytes() {
+        return maxSizeBytes;
+    }
+
+    // A running recording is kept; a stopped one is discarded
+    public synchronized void start() throws IOException {
+        if (isRecording()) {
+            return;
+        }
+        if (recording != null) {
+            recording.close();
+        }
+        Recording next = new Recording(loadSettings(SETTINGS));
+        next.setName("order-capture");
+        next.setToDisk(true);
+        next.setMaxAge(maxAge);
+        next.setMaxSize(maxSizeBytes);
+        next.setDuration(maxDuration);
+        next.start();
+        recording = next;
+        log.info("Started flight recording, keeping {} up to {} MB", maxAge, maxSizeBytes / (1024 * 1024));
+    }
+
+    // Throws IllegalStateException if no recording was started
+    public synchronized Path dump() throws IOException {
+        if (recording == null) {
+            throw new IllegalStateException("No flight recording was started");
+        }
+        Files.createDirectories(directory);
+        String name = "orders-" + LocalDateTime.now().format(FILE_TIME);
+        Path next = directory.resolve(name + ".jfr");
+        for (int i = 2; Files.exists(next); i++) {
+            next = directory.resolve(name + "-" + i + ".jfr");
+        }
+        recording.dump(next);
+        lastDump = next;
+        log.info("Dumped flight recording to {}", next);
+        return next;
+    }
+
+    public synchronized void stop() {
+        if (isRecording()) {
+            recording.stop();
+            log.info("Stopped flight recording");
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    // A .jfc file on the classpath
+    static Configuration loadSettings(String resource) throws IOException {
+        try (InputStream in = FlightRecordingService.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IOException("Missing flight recording settings " + resource);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                return Configuration.create(reader);
+            }
+        } catch (ParseException e) {
+            throw new IOException("Invalid flight recording settings " + resource, e);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Remembers the most recently captured order ids. While a context recycle is
+ * under way, and for a grace period after it, both portal pages capture and
+ * the fresh page reloads the current order list; captures of orders already
+ * seen are dropped then. Outside a handover every capture passes.
+ */
+@Component
+public class HandoverDeduplicator implements MeterBinder {
+
+    private final Map<String, Boolean> recent;
+    private final long graceNanos;
+    private final AtomicLong dropped = new AtomicLong();
+    private boolean handover;
+    private long graceEndsAt = System.nanoTime();
+
+    public HandoverDeduplicator(@Value("${app.playwright.watchdog.dedup-capacity:10000}") int capacity,
+                                @Value("${app.playwright.watchdog.handover-grace-ms:5000}") long graceMs) {
+        this.recent = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.graceNanos = TimeUnit.MILLISECONDS.toNanos(graceMs);
+    }
+
+    public synchronized void beginHandover() {
+        handover = true;
+    }
+
+    // Captures still being parsed are covered by the grace period
+    public synchronized void endHandover() {
+        handover = false;
+        graceEndsAt = System.nanoTime() + graceNanos;
+    }
+
+    public synchronized boolean isInHandover() {
+        return handover || graceEndsAt - System.nanoTime() > 0;
+    }
+
+    public synchronized boolean accept(Order order) {
+        if (order.getOrderId() == null) {
+            return true;
+        }
+        boolean seen = recent.put(order.getOrderId(), Boolean.TRUE) != null;
+        if (seen && isInHandover()) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    public List<Order> filter(List<Order> orders) {
+        List<Order> accepted = new ArrayList<>(orders.size());
+        for (Order order : orders) {
+            if (accept(order)) {
+                accepted.add(order);
+            }
+        }
+        return accepted;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("order.capture.handover.duplicates", dropped, AtomicLong::get)
+                .description("Captures dropped as repeats while the portal context was being recycled")
+                .register(meterRegistry);
+    }
+}
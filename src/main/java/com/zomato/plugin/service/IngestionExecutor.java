@@ -0,0 +1,186 @@
+package com.zomato.plugin.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs captured-payload work off the Playwright thread. Uses a virtual
+ * thread per task when the runtime has them (Java 21+), otherwise a fixed
+ * pool of platform threads. Submission never blocks and never runs the
+ * task on the submitting thread: once max-in-flight tasks are pending,
+ * further tasks wait in a bounded overflow queue that workers drain as they
+ * finish. Only when that is full too, or the executor is shut down, is a
+ * task rejected.
+ */
+@Service
+public class IngestionExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(IngestionExecutor.class);
+
+    private final ExecutorService executor;
+    private final boolean virtualThreads;
+    private final Semaphore inFlight;
+    private final int maxInFlight;
+    private final Queue<Runnable> overflow = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger overflowSize = new AtomicInteger();
+    private final int maxOverflow;
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public IngestionExecutor(@Value("${app.ingestion.virtual-threads:true}") boolean preferVirtualThreads,
+                             @Value("${app.ingestion.threads:4}") int threads,
+                             @Value("${app.ingestion.max-in-flight:1000}") int maxInFlight,
+                             @Value("${app.ingestion.overflow-size:10000}") int maxOverflow) {
+        ExecutorService virtual = preferVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.virtualThreads = virtual != null;
+        this.executor = virtual != null ? virtual : newPlatformExecutor(threads);
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.maxOverflow = maxOverflow;
+        log.info("Order ingestion running on {}", virtualThreads ? "virtual threads" : threads + " platform threads");
+    }
+
+    // Never blocks; parks the task in the overflow queue when the backlog is
+    // full and returns false only when that is full too or shutdown began
+    public boolean submit(Runnable task) {
+        if (!inFlight.tryAcquire()) {
+            if (executor.isShutdown() || !offerOverflow(task)) {
+                if (rejected.incrementAndGet() % 1000 == 1) {
+                    log.warn("Ingestion backlog and overflow full ({} in flight, {} waiting), dropping captured payloads",
+                            maxInFlight, maxOverflow);
+                }
+                return false;
+            }
+            overflowed.incrementAndGet();
+            // A worker may have finished between the failed acquire and the offer
+            scheduleOverflow();
+            return true;
+        }
+        return start(task);
+    }
+
+    // Waits for a free slot instead of rejecting; returns false if the executor is shut down
+    public boolean put(Runnable task) throws InterruptedException {
+        inFlight.acquire();
+        return start(task);
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    // Tasks that waited in the overflow queue because the backlog was full
+    public long getOverflowedCount() {
+        return overflowed.get();
+    }
+
+    public int getOverflowSize() {
+        return overflowSize.get();
+    }
+
+    // Runs the task under a slot already taken; the slot goes back if the executor refuses it
+    private boolean start(Runnable task) {
+        try {
+            executor.execute(() -> run(task));
+            return true;
+        } catch (RuntimeException e) {
+            inFlight.release();
+            rejected.incrementAndGet();
+            log.warn("Ingestion executor rejected captured payload", e);
+            return false;
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            runSafely(task);
+        } finally {
+            inFlight.release();
+        }
+        scheduleOverflow();
+    }
+
+    private boolean offerOverflow(Runnable task) {
+        if (overflowSize.incrementAndGet() > maxOverflow) {
+            overflowSize.decrementAndGet();
+            return false;
+        }
+        overflow.add(task);
+        return true;
+    }
+
+    private Runnable pollOverflow() {
+        Runnable task = overflow.poll();
+        if (task != null) {
+            overflowSize.decrementAndGet();
+        }
+        return task;
+    }
+
+    // Moves overflow tasks onto free slots, oldest first. The emptiness check
+    // follows every release, so a task offered meanwhile is never stranded.
+    private void scheduleOverflow() {
+        while (!overflow.isEmpty() && inFlight.tryAcquire()) {
+            Runnable next = pollOverflow();
+            if (next == null) {
+                inFlight.release();
+            } else {
+                start(next);
+            }
+        }
+    }
+
+    private static void runSafely(Runnable task) {
+        try {
+            task.run();
+        } catch (Exception e) {
+            log.error("Failed to ingest captured payload", e);
+        }
+    }
+
+    // Looked up reflectively so the build can keep targeting Java 17
+    static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    private static ExecutorService newPlatformExecutor(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "order-ingest-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+}
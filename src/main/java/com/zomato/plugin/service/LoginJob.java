@@ -0,0 +1,77 @@
+package com.zomato.plugin.service;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Progress of one asynchronous connect. Stages only move forward and end in
+ * {@link Stage#CONNECTED} or {@link Stage#FAILED}; the getters are what the
+ * status endpoint serialises.
+ */
+public class LoginJob {
+
+    public enum Stage {
+        QUEUED,
+        // Portal sign-in, including any OTP step
+        LOGGING_IN,
+        // Storage state saved, connection recorded
+        SAVING_SESSION,
+        // Account's portal page loading in the shared browser
+        OPENING_PORTAL,
+        CONNECTED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this == CONNECTED || this == FAILED;
+        }
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String username;
+    private final Instant createdAt = Instant.now();
+    private volatile Stage stage = Stage.QUEUED;
+    private volatile String error;
+    private volatile Instant updatedAt = createdAt;
+
+    public LoginJob(String username) {
+        this.username = username;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Stage getStage() {
+        return stage;
+    }
+
+    public boolean isFinished() {
+        return stage.isFinished();
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    void advance(Stage next) {
+        stage = next;
+        updatedAt = Instant.now();
+    }
+
+    void fail(String message) {
+        error = message;
+        advance(Stage.FAILED);
+    }
+}
@@ -0,0 +1,195 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs connects as background jobs so no request thread waits on the portal.
+ * Jobs run on a bounded pool of login threads with a bounded queue; once both
+ * are full, new connects are refused. A connect for an account that already
+ * has an unfinished job returns that job instead of starting another login.
+ * A portal that is not open within the portal timeout fails the job and frees
+ * the login thread. Finished jobs stay readable for the retention period.
+ */
+@Service
+public class LoginJobService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoginJobService.class);
+
+    private final PlaywrightService playwrightService;
+    private final ConnectionService connectionService;
+    private final BrowserPool browserPool;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final long portalTimeoutMs;
+    private final Map<String, LoginJob> jobs = new ConcurrentHashMap<>();
+    // Unfinished job per username; guarded by this
+    private final Map<String, LoginJob> activeJobs = new ConcurrentHashMap<>();
+    private final AtomicLong connected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    public LoginJobService(PlaywrightService playwrightService, ConnectionService connectionService,
+                           BrowserPool browserPool,
+                           @Value("${app.login.threads:2}") int threads,
+                           @Value("${app.login.queue-capacity:20}") int queueCapacity,
+                           @Value("${app.login.job-retention-ms:600000}") long retentionMs,
+                           @Value("${app.login.portal-timeout-ms:120000}") long portalTimeoutMs) {
+        this.playwrightService = playwrightService;
+        this.connectionService = connectionService;
+        this.browserPool = browserPool;
+        this.retention = Duration.ofMillis(retentionMs);
+        this.portalTimeoutMs = portalTimeoutMs;
+        AtomicInteger count = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "login-job-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    // Returns the queued job, or the account's unfinished one. Throws
+    // IllegalStateException when the login queue is full.
+    public synchronized LoginJob submit(String username, String password) {
+        LoginJob active = activeJobs.get(username);
+        if (active != null) {
+            log.info("Connect for {} already in progress as job {}", username, active.getId());
+            return active;
+        }
+        pruneFinishedJobs();
+        LoginJob job = new LoginJob(username);
+        try {
+            executor.execute(() -> run(job, password));
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw new IllegalStateException("Too many connects in progress, try again shortly");
+        }
+        jobs.put(job.getId(), job);
+        activeJobs.put(username, job);
+        return job;
+    }
+
+    public Optional<LoginJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public int getActiveJobCount() {
+        return activeJobs.size();
+    }
+
+    public long getConnectedCount() {
+        return connected.get();
+    }
+
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.login.jobs.active", this, LoginJobService::getActiveJobCount)
+                .description("Connects queued or running")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.login.jobs", this, LoginJobService::getConnectedCount)
+                .description("Connects by outcome")
+                .tag("result", "connected")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.login.jobs", this, LoginJobService::getFailedCount)
+                .description("Connects by outcome")
+                .tag("result", "failed")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.login.jobs", this, LoginJobService::getRejectedCount)
+                .description("Connects by outcome")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    void run(LoginJob job, String password) {
+        String username = job.getUsername();
+        boolean recorded = false;
+        try {
+            job.advance(LoginJob.Stage.LOGGING_IN);
+            String sessionPath = playwrightService.login(username, password);
+            job.advance(LoginJob.Stage.SAVING_SESSION);
+            connectionService.connect(username, sessionPath);
+            recorded = true;
+            playwrightService.startListening(username);
+            job.advance(LoginJob.Stage.OPENING_PORTAL);
+            browserPool.open(username, Path.of(sessionPath)).orTimeout(portalTimeoutMs, TimeUnit.MILLISECONDS).join();
+            finish(job, null);
+            log.info("Connect job {} for {} finished", job.getId(), username);
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.error("Connect job {} for {} failed", job.getId(), username, cause);
+            if (recorded) {
+                rollBack(username);
+            }
+            finish(job, cause instanceof TimeoutException
+                    ? "Partner portal did not open within " + portalTimeoutMs + " ms" : cause.getMessage());
+        }
+    }
+
+    // Under the lock, so a finished job is never still the account's active one
+    private synchronized void finish(LoginJob job, String error) {
+        activeJobs.remove(job.getUsername(), job);
+        if (error == null) {
+            job.advance(LoginJob.Stage.CONNECTED);
+            connected.incrementAndGet();
+        } else {
+            job.fail(error);
+            failed.incrementAndGet();
+        }
+    }
+
+    // A connect that never reached the portal must not leave the account marked
+    // connected; a portal that opens after a timeout is released to go idle
+    private void rollBack(String username) {
+        playwrightService.stopListening(username);
+        browserPool.release(username);
+        try {
+            connectionService.disconnect(username);
+        } catch (RuntimeException e) {
+            log.warn("Failed to roll back the connection of {}", username, e);
+        }
+    }
+
+    private void pruneFinishedJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getUpdatedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,330 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind buffer for captured orders. Orders are queued by the capture
+ * side and a single drain thread persists them through
+ * {@link OrderService#saveOrders} once a batch fills up or the flush window
+ * after its first order elapses, whichever comes first. What happens when
+ * the queue is full is set by the {@link OverflowPolicy}. A batch that fails
+ * to persist is retried with backoff up to a set number of attempts while the
+ * writer runs. A batch it gives up on, including at shutdown or when the drain
+ * thread is interrupted, goes to the spill file when there is one.
+ */
+@Service
+public class OrderBatchWriter implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderBatchWriter.class);
+    private static final long MAX_RETRY_BACKOFF_MS = 30_000;
+
+    public enum OverflowPolicy {
+        // Wait for room in the queue
+        BLOCK,
+        // Make room by dropping the older of two queued captures of one orderId; blocks if there is none
+        DROP_DUPLICATE,
+        // Append to the spill file, replayed into the queue as it drains
+        SPILL
+    }
+
+    private final OrderService orderService;
+    private final BlockingQueue<Order> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final OverflowPolicy overflowPolicy;
+    private final OrderSpillFile spillFile;
+    private final int maxFlushAttempts;
+    // Released by stop so a retry backoff does not hold up shutdown
+    private final CountDownLatch stopping = new CountDownLatch(1);
+    private final AtomicLong droppedDuplicates = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread drainThread;
+
+    public OrderBatchWriter(OrderService orderService,
+                            @Value("${app.persistence.batch-size:100}") int batchSize,
+                            @Value("${app.persistence.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${app.persistence.queue-capacity:10000}") int queueCapacity,
+                            @Value("${app.persistence.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy,
+                            @Value("${app.persistence.spill-file:order-spill.jsonl}") String spillFile,
+                            @Value("${app.persistence.max-flush-attempts:10}") int maxFlushAttempts) {
+        this.orderService = orderService;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.overflowPolicy = overflowPolicy;
+        this.spillFile = overflowPolicy == OverflowPolicy.SPILL ? new OrderSpillFile(Path.of(spillFile)) : null;
+        this.maxFlushAttempts = Math.max(maxFlushAttempts, 1);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        drainThread = new Thread(this::drainLoop, "order-batch-writer");
+        drainThread.setDaemon(true);
+        drainThread.start();
+        log.info("Order batch writer started (batch size {}, flush interval {} ms, overflow {})",
+                batchSize, flushIntervalMs, overflowPolicy);
+    }
+
+    public void enqueue(Order order) {
+        switch (overflowPolicy) {
+            case DROP_DUPLICATE -> {
+                if (!queue.offer(order) && !dropOldestDuplicate(order)) {
+                    put(order);
+                }
+            }
+            case SPILL -> offerOrSpill(order);
+            default -> put(order);
+        }
+    }
+
+    public void enqueueAll(List<Order> orders) {
+        for (Order order : orders) {
+            enqueue(order);
+        }
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public long getSpilledCount() {
+        return spillFile == null ? 0 : spillFile.getPendingCount();
+    }
+
+    public long getSpillSizeBytes() {
+        return spillFile == null ? 0 : spillFile.getSizeBytes();
+    }
+
+    public long getDroppedDuplicateCount() {
+        return droppedDuplicates.get();
+    }
+
+    public long getFailedFlushCount() {
+        return failedFlushes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.queue.depth", this, OrderBatchWriter::getQueueDepth)
+                .description("Captured orders waiting to be persisted")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.spill.pending", this, OrderBatchWriter::getSpilledCount)
+                .description("Orders in the spill file not yet replayed")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.spill.size", this, OrderBatchWriter::getSpillSizeBytes)
+                .description("Size of the spill file")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.dropped.duplicates", this, OrderBatchWriter::getDroppedDuplicateCount)
+                .description("Queued captures dropped in favour of a later capture of the same order")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.flush.failures", this, OrderBatchWriter::getFailedFlushCount)
+                .description("Batch writes that failed and were retried or spilled")
+                .register(meterRegistry);
+    }
+
+    // Blocks the caller while the queue is full
+    private void put(Order order) {
+        try {
+            queue.put(order);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while queueing order {}", order.getOrderId());
+        }
+    }
+
+    // Drops a queued capture of the incoming orderId, else the older of any
+    // two queued captures sharing an orderId. Only inserts ever reach the
+    // table, so a repeated capture carries nothing that would be lost.
+    private boolean dropOldestDuplicate(Order incoming) {
+        List<Order> snapshot = new ArrayList<>(queue);
+        Order victim = null;
+        for (Order queued : snapshot) {
+            if (Objects.equals(queued.getOrderId(), incoming.getOrderId())) {
+                victim = queued;
+                break;
+            }
+        }
+        if (victim == null) {
+            Map<String, Order> firstById = new HashMap<>();
+            for (Order queued : snapshot) {
+                Order earlier = firstById.putIfAbsent(queued.getOrderId(), queued);
+                if (earlier != null) {
+                    victim = earlier;
+                    break;
+                }
+            }
+        }
+        if (victim == null || !queue.remove(victim)) {
+            return false;
+        }
+        droppedDuplicates.incrementAndGet();
+        return queue.offer(incoming);
+    }
+
+    // Once anything is spilled, later orders follow it into the file so the
+    // replay keeps capture order
+    private void offerOrSpill(Order order) {
+        synchronized (spillFile) {
+            if (spillFile.getPendingCount() == 0 && queue.offer(order)) {
+                return;
+            }
+            try {
+                spillFile.append(order);
+                return;
+            } catch (IOException e) {
+                log.error("Cannot spill order {}, waiting for queue space instead", order.getOrderId(), e);
+            }
+        }
+        put(order);
+    }
+
+    // Moves spilled orders back into the queue as far as it has room
+    private void replaySpill(List<Order> batch) {
+        if (spillFile == null) {
+            return;
+        }
+        List<Order> replayed;
+        synchronized (spillFile) {
+            try {
+                replayed = spillFile.read(queue.remainingCapacity());
+            } catch (IOException e) {
+                log.error("Failed to replay spilled orders", e);
+                return;
+            }
+            replayed.removeIf(queue::offer);
+        }
+        // Left over only if a producer took the room meanwhile; this is the
+        // only consumer, so they go out as the next batch
+        batch.addAll(replayed);
+    }
+
+    // The batch lives outside the loop so an interrupt can hand whatever it
+    // holds, plus the queue, to the same give-up path as a failed flush
+    private void drainLoop() {
+        List<Order> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                replaySpill(batch);
+                if (batch.isEmpty()) {
+                    Order first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    fillBatch(batch);
+                }
+                flush(batch);
+                batch = new ArrayList<>(batchSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.drainTo(batch);
+                if (!batch.isEmpty()) {
+                    giveUp(batch);
+                }
+                return;
+            }
+        }
+    }
+
+    private void fillBatch(List<Order> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0) {
+                return;
+            }
+            Order next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    // Holds the drain thread until the batch is stored or given up; the queue
+    // backs up meanwhile and the overflow policy takes over
+    private void flush(List<Order> batch) throws InterruptedException {
+        long backoffMs = Math.max(flushIntervalMs, 1);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<Order> inserted = orderService.saveOrders(batch);
+                log.debug("Flushed {} orders ({} new)", batch.size(), inserted.size());
+                return;
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                if (!running || attempt >= maxFlushAttempts) {
+                    log.error("Failed to persist batch of {} orders after {} attempts{}", batch.size(), attempt,
+                            running ? "" : " during shutdown", e);
+                    giveUp(batch);
+                    return;
+                }
+                log.error("Failed to persist batch of {} orders, retrying in {} ms", batch.size(), backoffMs, e);
+            }
+            stopping.await(backoffMs, TimeUnit.MILLISECONDS);
+            backoffMs = Math.min(backoffMs * 2, MAX_RETRY_BACKOFF_MS);
+        }
+    }
+
+    // Keeps unsaved orders for the next start where a spill file is configured
+    private void giveUp(List<Order> batch) {
+        if (spillFile != null) {
+            synchronized (spillFile) {
+                try {
+                    for (Order order : batch) {
+                        spillFile.append(order);
+                    }
+                    log.warn("Spilled {} unsaved orders for replay on the next start", batch.size());
+                    return;
+                } catch (IOException e) {
+                    log.error("Cannot spill unsaved orders", e);
+                }
+            }
+        }
+        log.error("Dropping {} unsaved orders", batch.size());
+    }
+
+    // Orders still in the spill file stay there and are replayed on the next
+    // start. A drain thread still busy after the join timeout is interrupted,
+    // giving up its batch and the queue.
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        stopping.countDown();
+        if (drainThread != null) {
+            drainThread.join(flushIntervalMs * 2 + 5000);
+            if (drainThread.isAlive()) {
+                drainThread.interrupt();
+                drainThread.join(1000);
+            }
+        }
+        log.info("Order batch writer stopped");
+    }
+}
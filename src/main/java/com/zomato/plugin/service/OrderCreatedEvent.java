@@ -0,0 +1,7 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+
+// Published by OrderService once per order that was genuinely inserted
+public record OrderCreatedEvent(Order order) {
+}
@@ -0,0 +1,32 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.repository.OrderSummary;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Keyset position in the (orderTime, id) ordering, exchanged with clients as an opaque token
+public record OrderCursor(LocalDateTime orderTime, long id) {
+
+    public static OrderCursor of(OrderSummary order) {
+        return new OrderCursor(order.orderTime(), order.id());
+    }
+
+    public static OrderCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new OrderCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid order cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        String value = orderTime + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
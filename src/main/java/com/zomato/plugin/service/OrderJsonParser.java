@@ -0,0 +1,310 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Single-pass order parser over the raw payload characters.
+ * Only top-level fields of the order object are decoded; nested objects,
+ * arrays and unrelated values are skipped without being materialized.
+ */
+public class OrderJsonParser {
+
+    private static final String[] ORDER_FIELDS = {"orderId", "customerName", "totalAmount", "status"};
+
+    public Order parse(String json) {
+        Scanner scanner = new Scanner(json);
+        scanner.skipWhitespace();
+        scanner.expect('{');
+        Order order = readOrder(scanner, false);
+        order.setRawJson(json);
+        return order;
+    }
+
+    // Walks a top-level array of order objects in one pass; each order keeps
+    // its own slice of the payload as rawJson. Non-object elements are skipped.
+    public List<Order> parseBatch(String json) {
+        Scanner scanner = new Scanner(json);
+        scanner.skipWhitespace();
+        scanner.expect('[');
+        List<Order> orders = new ArrayList<>();
+        scanner.skipWhitespace();
+        if (scanner.peek() == ']') {
+            return orders;
+        }
+        while (true) {
+            scanner.skipWhitespace();
+            if (scanner.peek() == '{') {
+                int start = scanner.position();
+                scanner.advance();
+                Order order = readOrder(scanner, true);
+                order.setRawJson(json.substring(start, scanner.position()));
+                orders.add(order);
+            } else {
+                scanner.skipValue();
+            }
+            scanner.skipWhitespace();
+            char next = scanner.next();
+            if (next == ']') {
+                return orders;
+            }
+            if (next != ',') {
+                throw scanner.error("Expected ',' or ']'");
+            }
+        }
+    }
+
+    // Reads fields until all order fields are seen or the object ends. Unless
+    // consumeObject is set, the scanner is left inside the object when all
+    // fields were found early.
+    private Order readOrder(Scanner scanner, boolean consumeObject) {
+        Order order = new Order();
+        int found = 0;
+        scanner.skipWhitespace();
+        if (scanner.peek() == '}') {
+            scanner.advance();
+        } else {
+            while (true) {
+                int field = scanner.readFieldName(ORDER_FIELDS);
+                scanner.skipWhitespace();
+                scanner.expect(':');
+                scanner.skipWhitespace();
+                switch (field) {
+                    case 0 -> order.setOrderId(scanner.readScalar());
+                    case 1 -> order.setCustomerName(scanner.readScalar());
+                    case 2 -> {
+                        String amount = scanner.readScalar();
+                        if (amount != null) {
+                            order.setTotalAmount(new BigDecimal(amount));
+                        }
+                    }
+                    case 3 -> order.setStatus(scanner.readScalar());
+                    default -> scanner.skipValue();
+                }
+                if (field >= 0) {
+                    found++;
+                }
+                scanner.skipWhitespace();
+                char next = scanner.next();
+                if (next == '}' || (found == ORDER_FIELDS.length && !consumeObject)) {
+                    break;
+                }
+                if (next != ',') {
+                    throw scanner.error("Expected ',' or '}'");
+                }
+                scanner.skipWhitespace();
+            }
+        }
+        order.setOrderTime(LocalDateTime.now());
+        return order;
+    }
+
+    private static final class Scanner {
+
+        private final String json;
+        private final int length;
+        private int pos;
+
+        Scanner(String json) {
+            this.json = json;
+            this.length = json.length();
+        }
+
+        char peek() {
+            if (pos >= length) {
+                throw error("Unexpected end of input");
+            }
+            return json.charAt(pos);
+        }
+
+        char next() {
+            char c = peek();
+            pos++;
+            return c;
+        }
+
+        void advance() {
+            pos++;
+        }
+
+        int position() {
+            return pos;
+        }
+
+        void expect(char expected) {
+            if (next() != expected) {
+                pos--;
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        void skipWhitespace() {
+            while (pos < length) {
+                char c = json.charAt(pos);
+                if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                    return;
+                }
+                pos++;
+            }
+        }
+
+        // Returns the index of the matching name in candidates, or -1; matches
+        // unescaped names in place without allocating.
+        int readFieldName(String[] candidates) {
+            if (peek() != '"') {
+                throw error("Expected field name");
+            }
+            int start = pos + 1;
+            int end = closingQuote(start);
+            pos = end + 1;
+            if (!hasEscape(start, end)) {
+                int nameLength = end - start;
+                for (int i = 0; i < candidates.length; i++) {
+                    if (candidates[i].length() == nameLength && json.regionMatches(start, candidates[i], 0, nameLength)) {
+                        return i;
+                    }
+                }
+                return -1;
+            }
+            String name = unescape(start, end);
+            for (int i = 0; i < candidates.length; i++) {
+                if (candidates[i].equals(name)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Strings and numbers are returned as text; null, booleans and
+        // structured values yield null.
+        String readScalar() {
+            char c = peek();
+            if (c == '"') {
+                int start = pos + 1;
+                int end = closingQuote(start);
+                pos = end + 1;
+                if (!hasEscape(start, end)) {
+                    return json.substring(start, end);
+                }
+                return unescape(start, end);
+            }
+            if (c == '-' || (c >= '0' && c <= '9')) {
+                int start = pos;
+                skipLiteral();
+                return json.substring(start, pos);
+            }
+            skipValue();
+            return null;
+        }
+
+        void skipValue() {
+            char c = peek();
+            if (c == '"') {
+                pos = closingQuote(pos + 1) + 1;
+            } else if (c == '{' || c == '[') {
+                skipNested();
+            } else {
+                skipLiteral();
+            }
+        }
+
+        private void skipLiteral() {
+            int start = pos;
+            while (pos < length && !isDelimiter(json.charAt(pos))) {
+                pos++;
+            }
+            if (pos == start) {
+                throw error("Expected value");
+            }
+        }
+
+        private boolean isDelimiter(char c) {
+            return c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t';
+        }
+
+        private void skipNested() {
+            int depth = 0;
+            while (pos < length) {
+                char c = json.charAt(pos);
+                if (c == '"') {
+                    pos = closingQuote(pos + 1) + 1;
+                    continue;
+                }
+                if (c == '{' || c == '[') {
+                    depth++;
+                } else if (c == '}' || c == ']') {
+                    depth--;
+                    if (depth == 0) {
+                        pos++;
+                        return;
+                    }
+                }
+                pos++;
+            }
+            throw error("Unterminated object or array");
+        }
+
+        // Index of the quote closing a string whose content starts at from
+        private int closingQuote(int from) {
+            int quote = json.indexOf('"', from);
+            while (quote >= 0) {
+                int backslashes = 0;
+                for (int i = quote - 1; i >= from && json.charAt(i) == '\\'; i--) {
+                    backslashes++;
+                }
+                if (backslashes % 2 == 0) {
+                    return quote;
+                }
+                quote = json.indexOf('"', quote + 1);
+            }
+            pos = length;
+            throw error("Unterminated string");
+        }
+
+        private boolean hasEscape(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (json.charAt(i) == '\\') {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private String unescape(int start, int end) {
+            StringBuilder sb = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                char c = json.charAt(i);
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                char escaped = json.charAt(++i);
+                switch (escaped) {
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'u' -> {
+                        if (i + 4 >= end) {
+                            pos = i;
+                            throw error("Invalid unicode escape");
+                        }
+                        sb.append((char) Integer.parseInt(json, i + 1, i + 5, 16));
+                        i += 4;
+                    }
+                    default -> sb.append(escaped);
+                }
+            }
+            return sb.toString();
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at offset " + pos + " of order JSON");
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where an order's time goes between interception and the dashboard. Each
+ * stage is an {@code order.capture.stage.latency} timer tagged with the
+ * stage; {@code order.capture.visible.latency} spans the whole way from the
+ * intercepted response to the first stream client that received the order,
+ * and its p99 is the figure held against {@code app.metrics.visible-slo-ms}.
+ * Timings are dropped until the binder is bound to a registry.
+ */
+@Component
+public class OrderLatencyMetrics implements MeterBinder {
+
+    public enum Stage {
+        // Listener thread, from the accepted response until the payload is handed over
+        INTERCEPT,
+        // Waiting for an ingestion thread
+        QUEUE,
+        PARSE,
+        // One saveOrder or saveOrders call
+        PERSIST,
+        // Stream service, from the insert event until the first client has the order
+        DELIVER
+    }
+
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Duration visibleObjective;
+    private volatile Map<Stage, Timer> stageTimers;
+    private volatile Timer visibleTimer;
+
+    public OrderLatencyMetrics(@Value("${app.metrics.visible-slo-ms:2000}") long visibleSloMs) {
+        this.visibleObjective = Duration.ofMillis(visibleSloMs);
+    }
+
+    public void record(Stage stage, long nanos) {
+        Map<Stage, Timer> timers = stageTimers;
+        if (timers != null) {
+            timers.get(stage).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // Orders that did not come through the pipeline carry no capture time
+    public void recordVisible(long capturedNanos) {
+        Timer timer = visibleTimer;
+        if (timer != null && capturedNanos != 0) {
+            timer.record(System.nanoTime() - capturedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Duration getVisibleObjective() {
+        return visibleObjective;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Map<Stage, Timer> timers = new EnumMap<>(Stage.class);
+        for (Stage stage : Stage.values()) {
+            timers.put(stage, Timer.builder("order.capture.stage.latency")
+                    .description("Time an order spends in one stage of the capture pipeline")
+                    .tag("stage", stage.name().toLowerCase(Locale.ROOT))
+                    .publishPercentiles(PERCENTILES)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100_000))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(meterRegistry));
+        }
+        visibleTimer = Timer.builder("order.capture.visible.latency")
+                .description("Time from an intercepted order response until the first dashboard client received the order")
+                .publishPercentiles(PERCENTILES)
+                .publishPercentileHistogram()
+                .serviceLevelObjectives(visibleObjective)
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(meterRegistry);
+        Gauge.builder("order.capture.visible.objective", this, metrics -> metrics.visibleObjective.toNanos() / 1e9)
+                .description("Target for the p99 of order.capture.visible.latency")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        stageTimers = timers;
+    }
+}
@@ -0,0 +1,337 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Shared downstream of every {@link OrderSource}: parse, drop repeats, then
+ * hand the orders to the batch writer, whose inserts publish
+ * {@link OrderCreatedEvent}s. Captured traffic, replays and synthetic load
+ * all take this path, and several sources may feed it at once. Work runs on
+ * the ingestion executor; counters are kept per source name.
+ */
+@Service
+public class OrderPipeline implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPipeline.class);
+
+    private final OrderJsonParser orderParser = new OrderJsonParser();
+    private final IngestionExecutor ingestionExecutor;
+    private final HandoverDeduplicator deduplicator;
+    private final Consumer<List<Order>> persister;
+    private final OrderLatencyMetrics latencyMetrics;
+    private final int dedupCapacity;
+    private final Map<String, OrderSourceStats> stats = new ConcurrentHashMap<>();
+    private final Map<String, SourceSink> running = new ConcurrentHashMap<>();
+    private volatile MeterRegistry meterRegistry;
+
+    @Autowired
+    public OrderPipeline(IngestionExecutor ingestionExecutor, HandoverDeduplicator deduplicator,
+                         OrderBatchWriter orderBatchWriter, OrderLatencyMetrics latencyMetrics,
+                         @Value("${app.pipeline.dedup-capacity:10000}") int dedupCapacity) {
+        this(ingestionExecutor, deduplicator, orderBatchWriter::enqueueAll, latencyMetrics, dedupCapacity);
+    }
+
+    // Benchmarks and tests persist into a consumer of their own
+    OrderPipeline(IngestionExecutor ingestionExecutor, HandoverDeduplicator deduplicator,
+                  Consumer<List<Order>> persister, OrderLatencyMetrics latencyMetrics, int dedupCapacity) {
+        this.ingestionExecutor = ingestionExecutor;
+        this.deduplicator = deduplicator;
+        this.persister = persister;
+        this.latencyMetrics = latencyMetrics;
+        this.dedupCapacity = dedupCapacity;
+    }
+
+    // Throws IllegalStateException if a source of the same name is running
+    public OrderSourceStats start(OrderSource source) {
+        String name = source.getName();
+        OrderSourceStats sourceStats = stats.computeIfAbsent(name, this::newStats);
+        SourceSink sink = new SourceSink(source, sourceStats, dedupCapacity);
+        if (running.putIfAbsent(name, sink) != null) {
+            throw new IllegalStateException("An order source named " + name + " is already running");
+        }
+        sourceStats.setRunning(true);
+        source.start(sink);
+        log.info("Started order source {}", name);
+        return sourceStats;
+    }
+
+    public void stop(OrderSource source) {
+        SourceSink sink = running.get(source.getName());
+        if (sink != null && sink.source == source && running.remove(source.getName(), sink)) {
+            sink.close();
+            log.info("Stopped order source {}", source.getName());
+        }
+    }
+
+    public Optional<OrderSourceStats> getStats(String name) {
+        return Optional.ofNullable(stats.get(name));
+    }
+
+    public Collection<OrderSourceStats> getStats() {
+        return stats.values();
+    }
+
+    // Repeats are only dropped once the first capture is stored, so a batch
+    // that never made it to the database does not hide later captures
+    @EventListener
+    public void onOrdersSaved(OrdersSavedEvent event) {
+        running.values().forEach(sink -> sink.saved(event.orders()));
+    }
+
+    // capturedNanos is stamped on the orders for the capture-to-visible latency
+    void process(SourceSink sink, String json, long capturedNanos, long submittedNanos) {
+        FlightEvents.OrderParsed event = new FlightEvents.OrderParsed();
+        event.begin();
+        long startNanos = System.nanoTime();
+        latencyMetrics.record(OrderLatencyMetrics.Stage.QUEUE, startNanos - submittedNanos);
+        List<Order> orders = isOrderList(json) ? parseOrdersFromJson(json) : parseOrderAsList(json);
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PARSE, System.nanoTime() - startNanos);
+        parsed(event, sink.source.getName(), json, orders);
+        if (orders == null) {
+            sink.stats.failed();
+            return;
+        }
+        List<Order> identified = withOrderId(orders);
+        if (identified.size() < orders.size()) {
+            log.warn("Dropped {} orders without an orderId from {}", orders.size() - identified.size(),
+                    sink.source.getName());
+            sink.stats.unidentified(orders.size() - identified.size());
+        }
+        for (Order order : identified) {
+            order.setCapturedNanos(capturedNanos);
+        }
+        List<Order> accepted = deduplicator.filter(sink.filter(identified));
+        if (!accepted.isEmpty()) {
+            sink.pending(accepted);
+            persister.accept(accepted);
+        }
+        sink.stats.processed(identified.size(), identified.size() - accepted.size());
+    }
+
+    // Orders without an orderId can neither be deduplicated nor stored under their key
+    private static List<Order> withOrderId(List<Order> orders) {
+        for (Order order : orders) {
+            if (order.getOrderId() == null) {
+                return orders.stream().filter(o -> o.getOrderId() != null).toList();
+            }
+        }
+        return orders;
+    }
+
+    private static void parsed(FlightEvents.OrderParsed event, String source, String json, List<Order> orders) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.source = source;
+            event.payloadLength = json == null ? 0 : json.length();
+            event.failed = orders == null;
+            if (orders != null) {
+                event.orders = orders.size();
+                for (Order order : orders) {
+                    event.fieldCount += fieldCount(order);
+                }
+            }
+            event.commit();
+        }
+    }
+
+    private static int fieldCount(Order order) {
+        int fields = order.getOrderId() != null ? 1 : 0;
+        fields += order.getCustomerName() != null ? 1 : 0;
+        fields += order.getTotalAmount() != null ? 1 : 0;
+        return fields + (order.getStatus() != null ? 1 : 0);
+    }
+
+    private List<Order> parseOrderAsList(String json) {
+        Order order = parseOrderFromJson(json);
+        return order != null ? List.of(order) : null;
+    }
+
+    Order parseOrderFromJson(String json) {
+        try {
+            return orderParser.parse(json);
+        } catch (Exception e) {
+            log.error("Failed to parse order JSON: {}", json, e);
+            return null;
+        }
+    }
+
+    List<Order> parseOrdersFromJson(String json) {
+        try {
+            return orderParser.parseBatch(json);
+        } catch (Exception e) {
+            log.error("Failed to parse order list JSON: {}", json, e);
+            return null;
+        }
+    }
+
+    private static boolean isOrderList(String json) {
+        if (json == null) {
+            return false;
+        }
+        for (int i = 0; i < json.length(); i++) {
+            char c = json.charAt(i);
+            if (!Character.isWhitespace(c)) {
+                return c == '[';
+            }
+        }
+        return false;
+    }
+
+    @PreDestroy
+    public void stopAll() {
+        running.values().forEach(SourceSink::close);
+        running.clear();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        stats.values().forEach(sourceStats -> register(meterRegistry, sourceStats));
+    }
+
+    // Sources seen after binding register their meters right away
+    private OrderSourceStats newStats(String name) {
+        OrderSourceStats sourceStats = new OrderSourceStats(name);
+        MeterRegistry registry = meterRegistry;
+        if (registry != null) {
+            register(registry, sourceStats);
+        }
+        return sourceStats;
+    }
+
+    private static void register(MeterRegistry meterRegistry, OrderSourceStats sourceStats) {
+        counter(meterRegistry, sourceStats, "order.capture.source.payloads", OrderSourceStats::getProcessed,
+                "Payloads that went through the order pipeline");
+        counter(meterRegistry, sourceStats, "order.capture.source.rejected", OrderSourceStats::getRejected,
+                "Payloads refused because the source was stopped or ingestion shut down");
+        counter(meterRegistry, sourceStats, "order.capture.source.orders", OrderSourceStats::getOrders,
+                "Orders parsed from the source's payloads");
+        counter(meterRegistry, sourceStats, "order.capture.source.duplicates", OrderSourceStats::getDuplicates,
+                "Orders dropped as repeats before persisting");
+        counter(meterRegistry, sourceStats, "order.capture.source.failures", OrderSourceStats::getFailures,
+                "Payloads that failed to parse, plus orders without an orderId");
+    }
+
+    private static void counter(MeterRegistry meterRegistry, OrderSourceStats sourceStats, String name,
+                                ToDoubleFunction<OrderSourceStats> count, String description) {
+        FunctionCounter.builder(name, sourceStats, count)
+                .description(description)
+                .tag("source", sourceStats.getName())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Sink of one running source. Remembers the source's most recent stored
+     * order ids, so list endpoints polled again and again only persist what
+     * is new. Ids handed on are pending until {@link OrdersSavedEvent} says
+     * they are stored.
+     */
+    class SourceSink implements OrderSink {
+
+        private final OrderSource source;
+        private final OrderSourceStats stats;
+        private final Map<String, Boolean> recent;
+        private final Map<String, Boolean> pending;
+        private volatile boolean open = true;
+
+        SourceSink(OrderSource source, OrderSourceStats stats, int capacity) {
+            this.source = source;
+            this.stats = stats;
+            this.recent = boundedIds(capacity, true);
+            this.pending = boundedIds(capacity, false);
+        }
+
+        @Override
+        public boolean submit(String json, long capturedNanos) {
+            long submittedNanos = System.nanoTime();
+            return count(open && ingestionExecutor.submit(() -> process(this, json, capturedNanos, submittedNanos)));
+        }
+
+        @Override
+        public boolean submit(byte[] utf8Json, long capturedNanos) {
+            long submittedNanos = System.nanoTime();
+            return count(open && ingestionExecutor.submit(() -> process(this,
+                    new String(utf8Json, StandardCharsets.UTF_8), capturedNanos, submittedNanos)));
+        }
+
+        @Override
+        public boolean put(String json) throws InterruptedException {
+            long submittedNanos = System.nanoTime();
+            return count(open && ingestionExecutor.put(() -> process(this, json, submittedNanos, submittedNanos)));
+        }
+
+        private boolean count(boolean submitted) {
+            if (submitted) {
+                stats.submitted();
+            } else {
+                stats.rejected();
+            }
+            return submitted;
+        }
+
+        // Lookups refresh an id's place in the recent list
+        synchronized List<Order> filter(List<Order> orders) {
+            List<Order> fresh = new ArrayList<>(orders.size());
+            Set<String> payloadIds = new HashSet<>();
+            for (Order order : orders) {
+                String orderId = order.getOrderId();
+                if (recent.get(orderId) == null && payloadIds.add(orderId)) {
+                    fresh.add(order);
+                }
+            }
+            return fresh;
+        }
+
+        synchronized void pending(List<Order> orders) {
+            for (Order order : orders) {
+                pending.put(order.getOrderId(), Boolean.TRUE);
+            }
+        }
+
+        synchronized void saved(List<Order> orders) {
+            for (Order order : orders) {
+                if (order.getOrderId() != null && pending.remove(order.getOrderId()) != null) {
+                    recent.put(order.getOrderId(), Boolean.TRUE);
+                }
+            }
+        }
+
+        private static Map<String, Boolean> boundedIds(int capacity, boolean accessOrder) {
+            return new LinkedHashMap<>(16, 0.75f, accessOrder) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        void close() {
+            open = false;
+            stats.setRunning(false);
+            source.stop();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.zomato.plugin.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Position in insert order for "since" polling, exchanged with clients as an opaque token.
+// Ids are drawn from orders_seq inside the insert, and the batch writer's single thread
+// commits one batch at a time, so a row never appears behind an id a poller already has.
+public record OrderSequenceCursor(long id) {
+
+    public static OrderSequenceCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            return new OrderSequenceCursor(Long.parseLong(value));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid order cursor: " + token, e);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,37 +1,216 @@
 package com.zomato.plugin.service;
 
 import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.repository.OrderPayloadRepository;
 import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.repository.OrderSummary;
+import com.zomato.plugin.repository.PayloadCodec;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
-public class OrderService {
+public class OrderService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    private static final int INSERTED = 1;
+    private static final int EXISTING = 0;
+    private static final int FAILED = -1;
 
     private final OrderRepository repository;
+    private final OrderPayloadRepository payloadRepository;
+    private final PayloadCodec payloadCodec;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OrderLatencyMetrics latencyMetrics;
+    // Seeded from the table once and advanced on confirmed inserts, so status reads skip COUNT(*)
+    private final AtomicLong orderCount = new AtomicLong();
+    private final AtomicLong insertedCount = new AtomicLong();
+    private final AtomicLong existingCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
 
-    public OrderService(OrderRepository repository) {
+    public OrderService(OrderRepository repository, OrderPayloadRepository payloadRepository,
+                        PayloadCodec payloadCodec, ApplicationEventPublisher eventPublisher,
+                        OrderLatencyMetrics latencyMetrics) {
         this.repository = repository;
+        this.payloadRepository = payloadRepository;
+        this.payloadCodec = payloadCodec;
+        this.eventPublisher = eventPublisher;
+        this.latencyMetrics = latencyMetrics;
     }
 
-    public Order saveOrder(Order order) {
-        if (repository.existsByOrderId(order.getOrderId())) {
-            return repository.findByOrderId(order.getOrderId()).get();
+    // Re-seeds the counter; needed only if orders are written around this service
+    @PostConstruct
+    public void reloadOrderCount() {
+        orderCount.set(repository.count());
+    }
+
+    // One MERGE statement per order: concurrent captures of the same orderId
+    // cannot both insert. Returns true only when this call created the row,
+    // and only then is an OrderCreatedEvent published. An OrdersSavedEvent
+    // follows unless the database rejected the order.
+    public boolean saveOrder(Order order) {
+        FlightEvents.OrderPersisted event = new FlightEvents.OrderPersisted();
+        event.begin();
+        long startNanos = System.nanoTime();
+        int outcome = insert(order);
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PERSIST, System.nanoTime() - startNanos);
+        counted(event, order.getOrderId(), outcome == INSERTED ? 1 : 0, outcome == FAILED ? 1 : 0, 1);
+        if (outcome == INSERTED) {
+            eventPublisher.publishEvent(new OrderCreatedEvent(order));
+        }
+        if (outcome != FAILED) {
+            eventPublisher.publishEvent(new OrdersSavedEvent(List.of(order)));
         }
-        return repository.save(order);
+        return outcome == INSERTED;
     }
 
-    public List<Order> getAllOrders() {
+    // Orders repeated within the batch or already stored are dropped; the rest
+    // go to the database as one JDBC batch. Returns only the newly inserted orders.
+    public List<Order> saveOrders(List<Order> orders) {
+        FlightEvents.OrderPersisted event = new FlightEvents.OrderPersisted();
+        event.begin();
+        long startNanos = System.nanoTime();
+        Map<String, Order> distinct = new LinkedHashMap<>();
+        for (Order order : orders) {
+            distinct.putIfAbsent(order.getOrderId(), order);
+        }
+        List<Order> candidates = new ArrayList<>(distinct.values());
+        int[] counts;
+        try {
+            counts = repository.insertAllIfAbsent(candidates);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent insert won a race inside the batch, or one order broke a
+            // constraint and rolled the batch back; settle each order on its own
+            counts = candidates.stream().mapToInt(this::insert).toArray();
+        }
+        List<Order> inserted = new ArrayList<>();
+        List<Order> stored = new ArrayList<>(candidates.size());
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == INSERTED) {
+                inserted.add(candidates.get(i));
+            }
+            if (counts[i] != FAILED) {
+                stored.add(candidates.get(i));
+            }
+        }
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PERSIST, System.nanoTime() - startNanos);
+        counted(event, null, inserted.size(), candidates.size() - stored.size(), orders.size());
+        inserted.forEach(order -> eventPublisher.publishEvent(new OrderCreatedEvent(order)));
+        if (!stored.isEmpty()) {
+            eventPublisher.publishEvent(new OrdersSavedEvent(stored));
+        }
+        return inserted;
+    }
+
+    public List<OrderSummary> getAllOrders() {
         return repository.findAllByOrderByOrderTimeDesc();
     }
 
+    // Newest first; pass the cursor of the last order of a page to get the next, older page
+    public List<OrderSummary> getOrdersPage(OrderCursor before, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        if (before == null) {
+            return repository.findLatest(page);
+        }
+        return repository.findOlderThan(before.orderTime(), before.id(), page);
+    }
+
+    // In insert order, strictly after the cursor, so a poller can keep passing its latest cursor
+    public List<OrderSummary> getOrdersSince(OrderSequenceCursor since, int limit) {
+        return repository.findInsertedAfter(since.id(), PageRequest.of(0, limit));
+    }
+
+    // Where "since" polling starts; read before the first page so nothing falls in between
+    public OrderSequenceCursor getLatestCursor() {
+        return new OrderSequenceCursor(repository.findLastInsertedId());
+    }
+
     public Optional<Order> getOrderByOrderId(String orderId) {
         return repository.findByOrderId(orderId);
     }
 
+    // Payloads are stored deflated and only inflated here, on request
+    public Optional<String> getRawJson(String orderId) {
+        return payloadRepository.findById(orderId)
+                .map(payload -> payloadCodec.decompress(payload.getCompressedJson()));
+    }
+
     public long getOrderCount() {
-        return repository.count();
+        return orderCount.get();
+    }
+
+    // Orders handed to saveOrder or saveOrders that were inserted, that already
+    // existed, and that the database rejected
+    public long getInsertedCount() {
+        return insertedCount.get();
+    }
+
+    public long getExistingCount() {
+        return existingCount.get();
+    }
+
+    public long getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("order.capture.persisted", this, OrderService::getInsertedCount)
+                .description("Orders handed to the database, by whether they were new")
+                .tag("result", "inserted")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.persisted", this, OrderService::getExistingCount)
+                .description("Orders handed to the database, by whether they were new")
+                .tag("result", "existing")
+                .register(meterRegistry);
+        FunctionCounter.builder("order.capture.persisted", this, OrderService::getFailedCount)
+                .description("Orders handed to the database, by whether they were new")
+                .tag("result", "failed")
+                .register(meterRegistry);
+    }
+
+    private void counted(FlightEvents.OrderPersisted event, String orderId, int inserted, int failed, int saved) {
+        orderCount.addAndGet(inserted);
+        insertedCount.addAndGet(inserted);
+        failedCount.addAndGet(failed);
+        existingCount.addAndGet(saved - inserted - failed);
+        event.end();
+        if (event.shouldCommit()) {
+            event.orderId = orderId;
+            event.outcome = failed > 0 ? "failed"
+                    : inserted == saved ? "new" : inserted == 0 ? "duplicate" : "mixed";
+            event.orders = saved;
+            event.inserted = inserted;
+            event.commit();
+        }
+    }
+
+    // INSERTED, EXISTING, or FAILED when the database rejected the order's values
+    private int insert(Order order) {
+        try {
+            return repository.insertIfAbsent(order) == 1 ? INSERTED : EXISTING;
+        } catch (DuplicateKeyException e) {
+            // Lost the race to a concurrent insert of the same orderId
+            return EXISTING;
+        } catch (DataIntegrityViolationException e) {
+            log.error("Order {} rejected by the database, not stored", order.getOrderId(), e);
+            return FAILED;
+        }
     }
 }
@@ -0,0 +1,29 @@
+package com.zomato.plugin.service;
+
+/**
+ * Entry point of the {@link OrderPipeline} for one {@link OrderSource}.
+ * Payloads are an order object or a list of them; parsing and everything
+ * after it run on the ingestion executor.
+ */
+public interface OrderSink {
+
+    // Never blocks; returns false if the payload was dropped
+    default boolean submit(String json) {
+        return submit(json, System.nanoTime());
+    }
+
+    // For listeners that intercepted the payload before its body was read;
+    // capturedNanos is the System.nanoTime() of the interception
+    boolean submit(String json, long capturedNanos);
+
+    // Decoded to text on the ingestion thread
+    default boolean submit(byte[] utf8Json) {
+        return submit(utf8Json, System.nanoTime());
+    }
+
+    boolean submit(byte[] utf8Json, long capturedNanos);
+
+    // Waits for ingestion capacity instead of dropping, for sources that can
+    // be slowed down. Returns false once the pipeline stopped the source.
+    boolean put(String json) throws InterruptedException;
+}
@@ -0,0 +1,18 @@
+package com.zomato.plugin.service;
+
+/**
+ * Producer of raw order payloads for the {@link OrderPipeline}. A source is
+ * handed its sink on start and emits from whatever thread produces its
+ * payloads: browser listener threads for captured traffic, the caller's
+ * thread for replays and synthetic load. Names identify a source in stats
+ * and meters and must be unique among running sources.
+ */
+public interface OrderSource {
+
+    String getName();
+
+    void start(OrderSink sink);
+
+    // Called once by the pipeline; payloads emitted afterwards are rejected
+    void stop();
+}
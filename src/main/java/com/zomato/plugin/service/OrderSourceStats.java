@@ -0,0 +1,102 @@
+package com.zomato.plugin.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pipeline counters of one {@link OrderSource} name. They survive the
+ * source, so a source started again under the same name keeps counting.
+ * Orders counts every parsed order with an orderId; duplicates are the ones
+ * dropped before persisting.
+ */
+public class OrderSourceStats {
+
+    private final String name;
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong orders = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong failures = new AtomicLong();
+    private volatile boolean running;
+
+    OrderSourceStats(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Payloads accepted into the ingestion executor
+    public long getSubmitted() {
+        return submitted.get();
+    }
+
+    // Payloads dropped because the ingestion backlog and its overflow queue were full, or the source stopped
+    public long getRejected() {
+        return rejected.get();
+    }
+
+    // Payloads that went through the pipeline
+    public long getProcessed() {
+        return processed.get();
+    }
+
+    public long getOrders() {
+        return orders.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    // Payloads that did not parse, plus parsed orders without an orderId
+    public long getFailures() {
+        return failures.get();
+    }
+
+    // Polls until every submitted payload went through the pipeline
+    public boolean awaitProcessed(long timeoutMs) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (processed.get() < submitted.get()) {
+            if (System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            Thread.sleep(1);
+        }
+        return true;
+    }
+
+    void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    void submitted() {
+        submitted.incrementAndGet();
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    void processed(int orderCount, int duplicateCount) {
+        orders.addAndGet(orderCount);
+        duplicates.addAndGet(duplicateCount);
+        processed.incrementAndGet();
+    }
+
+    // Orders dropped from a payload that otherwise went through
+    void unidentified(int orderCount) {
+        failures.addAndGet(orderCount);
+    }
+
+    void failed() {
+        failures.incrementAndGet();
+        processed.incrementAndGet();
+    }
+}
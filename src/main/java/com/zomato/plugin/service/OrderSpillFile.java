@@ -0,0 +1,171 @@
+package com.zomato.plugin.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.zomato.plugin.entity.Order;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only overflow file for captured orders, one JSON line per order.
+ * Orders are read back in append order from a moving offset; once every
+ * spilled order has been read the file is truncated. Orders left over from
+ * a previous run are picked up on construction; their capture time came
+ * from another JVM's clock and is dropped, which leaves them out of the
+ * capture-to-visible latency. A line a crash cut short is discarded on
+ * construction, and a line that does not parse is skipped when read.
+ */
+public class OrderSpillFile {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderSpillFile.class);
+
+    private final Path path;
+    private final ObjectMapper mapper = JsonMapper.builder()
+            .findAndAddModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private long readOffset;
+    private long pending;
+    // Leading lines written by a previous run
+    private long stale;
+
+    public OrderSpillFile(Path path) {
+        this.path = path;
+        if (Files.exists(path)) {
+            pending = countLinesAndDropPartialTail(path);
+            stale = pending;
+        }
+    }
+
+    public synchronized void append(Order order) throws IOException {
+        String line = mapper.writeValueAsString(SpilledOrder.from(order));
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer.write(line);
+            writer.write('\n');
+        }
+        pending++;
+    }
+
+    // Up to max orders, oldest first
+    public synchronized List<Order> read(int max) throws IOException {
+        List<Order> orders = new ArrayList<>();
+        if (pending == 0 || max <= 0) {
+            return orders;
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            channel.position(readOffset);
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            String line;
+            while (orders.size() < max && pending > 0 && (line = reader.readLine()) != null) {
+                readOffset += line.getBytes(StandardCharsets.UTF_8).length + 1;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                boolean fromPreviousRun = stale > 0;
+                if (fromPreviousRun) {
+                    stale--;
+                }
+                pending--;
+                try {
+                    Order order = mapper.readValue(line, SpilledOrder.class).toOrder();
+                    if (fromPreviousRun) {
+                        order.setCapturedNanos(0);
+                    }
+                    orders.add(order);
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable line in spill file {}", path, e);
+                }
+            }
+        }
+        if (pending == 0) {
+            Files.write(path, new byte[0], StandardOpenOption.TRUNCATE_EXISTING);
+            readOffset = 0;
+        }
+        return orders;
+    }
+
+    public synchronized long getPendingCount() {
+        return pending;
+    }
+
+    public synchronized long getSizeBytes() {
+        return path.toFile().length();
+    }
+
+    // Non-empty, newline-terminated lines. A line cut short by a crash is cut
+    // off the file, so the next append starts on a line of its own.
+    private static long countLinesAndDropPartialTail(Path path) {
+        long lines = 0;
+        long size = 0;
+        long lineStart = 0;
+        boolean blank = true;
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[8192];
+            int length;
+            while ((length = in.read(buffer)) > 0) {
+                for (int i = 0; i < length; i++) {
+                    if (buffer[i] != '\n') {
+                        blank = false;
+                        continue;
+                    }
+                    if (!blank) {
+                        lines++;
+                        blank = true;
+                    }
+                    lineStart = size + i + 1;
+                }
+                size += length;
+            }
+            if (size > lineStart) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                    channel.truncate(lineStart);
+                }
+                log.warn("Discarded {} bytes of a partial line at the end of spill file {}", size - lineStart, path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read spill file " + path, e);
+        }
+        return lines;
+    }
+
+    private record SpilledOrder(String orderId, String customerName, BigDecimal totalAmount,
+                                LocalDateTime orderTime, String status, String rawJson, long capturedNanos) {
+
+        static SpilledOrder from(Order order) {
+            return new SpilledOrder(order.getOrderId(), order.getCustomerName(), order.getTotalAmount(),
+                    order.getOrderTime(), order.getStatus(), order.getRawJson(), order.getCapturedNanos());
+        }
+
+        Order toOrder() {
+            Order order = new Order();
+            order.setOrderId(orderId);
+            order.setCustomerName(customerName);
+            order.setTotalAmount(totalAmount);
+            order.setOrderTime(orderTime);
+            order.setStatus(status);
+            order.setRawJson(rawJson);
+            order.setCapturedNanos(capturedNanos);
+            return order;
+        }
+    }
+}
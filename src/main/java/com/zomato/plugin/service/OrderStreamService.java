@@ -0,0 +1,267 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.repository.OrderSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans new orders out to dashboard SSE connections. Each event gets a
+ * monotonically increasing id and the most recent events are kept so a
+ * reconnecting client can resume from its Last-Event-ID; a client whose
+ * Last-Event-ID cannot be resumed from gets a "reload" event instead.
+ * Events are queued per client and written on the fan-out threads, so the
+ * batch writer publishing them never waits on a socket. A client that falls
+ * a whole queue behind is disconnected and resumes on reconnect. The first
+ * client to receive an order marks it visible for the latency metrics.
+ */
+@Service
+public class OrderStreamService implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStreamService.class);
+
+    static final String ORDER_EVENT = "order";
+    static final String RELOAD_EVENT = "reload";
+    private static final StreamEvent HEARTBEAT = new StreamEvent(0, null, null, 0);
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final Deque<StreamEvent> recentEvents = new ArrayDeque<>();
+    private final OrderLatencyMetrics latencyMetrics;
+    private final int maxEmitters;
+    private final int replaySize;
+    private final long heartbeatMs;
+    private final long emitterTimeoutMs;
+    private final int clientQueueSize;
+    private final ExecutorService fanoutExecutor;
+
+    private long lastEventId;
+    private ScheduledExecutorService heartbeatExecutor;
+
+    public OrderStreamService(OrderLatencyMetrics latencyMetrics,
+                              @Value("${app.stream.max-emitters:50}") int maxEmitters,
+                              @Value("${app.stream.replay-size:500}") int replaySize,
+                              @Value("${app.stream.heartbeat-ms:15000}") long heartbeatMs,
+                              @Value("${app.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMs,
+                              @Value("${app.stream.threads:2}") int threads,
+                              @Value("${app.stream.client-queue-size:1000}") int clientQueueSize) {
+        this.latencyMetrics = latencyMetrics;
+        this.maxEmitters = maxEmitters;
+        this.replaySize = replaySize;
+        this.heartbeatMs = heartbeatMs;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+        this.clientQueueSize = clientQueueSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.fanoutExecutor = Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, "order-stream-fanout-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "order-stream-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeatExecutor.scheduleAtFixedRate(this::sendHeartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Returns null when the emitter cap is reached. A Last-Event-ID ahead of
+    // this run's ids (the server restarted) or older than the replay buffer
+    // gets a reload event, as the events in between are gone.
+    public synchronized SseEmitter subscribe(Long lastSeenEventId) {
+        if (clients.size() >= maxEmitters) {
+            return null;
+        }
+        SseEmitter emitter = newEmitter();
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+        clients.add(client);
+        if (lastSeenEventId != null && lastSeenEventId != lastEventId) {
+            if (canResume(lastSeenEventId)) {
+                recentEvents.stream().filter(event -> event.id > lastSeenEventId).forEach(client::offer);
+            } else {
+                client.offer(new StreamEvent(lastEventId, RELOAD_EVENT, null, 0));
+            }
+        }
+        return emitter;
+    }
+
+    @EventListener
+    public synchronized void onOrderCreated(OrderCreatedEvent event) {
+        StreamEvent streamed = new StreamEvent(++lastEventId, ORDER_EVENT,
+                OrderSummary.from(event.order()), event.order().getCapturedNanos());
+        recentEvents.addLast(streamed);
+        if (recentEvents.size() > replaySize) {
+            recentEvents.removeFirst();
+        }
+        if (clients.isEmpty()) {
+            // Nobody saw it arrive; a later replay does not make it visible
+            streamed.delivered.set(true);
+        }
+        clients.forEach(client -> client.offer(streamed));
+    }
+
+    public synchronized long getLastEventId() {
+        return lastEventId;
+    }
+
+    public int getEmitterCount() {
+        return clients.size();
+    }
+
+    void sendHeartbeat() {
+        clients.forEach(client -> client.offer(HEARTBEAT));
+    }
+
+    SseEmitter newEmitter() {
+        return new SseEmitter(emitterTimeoutMs);
+    }
+
+    private boolean canResume(long lastSeenEventId) {
+        return lastSeenEventId < lastEventId && !recentEvents.isEmpty()
+                && recentEvents.peekFirst().id <= lastSeenEventId + 1;
+    }
+
+    private boolean send(SseEmitter emitter, StreamEvent event) {
+        try {
+            if (event == HEARTBEAT) {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.id))
+                        .name(event.name)
+                        .data(event.order != null ? event.order : Long.toString(event.id)));
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping order stream client: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void delivered(StreamEvent event) {
+        if (event.order != null && event.delivered.compareAndSet(false, true)) {
+            latencyMetrics.record(OrderLatencyMetrics.Stage.DELIVER, System.nanoTime() - event.publishedNanos);
+            latencyMetrics.recordVisible(event.capturedNanos);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.stream.clients", this, OrderStreamService::getEmitterCount)
+                .description("Dashboard clients connected to the order stream")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (heartbeatExecutor != null) {
+            heartbeatExecutor.shutdownNow();
+        }
+        fanoutExecutor.shutdownNow();
+        clients.forEach(client -> client.emitter.complete());
+        clients.clear();
+    }
+
+    // The replay buffer holds summaries only, never the raw payload
+    private static final class StreamEvent {
+
+        private final long id;
+        private final String name;
+        private final OrderSummary order;
+        private final long capturedNanos;
+        private final long publishedNanos = System.nanoTime();
+        private final AtomicBoolean delivered = new AtomicBoolean();
+
+        private StreamEvent(long id, String name, OrderSummary order, long capturedNanos) {
+            this.id = id;
+            this.name = name;
+            this.order = order;
+            this.capturedNanos = capturedNanos;
+        }
+    }
+
+    // At most one fan-out thread drains a client at a time, keeping its events in order
+    private final class Client {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<StreamEvent> pending = new ArrayBlockingQueue<>(clientQueueSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(StreamEvent event) {
+            if (!pending.offer(event)) {
+                log.debug("Order stream client fell {} events behind, disconnecting it", clientQueueSize);
+                close();
+                execute(emitter::complete);
+                return;
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            StreamEvent event;
+            while (clients.contains(this) && (event = pending.poll()) != null) {
+                if (!send(emitter, event)) {
+                    close();
+                    return;
+                }
+                delivered(event);
+            }
+            draining.set(false);
+            if (!pending.isEmpty() && clients.contains(this)) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            clients.remove(this);
+            pending.clear();
+        }
+
+        private void execute(Runnable task) {
+            try {
+                fanoutExecutor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; stop() completes the emitter
+            }
+        }
+    }
+}
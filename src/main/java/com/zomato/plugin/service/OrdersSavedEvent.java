@@ -0,0 +1,9 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+
+import java.util.List;
+
+// Published by OrderService once orders are stored, whether inserted now or already present
+public record OrdersSavedEvent(List<Order> orders) {
+}
@@ -1,130 +1,353 @@
 package com.zomato.plugin.service;
 
-import com.zomato.plugin.entity.Order;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.WebSocket;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Consumer;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
 
 @Service
-public class PlaywrightService {
+public class PlaywrightService implements MeterBinder {
 
     private static final Logger log = LoggerFactory.getLogger(PlaywrightService.class);
 
-    @Value("${app.playwright.headless:true}")
-    private boolean headless;
+    public enum CaptureMode {
+        // Playwright's page.onResponse and onWebSocket listeners
+        PAGE,
+        // DevTools Network domain events on a CDP session (Chromium only)
+        CDP
+    }
 
     @Value("${app.playwright.session-file:zomato-session.json}")
     private String sessionFile;
 
-    @Value("${app.zomato.partner-url:https://www.zomato.com/partners}")
-    private String partnerUrl;
+    @Value("${app.capture.mode:PAGE}")
+    private CaptureMode captureMode = CaptureMode.PAGE;
+
+    private final Map<String, AccountCapture> accounts = new ConcurrentHashMap<>();
+
+    private final OrderPipeline orderPipeline;
+
+    // Every account's captures feed the pipeline through these two sources
+    private final CaptureChannelSource xhrSource = new CaptureChannelSource("xhr");
+
+    private final CaptureChannelSource webSocketSource = new CaptureChannelSource("ws");
+
+    private final ResponseFilter responseFilter;
+
+    private final WebSocketFrameDecoder frameDecoder;
+
+    private final ResourceBlocker resourceBlocker;
 
-    private final AtomicBoolean listening = new AtomicBoolean(false);
+    private final CaptureRecorder captureRecorder;
 
-    private Consumer<Order> orderCallback;
+    private final OrderLatencyMetrics latencyMetrics;
+
+    public PlaywrightService(OrderPipeline orderPipeline, ResponseFilter responseFilter,
+                             WebSocketFrameDecoder frameDecoder, ResourceBlocker resourceBlocker,
+                             CaptureRecorder captureRecorder, OrderLatencyMetrics latencyMetrics) {
+        this.orderPipeline = orderPipeline;
+        this.responseFilter = responseFilter;
+        this.frameDecoder = frameDecoder;
+        this.resourceBlocker = resourceBlocker;
+        this.captureRecorder = captureRecorder;
+        this.latencyMetrics = latencyMetrics;
+        orderPipeline.start(xhrSource);
+        orderPipeline.start(webSocketSource);
+    }
 
     public boolean hasExistingSession() {
         return Files.exists(Paths.get(sessionFile));
     }
 
+    public boolean hasExistingSession(String username) {
+        return Files.exists(Paths.get(getSessionFilePath(username)));
+    }
+
     public String getSessionFilePath() {
         return sessionFile;
     }
 
+    // Each account keeps its own storage state next to the configured session file
+    public String getSessionFilePath(String username) {
+        Path base = Path.of(sessionFile);
+        String name = base.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String account = encodeAccount(username);
+        String accountName = dot > 0
+                ? name.substring(0, dot) + "-" + account + name.substring(dot)
+                : name + "-" + account;
+        return base.resolveSibling(accountName).toString();
+    }
+
+    // Bytes outside [A-Za-z0-9._-] become %XX, so names like user@example.com stay reversible
+    static String encodeAccount(String username) {
+        StringBuilder account = new StringBuilder();
+        for (byte b : username.getBytes(StandardCharsets.UTF_8)) {
+            if ((b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || (b >= '0' && b <= '9')
+                    || b == '.' || b == '_' || b == '-') {
+                account.append((char) b);
+            } else {
+                account.append('%').append(String.format("%02X", b & 0xFF));
+            }
+        }
+        return account.toString();
+    }
+
+    // null when the name is not one encodeAccount produced
+    static String decodeAccount(String account) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        for (int i = 0; i < account.length(); i++) {
+            char c = account.charAt(i);
+            if (c == '%') {
+                if (i + 2 >= account.length() || !HexFormat.isHexDigit(account.charAt(i + 1))
+                        || !HexFormat.isHexDigit(account.charAt(i + 2))) {
+                    return null;
+                }
+                bytes.write(HexFormat.fromHexDigits(account, i + 1, i + 3));
+                i += 2;
+            } else if (c > 0x7F) {
+                return null;
+            } else {
+                bytes.write(c);
+            }
+        }
+        return bytes.toString(StandardCharsets.UTF_8);
+    }
+
+    // Accounts with a storage state file on disk, most recently written first, keyed by
+    // the username getSessionFilePath encoded into each file name
+    public Map<String, Path> findStoredSessions() {
+        Path base = Path.of(sessionFile);
+        String name = base.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String prefix = (dot > 0 ? name.substring(0, dot) : name) + "-";
+        String suffix = dot > 0 ? name.substring(dot) : "";
+        Map<String, Path> sessions = new LinkedHashMap<>();
+        try (Stream<Path> files = Files.list(base.toAbsolutePath().getParent())) {
+            files.filter(file -> {
+                        String fileName = file.getFileName().toString();
+                        return fileName.length() > prefix.length() + suffix.length() && fileName.startsWith(prefix)
+                                && fileName.endsWith(suffix) && Files.isRegularFile(file);
+                    })
+                    .sorted(Comparator.comparingLong((Path file) -> file.toFile().lastModified()).reversed())
+                    .forEach(file -> {
+                        String fileName = file.getFileName().toString();
+                        String username = decodeAccount(
+                                fileName.substring(prefix.length(), fileName.length() - suffix.length()));
+                        if (username != null) {
+                            sessions.put(username, base.resolveSibling(fileName));
+                        }
+                    });
+        } catch (IOException e) {
+            log.warn("Cannot list stored sessions next to {}", base, e);
+        }
+        return sessions;
+    }
+
+    // True while any account is listening
     public boolean isListening() {
-        return listening.get();
+        return accounts.values().stream().anyMatch(AccountCapture::isListening);
+    }
+
+    public boolean isListening(String username) {
+        AccountCapture account = accounts.get(username);
+        return account != null && account.isListening();
+    }
+
+    public int getListeningCount() {
+        return (int) accounts.values().stream().filter(AccountCapture::isListening).count();
     }
 
-    public void setOrderCallback(Consumer<Order> callback) {
-        this.orderCallback = callback;
+    public int getAccountCount() {
+        return accounts.size();
     }
 
     public String login(String username, String password) {
         log.info("Attempting login for user: {}", username);
         // In a real implementation, this would use Playwright to automate the login
         // For POC, this is a placeholder that would be replaced with actual Playwright code
-        return sessionFile;
+        return getSessionFilePath(username);
     }
 
-    public void startListening() {
-        if (listening.compareAndSet(false, true)) {
-            log.info("Started order listening");
+    public void startListening(String username) {
+        if (account(username).startListening()) {
+            log.info("Started order listening for {}", username);
+            listenerStateChanged(username, true);
         }
     }
 
-    public void stopListening() {
-        if (listening.compareAndSet(true, false)) {
-            log.info("Stopped order listening");
+    public void stopListening(String username) {
+        AccountCapture account = accounts.get(username);
+        if (account != null && account.stopListening()) {
+            log.info("Stopped order listening for {}", username);
+            listenerStateChanged(username, false);
         }
     }
 
-    public void processOrderJson(String json) {
-        if (orderCallback != null) {
-            Order order = parseOrderFromJson(json);
-            if (order != null) {
-                orderCallback.accept(order);
-            }
+    private static void listenerStateChanged(String username, boolean listening) {
+        FlightEvents.ListenerStateChanged event = new FlightEvents.ListenerStateChanged();
+        if (event.shouldCommit()) {
+            event.account = username;
+            event.listening = listening;
+            event.commit();
+        }
+    }
+
+    AccountCapture account(String username) {
+        return accounts.computeIfAbsent(username, key -> new AccountCapture());
+    }
+
+    public CaptureMode getCaptureMode() {
+        return captureMode;
+    }
+
+    void setCaptureMode(CaptureMode captureMode) {
+        this.captureMode = captureMode;
+    }
+
+    // Registers the resource blocker and the capture listeners of the
+    // configured mode on an account's portal page
+    public void attach(Page page, String username) {
+        AccountCapture account = account(username);
+        if (resourceBlocker.isEnabled()) {
+            page.route("**/*", resourceBlocker::handle);
+        }
+        if (captureMode == CaptureMode.CDP) {
+            CdpNetworkCapture cdpCapture = new CdpNetworkCapture(page.context().newCDPSession(page), responseFilter,
+                    account::isListening,
+                    (url, json) -> captureOrderJson(CaptureRecord.Source.XHR, url, json),
+                    this::openWebSocketChannel);
+            cdpCapture.start();
+            account.setCdpCapture(cdpCapture);
+        } else {
+            page.onResponse(response -> onResponse(account, response));
+            page.onWebSocket(webSocket -> onWebSocket(account, webSocket));
+        }
+        log.info("Attached order capture for {} to {} ({} mode)", username, page.url(), captureMode);
+    }
+
+    // page.onResponse handler. Only metadata is inspected until the filter
+    // accepts the response; unrelated bodies are never fetched.
+    void onResponse(AccountCapture account, Response response) {
+        if (!account.isListening()) {
+            return;
+        }
+        String contentType = response.headers().get("content-type");
+        if (responseFilter.accept(response.request().resourceType(), response.url(), contentType)) {
+            long capturedNanos = System.nanoTime();
+            captureOrderJson(CaptureRecord.Source.XHR, response.url(), response.text(), capturedNanos);
         }
     }
 
-    Order parseOrderFromJson(String json) {
-        try {
-            // Simple JSON parsing for POC - in production would use Jackson
-            Order order = new Order();
-            order.setOrderId(extractJsonField(json, "orderId"));
-            order.setCustomerName(extractJsonField(json, "customerName"));
-            String amount = extractJsonField(json, "totalAmount");
-            if (amount != null) {
-                order.setTotalAmount(new BigDecimal(amount));
+    // page.onWebSocket handler. Playwright does not expose the frame opcode,
+    // so frames are decoded from their bytes.
+    void onWebSocket(AccountCapture account, WebSocket webSocket) {
+        WebSocketFrameDecoder.Channel channel = openWebSocketChannel(webSocket.url());
+        webSocket.onFrameReceived(frame -> {
+            if (account.isListening()) {
+                channel.onFrame(frame.binary());
             }
-            order.setStatus(extractJsonField(json, "status"));
-            order.setOrderTime(LocalDateTime.now());
-            order.setRawJson(json);
-            return order;
-        } catch (Exception e) {
-            log.error("Failed to parse order JSON: {}", json, e);
-            return null;
+        });
+    }
+
+    WebSocketFrameDecoder.Channel openWebSocketChannel(String url) {
+        return frameDecoder.open(json -> captureOrderJson(CaptureRecord.Source.WS, url, json),
+                json -> captureOrderBytes(url, json));
+    }
+
+    // Entry point for response and WebSocket listeners: records the payload
+    // if a recording runs and hands it to the order pipeline through the
+    // source of its channel, so the Playwright thread never parses or waits
+    // on persistence. When ingestion is saturated the payload waits in its
+    // overflow queue; past that it is dropped and false is returned.
+    public boolean captureOrderJson(CaptureRecord.Source source, String url, String json) {
+        return captureOrderJson(source, url, json, System.nanoTime());
+    }
+
+    // capturedNanos is taken before the response body is read, which counts to the intercept stage
+    private boolean captureOrderJson(CaptureRecord.Source source, String url, String json, long capturedNanos) {
+        FlightEvents.OrderCaptured event = new FlightEvents.OrderCaptured();
+        event.begin();
+        captureRecorder.record(source, url, json);
+        boolean accepted = source == CaptureRecord.Source.WS
+                ? webSocketSource.submit(json, capturedNanos)
+                : xhrSource.submit(json, capturedNanos);
+        latencyMetrics.record(OrderLatencyMetrics.Stage.INTERCEPT, System.nanoTime() - capturedNanos);
+        captured(event, source, url, json == null ? 0 : json.length(), accepted);
+        return accepted;
+    }
+
+    // Binary frames are decoded to text on the ingestion thread, unless a recording needs the text first
+    boolean captureOrderBytes(String url, byte[] json) {
+        long capturedNanos = System.nanoTime();
+        if (captureRecorder.isRecording()) {
+            return captureOrderJson(CaptureRecord.Source.WS, url, new String(json, StandardCharsets.UTF_8),
+                    capturedNanos);
         }
+        FlightEvents.OrderCaptured event = new FlightEvents.OrderCaptured();
+        event.begin();
+        boolean accepted = webSocketSource.submit(json, capturedNanos);
+        latencyMetrics.record(OrderLatencyMetrics.Stage.INTERCEPT, System.nanoTime() - capturedNanos);
+        captured(event, CaptureRecord.Source.WS, url, json.length, accepted);
+        return accepted;
     }
 
-    String extractJsonField(String json, String field) {
-        String pattern = "\"" + field + "\"";
-        int idx = json.indexOf(pattern);
-        if (idx < 0) return null;
-        int colonIdx = json.indexOf(':', idx + pattern.length());
-        if (colonIdx < 0) return null;
-        // Skip whitespace after colon
-        int valueStart = colonIdx + 1;
-        while (valueStart < json.length() && json.charAt(valueStart) == ' ') valueStart++;
-        if (valueStart >= json.length()) return null;
-        char firstChar = json.charAt(valueStart);
-        if (firstChar == '"') {
-            // String value
-            int end = json.indexOf('"', valueStart + 1);
-            if (end < 0) return null;
-            return json.substring(valueStart + 1, end);
-        } else if (Character.isDigit(firstChar) || firstChar == '-') {
-            // Numeric value
-            int numEnd = valueStart;
-            while (numEnd < json.length() && (Character.isDigit(json.charAt(numEnd)) || json.charAt(numEnd) == '.' || json.charAt(numEnd) == '-')) numEnd++;
-            return json.substring(valueStart, numEnd);
+    private static void captured(FlightEvents.OrderCaptured event, CaptureRecord.Source source, String url,
+                                 int payloadLength, boolean accepted) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.channel = source.name();
+            event.url = url;
+            event.payloadLength = payloadLength;
+            event.accepted = accepted;
+            event.commit();
         }
-        return null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("order.capture.accounts", this, PlaywrightService::getListeningCount)
+                .description("Accounts known to the order capture, by listener state")
+                .tag("state", "listening")
+                .register(meterRegistry);
+        Gauge.builder("order.capture.accounts", this, service -> service.getAccountCount() - service.getListeningCount())
+                .description("Accounts known to the order capture, by listener state")
+                .tag("state", "paused")
+                .register(meterRegistry);
     }
 
     @PreDestroy
     public void cleanup() {
-        stopListening();
+        for (AccountCapture account : accounts.values()) {
+            account.stopListening();
+            CdpNetworkCapture cdpCapture = account.getCdpCapture();
+            if (cdpCapture != null) {
+                cdpCapture.stop();
+                account.setCdpCapture(null);
+            }
+        }
+        orderPipeline.stop(xhrSource);
+        orderPipeline.stop(webSocketSource);
         log.info("PlaywrightService cleaned up");
     }
 }
@@ -0,0 +1,150 @@
+package com.zomato.plugin.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One account's signed-in partner portal page, in its own isolated context of
+ * the shared browser. Only ever touched from the {@link BrowserPool} thread.
+ * Each watchdog interval the page's memory is sampled; past a threshold the
+ * context is recycled make-before-break: the storage state is saved to the
+ * account's session file, a fresh context is opened from it with the capture
+ * listeners attached, and only then is the old context closed, so capture
+ * never stops.
+ */
+public class PortalSession {
+
+    private static final Logger log = LoggerFactory.getLogger(PortalSession.class);
+
+    private final Browser browser;
+    private final String username;
+    private final PlaywrightService playwrightService;
+    private final BrowserMemoryWatchdog watchdog;
+    private final HandoverDeduplicator deduplicator;
+    private final Path sessionFile;
+    private final String partnerUrl;
+
+    private BrowserContext context;
+    private Page page;
+    private CDPSession metricsSession;
+    private long nextCheckNanos;
+    // System.nanoTime() of the release, or -1 while the account is connected
+    private long idleSinceNanos = -1;
+
+    public PortalSession(Browser browser, String username, PlaywrightService playwrightService,
+                         BrowserMemoryWatchdog watchdog, HandoverDeduplicator deduplicator,
+                         Path sessionFile, String partnerUrl) {
+        this.browser = browser;
+        this.username = username;
+        this.playwrightService = playwrightService;
+        this.watchdog = watchdog;
+        this.deduplicator = deduplicator;
+        this.sessionFile = sessionFile;
+        this.partnerUrl = partnerUrl;
+    }
+
+    public void open() {
+        openContext();
+        nextCheckNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(watchdog.getIntervalMs());
+    }
+
+    // Waiting on any page dispatches events for every context of the browser
+    public void pump(double timeoutMs) {
+        page.waitForTimeout(timeoutMs);
+    }
+
+    public void close() {
+        context.close();
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public boolean isIdle() {
+        return idleSinceNanos >= 0;
+    }
+
+    public long getIdleSinceNanos() {
+        return idleSinceNanos;
+    }
+
+    public void markIdle(long nowNanos) {
+        idleSinceNanos = nowNanos;
+    }
+
+    public void markActive() {
+        idleSinceNanos = -1;
+    }
+
+    // Samples memory once the watchdog interval has elapsed since the last check
+    public void checkMemoryIfDue(long nowNanos) {
+        if (nowNanos - nextCheckNanos >= 0) {
+            checkMemory();
+            nextCheckNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(watchdog.getIntervalMs());
+        }
+    }
+
+    void checkMemory() {
+        BrowserMemoryWatchdog.Sample sample = watchdog.sample(metricsSession);
+        if (watchdog.isOverThreshold(sample)) {
+            log.info("Portal page of {} over memory limits (JS heap {} bytes, {} DOM nodes), recycling context",
+                    username, sample.jsHeapUsedBytes(), sample.domNodes());
+            recycle();
+        }
+    }
+
+    // The old page keeps capturing until the fresh one is attached and loaded
+    void recycle() {
+        long start = System.nanoTime();
+        BrowserContext oldContext = context;
+        deduplicator.beginHandover();
+        try {
+            oldContext.storageState(new BrowserContext.StorageStateOptions().setPath(sessionFile));
+            openContext();
+        } catch (PlaywrightException e) {
+            deduplicator.endHandover();
+            log.error("Context recycle failed for {}, keeping the current context", username, e);
+            return;
+        }
+        long handoverMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        watchdog.recordRecycle(handoverMs);
+        try {
+            oldContext.close();
+        } finally {
+            deduplicator.endHandover();
+        }
+        log.info("Portal context of {} recycled, handover took {} ms", username, handoverMs);
+    }
+
+    // Listeners go on before navigation so the page's first order fetch is captured
+    private void openContext() {
+        Browser.NewContextOptions options = new Browser.NewContextOptions();
+        if (Files.exists(sessionFile)) {
+            options.setStorageStatePath(sessionFile);
+        }
+        BrowserContext fresh = browser.newContext(options);
+        try {
+            Page freshPage = fresh.newPage();
+            playwrightService.attach(freshPage, username);
+            freshPage.navigate(partnerUrl);
+            CDPSession freshMetrics = fresh.newCDPSession(freshPage);
+            freshMetrics.send("Performance.enable");
+            context = fresh;
+            page = freshPage;
+            metricsSession = freshMetrics;
+        } catch (PlaywrightException e) {
+            fresh.close();
+            throw e;
+        }
+    }
+}
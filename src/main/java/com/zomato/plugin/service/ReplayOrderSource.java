@@ -0,0 +1,89 @@
+package com.zomato.plugin.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * A capture file fed back as order traffic. At speed 1 records keep their
+ * original spacing, at speed N they come N times as fast and at speed 0
+ * without any pause. Records wait for ingestion capacity instead of being
+ * dropped, so every record reaches the pipeline at any speed. Runs on the
+ * thread calling {@link #replay}.
+ */
+public class ReplayOrderSource implements OrderSource {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private final String name;
+    private final Path file;
+    private final double speed;
+    private volatile OrderSink sink;
+    private volatile long records;
+
+    public ReplayOrderSource(String name, Path file, double speed) {
+        this.name = name;
+        this.file = file;
+        this.speed = speed;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void start(OrderSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void stop() {
+        this.sink = null;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    // Replays until the end of the file or until the source is stopped and
+    // returns the records fed. Progress gets the record count before every
+    // pause and every 1000 records.
+    public long replay(LongConsumer progress) throws IOException, InterruptedException {
+        if (sink == null) {
+            throw new IllegalStateException("Order source " + name + " is not started");
+        }
+        long startNanos = System.nanoTime();
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            long firstMicros = 0;
+            CaptureRecord record;
+            while ((record = reader.read()) != null) {
+                if (records == 0) {
+                    firstMicros = record.timestampMicros();
+                } else if (speed > 0) {
+                    // Paced replays are slow enough to report before every pause
+                    progress.accept(records);
+                    long offsetNanos = TimeUnit.MICROSECONDS.toNanos(record.timestampMicros() - firstMicros);
+                    waitUntil(startNanos + (long) (offsetNanos / speed));
+                }
+                OrderSink current = sink;
+                if (current == null || !current.put(record.body())) {
+                    break;
+                }
+                records++;
+                if (records % PROGRESS_INTERVAL == 0) {
+                    progress.accept(records);
+                }
+            }
+        }
+        return records;
+    }
+
+    private static void waitUntil(long dueNanos) throws InterruptedException {
+        long wait;
+        while ((wait = dueNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.zomato.plugin.service;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progress and result of one capture file replay. Orders and duplicates
+ * are the pipeline counts of the replay's source, and every source starts
+ * with empty recent-id memory, so two replays of one file through the same
+ * build report the same counts; only the timings differ.
+ */
+public class ReplayRun {
+
+    public enum State {RUNNING, FINISHED, FAILED}
+
+    private final String file;
+    private final String source;
+    private final double speed;
+    private final Instant startedAt = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile long records;
+    private volatile long orders;
+    private volatile long duplicates;
+    private volatile Duration elapsed = Duration.ZERO;
+    private volatile String error;
+
+    public ReplayRun(String file, String source, double speed) {
+        this.file = file;
+        this.source = source;
+        this.speed = speed;
+    }
+
+    public String getFile() {
+        return file;
+    }
+
+    // Name of the order source the replay runs as
+    public String getSource() {
+        return source;
+    }
+
+    // Zero for as fast as possible
+    public double getSpeed() {
+        return speed;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getRecords() {
+        return records;
+    }
+
+    // Orders parsed from the replayed payloads
+    public long getOrders() {
+        return orders;
+    }
+
+    // Orders dropped before persisting because their orderId was seen earlier in this replay
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    public long getElapsedMs() {
+        return elapsed.toMillis();
+    }
+
+    public double getRecordsPerSecond() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : records * 1e9 / nanos;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void progress(long records, long orders, long duplicates, Duration elapsed) {
+        this.records = records;
+        this.orders = orders;
+        this.duplicates = duplicates;
+        this.elapsed = elapsed;
+    }
+
+    void finish() {
+        state = State.FINISHED;
+    }
+
+    void fail(String message) {
+        error = message;
+        state = State.FAILED;
+    }
+}
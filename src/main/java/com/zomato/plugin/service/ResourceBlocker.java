@@ -0,0 +1,139 @@
+package com.zomato.plugin.service;
+
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Route;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Request routing for the long-lived portal page. Drops what order capture
+ * never needs (images, fonts, media, trackers) before it reaches the
+ * network: a request is blocked when its resource type or its host is on the
+ * block list, unless its host is on the allow list. Hosts are globs as in
+ * {@link ResponseFilter}. Requests that pass fall back to any later route
+ * handler. Routing disables Playwright's HTTP cache for the page.
+ */
+@Component
+public class ResourceBlocker implements MeterBinder {
+
+    static final String ABORT_ERROR_CODE = "blockedbyclient";
+
+    private static final List<String> RESOURCE_TYPES = List.of("document", "stylesheet", "image", "media", "font",
+            "script", "texttrack", "xhr", "fetch", "eventsource", "websocket", "manifest", "other");
+
+    private final boolean enabled;
+    private final Set<String> blockedTypes;
+    private final Pattern blockedHosts;
+    private final Pattern allowedHosts;
+    private final Map<String, AtomicLong> blocked = new LinkedHashMap<>();
+    private final Map<String, AtomicLong> passed = new LinkedHashMap<>();
+
+    public ResourceBlocker(@Value("${app.capture.blocking.enabled:true}") boolean enabled,
+                           @Value("${app.capture.blocking.resource-types:image,media,font}") List<String> blockedTypes,
+                           @Value("${app.capture.blocking.hosts:}") List<String> blockedHosts,
+                           @Value("${app.capture.blocking.allowed-hosts:}") List<String> allowedHosts) {
+        this.enabled = enabled;
+        this.blockedTypes = blockedTypes.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.blockedHosts = hostPattern(blockedHosts);
+        this.allowedHosts = hostPattern(allowedHosts);
+        for (String type : RESOURCE_TYPES) {
+            blocked.put(type, new AtomicLong());
+            passed.put(type, new AtomicLong());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // page.route handler for every URL
+    public void handle(Route route) {
+        Request request = route.request();
+        String type = RESOURCE_TYPES.contains(request.resourceType()) ? request.resourceType() : "other";
+        if (shouldBlock(type, request.url())) {
+            blocked.get(type).incrementAndGet();
+            route.abort(ABORT_ERROR_CODE);
+        } else {
+            passed.get(type).incrementAndGet();
+            route.fallback();
+        }
+    }
+
+    boolean shouldBlock(String resourceType, String url) {
+        String host = host(url);
+        if (matches(allowedHosts, host)) {
+            return false;
+        }
+        return blockedTypes.contains(resourceType) || matches(blockedHosts, host);
+    }
+
+    public long getBlockedCount(String resourceType) {
+        return blocked.get(resourceType).get();
+    }
+
+    public long getBlockedCount() {
+        return blocked.values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    public long getPassedCount(String resourceType) {
+        return passed.get(resourceType).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (String type : RESOURCE_TYPES) {
+            register(meterRegistry, type, "blocked", blocked.get(type));
+            register(meterRegistry, type, "passed", passed.get(type));
+        }
+    }
+
+    // Host of an absolute URL without user info or port; null for data:, blob: and the like
+    static String host(String url) {
+        int scheme = url.indexOf("://");
+        if (scheme < 0) {
+            return null;
+        }
+        int start = scheme + 3;
+        int end = start;
+        while (end < url.length() && "/?#".indexOf(url.charAt(end)) < 0) {
+            end++;
+        }
+        int userInfo = url.lastIndexOf('@', end - 1);
+        if (userInfo >= start) {
+            start = userInfo + 1;
+        }
+        int port = url.lastIndexOf(':', end - 1);
+        if (port >= start && url.charAt(end - 1) != ']') {
+            end = port;
+        }
+        return url.substring(start, end);
+    }
+
+    private static boolean matches(Pattern hosts, String host) {
+        return hosts != null && host != null && hosts.matcher(host).matches();
+    }
+
+    private static Pattern hostPattern(List<String> globs) {
+        List<String> hosts = globs.stream().map(String::trim).filter(glob -> !glob.isEmpty()).toList();
+        return hosts.isEmpty() ? null : ResponseFilter.compile(hosts);
+    }
+
+    private static void register(MeterRegistry meterRegistry, String type, String result, AtomicLong counter) {
+        FunctionCounter.builder("order.capture.routed.requests", counter, AtomicLong::get)
+                .description("Requests of the portal page seen by the resource blocker, by resource type")
+                .tag("type", type)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,141 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Decides from response metadata alone whether a captured response can be an
+ * order payload, so bodies of unrelated traffic are never read. URL globs
+ * ({@code *} any run of characters, {@code ?} one character) are compiled
+ * into a single alternation; the first matching glob is credited with a hit,
+ * or with a miss when its content type is not accepted.
+ */
+@Component
+public class ResponseFilter implements MeterBinder {
+
+    private final Set<String> resourceTypes;
+    private final List<String> urlPatterns;
+    private final List<String> contentTypes;
+    private final Pattern urlMatcher;
+    private final AtomicLong[] hits;
+    private final AtomicLong[] misses;
+    private final AtomicLong skipped = new AtomicLong();
+
+    public ResponseFilter(@Value("${app.capture.resource-types:xhr,fetch}") List<String> resourceTypes,
+                          @Value("${app.capture.url-patterns:*/orders*}") List<String> urlPatterns,
+                          @Value("${app.capture.content-types:application/json}") List<String> contentTypes) {
+        this.resourceTypes = resourceTypes.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        this.urlPatterns = urlPatterns.stream().map(String::trim).toList();
+        this.contentTypes = contentTypes.stream().map(type -> type.trim().toLowerCase(Locale.ROOT)).toList();
+        this.urlMatcher = compile(this.urlPatterns);
+        this.hits = counters(this.urlPatterns.size());
+        this.misses = counters(this.urlPatterns.size());
+    }
+
+    public boolean accept(String resourceType, String url, String contentType) {
+        int pattern = resourceTypes.contains(resourceType) ? matchingPattern(url) : -1;
+        if (pattern < 0) {
+            skipped.incrementAndGet();
+            return false;
+        }
+        if (!acceptsContentType(contentType)) {
+            misses[pattern].incrementAndGet();
+            return false;
+        }
+        hits[pattern].incrementAndGet();
+        return true;
+    }
+
+    public long getHitCount(String urlPattern) {
+        return hits[urlPatterns.indexOf(urlPattern)].get();
+    }
+
+    public long getMissCount(String urlPattern) {
+        return misses[urlPatterns.indexOf(urlPattern)].get();
+    }
+
+    public long getSkippedCount() {
+        return skipped.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (int i = 0; i < urlPatterns.size(); i++) {
+            register(meterRegistry, urlPatterns.get(i), "hit", hits[i]);
+            register(meterRegistry, urlPatterns.get(i), "miss", misses[i]);
+        }
+        FunctionCounter.builder("order.capture.filter.skipped", skipped, AtomicLong::get)
+                .description("Responses matching no capture URL pattern or resource type")
+                .register(meterRegistry);
+    }
+
+    private int matchingPattern(String url) {
+        Matcher matcher = urlMatcher.matcher(url);
+        if (!matcher.matches()) {
+            return -1;
+        }
+        int pattern = 0;
+        while (matcher.start("p" + pattern) < 0) {
+            pattern++;
+        }
+        return pattern;
+    }
+
+    // Compares the media type only, ignoring parameters such as charset
+    private boolean acceptsContentType(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mediaType = (parameters < 0 ? contentType : contentType.substring(0, parameters))
+                .trim().toLowerCase(Locale.ROOT);
+        return contentTypes.contains(mediaType);
+    }
+
+    // One alternation of the globs, each in a group named p<index>
+    static Pattern compile(List<String> globs) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < globs.size(); i++) {
+            if (i > 0) {
+                regex.append('|');
+            }
+            regex.append("(?<p").append(i).append('>');
+            for (String literal : globs.get(i).split("(?=[*?])|(?<=[*?])")) {
+                switch (literal) {
+                    case "*" -> regex.append(".*");
+                    case "?" -> regex.append('.');
+                    default -> regex.append(Pattern.quote(literal));
+                }
+            }
+            regex.append(')');
+        }
+        return Pattern.compile(regex.toString());
+    }
+
+    private static AtomicLong[] counters(int size) {
+        AtomicLong[] counters = new AtomicLong[size];
+        for (int i = 0; i < size; i++) {
+            counters[i] = new AtomicLong();
+        }
+        return counters;
+    }
+
+    private static void register(MeterRegistry meterRegistry, String pattern, String result, AtomicLong counter) {
+        FunctionCounter.builder("order.capture.filter.matches", counter, AtomicLong::get)
+                .description("Responses matched by a capture URL pattern, by content-type result")
+                .tag("pattern", pattern)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
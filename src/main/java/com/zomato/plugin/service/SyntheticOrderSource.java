@@ -0,0 +1,126 @@
+package com.zomato.plugin.service;
+
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated order traffic for load tests and benchmarks, so they can drive
+ * the production pipeline without a browser or a capture file. Payloads
+ * wait for ingestion capacity instead of being dropped. Runs on the thread
+ * calling {@link #run}.
+ */
+public class SyntheticOrderSource implements OrderSource {
+
+    /**
+     * Shape of the generated traffic. Duplicates repeat the id of an earlier
+     * order, like a polled list endpoint does; orders are padded to about
+     * orderBytes each.
+     */
+    public record Load(long payloads, double payloadsPerSecond, int ordersPerPayload, double duplicateRatio,
+                       int orderBytes) {
+
+        // As fast as the pipeline takes them, one unique order per payload
+        public static Load of(long payloads) {
+            return new Load(payloads, 0, 1, 0, 600);
+        }
+
+        public Load withPayloadsPerSecond(double payloadsPerSecond) {
+            return new Load(payloads, payloadsPerSecond, ordersPerPayload, duplicateRatio, orderBytes);
+        }
+
+        public Load withOrdersPerPayload(int ordersPerPayload) {
+            return new Load(payloads, payloadsPerSecond, ordersPerPayload, duplicateRatio, orderBytes);
+        }
+
+        public Load withDuplicateRatio(double duplicateRatio) {
+            return new Load(payloads, payloadsPerSecond, ordersPerPayload, duplicateRatio, orderBytes);
+        }
+
+        public Load withOrderBytes(int orderBytes) {
+            return new Load(payloads, payloadsPerSecond, ordersPerPayload, duplicateRatio, orderBytes);
+        }
+    }
+
+    private final String name;
+    private final Load load;
+    private final Random random;
+    // Keeps order ids of separate runs apart in the database
+    private final String idPrefix = "SYN-" + Long.toString(System.currentTimeMillis(), 36).toUpperCase(Locale.ROOT);
+    private volatile OrderSink sink;
+    private volatile long emitted;
+    private long nextId;
+
+    public SyntheticOrderSource(String name, Load load, long seed) {
+        this.name = name;
+        this.load = load;
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public void start(OrderSink sink) {
+        this.sink = sink;
+    }
+
+    @Override
+    public void stop() {
+        this.sink = null;
+    }
+
+    public long getEmitted() {
+        return emitted;
+    }
+
+    // Emits the configured payloads or until the source is stopped and
+    // returns the number emitted
+    public long run() throws InterruptedException {
+        if (sink == null) {
+            throw new IllegalStateException("Order source " + name + " is not started");
+        }
+        long startNanos = System.nanoTime();
+        long intervalNanos = load.payloadsPerSecond() > 0 ? (long) (1e9 / load.payloadsPerSecond()) : 0;
+        while (emitted < load.payloads()) {
+            if (intervalNanos > 0) {
+                waitUntil(startNanos + emitted * intervalNanos);
+            }
+            OrderSink current = sink;
+            if (current == null || !current.put(nextPayload())) {
+                break;
+            }
+            emitted++;
+        }
+        return emitted;
+    }
+
+    String nextPayload() {
+        if (load.ordersPerPayload() == 1) {
+            return nextOrder();
+        }
+        StringBuilder payload = new StringBuilder("[");
+        for (int i = 0; i < load.ordersPerPayload(); i++) {
+            payload.append(i == 0 ? "" : ",").append(nextOrder());
+        }
+        return payload.append(']').toString();
+    }
+
+    private String nextOrder() {
+        boolean duplicate = nextId > 0 && random.nextDouble() < load.duplicateRatio();
+        long id = duplicate ? (long) (random.nextDouble() * nextId) : nextId++;
+        String order = "{\"orderId\":\"" + idPrefix + "-" + id + "\",\"customerName\":\"Load Test " + id % 100
+                + "\",\"totalAmount\":\"" + (100 + id % 900) + ".50\",\"status\":\"NEW\",\"notes\":\"";
+        int padding = Math.max(0, load.orderBytes() - order.length() - 2);
+        return order + "x".repeat(padding) + "\"}";
+    }
+
+    private static void waitUntil(long dueNanos) throws InterruptedException {
+        long wait;
+        while ((wait = dueNanos - System.nanoTime()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(wait);
+        }
+    }
+}
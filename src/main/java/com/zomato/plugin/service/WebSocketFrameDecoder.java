@@ -0,0 +1,302 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Decodes order push channels frame by frame. Text frames may carry
+ * Engine.IO/Socket.IO packets ({@code 42["order",{...}]}), several of them
+ * separated by the Engine.IO record separator, or bare JSON. Only the first
+ * argument of configured order events and bare JSON is passed on; binary
+ * frames are inspected as bytes and only order attachments or JSON bodies
+ * are handed over, still as bytes. Each socket gets its own {@link Channel},
+ * which tracks the attachments announced by binary events.
+ */
+@Component
+public class WebSocketFrameDecoder implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(WebSocketFrameDecoder.class);
+
+    private static final char RECORD_SEPARATOR = '\u001e';
+
+    public enum MessageType {
+        // Order event or bare JSON, passed on for parsing
+        ORDER,
+        // Socket.IO event with another name
+        EVENT,
+        // Engine.IO open/ping/pong/close, Socket.IO connect/disconnect/ack
+        CONTROL,
+        // Binary attachment of a preceding binary event or ack
+        ATTACHMENT,
+        // Binary frame that is neither an attachment nor JSON
+        BINARY,
+        MALFORMED
+    }
+
+    private final Set<String> orderEvents;
+    private final Map<MessageType, AtomicLong> counts = new EnumMap<>(MessageType.class);
+
+    public WebSocketFrameDecoder(@Value("${app.capture.order-events:order,orders}") List<String> orderEvents) {
+        this.orderEvents = orderEvents.stream().map(String::trim).collect(Collectors.toUnmodifiableSet());
+        for (MessageType type : MessageType.values()) {
+            counts.put(type, new AtomicLong());
+        }
+    }
+
+    // textSink receives order JSON from text frames, bytesSink UTF-8 order JSON from binary frames
+    public Channel open(Consumer<String> textSink, Consumer<byte[]> bytesSink) {
+        return new Channel(textSink, bytesSink);
+    }
+
+    public long getCount(MessageType type) {
+        return counts.get(type).get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        for (MessageType type : MessageType.values()) {
+            FunctionCounter.builder("order.capture.websocket.messages", counts.get(type), AtomicLong::get)
+                    .description("WebSocket messages received, by type; a batched frame counts each message")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+    }
+
+    private void count(MessageType type) {
+        counts.get(type).incrementAndGet();
+    }
+
+    /**
+     * Decoding state of one socket. Not thread-safe; frames of a socket
+     * arrive in order on the Playwright thread.
+     */
+    public final class Channel {
+
+        private final Consumer<String> textSink;
+        private final Consumer<byte[]> bytesSink;
+        private int pendingAttachments;
+        private boolean orderAttachments;
+
+        private Channel(Consumer<String> textSink, Consumer<byte[]> bytesSink) {
+            this.textSink = textSink;
+            this.bytesSink = bytesSink;
+        }
+
+        // For frames whose opcode is unknown (Playwright's WebSocketFrame):
+        // Engine.IO packets start with a type digit, anything else is kept as bytes
+        public void onFrame(byte[] data) {
+            if (pendingAttachments == 0 && data.length > 0 && isDigit((char) data[0])) {
+                onText(new String(data, StandardCharsets.UTF_8));
+            } else {
+                onBinary(data);
+            }
+        }
+
+        public void onText(String frame) {
+            int start = 0;
+            while (start <= frame.length()) {
+                int end = frame.indexOf(RECORD_SEPARATOR, start);
+                if (end < 0) {
+                    end = frame.length();
+                }
+                if (end > start) {
+                    decodeMessage(frame, start, end);
+                }
+                start = end + 1;
+            }
+        }
+
+        public void onBinary(byte[] data) {
+            if (pendingAttachments > 0) {
+                pendingAttachments--;
+                count(MessageType.ATTACHMENT);
+                if (orderAttachments) {
+                    bytesSink.accept(data);
+                }
+                return;
+            }
+            int first = 0;
+            while (first < data.length && isWhitespace((char) data[first])) {
+                first++;
+            }
+            if (first < data.length && (data[first] == '{' || data[first] == '[')) {
+                count(MessageType.ORDER);
+                bytesSink.accept(data);
+            } else {
+                count(MessageType.BINARY);
+            }
+        }
+
+        int getPendingAttachments() {
+            return pendingAttachments;
+        }
+
+        private void decodeMessage(String frame, int start, int end) {
+            try {
+                count(decodePacket(frame, start, end));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+                count(MessageType.MALFORMED);
+                log.debug("Malformed WebSocket message: {}", frame.substring(start, end), e);
+            }
+        }
+
+        private MessageType decodePacket(String frame, int pos, int end) {
+            char c = frame.charAt(pos);
+            if (c == '{' || c == '[') {
+                textSink.accept(frame.substring(pos, end));
+                return MessageType.ORDER;
+            }
+            if (!isDigit(c)) {
+                throw new IllegalArgumentException("Not an Engine.IO packet");
+            }
+            // Engine.IO: only 4 (message) carries data
+            if (c != '4') {
+                return MessageType.CONTROL;
+            }
+            pos++;
+            if (pos == end) {
+                throw new IllegalArgumentException("Empty Engine.IO message");
+            }
+            char packetType = frame.charAt(pos);
+            if (packetType == '{' || packetType == '[') {
+                textSink.accept(frame.substring(pos, end));
+                return MessageType.ORDER;
+            }
+            pos++;
+            // Socket.IO: 2 event, 5 binary event, 3/6 (binary) ack, 0/1/4 connection packets
+            int attachments = 0;
+            if (packetType == '5' || packetType == '6') {
+                int dash = frame.indexOf('-', pos);
+                if (dash < 0 || dash >= end) {
+                    throw new IllegalArgumentException("Missing attachment count");
+                }
+                attachments = Integer.parseInt(frame, pos, dash, 10);
+                pos = dash + 1;
+            }
+            if (packetType != '2' && packetType != '5') {
+                expectAttachments(attachments, false);
+                if (packetType == '0' || packetType == '1' || packetType == '3'
+                        || packetType == '4' || packetType == '6') {
+                    return MessageType.CONTROL;
+                }
+                throw new IllegalArgumentException("Unknown Socket.IO packet type " + packetType);
+            }
+            pos = skipNamespaceAndAckId(frame, pos, end);
+            return decodeEvent(frame, pos, end, attachments);
+        }
+
+        // [ "name" , firstArgument ... ]
+        private MessageType decodeEvent(String frame, int pos, int end, int attachments) {
+            pos = skipWhitespace(frame, pos, end);
+            expect(frame, pos++, '[');
+            pos = skipWhitespace(frame, pos, end);
+            expect(frame, pos, '"');
+            int nameEnd = closingQuote(frame, pos + 1, end);
+            boolean order = orderEvents.contains(frame.substring(pos + 1, nameEnd));
+            expectAttachments(attachments, order);
+            if (!order) {
+                return MessageType.EVENT;
+            }
+            pos = skipWhitespace(frame, nameEnd + 1, end);
+            if (frame.charAt(pos) == ',' && attachments == 0) {
+                int argument = skipWhitespace(frame, pos + 1, end);
+                textSink.accept(frame.substring(argument, valueEnd(frame, argument, end)));
+            }
+            return MessageType.ORDER;
+        }
+
+        private void expectAttachments(int attachments, boolean order) {
+            pendingAttachments = attachments;
+            orderAttachments = order;
+        }
+
+        private int skipNamespaceAndAckId(String frame, int pos, int end) {
+            if (frame.charAt(pos) == '/') {
+                int comma = frame.indexOf(',', pos);
+                if (comma < 0 || comma >= end) {
+                    throw new IllegalArgumentException("Unterminated namespace");
+                }
+                pos = comma + 1;
+            }
+            while (pos < end && isDigit(frame.charAt(pos))) {
+                pos++;
+            }
+            return pos;
+        }
+    }
+
+    private static void expect(String frame, int pos, char expected) {
+        if (frame.charAt(pos) != expected) {
+            throw new IllegalArgumentException("Expected '" + expected + "' at offset " + pos);
+        }
+    }
+
+    // End (exclusive) of the JSON value starting at pos
+    private static int valueEnd(String frame, int pos, int end) {
+        char c = frame.charAt(pos);
+        if (c == '"') {
+            return closingQuote(frame, pos + 1, end) + 1;
+        }
+        if (c != '{' && c != '[') {
+            while (pos < end && ",]} \t\r\n".indexOf(frame.charAt(pos)) < 0) {
+                pos++;
+            }
+            return pos;
+        }
+        int depth = 0;
+        while (pos < end) {
+            c = frame.charAt(pos);
+            if (c == '"') {
+                pos = closingQuote(frame, pos + 1, end);
+            } else if (c == '{' || c == '[') {
+                depth++;
+            } else if ((c == '}' || c == ']') && --depth == 0) {
+                return pos + 1;
+            }
+            pos++;
+        }
+        throw new IllegalArgumentException("Unterminated event argument");
+    }
+
+    private static int closingQuote(String frame, int from, int end) {
+        for (int i = from; i < end; i++) {
+            char c = frame.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '"') {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unterminated string");
+    }
+
+    private static int skipWhitespace(String frame, int pos, int end) {
+        while (pos < end && isWhitespace(frame.charAt(pos))) {
+            pos++;
+        }
+        return pos;
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -1,12 +1,37 @@
 package com.zomato.plugin;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
 class ZomatoPluginApplicationTest {
 
+    @Autowired
+    private MockMvc mockMvc;
+
     @Test
     void contextLoads() {
     }
+
+    @Test
+    void prometheusEndpointShouldExposePipelineLatency() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("order_capture_visible_latency_seconds_bucket{le=\"2.0\"")))
+                .andExpect(content().string(containsString("order_capture_visible_latency_seconds{quantile=\"0.99\"")))
+                .andExpect(content().string(containsString("order_capture_stage_latency_seconds_count{stage=\"parse\"")))
+                .andExpect(content().string(containsString("order_capture_visible_objective_seconds 2.0")))
+                .andExpect(content().string(containsString("order_capture_persisted_total{result=\"inserted\"")));
+    }
 }
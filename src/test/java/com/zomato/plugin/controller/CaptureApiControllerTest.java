@@ -0,0 +1,124 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.CaptureRecorder;
+import com.zomato.plugin.service.CaptureChannelSource;
+import com.zomato.plugin.service.CaptureReplayer;
+import com.zomato.plugin.service.HandoverDeduplicator;
+import com.zomato.plugin.service.IngestionExecutor;
+import com.zomato.plugin.service.OrderBatchWriter;
+import com.zomato.plugin.service.OrderLatencyMetrics;
+import com.zomato.plugin.service.OrderPipeline;
+import com.zomato.plugin.service.ReplayRun;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CaptureApiController.class)
+class CaptureApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CaptureRecorder captureRecorder;
+
+    @MockBean
+    private CaptureReplayer captureReplayer;
+
+    @MockBean
+    private OrderPipeline orderPipeline;
+
+    @Test
+    void shouldReportRecordingState() throws Exception {
+        when(captureRecorder.isRecording()).thenReturn(true);
+        when(captureRecorder.getFile()).thenReturn(Path.of("/srv/captures/capture-20261016-200000.gz"));
+        when(captureRecorder.getRecordCount()).thenReturn(42L);
+        when(captureRecorder.getDroppedCount()).thenReturn(3L);
+
+        mockMvc.perform(get("/api/capture/recording"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recording").value(true))
+                .andExpect(jsonPath("$.file").value("capture-20261016-200000.gz"))
+                .andExpect(jsonPath("$.records").value(42))
+                .andExpect(jsonPath("$.dropped").value(3));
+    }
+
+    @Test
+    void shouldStartAndStopRecording() throws Exception {
+        mockMvc.perform(post("/api/capture/recording/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.file").doesNotExist());
+        verify(captureRecorder).startRecording();
+
+        mockMvc.perform(post("/api/capture/recording/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recording").value(false));
+        verify(captureRecorder).stopRecording();
+    }
+
+    @Test
+    void shouldListOrderSourceStats() throws Exception {
+        OrderPipeline pipeline = new OrderPipeline(mock(IngestionExecutor.class), new HandoverDeduplicator(100, 0),
+                mock(OrderBatchWriter.class), new OrderLatencyMetrics(2000), 100);
+        when(orderPipeline.getStats()).thenReturn(List.of(pipeline.start(new CaptureChannelSource("xhr"))));
+
+        mockMvc.perform(get("/api/capture/sources"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("xhr"))
+                .andExpect(jsonPath("$[0].running").value(true))
+                .andExpect(jsonPath("$[0].rejected").value(0))
+                .andExpect(jsonPath("$[0].orders").value(0));
+    }
+
+    @Test
+    void shouldStartReplayWithDefaults() throws Exception {
+        ReplayRun run = new ReplayRun("friday.gz", "replay", 1);
+        when(captureReplayer.start("friday.gz", "replay", 1)).thenReturn(run);
+
+        mockMvc.perform(post("/api/capture/replay").param("file", "friday.gz"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.file").value("friday.gz"))
+                .andExpect(jsonPath("$.state").value("RUNNING"));
+    }
+
+    @Test
+    void shouldRejectBadReplayRequests() throws Exception {
+        when(captureReplayer.start("../etc.gz", "replay", 0))
+                .thenThrow(new IllegalArgumentException("No capture file named ../etc.gz"));
+        when(captureReplayer.start("friday.gz", "outlet-1", 10))
+                .thenThrow(new IllegalStateException("A replay of friday.gz is already running"));
+
+        mockMvc.perform(post("/api/capture/replay").param("file", "../etc.gz").param("speed", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/api/capture/replay").param("file", "friday.gz").param("speed", "10")
+                        .param("source", "outlet-1"))
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    void shouldReturnLastReplayOrNotFound() throws Exception {
+        when(captureReplayer.getLastRun()).thenReturn(Optional.empty());
+        mockMvc.perform(get("/api/capture/replay"))
+                .andExpect(status().isNotFound());
+
+        when(captureReplayer.getLastRun()).thenReturn(Optional.of(new ReplayRun("friday.gz", "replay", 0)));
+        mockMvc.perform(get("/api/capture/replay"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.speed").value(0.0))
+                .andExpect(jsonPath("$.records").value(0));
+    }
+}
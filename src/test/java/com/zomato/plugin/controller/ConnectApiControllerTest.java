@@ -0,0 +1,47 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.LoginJob;
+import com.zomato.plugin.service.LoginJobService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ConnectApiController.class)
+class ConnectApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private LoginJobService loginJobService;
+
+    @Test
+    void shouldReturnJobStage() throws Exception {
+        LoginJob job = new LoginJob("outlet@example.com");
+        when(loginJobService.getJob(job.getId())).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/api/connect/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(job.getId()))
+                .andExpect(jsonPath("$.username").value("outlet@example.com"))
+                .andExpect(jsonPath("$.stage").value("QUEUED"))
+                .andExpect(jsonPath("$.finished").value(false));
+    }
+
+    @Test
+    void shouldReturnNotFoundForUnknownJob() throws Exception {
+        when(loginJobService.getJob("expired")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/connect/expired"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -1,7 +1,9 @@
 package com.zomato.plugin.controller;
 
+import com.zomato.plugin.service.BrowserPool;
 import com.zomato.plugin.service.ConnectionService;
-import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.LoginJob;
+import com.zomato.plugin.service.LoginJobService;
 import com.zomato.plugin.service.PlaywrightService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,14 +11,9 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import com.zomato.plugin.entity.Order;
-import org.mockito.ArgumentCaptor;
-
-import java.util.function.Consumer;
-
-import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -39,7 +36,10 @@ class LoginControllerTest {
     private PlaywrightService playwrightService;
 
     @MockBean
-    private OrderService orderService;
+    private LoginJobService loginJobService;
+
+    @MockBean
+    private BrowserPool browserPool;
 
     @Test
     void shouldReturnLoginViewWithConnectedFalse() throws Exception {
@@ -62,62 +62,37 @@ class LoginControllerTest {
     }
 
     @Test
-    void shouldRedirectToOrdersOnSuccessfulConnect() throws Exception {
-        when(playwrightService.login("testuser", "testpass")).thenReturn("/tmp/session.json");
-
-        mockMvc.perform(post("/connect")
-                        .param("username", "testuser")
-                        .param("password", "testpass"))
-                .andExpect(status().is3xxRedirection())
-                .andExpect(redirectedUrl("/orders"))
-                .andExpect(flash().attribute("message", "Connected successfully"));
-    }
-
-    @Test
-    void shouldCallServicesInOrderOnConnect() throws Exception {
-        when(playwrightService.login("testuser", "testpass")).thenReturn("/tmp/session.json");
-
-        mockMvc.perform(post("/connect")
-                .param("username", "testuser")
-                .param("password", "testpass"));
-
-        verify(playwrightService).login("testuser", "testpass");
-        verify(connectionService).connect("testuser", "/tmp/session.json");
-        verify(playwrightService).setOrderCallback(any());
-        verify(playwrightService).startListening();
+    void shouldPassConnectJobToLoginView() throws Exception {
+        mockMvc.perform(get("/login").param("job", "job-1"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("jobId", "job-1"));
     }
 
-    @SuppressWarnings("unchecked")
     @Test
-    void shouldSetOrderCallbackThatSavesOrders() throws Exception {
-        when(playwrightService.login("testuser", "testpass")).thenReturn("/tmp/session.json");
+    void connectShouldStartJobAndRedirectAtOnce() throws Exception {
+        LoginJob job = new LoginJob("testuser");
+        when(loginJobService.submit("testuser", "testpass")).thenReturn(job);
 
         mockMvc.perform(post("/connect")
-                .param("username", "testuser")
-                .param("password", "testpass"));
-
-        ArgumentCaptor<Consumer<Order>> callbackCaptor = ArgumentCaptor.forClass(Consumer.class);
-        verify(playwrightService).setOrderCallback(callbackCaptor.capture());
-
-        // Exercise the captured lambda
-        Order order = new Order();
-        order.setOrderId("TEST-001");
-        callbackCaptor.getValue().accept(order);
+                        .param("username", "testuser")
+                        .param("password", "testpass"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("/login?job=" + job.getId()));
 
-        verify(orderService).saveOrder(order);
+        verifyNoInteractions(playwrightService, browserPool);
     }
 
     @Test
-    void shouldRedirectToLoginWithErrorOnConnectFailure() throws Exception {
-        when(playwrightService.login("testuser", "badpass"))
-                .thenThrow(new RuntimeException("Invalid credentials"));
+    void shouldRedirectToLoginWithErrorWhenConnectIsRefused() throws Exception {
+        when(loginJobService.submit("testuser", "testpass"))
+                .thenThrow(new IllegalStateException("Too many connects in progress, try again shortly"));
 
         mockMvc.perform(post("/connect")
                         .param("username", "testuser")
-                        .param("password", "badpass"))
+                        .param("password", "testpass"))
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/login"))
-                .andExpect(flash().attribute("error", "Login failed: Invalid credentials"));
+                .andExpect(flash().attribute("error", "Login failed: Too many connects in progress, try again shortly"));
     }
 
     @Test
@@ -128,7 +103,8 @@ class LoginControllerTest {
                 .andExpect(redirectedUrl("/login"))
                 .andExpect(flash().attribute("message", "Disconnected successfully"));
 
-        verify(playwrightService).stopListening();
+        verify(playwrightService).stopListening("testuser");
+        verify(browserPool).release("testuser");
         verify(connectionService).disconnect("testuser");
     }
 
@@ -1,23 +1,34 @@
 package com.zomato.plugin.controller;
 
-import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.repository.OrderSummary;
 import com.zomato.plugin.service.ConnectionService;
+import com.zomato.plugin.service.OrderCursor;
+import com.zomato.plugin.service.OrderSequenceCursor;
 import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.OrderStreamService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(OrderApiController.class)
@@ -32,42 +43,104 @@ class OrderApiControllerTest {
     @MockBean
     private ConnectionService connectionService;
 
+    @MockBean
+    private OrderStreamService orderStreamService;
+
+    @BeforeEach
+    void setUp() {
+        when(orderService.getLatestCursor()).thenReturn(new OrderSequenceCursor(2L));
+    }
+
     @Test
     void shouldReturnOrdersList() throws Exception {
-        Order order1 = new Order();
-        order1.setOrderId("ORD-001");
-        order1.setCustomerName("Alice");
-        order1.setTotalAmount(new BigDecimal("150.00"));
-        order1.setOrderTime(LocalDateTime.of(2026, 1, 15, 10, 30));
-        order1.setStatus("NEW");
-
-        Order order2 = new Order();
-        order2.setOrderId("ORD-002");
-        order2.setCustomerName("Bob");
-        order2.setTotalAmount(new BigDecimal("250.00"));
-        order2.setOrderTime(LocalDateTime.of(2026, 1, 15, 11, 0));
-        order2.setStatus("DELIVERED");
-
-        when(orderService.getAllOrders()).thenReturn(List.of(order1, order2));
+        OrderSummary order1 = new OrderSummary(1L, "ORD-001", "Alice", new BigDecimal("150.00"),
+                LocalDateTime.of(2026, 1, 15, 10, 30), "NEW");
+        OrderSummary order2 = new OrderSummary(2L, "ORD-002", "Bob", new BigDecimal("250.00"),
+                LocalDateTime.of(2026, 1, 15, 11, 0), "DELIVERED");
+
+        when(orderService.getOrdersPage(null, 100)).thenReturn(List.of(order1, order2));
 
         mockMvc.perform(get("/api/orders"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("X-Latest-Cursor", new OrderSequenceCursor(2L).encode()))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$", hasSize(2)))
                 .andExpect(jsonPath("$[0].orderId").value("ORD-001"))
                 .andExpect(jsonPath("$[0].customerName").value("Alice"))
                 .andExpect(jsonPath("$[0].status").value("NEW"))
                 .andExpect(jsonPath("$[1].orderId").value("ORD-002"))
                 .andExpect(jsonPath("$[1].customerName").value("Bob"))
-                .andExpect(jsonPath("$[1].status").value("DELIVERED"));
+                .andExpect(jsonPath("$[1].status").value("DELIVERED"))
+                .andExpect(jsonPath("$[0].rawJson").doesNotExist());
     }
 
     @Test
     void shouldReturnEmptyListWhenNoOrders() throws Exception {
-        when(orderService.getAllOrders()).thenReturn(Collections.emptyList());
+        when(orderService.getLatestCursor()).thenReturn(new OrderSequenceCursor(0L));
+        when(orderService.getOrdersPage(null, 100)).thenReturn(Collections.emptyList());
 
         mockMvc.perform(get("/api/orders"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(0)));
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().string("X-Latest-Cursor", new OrderSequenceCursor(0L).encode()));
+    }
+
+    @Test
+    void shouldReturnNextCursorWhenPageIsFullAndPageBackwardsWithBefore() throws Exception {
+        OrderCursor before = new OrderCursor(LocalDateTime.of(2026, 1, 15, 12, 0), 10L);
+        OrderSummary newer = order("ORD-009", 9L, LocalDateTime.of(2026, 1, 15, 11, 0));
+        OrderSummary older = order("ORD-008", 8L, LocalDateTime.of(2026, 1, 15, 10, 0));
+        when(orderService.getOrdersPage(before, 2)).thenReturn(List.of(newer, older));
+
+        mockMvc.perform(get("/api/orders").param("before", before.encode()).param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().doesNotExist("X-Latest-Cursor"))
+                .andExpect(header().string("X-Next-Cursor", OrderCursor.of(older).encode()));
+    }
+
+    @Test
+    void shouldClampLimitToAllowedRange() throws Exception {
+        when(orderService.getOrdersPage(null, 500)).thenReturn(Collections.emptyList());
+        when(orderService.getOrdersPage(null, 1)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/orders").param("limit", "100000")).andExpect(status().isOk());
+        mockMvc.perform(get("/api/orders").param("limit", "0")).andExpect(status().isOk());
+
+        verify(orderService).getOrdersPage(null, 500);
+        verify(orderService).getOrdersPage(null, 1);
+    }
+
+    @Test
+    void shouldReturnOrdersInsertedAfterTheSinceCursor() throws Exception {
+        OrderSequenceCursor since = new OrderSequenceCursor(3L);
+        // Inserted last but parsed first: order time does not decide what is new
+        OrderSummary newest = order("ORD-005", 5L, LocalDateTime.of(2026, 1, 15, 9, 55));
+        when(orderService.getOrdersSince(since, 100)).thenReturn(List.of(order("ORD-004", 4L, LocalDateTime.of(2026, 1, 15, 10, 1)), newest));
+
+        mockMvc.perform(get("/api/orders").param("since", since.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(header().string("X-Next-Cursor", new OrderSequenceCursor(5L).encode()));
+    }
+
+    @Test
+    void shouldEchoSinceCursorWhenNothingIsNewer() throws Exception {
+        OrderSequenceCursor since = new OrderSequenceCursor(3L);
+        when(orderService.getOrdersSince(since, 100)).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/orders").param("since", since.encode()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().string("X-Next-Cursor", since.encode()));
+    }
+
+    @Test
+    void shouldRejectMalformedCursor() throws Exception {
+        mockMvc.perform(get("/api/orders").param("since", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/orders").param("before", "***"))
+                .andExpect(status().isBadRequest());
     }
 
     @Test
@@ -77,10 +150,25 @@ class OrderApiControllerTest {
 
         mockMvc.perform(get("/api/status"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"5-true\""))
                 .andExpect(jsonPath("$.connected").value(true))
                 .andExpect(jsonPath("$.orderCount").value(5));
     }
 
+    @Test
+    void statusShouldReturnNotModifiedWhileUnchanged() throws Exception {
+        when(connectionService.isConnected()).thenReturn(true);
+        when(orderService.getOrderCount()).thenReturn(5L, 6L);
+
+        mockMvc.perform(get("/api/status").header("If-None-Match", "\"5-true\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/api/status").header("If-None-Match", "\"5-true\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"6-true\""))
+                .andExpect(jsonPath("$.orderCount").value(6));
+    }
+
     @Test
     void shouldReturnStatusWithConnectedFalseAndOrderCountZeroInitially() throws Exception {
         when(connectionService.isConnected()).thenReturn(false);
@@ -91,4 +179,55 @@ class OrderApiControllerTest {
                 .andExpect(jsonPath("$.connected").value(false))
                 .andExpect(jsonPath("$.orderCount").value(0));
     }
+
+    @Test
+    void getRawOrderShouldReturnStoredPayload() throws Exception {
+        when(orderService.getRawJson("ORD-001")).thenReturn(Optional.of("{\"orderId\":\"ORD-001\"}"));
+
+        mockMvc.perform(get("/api/orders/ORD-001/raw"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.orderId").value("ORD-001"));
+    }
+
+    @Test
+    void getRawOrderShouldReturnNotFoundForUnknownOrder() throws Exception {
+        when(orderService.getRawJson("ORD-404")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/orders/ORD-404/raw"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void streamOrdersShouldStartEventStreamResumingFromLastEventIdHeader() throws Exception {
+        when(orderStreamService.subscribe(12L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/orders/stream").header("Last-Event-ID", "12").param("lastEventId", "3"))
+                .andExpect(status().isOk())
+                .andExpect(request().asyncStarted());
+
+        verify(orderStreamService).subscribe(12L);
+    }
+
+    @Test
+    void streamOrdersShouldFallBackToLastEventIdParameter() throws Exception {
+        when(orderStreamService.subscribe(3L)).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/api/orders/stream").param("lastEventId", "3"))
+                .andExpect(request().asyncStarted());
+
+        verify(orderStreamService).subscribe(3L);
+    }
+
+    @Test
+    void streamOrdersShouldReturnServiceUnavailableWhenEmitterCapReached() throws Exception {
+        when(orderStreamService.subscribe(null)).thenReturn(null);
+
+        mockMvc.perform(get("/api/orders/stream"))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    private OrderSummary order(String orderId, Long id, LocalDateTime orderTime) {
+        return new OrderSummary(id, orderId, null, null, orderTime, null);
+    }
 }
@@ -1,8 +1,9 @@
 package com.zomato.plugin.controller;
 
-import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.repository.OrderSummary;
 import com.zomato.plugin.service.ConnectionService;
 import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.OrderStreamService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -33,6 +34,9 @@ class OrderControllerTest {
     @MockBean
     private ConnectionService connectionService;
 
+    @MockBean
+    private OrderStreamService orderStreamService;
+
     @Test
     void shouldReturnOrdersView() throws Exception {
         when(orderService.getAllOrders()).thenReturn(Collections.emptyList());
@@ -46,30 +50,23 @@ class OrderControllerTest {
 
     @Test
     void shouldContainOrdersListOrderCountAndConnectedStatus() throws Exception {
-        Order order1 = new Order();
-        order1.setOrderId("ORD-001");
-        order1.setCustomerName("Alice");
-        order1.setTotalAmount(new BigDecimal("150.00"));
-        order1.setOrderTime(LocalDateTime.now());
-        order1.setStatus("NEW");
-
-        Order order2 = new Order();
-        order2.setOrderId("ORD-002");
-        order2.setCustomerName("Bob");
-        order2.setTotalAmount(new BigDecimal("250.00"));
-        order2.setOrderTime(LocalDateTime.now());
-        order2.setStatus("DELIVERED");
+        OrderSummary order1 = new OrderSummary(1L, "ORD-001", "Alice", new BigDecimal("150.00"),
+                LocalDateTime.now(), "NEW");
+        OrderSummary order2 = new OrderSummary(2L, "ORD-002", "Bob", new BigDecimal("250.00"),
+                LocalDateTime.now(), "DELIVERED");
 
         when(orderService.getAllOrders()).thenReturn(List.of(order1, order2));
         when(orderService.getOrderCount()).thenReturn(2L);
         when(connectionService.isConnected()).thenReturn(true);
+        when(orderStreamService.getLastEventId()).thenReturn(7L);
 
         mockMvc.perform(get("/orders"))
                 .andExpect(status().isOk())
                 .andExpect(view().name("orders"))
                 .andExpect(model().attribute("orders", hasSize(2)))
                 .andExpect(model().attribute("orderCount", 2L))
-                .andExpect(model().attribute("connected", true));
+                .andExpect(model().attribute("connected", true))
+                .andExpect(model().attribute("streamPosition", 7L));
     }
 
     @Test
@@ -0,0 +1,77 @@
+package com.zomato.plugin.controller;
+
+import com.zomato.plugin.service.FlightRecordingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProfilingApiController.class)
+class ProfilingApiControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private FlightRecordingService flightRecordingService;
+
+    @BeforeEach
+    void setUp() {
+        when(flightRecordingService.getMaxAge()).thenReturn(Duration.ofMinutes(15));
+        when(flightRecordingService.getMaxSizeBytes()).thenReturn(200L * 1024 * 1024);
+    }
+
+    @Test
+    void shouldReportIdleRecorder() throws Exception {
+        mockMvc.perform(get("/api/profiling/recording"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recording").value(false))
+                .andExpect(jsonPath("$.started").doesNotExist())
+                .andExpect(jsonPath("$.maxAgeSeconds").value(900))
+                .andExpect(jsonPath("$.maxSizeBytes").value(209715200))
+                .andExpect(jsonPath("$.lastDump").doesNotExist());
+    }
+
+    @Test
+    void shouldStartDumpAndStopRecording() throws Exception {
+        when(flightRecordingService.isRecording()).thenReturn(true);
+        when(flightRecordingService.getStartTime()).thenReturn(Instant.parse("2026-10-18T09:00:00Z"));
+        when(flightRecordingService.getLastDump()).thenReturn(Path.of("/srv/recordings/orders-20261018-091500.jfr"));
+
+        mockMvc.perform(post("/api/profiling/recording/start"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.recording").value(true))
+                .andExpect(jsonPath("$.started").value("2026-10-18T09:00:00Z"));
+        verify(flightRecordingService).start();
+
+        mockMvc.perform(post("/api/profiling/recording/dump"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lastDump").value("orders-20261018-091500.jfr"));
+        verify(flightRecordingService).dump();
+
+        mockMvc.perform(post("/api/profiling/recording/stop"))
+                .andExpect(status().isOk());
+        verify(flightRecordingService).stop();
+    }
+
+    @Test
+    void dumpWithoutRecordingShouldConflict() throws Exception {
+        when(flightRecordingService.dump()).thenThrow(new IllegalStateException("No flight recording was started"));
+
+        mockMvc.perform(post("/api/profiling/recording/dump"))
+                .andExpect(status().isConflict());
+    }
+}
@@ -0,0 +1,180 @@
+package com.zomato.plugin.e2e;
+
+import com.zomato.plugin.repository.ConnectionConfigRepository;
+import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.service.BrowserPool;
+import com.zomato.plugin.service.ConnectionService;
+import com.zomato.plugin.service.LoginJob;
+import com.zomato.plugin.service.LoginJobService;
+import com.zomato.plugin.service.OrderCreatedEvent;
+import com.zomato.plugin.service.OrderService;
+import com.zomato.plugin.service.PlaywrightService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives the capture pipeline with traffic from the mock partner portal and
+ * reports throughput and emit-to-DB latency. The traffic shape is read from
+ * mockPortal.* system properties, e.g.
+ * {@code gradle e2eTest --tests '*CaptureLoadE2ETest' -DmockPortal.rate=500 -DmockPortal.burst=20}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class CaptureLoadE2ETest {
+
+    private static final Logger log = LoggerFactory.getLogger(CaptureLoadE2ETest.class);
+
+    private static final String ACCOUNT = "load@example.com";
+
+    private static final MockPartnerPortal portal =
+            MockPartnerPortal.launch(Long.getLong("mockPortal.pollIntervalMs", 250));
+
+    @DynamicPropertySource
+    static void portalProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.zomato.partner-url", portal::getOrdersUrl);
+    }
+
+    @AfterAll
+    static void closePortal() {
+        portal.close();
+    }
+
+    @TestConfiguration
+    static class ProbeConfiguration {
+
+        @Bean
+        PersistProbe persistProbe() {
+            return new PersistProbe();
+        }
+    }
+
+    // Time each order became visible in the database, on the clock the portal stamps emits with
+    static class PersistProbe {
+
+        private final Map<String, Long> persistedNanos = new ConcurrentHashMap<>();
+
+        @EventListener
+        void onOrderCreated(OrderCreatedEvent event) {
+            persistedNanos.putIfAbsent(event.order().getOrderId(), System.nanoTime());
+        }
+    }
+
+    @Autowired
+    private LoginJobService loginJobService;
+
+    @Autowired
+    private PlaywrightService playwrightService;
+
+    @Autowired
+    private BrowserPool browserPool;
+
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private ConnectionConfigRepository connectionConfigRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private PersistProbe persistProbe;
+
+    @BeforeEach
+    void setUp() {
+        connectionConfigRepository.deleteAll();
+        orderRepository.deleteAll();
+        connectionService.reloadConnectionState();
+        orderService.reloadOrderCount();
+        persistProbe.persistedNanos.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        portal.stopTraffic();
+        playwrightService.stopListening(ACCOUNT);
+        browserPool.release(ACCOUNT);
+    }
+
+    @Test
+    void shouldPersistEveryGeneratedOrderOnce() throws InterruptedException {
+        MockPartnerPortal.Traffic traffic = trafficFromSystemProperties();
+        Duration duration = Duration.ofSeconds(Long.getLong("mockPortal.seconds", 10));
+        LoginJob job = loginJobService.submit(ACCOUNT, "password123");
+        awaitUntil(job::isFinished, Duration.ofSeconds(30));
+        assertThat(job.getStage()).isEqualTo(LoginJob.Stage.CONNECTED);
+        awaitUntil(() -> portal.getOpenSockets() > 0, Duration.ofSeconds(10));
+
+        long start = System.nanoTime();
+        portal.startTraffic(traffic);
+        Thread.sleep(duration.toMillis());
+        portal.stopTraffic();
+        awaitUntil(() -> persistProbe.persistedNanos.size() >= portal.getOrderCount(), Duration.ofSeconds(30));
+
+        Map<String, Long> emitted = portal.getFirstEmitNanos();
+        List<Long> latencies = new ArrayList<>(emitted.size());
+        long lastPersisted = start;
+        for (Map.Entry<String, Long> entry : emitted.entrySet()) {
+            long persisted = persistProbe.persistedNanos.get(entry.getKey());
+            latencies.add(persisted - entry.getValue());
+            lastPersisted = Math.max(lastPersisted, persisted);
+        }
+        Collections.sort(latencies);
+        double seconds = (lastPersisted - start) / 1e9;
+        log.info("{}: {} orders from {} emissions persisted in {} s ({} orders/s); "
+                        + "emit-to-DB p50 {} ms, p99 {} ms, max {} ms",
+                traffic, emitted.size(), portal.getEmissionCount(), String.format("%.2f", seconds),
+                String.format("%.0f", emitted.size() / seconds), millis(percentile(latencies, 0.50)),
+                millis(percentile(latencies, 0.99)), millis(latencies.get(latencies.size() - 1)));
+
+        assertThat(emitted).isNotEmpty();
+        assertThat(orderRepository.count()).isEqualTo(emitted.size());
+    }
+
+    private static MockPartnerPortal.Traffic trafficFromSystemProperties() {
+        return MockPartnerPortal.Traffic.steady(Double.parseDouble(System.getProperty("mockPortal.rate", "200")))
+                .withBurstSize(Integer.getInteger("mockPortal.burst", 1))
+                .withDuplicateRatio(Double.parseDouble(System.getProperty("mockPortal.duplicates", "0.1")))
+                .withPayloadBytes(Integer.getInteger("mockPortal.payloadBytes", 600))
+                .withChannel(MockPartnerPortal.Channel.valueOf(System.getProperty("mockPortal.channel", "BOTH")));
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        return sorted.get(Math.max(0, (int) Math.ceil(p * sorted.size()) - 1));
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f", nanos / 1e6);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -7,6 +7,8 @@ import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 import com.zomato.plugin.repository.ConnectionConfigRepository;
 import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.service.ConnectionService;
+import com.zomato.plugin.service.OrderService;
 import com.zomato.plugin.service.PlaywrightService;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -16,6 +18,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
 
 import java.util.regex.Pattern;
 
@@ -24,6 +28,14 @@ import static com.microsoft.playwright.assertions.PlaywrightAssertions.assertTha
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
 class LoginE2ETest {
 
+    // Connects open the portal in the shared browser; keep them off the network
+    private static final MockPartnerPortal portal = MockPartnerPortal.launch(250);
+
+    @DynamicPropertySource
+    static void portalProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.zomato.partner-url", portal::getOrdersUrl);
+    }
+
     @LocalServerPort
     private int port;
 
@@ -36,6 +48,12 @@ class LoginE2ETest {
     @Autowired
     private PlaywrightService playwrightService;
 
+    @Autowired
+    private ConnectionService connectionService;
+
+    @Autowired
+    private OrderService orderService;
+
     private static Playwright playwright;
     private static Browser browser;
     private BrowserContext context;
@@ -51,13 +69,16 @@ class LoginE2ETest {
     static void tearDownBrowser() {
         browser.close();
         playwright.close();
+        portal.close();
     }
 
     @BeforeEach
     void setUp() {
         connectionConfigRepository.deleteAll();
         orderRepository.deleteAll();
-        playwrightService.stopListening();
+        connectionService.reloadConnectionState();
+        orderService.reloadOrderCount();
+        playwrightService.stopListening("test@example.com");
         context = browser.newContext();
         page = context.newPage();
     }
@@ -0,0 +1,388 @@
+package com.zomato.plugin.e2e;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.startup.Tomcat;
+import org.apache.tomcat.websocket.server.WsSci;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the Zomato partner portal. Serves a login page and an
+ * orders page; the orders page polls /api/orders over XHR and keeps a
+ * WebSocket on /ws open for Socket.IO order events. Traffic is generated at
+ * a configurable shape and the first emit time of every order is kept, so
+ * tests can measure capture throughput and emit-to-DB latency without any
+ * network.
+ */
+public class MockPartnerPortal implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MockPartnerPortal.class);
+
+    private static final String[] CUSTOMERS = {"Priya Sharma", "Rahul Verma", "Ananya Iyer", "Mohammed Khan"};
+    private static final String[] DISHES = {"Paneer Tikka Masala", "Chicken Biryani", "Masala Dosa", "Dal Makhani"};
+
+    private static final String LOGIN_PAGE = """
+            <!DOCTYPE html>
+            <html>
+            <head><title>Partner Login - Mock Portal</title></head>
+            <body>
+            <h1>Partner Login</h1>
+            <form id="login-form" method="post" action="/login">
+              <input id="email" name="email" type="email">
+              <input id="password" name="password" type="password">
+              <button type="submit">Log in</button>
+            </form>
+            </body>
+            </html>
+            """;
+
+    // The only placeholder is the poll interval, so the script must not contain a percent sign
+    private static final String ORDERS_PAGE = """
+            <!DOCTYPE html>
+            <html>
+            <head><title>Live Orders - Mock Portal</title></head>
+            <body>
+            <h1>Live Orders</h1>
+            <p>Received <span id="received">0</span></p>
+            <script>
+              const received = document.getElementById('received');
+              let count = 0;
+              let since = null;
+              function poll() {
+                const xhr = new XMLHttpRequest();
+                xhr.open('GET', since === null ? '/api/orders' : '/api/orders?since=' + since);
+                xhr.onload = () => {
+                  if (xhr.status === 200) {
+                    since = Number(xhr.getResponseHeader('X-Next-Since'));
+                    count += JSON.parse(xhr.responseText).length;
+                    received.textContent = count;
+                  }
+                  setTimeout(poll, %1$d);
+                };
+                xhr.onerror = () => setTimeout(poll, %1$d);
+                xhr.send();
+              }
+              function connect() {
+                const socket = new WebSocket('ws://' + location.host + '/ws');
+                socket.onmessage = () => received.textContent = ++count;
+                socket.onclose = () => setTimeout(connect, 1000);
+              }
+              poll();
+              connect();
+            </script>
+            </body>
+            </html>
+            """;
+
+    public enum Channel {XHR, WEBSOCKET, BOTH}
+
+    /**
+     * Shape of the generated traffic. Bursts keep the average rate: burstSize
+     * orders are emitted together every burstSize / ordersPerSecond seconds.
+     * A duplicate resends an already emitted order, as the portal does when
+     * an order is updated or a socket reconnects.
+     */
+    public record Traffic(double ordersPerSecond, int burstSize, double duplicateRatio,
+                          int payloadBytes, Channel channel) {
+
+        public Traffic {
+            if (ordersPerSecond <= 0 || burstSize < 1 || duplicateRatio < 0 || duplicateRatio >= 1) {
+                throw new IllegalArgumentException("Invalid traffic shape");
+            }
+        }
+
+        public static Traffic steady(double ordersPerSecond) {
+            return new Traffic(ordersPerSecond, 1, 0, 600, Channel.BOTH);
+        }
+
+        public Traffic withBurstSize(int burstSize) {
+            return new Traffic(ordersPerSecond, burstSize, duplicateRatio, payloadBytes, channel);
+        }
+
+        public Traffic withDuplicateRatio(double duplicateRatio) {
+            return new Traffic(ordersPerSecond, burstSize, duplicateRatio, payloadBytes, channel);
+        }
+
+        public Traffic withPayloadBytes(int payloadBytes) {
+            return new Traffic(ordersPerSecond, burstSize, duplicateRatio, payloadBytes, channel);
+        }
+
+        public Traffic withChannel(Channel channel) {
+            return new Traffic(ordersPerSecond, burstSize, duplicateRatio, payloadBytes, channel);
+        }
+
+        long burstPeriodNanos() {
+            return Math.max(1, (long) (burstSize * 1_000_000_000L / ordersPerSecond));
+        }
+    }
+
+    private final Tomcat tomcat;
+    private final long pollIntervalMs;
+    private final Set<Session> sockets = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> firstEmitNanos = new ConcurrentHashMap<>();
+    private final Random random = new Random(42);
+    // Guarded by this
+    private final List<String> orders = new ArrayList<>();
+    private final List<String> pollLog = new ArrayList<>();
+    private long emissions;
+    private ScheduledExecutorService generator;
+
+    private MockPartnerPortal(long pollIntervalMs) {
+        this.pollIntervalMs = pollIntervalMs;
+        this.tomcat = new Tomcat();
+    }
+
+    // Starts the portal on a free local port
+    public static MockPartnerPortal launch(long pollIntervalMs) {
+        MockPartnerPortal portal = new MockPartnerPortal(pollIntervalMs);
+        try {
+            portal.startServer();
+        } catch (IOException | LifecycleException | DeploymentException e) {
+            portal.close();
+            throw new IllegalStateException("Failed to start the mock partner portal", e);
+        }
+        return portal;
+    }
+
+    private void startServer() throws IOException, LifecycleException, DeploymentException {
+        tomcat.setBaseDir(Files.createTempDirectory("mock-portal").toString());
+        tomcat.setPort(0);
+        tomcat.getConnector().setProperty("address", "127.0.0.1");
+        Context context = tomcat.addContext("", null);
+        Tomcat.addServlet(context, "portal", new PortalServlet());
+        context.addServletMappingDecoded("/", "portal");
+        context.addServletContainerInitializer(new WsSci(), null);
+        tomcat.start();
+        ServerContainer container = (ServerContainer) context.getServletContext()
+                .getAttribute(ServerContainer.class.getName());
+        PushEndpoint endpoint = new PushEndpoint();
+        container.addEndpoint(ServerEndpointConfig.Builder.create(PushEndpoint.class, "/ws")
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(endpoint);
+                    }
+                })
+                .build());
+        log.info("Mock partner portal listening on {}", getUrl());
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + tomcat.getConnector().getLocalPort();
+    }
+
+    public String getLoginUrl() {
+        return getUrl() + "/login";
+    }
+
+    public String getOrdersUrl() {
+        return getUrl() + "/orders";
+    }
+
+    public synchronized void startTraffic(Traffic traffic) {
+        if (generator != null) {
+            throw new IllegalStateException("Traffic is already running");
+        }
+        generator = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mock-portal-traffic");
+            thread.setDaemon(true);
+            return thread;
+        });
+        generator.scheduleAtFixedRate(() -> emitBurst(traffic), 0, traffic.burstPeriodNanos(), TimeUnit.NANOSECONDS);
+        log.info("Mock portal traffic started: {}", traffic);
+    }
+
+    public void stopTraffic() {
+        ScheduledExecutorService running;
+        synchronized (this) {
+            running = generator;
+            generator = null;
+        }
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            running.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Distinct orders emitted so far
+    public synchronized int getOrderCount() {
+        return orders.size();
+    }
+
+    // Every order sent, repeats included; BOTH counts an order once for the two channels
+    public synchronized long getEmissionCount() {
+        return emissions;
+    }
+
+    public int getOpenSockets() {
+        return sockets.size();
+    }
+
+    public Map<String, Long> getFirstEmitNanos() {
+        return Map.copyOf(firstEmitNanos);
+    }
+
+    @Override
+    public void close() {
+        stopTraffic();
+        try {
+            tomcat.stop();
+            tomcat.destroy();
+        } catch (LifecycleException e) {
+            log.warn("Failed to stop the mock partner portal", e);
+        }
+    }
+
+    private void emitBurst(Traffic traffic) {
+        List<String> pushed = new ArrayList<>(traffic.burstSize());
+        synchronized (this) {
+            for (int i = 0; i < traffic.burstSize(); i++) {
+                String json = !orders.isEmpty() && random.nextDouble() < traffic.duplicateRatio()
+                        ? orders.get(random.nextInt(orders.size()))
+                        : newOrder(traffic.payloadBytes());
+                emissions++;
+                if (traffic.channel() != Channel.WEBSOCKET) {
+                    pollLog.add(json);
+                }
+                if (traffic.channel() != Channel.XHR) {
+                    pushed.add(json);
+                }
+            }
+        }
+        for (String json : pushed) {
+            push("42[\"order\"," + json + "]");
+        }
+    }
+
+    private String newOrder(int payloadBytes) {
+        int id = orders.size() + 1;
+        String orderId = "MOCK-" + (100000 + id);
+        StringBuilder json = new StringBuilder(payloadBytes + 256);
+        json.append("{\"orderId\":\"").append(orderId)
+                .append("\",\"customerName\":\"").append(CUSTOMERS[random.nextInt(CUSTOMERS.length)])
+                .append("\",\"items\":[");
+        BigDecimal total = BigDecimal.ZERO;
+        int i = 0;
+        do {
+            if (i > 0) {
+                json.append(',');
+            }
+            BigDecimal price = BigDecimal.valueOf(120 + random.nextInt(300)).setScale(2);
+            total = total.add(price);
+            json.append("{\"itemId\":").append(1000 + i)
+                    .append(",\"name\":\"").append(DISHES[random.nextInt(DISHES.length)])
+                    .append("\",\"quantity\":1,\"price\":").append(price).append('}');
+            i++;
+        } while (json.length() < payloadBytes);
+        json.append("],\"totalAmount\":").append(total).append(",\"status\":\"NEW\"}");
+        String order = json.toString();
+        orders.add(order);
+        firstEmitNanos.put(orderId, System.nanoTime());
+        return order;
+    }
+
+    private void push(String frame) {
+        for (Session socket : sockets) {
+            try {
+                socket.getBasicRemote().sendText(frame);
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping mock portal socket {}", socket.getId(), e);
+                sockets.remove(socket);
+            }
+        }
+    }
+
+    // Orders after the given poll cursor, none on a first poll; the next cursor
+    // travels in a header so the body stays an order array
+    private void poll(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String since = request.getParameter("since");
+        List<String> page;
+        int next;
+        synchronized (this) {
+            next = pollLog.size();
+            int from = since == null ? next : Math.min(Integer.parseInt(since), next);
+            page = List.copyOf(pollLog.subList(from, next));
+        }
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("X-Next-Since", String.valueOf(next));
+        response.getWriter().write("[" + String.join(",", page) + "]");
+    }
+
+    private class PortalServlet extends HttpServlet {
+
+        @Override
+        protected void doGet(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            switch (request.getRequestURI()) {
+                case "/login" -> html(response, LOGIN_PAGE);
+                case "/orders" -> html(response, ORDERS_PAGE.formatted(pollIntervalMs));
+                case "/api/orders" -> poll(request, response);
+                default -> response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            }
+        }
+
+        // Any credentials are accepted; the cookie only makes the login look like a real one to the browser
+        @Override
+        protected void doPost(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            if (!"/login".equals(request.getRequestURI())) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            Cookie cookie = new Cookie("partner_session", UUID.randomUUID().toString());
+            cookie.setPath("/");
+            response.addCookie(cookie);
+            response.sendRedirect("/orders");
+        }
+
+        private void html(HttpServletResponse response, String body) throws IOException {
+            response.setContentType("text/html");
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            response.getWriter().write(body);
+        }
+    }
+
+    private class PushEndpoint extends Endpoint {
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            sockets.add(session);
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            sockets.remove(session);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import com.microsoft.playwright.Page;
 import com.microsoft.playwright.Playwright;
 import com.zomato.plugin.entity.Order;
 import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.service.OrderService;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -30,6 +31,9 @@ class OrdersE2ETest {
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private OrderService orderService;
+
     private static Playwright playwright;
     private static Browser browser;
     private BrowserContext context;
@@ -52,6 +56,7 @@ class OrdersE2ETest {
         context = browser.newContext();
         page = context.newPage();
         orderRepository.deleteAll();
+        orderService.reloadOrderCount();
     }
 
     @AfterEach
@@ -85,6 +90,7 @@ class OrdersE2ETest {
         order.setStatus("NEW");
         order.setRawJson("{\"orderId\":\"ZMT-001\"}");
         orderRepository.save(order);
+        orderService.reloadOrderCount();
 
         page.navigate("http://localhost:" + port + "/orders");
 
@@ -111,6 +117,7 @@ class OrdersE2ETest {
         order2.setStatus("DELIVERED");
         order2.setRawJson("{}");
         orderRepository.save(order2);
+        orderService.reloadOrderCount();
 
         page.navigate("http://localhost:" + port + "/orders");
 
@@ -118,6 +125,23 @@ class OrdersE2ETest {
         assertThat(page.locator("#orders-table tbody tr")).hasCount(2);
     }
 
+    @Test
+    void shouldAppendNewOrdersPushedOverStream() {
+        page.navigate("http://localhost:" + port + "/orders");
+        assertThat(page.locator(".empty-message")).hasText("No orders yet");
+
+        Order order = new Order();
+        order.setOrderId("ZMT-LIVE-001");
+        order.setCustomerName("Dev");
+        order.setTotalAmount(new BigDecimal("199.00"));
+        order.setOrderTime(LocalDateTime.of(2026, 1, 15, 13, 0));
+        order.setStatus("NEW");
+        orderService.saveOrder(order);
+
+        assertThat(page.locator("#orders-table tbody tr").first().locator("td").first()).hasText("ZMT-LIVE-001");
+        assertThat(page.locator("#order-count")).hasText("1");
+    }
+
     @Test
     void shouldHaveBackToLoginLink() {
         page.navigate("http://localhost:" + port + "/orders");
@@ -4,13 +4,16 @@ import com.zomato.plugin.entity.ConnectionConfig;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 @DataJpaTest
+@Import(PayloadCodec.class)
 class ConnectionConfigRepositoryTest {
 
     @Autowired
@@ -78,6 +81,24 @@ class ConnectionConfigRepositoryTest {
         assertThat(found.get().isConnected()).isTrue();
     }
 
+    @Test
+    void shouldListMostRecentlyConnectedFirst() {
+        ConnectionConfig older = new ConnectionConfig();
+        older.setUsername("older@example.com");
+        older.setConnectedAt(LocalDateTime.now().minusDays(1));
+        repository.save(older);
+
+        ConnectionConfig newer = new ConnectionConfig();
+        newer.setUsername("newer@example.com");
+        newer.setConnectedAt(LocalDateTime.now());
+        repository.save(newer);
+
+        List<ConnectionConfig> found = repository.findAllByOrderByConnectedAtDesc();
+
+        assertThat(found).extracting(ConnectionConfig::getUsername)
+                .containsExactly("newer@example.com", "older@example.com");
+    }
+
     @Test
     void shouldReturnEmptyWhenNoneConnected() {
         ConnectionConfig config1 = new ConnectionConfig();
@@ -94,4 +115,18 @@ class ConnectionConfigRepositoryTest {
 
         assertThat(found).isEmpty();
     }
+
+    @Test
+    void shouldFindEveryConnectedAccount() {
+        for (String username : new String[]{"first@example.com", "second@example.com", "idle@example.com"}) {
+            ConnectionConfig config = new ConnectionConfig();
+            config.setUsername(username);
+            config.setConnected(!username.startsWith("idle"));
+            repository.save(config);
+        }
+
+        assertThat(repository.findByConnectedTrue())
+                .extracting(ConnectionConfig::getUsername)
+                .containsExactlyInAnyOrder("first@example.com", "second@example.com");
+    }
 }
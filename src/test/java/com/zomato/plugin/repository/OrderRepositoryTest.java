@@ -1,25 +1,38 @@
 package com.zomato.plugin.repository;
 
 import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.entity.OrderPayload;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @DataJpaTest
+@Import(PayloadCodec.class)
 class OrderRepositoryTest {
 
     @Autowired
     private OrderRepository repository;
 
+    @Autowired
+    private OrderPayloadRepository payloadRepository;
+
+    @Autowired
+    private PayloadCodec payloadCodec;
+
     @Test
     void shouldSaveAndFindById() {
         Order order = new Order();
@@ -40,7 +53,6 @@ class OrderRepositoryTest {
         assertThat(found.get().getCustomerName()).isEqualTo("John Doe");
         assertThat(found.get().getTotalAmount()).isEqualByComparingTo(new BigDecimal("250.50"));
         assertThat(found.get().getStatus()).isEqualTo("DELIVERED");
-        assertThat(found.get().getRawJson()).isEqualTo("{\"id\": \"ORD-001\"}");
     }
 
     @Test
@@ -106,12 +118,16 @@ class OrderRepositoryTest {
         newest.setStatus("PENDING");
         repository.save(newest);
 
-        List<Order> orders = repository.findAllByOrderByOrderTimeDesc();
+        List<OrderSummary> orders = repository.findAllByOrderByOrderTimeDesc();
 
         assertThat(orders).hasSize(3);
-        assertThat(orders.get(0).getOrderId()).isEqualTo("ORD-NEW");
-        assertThat(orders.get(1).getOrderId()).isEqualTo("ORD-MID");
-        assertThat(orders.get(2).getOrderId()).isEqualTo("ORD-OLD");
+        assertThat(orders.get(0).orderId()).isEqualTo("ORD-NEW");
+        assertThat(orders.get(0).customerName()).isEqualTo("Customer C");
+        assertThat(orders.get(0).totalAmount()).isEqualByComparingTo(new BigDecimal("30.00"));
+        assertThat(orders.get(0).status()).isEqualTo("PENDING");
+        assertThat(orders.get(0).id()).isEqualTo(newest.getId());
+        assertThat(orders.get(1).orderId()).isEqualTo("ORD-MID");
+        assertThat(orders.get(2).orderId()).isEqualTo("ORD-OLD");
     }
 
     @Test
@@ -133,4 +149,149 @@ class OrderRepositoryTest {
 
         assertThrows(DataIntegrityViolationException.class, () -> repository.saveAndFlush(order2));
     }
+
+    @Test
+    void insertIfAbsentShouldInsertOnlyOnce() {
+        Order order = new Order();
+        order.setOrderId("ORD-300");
+        order.setCustomerName("Dana");
+        order.setTotalAmount(new BigDecimal("75.00"));
+        order.setOrderTime(LocalDateTime.of(2026, 1, 15, 10, 30));
+        order.setStatus("NEW");
+        order.setRawJson("{\"orderId\":\"ORD-300\"}");
+
+        Order duplicate = new Order();
+        duplicate.setOrderId("ORD-300");
+        duplicate.setCustomerName("Someone Else");
+
+        assertThat(repository.insertIfAbsent(order)).isEqualTo(1);
+        assertThat(repository.insertIfAbsent(duplicate)).isZero();
+
+        Optional<Order> found = repository.findByOrderId("ORD-300");
+        assertThat(found).isPresent();
+        assertThat(found.get().getId()).isNotNull().isEqualTo(order.getId());
+        assertThat(duplicate.getId()).isNull();
+        assertThat(found.get().getCustomerName()).isEqualTo("Dana");
+        assertThat(found.get().getTotalAmount()).isEqualByComparingTo(new BigDecimal("75.00"));
+        assertThat(found.get().getOrderTime()).isEqualTo(LocalDateTime.of(2026, 1, 15, 10, 30));
+        assertThat(found.get().getRawJson()).isNull();
+        byte[] stored = payloadRepository.findById("ORD-300").orElseThrow().getCompressedJson();
+        assertThat(new String(stored, StandardCharsets.UTF_8)).doesNotContain("ORD-300");
+        assertThat(payloadCodec.decompress(stored)).isEqualTo("{\"orderId\":\"ORD-300\"}");
+        assertThat(repository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void insertAllIfAbsentShouldReportPerOrderOutcomeInOneBatch() {
+        Order existing = new Order();
+        existing.setOrderId("ORD-400");
+        existing.setOrderTime(LocalDateTime.now());
+        repository.insertIfAbsent(existing);
+
+        Order first = new Order();
+        first.setOrderId("ORD-401");
+        first.setRawJson("{\"orderId\":\"ORD-401\"}");
+        first.setCustomerName("Eve");
+        first.setTotalAmount(new BigDecimal("40.00"));
+        first.setOrderTime(LocalDateTime.now());
+        first.setStatus("NEW");
+        Order duplicate = new Order();
+        duplicate.setOrderId("ORD-400");
+        Order second = new Order();
+        second.setOrderId("ORD-402");
+
+        int[] counts = repository.insertAllIfAbsent(List.of(first, duplicate, second));
+
+        assertThat(counts).containsExactly(1, 0, 1);
+        assertThat(repository.count()).isEqualTo(3);
+        assertThat(first.getId()).isEqualTo(repository.findByOrderId("ORD-401").get().getId());
+        assertThat(second.getId()).isEqualTo(repository.findByOrderId("ORD-402").get().getId())
+                .isGreaterThan(first.getId());
+        assertThat(duplicate.getId()).isNull();
+        assertThat(repository.findByOrderId("ORD-401").get().getCustomerName()).isEqualTo("Eve");
+        assertThat(repository.findByOrderId("ORD-402").get().getOrderTime()).isNull();
+        assertThat(payloadRepository.findAll()).extracting(OrderPayload::getOrderId).containsExactly("ORD-401");
+        assertThat(repository.insertAllIfAbsent(List.of())).isEmpty();
+    }
+
+    @Test
+    void valuesTheColumnsCannotHoldShouldNotLookLikeDuplicates() {
+        Order order = new Order();
+        order.setOrderId("ORD-600");
+        order.setCustomerName("x".repeat(300));
+
+        assertThatThrownBy(() -> repository.insertIfAbsent(order))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .isNotInstanceOf(DuplicateKeyException.class);
+    }
+
+    @Test
+    void jdbcInsertsShouldNotCollideWithHibernateSequenceIds() {
+        Order viaJdbc = new Order();
+        viaJdbc.setOrderId("ORD-500");
+        repository.insertIfAbsent(viaJdbc);
+
+        for (int i = 0; i < 60; i++) {
+            Order viaJpa = new Order();
+            viaJpa.setOrderId("ORD-JPA-" + i);
+            repository.save(viaJpa);
+        }
+        repository.flush();
+
+        Order another = new Order();
+        another.setOrderId("ORD-501");
+        assertThat(repository.insertIfAbsent(another)).isEqualTo(1);
+        assertThat(repository.count()).isEqualTo(62);
+    }
+
+    @Test
+    void keysetQueriesShouldPageByOrderTimeThenId() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 15, 12, 0);
+        Order a = saveAt("ORD-K1", base.minusMinutes(2));
+        Order b = saveAt("ORD-K2", base.minusMinutes(1));
+        Order c = saveAt("ORD-K3", base);
+        Order d = saveAt("ORD-K4", base);
+
+        List<OrderSummary> latest = repository.findLatest(PageRequest.of(0, 2));
+        assertThat(latest).extracting(OrderSummary::orderId).containsExactly("ORD-K4", "ORD-K3");
+
+        List<OrderSummary> older = repository.findOlderThan(c.getOrderTime(), c.getId(), PageRequest.of(0, 2));
+        assertThat(older).extracting(OrderSummary::orderId).containsExactly("ORD-K2", "ORD-K1");
+
+        assertThat(a.getId()).isLessThan(b.getId());
+        assertThat(b.getId()).isLessThan(c.getId());
+        assertThat(repository.findOlderThan(a.getOrderTime(), a.getId(), PageRequest.of(0, 2))).isEmpty();
+        assertThat(d.getId()).isGreaterThan(c.getId());
+    }
+
+    @Test
+    void sinceQueriesShouldFollowInsertOrderRatherThanOrderTime() {
+        LocalDateTime base = LocalDateTime.of(2026, 1, 15, 12, 0);
+        assertThat(repository.findLastInsertedId()).isZero();
+        insertAt("ORD-S1", base);
+        long cursor = repository.findLastInsertedId();
+        // Parsed before ORD-S1 but committed after it
+        insertAt("ORD-S2", base.minusSeconds(5));
+        insertAt("ORD-S3", base.plusSeconds(1));
+
+        List<OrderSummary> inserted = repository.findInsertedAfter(cursor, PageRequest.of(0, 10));
+        assertThat(inserted).extracting(OrderSummary::orderId).containsExactly("ORD-S2", "ORD-S3");
+        assertThat(repository.findInsertedAfter(cursor, PageRequest.of(0, 1)))
+                .extracting(OrderSummary::orderId).containsExactly("ORD-S2");
+        assertThat(repository.findInsertedAfter(repository.findLastInsertedId(), PageRequest.of(0, 10))).isEmpty();
+    }
+
+    private void insertAt(String orderId, LocalDateTime orderTime) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setOrderTime(orderTime);
+        repository.insertIfAbsent(order);
+    }
+
+    private Order saveAt(String orderId, LocalDateTime orderTime) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setOrderTime(orderTime);
+        return repository.save(order);
+    }
 }
@@ -0,0 +1,99 @@
+package com.zomato.plugin.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PayloadCodecTest {
+
+    private static final String ORDER_JSON = "{\"orderId\":\"ZMT-884213\",\"customerName\":\"Priya Sharma\","
+            + "\"restaurant\":{\"id\":20931,\"name\":\"Spice Route\",\"city\":\"Bengaluru\"},"
+            + "\"items\":[{\"itemId\":1001,\"name\":\"Paneer Tikka Masala\",\"quantity\":2,\"price\":240.00,"
+            + "\"addons\":[],\"instructions\":\"less spicy, no onion\"}],"
+            + "\"totalAmount\":480.00,\"status\":\"NEW\"}";
+
+    private SimpleMeterRegistry registry;
+    private PayloadCodec codec;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        codec = new PayloadCodec();
+        codec.bindTo(registry);
+    }
+
+    @Test
+    void compressShouldRoundTrip() {
+        String json = "{\"orderId\":\"ZMT-1\",\"customerName\":\"Zoë \\\"Z\\\" ☕\",\"status\":\"NEW\"}";
+
+        byte[] compressed = codec.compress(json);
+
+        assertThat(codec.decompress(compressed)).isEqualTo(json);
+    }
+
+    @Test
+    void dictionaryShouldShrinkSmallOrdersBelowPlainDeflate() {
+        byte[] withDictionary = codec.compress(ORDER_JSON);
+
+        assertThat(withDictionary.length).isLessThan(plainDeflate(ORDER_JSON).length);
+        assertThat(withDictionary.length).isLessThan(ORDER_JSON.length() / 2);
+    }
+
+    @Test
+    void gaugesShouldReportRatioAndBytesSaved() {
+        assertThat(registry.get("order.payload.compression.ratio").gauge().value()).isZero();
+
+        byte[] compressed = codec.compress(ORDER_JSON);
+
+        long raw = ORDER_JSON.getBytes(StandardCharsets.UTF_8).length;
+        assertThat(registry.get("order.payload.bytes.saved").gauge().value())
+                .isEqualTo((double) (raw - compressed.length));
+        assertThat(registry.get("order.payload.compression.ratio").gauge().value())
+                .isEqualTo((double) raw / compressed.length);
+        assertThat(codec.getBytesSaved()).isEqualTo(raw - compressed.length);
+    }
+
+    @Test
+    void decompressShouldRejectCorruptInput() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decompress("not deflated".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void decompressShouldRejectTruncatedInput() {
+        byte[] compressed = codec.compress(ORDER_JSON);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.decompress(Arrays.copyOf(compressed, compressed.length / 2)));
+    }
+
+    @Test
+    void decompressShouldRejectPayloadWrittenWithAnotherDictionary() {
+        PayloadCodec other = new PayloadCodec("{\"other\":\"dictionary\"}".getBytes(StandardCharsets.UTF_8));
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decompress(other.compress(ORDER_JSON)));
+    }
+
+    @Test
+    void loadDictionaryShouldFailForMissingResource() {
+        assertThat(PayloadCodec.loadDictionary(PayloadCodec.DICTIONARY_RESOURCE)).isNotEmpty();
+        assertThrows(IllegalStateException.class, () -> PayloadCodec.loadDictionary("compression/missing.dict"));
+    }
+
+    private static byte[] plainDeflate(String json) {
+        Deflater deflater = new Deflater();
+        deflater.setInput(json.getBytes(StandardCharsets.UTF_8));
+        deflater.finish();
+        byte[] buffer = new byte[4096];
+        int length = deflater.deflate(buffer);
+        deflater.end();
+        return Arrays.copyOf(buffer, length);
+    }
+}
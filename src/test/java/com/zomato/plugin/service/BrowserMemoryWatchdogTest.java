@@ -0,0 +1,71 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.CDPSession;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BrowserMemoryWatchdogTest {
+
+    private final BrowserMemoryWatchdog watchdog = new BrowserMemoryWatchdog(30_000, 256, 50_000);
+
+    @Test
+    void sampleShouldReadTrackedPerformanceMetrics() {
+        CDPSession session = mock(CDPSession.class);
+        when(session.send("Performance.getMetrics")).thenReturn(JsonParser.parseString("""
+                {"metrics":[
+                  {"name":"Timestamp","value":1234.5},
+                  {"name":"Documents","value":4},
+                  {"name":"Nodes","value":1520},
+                  {"name":"JSHeapUsedSize","value":10485760},
+                  {"name":"JSHeapTotalSize","value":16777216}
+                ]}""").getAsJsonObject());
+
+        BrowserMemoryWatchdog.Sample sample = watchdog.sample(session);
+
+        assertThat(sample).isEqualTo(new BrowserMemoryWatchdog.Sample(10_485_760, 16_777_216, 1520, 4));
+        assertThat(watchdog.getLastSample()).isEqualTo(sample);
+        assertThat(watchdog.getIntervalMs()).isEqualTo(30_000);
+    }
+
+    @Test
+    void shouldBeOverThresholdOnJsHeapOrDomNodes() {
+        long limit = 256L * 1024 * 1024;
+
+        assertThat(watchdog.isOverThreshold(new BrowserMemoryWatchdog.Sample(limit, 0, 50_000, 1))).isFalse();
+        assertThat(watchdog.isOverThreshold(new BrowserMemoryWatchdog.Sample(limit + 1, 0, 10, 1))).isTrue();
+        assertThat(watchdog.isOverThreshold(new BrowserMemoryWatchdog.Sample(0, 0, 50_001, 1))).isTrue();
+    }
+
+    @Test
+    void recordRecycleShouldTrackLastAndMaxHandover() {
+        watchdog.recordRecycle(800);
+        watchdog.recordRecycle(300);
+
+        assertThat(watchdog.getRecycleCount()).isEqualTo(2);
+        assertThat(watchdog.getLastHandoverMs()).isEqualTo(300);
+        assertThat(watchdog.getMaxHandoverMs()).isEqualTo(800);
+    }
+
+    @Test
+    void bindToShouldRegisterGauges() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        watchdog.bindTo(registry);
+        CDPSession session = mock(CDPSession.class);
+        when(session.send("Performance.getMetrics")).thenReturn(JsonParser.parseString(
+                "{\"metrics\":[{\"name\":\"JSHeapUsedSize\",\"value\":2048},{\"name\":\"Nodes\",\"value\":12}]}")
+                .getAsJsonObject());
+        watchdog.sample(session);
+        watchdog.recordRecycle(450);
+
+        assertThat(registry.get("order.capture.browser.js.heap.used").gauge().value()).isEqualTo(2048);
+        assertThat(registry.get("order.capture.browser.dom.nodes").gauge().value()).isEqualTo(12);
+        assertThat(registry.get("order.capture.browser.recycles").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("order.capture.browser.handover.last").gauge().value()).isEqualTo(450);
+        assertThat(registry.get("order.capture.browser.handover.max").gauge().value()).isEqualTo(450);
+    }
+}
@@ -0,0 +1,371 @@
+package com.zomato.plugin.service;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Playwright;
+import com.microsoft.playwright.PlaywrightException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BrowserPoolTest {
+
+    private static final String PARTNER_URL = "https://partner.example/orders";
+    private static final Path SESSION_FILE = Path.of("build", "no-such-session.json");
+
+    private Playwright playwright;
+    private BrowserType chromium;
+    private Browser browser;
+    private PlaywrightService playwrightService;
+    private AtomicInteger created;
+    private BrowserPool pool;
+
+    @BeforeEach
+    void setUp() {
+        playwright = mock(Playwright.class);
+        chromium = mock(BrowserType.class);
+        browser = mock(Browser.class);
+        when(playwright.chromium()).thenReturn(chromium);
+        when(chromium.launch(any())).thenReturn(browser);
+        playwrightService = mock(PlaywrightService.class);
+        created = new AtomicInteger();
+        pool = pool(2, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        pool.shutdown();
+    }
+
+    @Test
+    void accountsShouldShareOneBrowserInIsolatedContexts() throws InterruptedException {
+        Tab first = tab();
+        Tab second = tab();
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+        pool.open("outlet-2", SESSION_FILE).join();
+
+        assertThat(created).hasValue(1);
+        verify(chromium).launch(any());
+        verify(playwrightService).attach(first.page, "outlet-1");
+        verify(playwrightService).attach(second.page, "outlet-2");
+        assertThat(pool.getActiveContextCount()).isEqualTo(2);
+        assertThat(pool.getLaunchCount()).isEqualTo(1);
+        assertThat(pool.isRunning()).isTrue();
+        verify(first.page, timeout(2000).atLeastOnce()).waitForTimeout(anyDouble());
+
+        pool.shutdown();
+
+        verify(first.context).close();
+        verify(second.context).close();
+        verify(browser).close();
+        verify(playwright).close();
+        assertThat(pool.isRunning()).isFalse();
+        assertThat(pool.getActiveContextCount()).isZero();
+    }
+
+    @Test
+    void releasedContextShouldBeReusedOnReconnect() {
+        Tab first = tab();
+        Tab second = tab();
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+        pool.release("outlet-1");
+        pool.release("unknown");
+        pool.open("outlet-2", SESSION_FILE).join();
+
+        assertThat(pool.getIdleContextCount()).isEqualTo(1);
+        assertThat(pool.getActiveContextCount()).isEqualTo(1);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        assertThat(pool.getIdleContextCount()).isZero();
+        assertThat(pool.getActiveContextCount()).isEqualTo(2);
+        verify(first.context, never()).close();
+    }
+
+    @Test
+    void fullPoolShouldEvictLeastRecentlyUsedIdleContextOrRefuse() {
+        Tab first = tab();
+        Tab second = tab();
+        Tab third = tab();
+        when(browser.newContext(any())).thenReturn(first.context, second.context, third.context);
+        pool.open("outlet-1", SESSION_FILE).join();
+        pool.open("outlet-2", SESSION_FILE).join();
+        pool.release("outlet-1");
+        pool.release("outlet-2");
+
+        pool.open("outlet-3", SESSION_FILE).join();
+
+        verify(first.context).close();
+        verify(second.context, never()).close();
+        assertThat(pool.getEvictionCount()).isEqualTo(1);
+
+        pool.open("outlet-2", SESSION_FILE).join();
+
+        assertThatThrownBy(() -> pool.open("outlet-4", SESSION_FILE).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("pool is full (2 accounts connected)");
+    }
+
+    @Test
+    void idleContextShouldBeEvictedAfterTimeout() throws InterruptedException {
+        pool.shutdown();
+        pool = pool(2, 0);
+        Tab first = tab();
+        Tab second = tab();
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+        pool.open("outlet-1", SESSION_FILE).join();
+        pool.open("outlet-2", SESSION_FILE).join();
+
+        pool.release("outlet-1");
+
+        verify(first.context, timeout(2000)).close();
+        verify(second.context, never()).close();
+        assertThat(pool.getEvictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedPageShouldCloseOnlyItsContext() {
+        Tab first = tab();
+        doThrow(new PlaywrightException("Target crashed")).when(first.page).waitForTimeout(anyDouble());
+        when(browser.newContext(any())).thenReturn(first.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        verify(first.context, timeout(2000)).close();
+        verify(browser, never()).close();
+    }
+
+    @Test
+    void failedMemoryCheckShouldCloseOnlyItsContext() throws InterruptedException {
+        pool.shutdown();
+        pool = pool(2, 600_000, new BrowserMemoryWatchdog(0, 512, 200_000));
+        Tab first = tab();
+        when(first.metrics.send("Performance.getMetrics")).thenThrow(new PlaywrightException("Session closed"));
+        doThrow(new PlaywrightException("Target closed")).when(first.context).close();
+        when(browser.newContext(any())).thenReturn(first.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        verify(first.context, timeout(2000)).close();
+        verify(browser, never()).close();
+    }
+
+    @Test
+    void unexpectedFailureShouldNotStopTheBrowserThread() {
+        Tab first = tab();
+        Tab second = tab();
+        doThrow(new IllegalStateException("Cannot find object")).when(first.page).waitForTimeout(anyDouble());
+        doThrow(new IllegalStateException("Object doesn't exist")).when(first.context).close();
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+        verify(first.context, timeout(2000)).close();
+        pool.open("outlet-2", SESSION_FILE).join();
+
+        assertThat(pool.isRunning()).isTrue();
+        assertThat(pool.getActiveContextCount()).isEqualTo(1);
+    }
+
+    @Test
+    void browserThreadDyingShouldFailPendingCommandsAndRestartOnTheNext() throws InterruptedException {
+        CountDownLatch launching = new CountDownLatch(1);
+        CountDownLatch fail = new CountDownLatch(1);
+        ReflectionTestUtils.setField(pool, "playwrightFactory", (Supplier<Playwright>) () -> {
+            if (created.incrementAndGet() == 1) {
+                launching.countDown();
+                awaitQuietly(fail);
+                throw new NoClassDefFoundError("com/microsoft/playwright/impl/driver/Driver");
+            }
+            return playwright;
+        });
+        Tab first = tab();
+        when(browser.newContext(any())).thenReturn(first.context);
+
+        CompletableFuture<Void> running = pool.open("outlet-1", SESSION_FILE);
+        assertThat(launching.await(2, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Void> queued = pool.open("outlet-2", SESSION_FILE);
+        fail.countDown();
+
+        assertThatThrownBy(running::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(queued::join).hasMessageContaining("Browser pool stopped");
+        pool.open("outlet-1", SESSION_FILE).join();
+        assertThat(pool.getLaunchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shutdownShouldTolerateBrowserThatIsAlreadyGone() throws InterruptedException {
+        Tab first = tab();
+        when(browser.newContext(any())).thenReturn(first.context);
+        doThrow(new PlaywrightException("Browser has been closed")).when(browser).close();
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        pool.shutdown();
+
+        verify(first.context).close();
+        assertThat(pool.getActiveContextCount()).isZero();
+    }
+
+    @Test
+    void failedLaunchShouldFailOpenAndRetryOnNextOpen() {
+        when(chromium.launch(any())).thenThrow(new PlaywrightException("Executable doesn't exist"))
+                .thenReturn(browser);
+        Tab first = tab();
+        when(browser.newContext(any())).thenReturn(first.context);
+
+        assertThatThrownBy(() -> pool.open("outlet-1", SESSION_FILE).join())
+                .hasCauseInstanceOf(PlaywrightException.class);
+        verify(playwright).close();
+
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        assertThat(created).hasValue(2);
+        assertThat(pool.getLaunchCount()).isEqualTo(1);
+    }
+
+    @Test
+    void connectLatencyShouldBeTrackedByHowWarmThePoolWas() {
+        Tab first = tab();
+        Tab second = tab();
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+        pool.open("outlet-2", SESSION_FILE).join();
+        pool.release("outlet-1");
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        assertThat(pool.getConnectCount(BrowserPool.ConnectStart.COLD)).isEqualTo(1);
+        assertThat(pool.getConnectCount(BrowserPool.ConnectStart.WARM)).isEqualTo(1);
+        assertThat(pool.getConnectCount(BrowserPool.ConnectStart.PRELOADED)).isEqualTo(1);
+        assertThat(pool.getConnectTotalMs(BrowserPool.ConnectStart.COLD))
+                .isGreaterThanOrEqualTo(pool.getLastConnectMs(BrowserPool.ConnectStart.COLD));
+    }
+
+    @Test
+    void prewarmShouldLaunchBrowserAndPreloadStoredContextsUntilFull() {
+        Tab first = tab();
+        Tab failed = tab();
+        Tab second = tab();
+        when(failed.page.navigate(PARTNER_URL)).thenThrow(new PlaywrightException("net::ERR_NAME_NOT_RESOLVED"));
+        when(browser.newContext(any())).thenReturn(first.context, failed.context, second.context);
+        Map<String, Path> stored = new LinkedHashMap<>();
+        stored.put("outlet-1", SESSION_FILE);
+        stored.put("outlet-2", SESSION_FILE);
+        stored.put("outlet-3", SESSION_FILE);
+        stored.put("outlet-4", SESSION_FILE);
+
+        pool.prewarm(stored).join();
+
+        verify(playwrightService).attach(first.page, "outlet-1");
+        verify(playwrightService).attach(second.page, "outlet-3");
+        verify(failed.context).close();
+        assertThat(pool.getIdleContextCount()).isEqualTo(2);
+        assertThat(pool.getLaunchCount()).isEqualTo(1);
+
+        pool.prewarm(stored).join();
+        pool.open("outlet-3", SESSION_FILE).join();
+
+        assertThat(pool.getLaunchCount()).isEqualTo(1);
+        assertThat(pool.getConnectCount(BrowserPool.ConnectStart.PRELOADED)).isEqualTo(1);
+        assertThat(pool.getActiveContextCount()).isEqualTo(1);
+    }
+
+    @Test
+    void prewarmShouldFailWhenBrowserCannotStart() {
+        when(chromium.launch(any())).thenThrow(new PlaywrightException("Executable doesn't exist"));
+
+        assertThatThrownBy(() -> pool.prewarm(Map.of("outlet-1", SESSION_FILE)).join())
+                .hasCauseInstanceOf(PlaywrightException.class);
+    }
+
+    @Test
+    void bindToShouldRegisterPoolMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pool.bindTo(registry);
+        Tab tab = tab();
+        when(browser.newContext(any())).thenReturn(tab.context);
+
+        pool.open("outlet-1", SESSION_FILE).join();
+
+        assertThat(registry.get("order.capture.browser.contexts").tag("state", "active").gauge().value())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.browser.contexts").tag("state", "idle").gauge().value())
+                .isZero();
+        assertThat(registry.get("order.capture.browser.launches").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("order.capture.browser.contexts.evicted").functionCounter().count()).isZero();
+        assertThat(registry.get("order.capture.connect.latency").tag("start", "cold").functionTimer().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.connect.latency").tag("start", "warm").functionTimer().count())
+                .isZero();
+    }
+
+    private BrowserPool pool(int maxContexts, long idleTimeoutMs) {
+        return pool(maxContexts, idleTimeoutMs, new BrowserMemoryWatchdog(60_000, 512, 200_000));
+    }
+
+    private BrowserPool pool(int maxContexts, long idleTimeoutMs, BrowserMemoryWatchdog watchdog) {
+        BrowserPool browserPool = new BrowserPool(playwrightService, watchdog, new HandoverDeduplicator(100, 0),
+                true, PARTNER_URL, maxContexts, idleTimeoutMs);
+        ReflectionTestUtils.setField(browserPool, "playwrightFactory", (Supplier<Playwright>) () -> {
+            created.incrementAndGet();
+            return playwright;
+        });
+        return browserPool;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(2, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Tab tab() {
+        BrowserContext context = mock(BrowserContext.class);
+        Page page = mock(Page.class);
+        CDPSession metrics = mock(CDPSession.class);
+        when(context.newPage()).thenReturn(page);
+        when(context.newCDPSession(page)).thenReturn(metrics);
+        // Stands in for Playwright blocking while it dispatches events
+        doAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        }).when(page).waitForTimeout(anyDouble());
+        return new Tab(context, page, metrics);
+    }
+
+    private record Tab(BrowserContext context, Page page, CDPSession metrics) {
+    }
+}
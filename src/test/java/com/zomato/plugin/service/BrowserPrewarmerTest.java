@@ -0,0 +1,86 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class BrowserPrewarmerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private BrowserPool browserPool;
+    private PlaywrightService playwrightService;
+
+    @BeforeEach
+    void setUp() {
+        browserPool = mock(BrowserPool.class);
+        playwrightService = new PlaywrightService(mock(OrderPipeline.class),
+                new ResponseFilter(List.of("xhr"), List.of("*/orders*"), List.of("application/json")),
+                new WebSocketFrameDecoder(List.of("order")), new ResourceBlocker(false, List.of(), List.of(), List.of()),
+                new CaptureRecorder(tempDir.resolve("captures").toString(), false, 0, 1000),
+                new OrderLatencyMetrics(2000));
+        ReflectionTestUtils.setField(playwrightService, "sessionFile",
+                tempDir.resolve("zomato-session.json").toString());
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        new BrowserPrewarmer(browserPool, playwrightService, false).prewarm();
+
+        verifyNoInteractions(browserPool);
+    }
+
+    // The connection table is in-memory and starts empty; only the session files survive a restart
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldPreloadAccountsOfSessionFilesMostRecentlySavedFirst() throws IOException {
+        storeSession("zomato-session-outlet-1.json", "2026-10-17T08:00:00Z");
+        storeSession("zomato-session-outlet-2.json", "2026-10-17T09:00:00Z");
+        storeSession("zomato-session.json", "2026-10-17T10:00:00Z");
+        storeSession("other-outlet-3.json", "2026-10-17T10:00:00Z");
+        Files.createDirectory(tempDir.resolve("zomato-session-dir.json"));
+        when(browserPool.prewarm(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        new BrowserPrewarmer(browserPool, playwrightService, true).prewarm();
+
+        ArgumentCaptor<Map<String, Path>> stored = ArgumentCaptor.forClass(Map.class);
+        verify(browserPool).prewarm(stored.capture());
+        assertThat(stored.getValue()).containsExactly(
+                entry("outlet-2", Path.of(playwrightService.getSessionFilePath("outlet-2"))),
+                entry("outlet-1", Path.of(playwrightService.getSessionFilePath("outlet-1"))));
+    }
+
+    @Test
+    void failedPrewarmShouldNotPropagate() {
+        when(browserPool.prewarm(Map.of())).thenReturn(CompletableFuture.failedFuture(new IllegalStateException()));
+
+        new BrowserPrewarmer(browserPool, playwrightService, true).prewarm();
+
+        verify(browserPool).prewarm(Map.of());
+    }
+
+    private void storeSession(String fileName, String savedAt) throws IOException {
+        Path file = Files.writeString(tempDir.resolve(fileName), "{\"cookies\":[],\"origins\":[]}");
+        Files.setLastModifiedTime(file, FileTime.from(Instant.parse(savedAt)));
+    }
+}
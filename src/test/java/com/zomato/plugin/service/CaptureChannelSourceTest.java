@@ -0,0 +1,41 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class CaptureChannelSourceTest {
+
+    @Test
+    void shouldForwardPayloadsOnlyWhileStarted() {
+        CaptureChannelSource source = new CaptureChannelSource("ws");
+        OrderSink sink = mock(OrderSink.class);
+        byte[] bytes = "{\"orderId\":\"ZMT-BIN\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(source.submit("{}")).isFalse();
+        assertThat(source.submit(bytes)).isFalse();
+        verifyNoInteractions(sink);
+
+        source.start(sink);
+        when(sink.submit(eq("{}"), anyLong())).thenReturn(true);
+        when(sink.submit(eq(bytes), anyLong())).thenReturn(true);
+        assertThat(source.getName()).isEqualTo("ws");
+        assertThat(source.submit("{}")).isTrue();
+        assertThat(source.submit("{}", 42L)).isTrue();
+        assertThat(source.submit(bytes)).isTrue();
+        assertThat(source.submit(bytes, 43L)).isTrue();
+        verify(sink).submit("{}", 42L);
+        verify(sink).submit(bytes, 43L);
+
+        source.stop();
+        assertThat(source.submit("{}")).isFalse();
+    }
+}
@@ -0,0 +1,66 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaptureFileReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void emptyRecordingShouldReadAsEndOfFile() throws IOException {
+        Path file = write(tempDir.resolve("empty.gz"));
+
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    void recordCutShortByCrashShouldEndTheFile() throws IOException {
+        Path file = write(tempDir.resolve("crashed.gz"),
+                new CaptureRecord(1_000, CaptureRecord.Source.XHR, "https://partner.example/orders", "{\"orderId\":\"ZMT-1\"}"),
+                new CaptureRecord(2_000, CaptureRecord.Source.WS, null, "{\"orderId\":\"ZMT-2\"}".repeat(200)));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 40));
+
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            assertThat(reader.read().body()).isEqualTo("{\"orderId\":\"ZMT-1\"}");
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    void shouldRejectUnknownRecordVersion() throws IOException {
+        Path file = tempDir.resolve("future.gz");
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            out.writeByte(2);
+        }
+
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            assertThatThrownBy(reader::read)
+                    .isInstanceOf(IOException.class)
+                    .hasMessage("Unsupported capture record version 2");
+        }
+    }
+
+    static Path write(Path file, CaptureRecord... records) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(Files.newOutputStream(file)))) {
+            for (CaptureRecord record : records) {
+                record.writeTo(out);
+            }
+        }
+        return file;
+    }
+}
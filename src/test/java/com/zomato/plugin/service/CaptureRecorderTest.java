@@ -0,0 +1,176 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaptureRecorderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldNotWriteAnythingUntilRecordingStarts() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.resolve("captures").toString(), false, 0, 1000);
+        recorder.init();
+
+        recorder.record(CaptureRecord.Source.XHR, "https://partner.example/orders", "{}");
+
+        assertThat(recorder.isRecording()).isFalse();
+        assertThat(recorder.getFile()).isNull();
+        assertThat(recorder.stopRecording()).isNull();
+        assertThat(recorder.getRecordCount()).isZero();
+        assertThat(tempDir.resolve("captures")).doesNotExist();
+    }
+
+    @Test
+    void enabledRecorderShouldRecordPayloadsInOrderFromStartup() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.resolve("captures").toString(), true, 60_000, 1000);
+        recorder.init();
+        long before = micros(Instant.now());
+
+        recorder.record(CaptureRecord.Source.XHR, "https://partner.example/api/orders", "[{\"orderId\":\"ZMT-1\"}]");
+        recorder.record(CaptureRecord.Source.WS, null, "{\"orderId\":\"ZMT-2\"}");
+        recorder.record(CaptureRecord.Source.WS, null, null);
+        Path file = recorder.stopRecording();
+
+        assertThat(file.getParent()).isEqualTo(tempDir.resolve("captures").toAbsolutePath());
+        assertThat(file.getFileName().toString()).startsWith("capture-").endsWith(".gz");
+        assertThat(recorder.getRecordCount()).isEqualTo(2);
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            CaptureRecord first = reader.read();
+            CaptureRecord second = reader.read();
+            assertThat(first).extracting(CaptureRecord::source, CaptureRecord::url, CaptureRecord::body)
+                    .containsExactly(CaptureRecord.Source.XHR, "https://partner.example/api/orders",
+                            "[{\"orderId\":\"ZMT-1\"}]");
+            assertThat(second).extracting(CaptureRecord::source, CaptureRecord::url, CaptureRecord::body)
+                    .containsExactly(CaptureRecord.Source.WS, null, "{\"orderId\":\"ZMT-2\"}");
+            assertThat(first.timestampMicros()).isGreaterThanOrEqualTo(before);
+            assertThat(second.timestampMicros()).isGreaterThanOrEqualTo(first.timestampMicros());
+            assertThat(reader.read()).isNull();
+        }
+    }
+
+    @Test
+    void flushedRecordsShouldBeReadableWhileRecording() throws Exception {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.toString(), false, 0, 1000);
+        Path file = recorder.startRecording();
+
+        recorder.record(CaptureRecord.Source.XHR, "https://partner.example/orders", "{\"orderId\":\"ZMT-LIVE\"}");
+        awaitUntil(() -> recorder.getRecordCount() == 1);
+
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            assertThat(reader.read().body()).isEqualTo("{\"orderId\":\"ZMT-LIVE\"}");
+        }
+        recorder.stopRecording();
+    }
+
+    @Test
+    void eachRecordingShouldGetItsOwnFile() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.toString(), false, 0, 1000);
+
+        Path first = recorder.startRecording();
+        assertThat(recorder.startRecording()).isEqualTo(first);
+        recorder.stopRecording();
+        Path second = startAndStop(recorder);
+        Path third = startAndStop(recorder);
+
+        assertThat(second).isNotEqualTo(first);
+        assertThat(third).isNotIn(first, second);
+        assertThat(recorder.getFile()).isEqualTo(third);
+    }
+
+    @Test
+    void writeFailureShouldStopRecording() throws Exception {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.toString(), false, 0, 1000);
+        recorder.startRecording();
+
+        // writeUTF refuses URLs over 64 KB
+        recorder.record(CaptureRecord.Source.XHR, "x".repeat(70_000), "{}");
+        awaitUntil(() -> !recorder.isRecording());
+        recorder.record(CaptureRecord.Source.XHR, "https://partner.example/orders", "{}");
+        recorder.stopRecording();
+
+        assertThat(recorder.isRecording()).isFalse();
+        assertThat(recorder.getRecordCount()).isZero();
+        assertThat(recorder.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void fullQueueShouldDropRecordsInsteadOfBlockingTheCaptureThread() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.toString(), false, 60_000, 1);
+        Path file = recorder.startRecording();
+        String body = "{\"orderId\":\"ZMT-1\",\"items\":\"" + "x".repeat(4096) + "\"}";
+
+        for (int i = 0; i < 10_000; i++) {
+            recorder.record(CaptureRecord.Source.WS, null, body);
+        }
+        recorder.stopRecording();
+
+        assertThat(recorder.getDroppedCount()).isPositive();
+        assertThat(recorder.getRecordCount() + recorder.getDroppedCount()).isEqualTo(10_000);
+        long read = 0;
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            while (reader.read() != null) {
+                read++;
+            }
+        }
+        assertThat(read).isEqualTo(recorder.getRecordCount());
+    }
+
+    @Test
+    void resolveShouldOnlyFindFilesInsideTheRecordingsDirectory() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.resolve("captures").toString(), false, 0, 1000);
+        Path file = startAndStop(recorder);
+        Files.writeString(tempDir.resolve("outside.gz"), "secret");
+
+        assertThat(recorder.resolve(file.getFileName().toString())).isEqualTo(file);
+        assertThatThrownBy(() -> recorder.resolve("../outside.gz"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("No capture file named");
+        assertThatThrownBy(() -> recorder.resolve("missing.gz")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> recorder.resolve(".")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bindToShouldRegisterRecordCounter() throws IOException {
+        CaptureRecorder recorder = new CaptureRecorder(tempDir.toString(), false, 0, 1000);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        recorder.bindTo(registry);
+        recorder.startRecording();
+
+        recorder.record(CaptureRecord.Source.WS, null, "{}");
+        recorder.stopRecording();
+
+        assertThat(registry.get("order.capture.recorded").functionCounter().count()).isEqualTo(1);
+        assertThat(registry.get("order.capture.recording.dropped").functionCounter().count()).isZero();
+    }
+
+    private static Path startAndStop(CaptureRecorder recorder) throws IOException {
+        recorder.startRecording();
+        return recorder.stopRecording();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant.truncatedTo(ChronoUnit.MICROS));
+    }
+}
@@ -0,0 +1,190 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CaptureReplayerTest {
+
+    private static final long SECOND = 1_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    private Path captures;
+    private IngestionExecutor ingestionExecutor;
+    private List<Order> persisted;
+    private OrderPipeline orderPipeline;
+    private CaptureReplayer replayer;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        captures = Files.createDirectory(tempDir.resolve("captures"));
+        CaptureRecorder recorder = new CaptureRecorder(captures.toString(), false, 0, 1000);
+        // One ingestion thread keeps the pipeline in record order
+        ingestionExecutor = new IngestionExecutor(false, 1, 100, 1000);
+        persisted = Collections.synchronizedList(new ArrayList<>());
+        orderPipeline = new OrderPipeline(ingestionExecutor, new HandoverDeduplicator(100, 0), this::save,
+                new OrderLatencyMetrics(2000), 100);
+        replayer = new CaptureReplayer(orderPipeline, recorder);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        replayer.shutdown();
+        ingestionExecutor.shutdown();
+    }
+
+    @Test
+    void maxSpeedReplayShouldFeedEveryPayloadAndCountDuplicates() throws IOException {
+        Path file = CaptureFileReaderTest.write(captures.resolve("friday.gz"),
+                record(0, CaptureRecord.Source.XHR, "{\"orderId\":\"ZMT-1\"}"),
+                record(10 * SECOND, CaptureRecord.Source.XHR, "[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-2\"}]"),
+                record(20 * SECOND, CaptureRecord.Source.WS, "{\"orderId\":\"ZMT-3\"}"),
+                record(30 * SECOND, CaptureRecord.Source.WS, "{\"orderId\":\"ZMT-2\"}"));
+        ReplayRun run = new ReplayRun("friday.gz", "replay", 0);
+
+        replayer.replay(run, file);
+
+        assertThat(run.getState()).isEqualTo(ReplayRun.State.FINISHED);
+        assertThat(run.getRecords()).isEqualTo(4);
+        assertThat(run.getOrders()).isEqualTo(5);
+        assertThat(run.getDuplicates()).isEqualTo(2);
+        assertThat(run.getElapsedMs()).isLessThan(5_000);
+        assertThat(run.getRecordsPerSecond()).isPositive();
+        assertThat(run.getError()).isNull();
+        assertThat(persisted).extracting(Order::getOrderId).containsExactly("ZMT-1", "ZMT-2", "ZMT-3");
+        assertThat(orderPipeline.getStats("replay")).get()
+                .extracting(OrderSourceStats::getProcessed, OrderSourceStats::isRunning)
+                .containsExactly(4L, false);
+    }
+
+    @Test
+    void repeatedReplayShouldReportTheSameCounts() throws IOException {
+        Path file = CaptureFileReaderTest.write(captures.resolve("again.gz"),
+                record(0, CaptureRecord.Source.XHR, "[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-1\"}]"),
+                record(SECOND, CaptureRecord.Source.XHR, "not json"));
+        ReplayRun first = new ReplayRun("again.gz", "replay", 0);
+        ReplayRun second = new ReplayRun("again.gz", "replay", 0);
+
+        replayer.replay(first, file);
+        replayer.replay(second, file);
+
+        assertThat(second).extracting(ReplayRun::getRecords, ReplayRun::getOrders, ReplayRun::getDuplicates)
+                .containsExactly(first.getRecords(), first.getOrders(), first.getDuplicates())
+                .containsExactly(2L, 2L, 1L);
+        assertThat(orderPipeline.getStats("replay")).get().extracting(OrderSourceStats::getFailures).isEqualTo(2L);
+    }
+
+    @Test
+    void replayShouldFailWhileItsSourceNameIsTaken() throws IOException {
+        Path file = CaptureFileReaderTest.write(captures.resolve("taken.gz"));
+        orderPipeline.start(new CaptureChannelSource("xhr"));
+        ReplayRun run = new ReplayRun("taken.gz", "xhr", 0);
+
+        replayer.replay(run, file);
+
+        assertThat(run.getState()).isEqualTo(ReplayRun.State.FAILED);
+        assertThat(run.getError()).isEqualTo("An order source named xhr is already running");
+    }
+
+    @Test
+    void replayShouldKeepOriginalSpacingScaledBySpeed() throws IOException {
+        Path file = CaptureFileReaderTest.write(captures.resolve("spaced.gz"),
+                record(5 * SECOND, CaptureRecord.Source.XHR, "{\"orderId\":\"ZMT-1\"}"),
+                record(5 * SECOND + 400_000, CaptureRecord.Source.XHR, "{\"orderId\":\"ZMT-2\"}"));
+        ReplayRun run = new ReplayRun("spaced.gz", "replay", 2);
+
+        replayer.replay(run, file);
+
+        assertThat(run.getState()).isEqualTo(ReplayRun.State.FINISHED);
+        assertThat(run.getElapsedMs()).isBetween(200L, 2_000L);
+        assertThat(run.getSpeed()).isEqualTo(2);
+    }
+
+    @Test
+    void startShouldReplayInBackgroundOneAtATime() throws Exception {
+        CaptureFileReaderTest.write(captures.resolve("slow.gz"),
+                record(0, CaptureRecord.Source.XHR, "{\"orderId\":\"ZMT-1\"}"),
+                record(60 * SECOND, CaptureRecord.Source.XHR, "{\"orderId\":\"ZMT-2\"}"));
+        CaptureFileReaderTest.write(captures.resolve("fast.gz"));
+        assertThat(replayer.getLastRun()).isEmpty();
+
+        ReplayRun run = replayer.start("slow.gz", "outlet-1", 1);
+
+        assertThat(replayer.getLastRun()).contains(run);
+        assertThat(run.getFile()).isEqualTo("slow.gz");
+        assertThat(run.getSource()).isEqualTo("outlet-1");
+        assertThat(run.getStartedAt()).isNotNull();
+        awaitRecords(run, 1);
+        assertThatThrownBy(() -> replayer.start("fast.gz", "outlet-1", 0))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("slow.gz");
+
+        replayer.shutdown();
+        awaitFinished(run);
+        assertThat(run.getState()).isEqualTo(ReplayRun.State.FAILED);
+        assertThat(run.getError()).isEqualTo("Replay was interrupted");
+        assertThat(run.getRecords()).isEqualTo(1);
+    }
+
+    @Test
+    void startShouldRejectUnknownFilesAndNegativeSpeed() {
+        assertThatThrownBy(() -> replayer.start("missing.gz", "replay", 1))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> replayer.start("missing.gz", "replay", -1))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Replay speed must not be negative");
+    }
+
+    @Test
+    void unreadableFileShouldFailTheRun() throws Exception {
+        Files.writeString(captures.resolve("notes.gz"), "not a capture");
+
+        ReplayRun run = replayer.start("notes.gz", "replay", 0);
+        awaitFinished(run);
+
+        assertThat(run.getState()).isEqualTo(ReplayRun.State.FAILED);
+        assertThat(run.getError()).isNotBlank();
+        assertThat(run.getRecords()).isZero();
+    }
+
+    private static CaptureRecord record(long timestampMicros, CaptureRecord.Source source, String body) {
+        return new CaptureRecord(timestampMicros, source, "https://partner.example/orders", body);
+    }
+
+    private static void awaitRecords(ReplayRun run, long records) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (run.getRecords() < records && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(run.getRecords()).isGreaterThanOrEqualTo(records);
+    }
+
+    private static void awaitFinished(ReplayRun run) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (run.getState() == ReplayRun.State.RUNNING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(run.getState()).isNotEqualTo(ReplayRun.State.RUNNING);
+    }
+
+    // Stored at once, as far as the pipeline's repeat check is concerned
+    private void save(List<Order> orders) {
+        persisted.addAll(orders);
+        orderPipeline.onOrdersSaved(new OrdersSavedEvent(orders));
+    }
+}
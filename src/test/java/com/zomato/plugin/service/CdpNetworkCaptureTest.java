@@ -0,0 +1,218 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.PlaywrightException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CdpNetworkCaptureTest {
+
+    private CDPSession session;
+    private ResponseFilter responseFilter;
+    private AtomicBoolean active;
+    private List<String> payloads;
+    private List<String> payloadUrls;
+    private List<String> socketUrls;
+    private List<byte[]> binaryPayloads;
+    private WebSocketFrameDecoder frameDecoder;
+    private CdpNetworkCapture capture;
+
+    @BeforeEach
+    void setUp() {
+        session = mock(CDPSession.class);
+        responseFilter = new ResponseFilter(List.of("xhr", "fetch"), List.of("*/orders*"), List.of("application/json"));
+        active = new AtomicBoolean(true);
+        payloads = new ArrayList<>();
+        payloadUrls = new ArrayList<>();
+        socketUrls = new ArrayList<>();
+        binaryPayloads = new ArrayList<>();
+        frameDecoder = new WebSocketFrameDecoder(List.of("order"));
+        capture = new CdpNetworkCapture(session, responseFilter, active::get, (url, body) -> {
+            payloadUrls.add(url);
+            payloads.add(body);
+        }, url -> {
+            socketUrls.add(url);
+            return frameDecoder.open(payloads::add, binaryPayloads::add);
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void startShouldSubscribeToNetworkEventsAndEnableDomain() {
+        capture.start();
+
+        ArgumentCaptor<String> events = ArgumentCaptor.forClass(String.class);
+        verify(session, times(6)).on(events.capture(), any(Consumer.class));
+        assertThat(events.getAllValues()).containsExactly("Network.responseReceived", "Network.loadingFinished",
+                "Network.loadingFailed", "Network.webSocketCreated", "Network.webSocketFrameReceived",
+                "Network.webSocketClosed");
+        verify(session).send("Network.enable");
+    }
+
+    @Test
+    void shouldFetchBodyOnlyForAcceptedResponsesOnceLoaded() {
+        when(session.send(eq("Network.getResponseBody"), any()))
+                .thenReturn(json("{\"body\":\"{\\\"orderId\\\":\\\"ZMT-CDP\\\"}\",\"base64Encoded\":false}"));
+
+        capture.onResponseReceived(responseReceived("1", "XHR", "https://partner.example/api/orders", "application/json"));
+        capture.onResponseReceived(responseReceived("2", "Image", "https://cdn.example/logo.png", "image/png"));
+        capture.onResponseReceived(responseReceived("3", "Fetch", "https://partner.example/orders/", "text/html"));
+        assertThat(capture.getPendingRequestCount()).isEqualTo(1);
+
+        capture.onLoadingFinished(json("{\"requestId\":\"2\"}"));
+        capture.onLoadingFinished(json("{\"requestId\":\"3\"}"));
+        capture.onLoadingFinished(json("{\"requestId\":\"1\"}"));
+
+        assertThat(payloads).containsExactly("{\"orderId\":\"ZMT-CDP\"}");
+        assertThat(payloadUrls).containsExactly("https://partner.example/api/orders");
+        ArgumentCaptor<JsonObject> params = ArgumentCaptor.forClass(JsonObject.class);
+        verify(session).send(eq("Network.getResponseBody"), params.capture());
+        assertThat(params.getValue().get("requestId").getAsString()).isEqualTo("1");
+        assertThat(capture.getPendingRequestCount()).isZero();
+        assertThat(responseFilter.getHitCount("*/orders*")).isEqualTo(1);
+        assertThat(responseFilter.getMissCount("*/orders*")).isEqualTo(1);
+        assertThat(responseFilter.getSkippedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldDecodeBase64Bodies() {
+        String encoded = Base64.getEncoder().encodeToString("{\"orderId\":\"ZMT-Ü\"}".getBytes(StandardCharsets.UTF_8));
+        when(session.send(eq("Network.getResponseBody"), any()))
+                .thenReturn(json("{\"body\":\"" + encoded + "\",\"base64Encoded\":true}"));
+
+        capture.onResponseReceived(responseReceived("7", "Fetch", "https://partner.example/orders", "application/json"));
+        capture.onLoadingFinished(json("{\"requestId\":\"7\"}"));
+
+        assertThat(payloads).containsExactly("{\"orderId\":\"ZMT-Ü\"}");
+    }
+
+    @Test
+    void shouldTreatMissingMimeTypeAsNotAccepted() {
+        capture.onResponseReceived(json("{\"requestId\":\"1\",\"type\":\"XHR\","
+                + "\"response\":{\"url\":\"https://partner.example/orders\",\"mimeType\":null}}"));
+        capture.onResponseReceived(json("{\"requestId\":\"2\",\"type\":\"XHR\","
+                + "\"response\":{\"url\":\"https://partner.example/orders\"}}"));
+
+        assertThat(capture.getPendingRequestCount()).isZero();
+        assertThat(responseFilter.getMissCount("*/orders*")).isEqualTo(2);
+    }
+
+    @Test
+    void shouldForgetFailedRequests() {
+        capture.onResponseReceived(responseReceived("1", "XHR", "https://partner.example/orders", "application/json"));
+
+        capture.onLoadingFailed(json("{\"requestId\":\"1\"}"));
+        capture.onLoadingFinished(json("{\"requestId\":\"1\"}"));
+
+        assertThat(capture.getPendingRequestCount()).isZero();
+        verify(session, never()).send(eq("Network.getResponseBody"), any());
+        assertThat(payloads).isEmpty();
+    }
+
+    @Test
+    void shouldSkipBodyThatIsNoLongerAvailable() {
+        when(session.send(eq("Network.getResponseBody"), any()))
+                .thenThrow(new PlaywrightException("No resource with given identifier found"));
+
+        capture.onResponseReceived(responseReceived("1", "XHR", "https://partner.example/orders", "application/json"));
+        capture.onLoadingFinished(json("{\"requestId\":\"1\"}"));
+
+        assertThat(payloads).isEmpty();
+        assertThat(capture.getPendingRequestCount()).isZero();
+    }
+
+    @Test
+    void shouldIgnoreEventsWhileInactive() {
+        active.set(false);
+
+        capture.onResponseReceived(responseReceived("1", "XHR", "https://partner.example/orders", "application/json"));
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-1", 1, "{\"orderId\":\"ZMT-WS\"}"));
+
+        assertThat(capture.getPendingRequestCount()).isZero();
+        assertThat(payloads).isEmpty();
+        assertThat(responseFilter.getSkippedCount()).isZero();
+    }
+
+    @Test
+    void shouldDecodeWebSocketFramesPerSocket() {
+        byte[] attachment = "{\"orderId\":\"ZMT-BIN\"}".getBytes(StandardCharsets.UTF_8);
+        capture.onWebSocketCreated(json("{\"requestId\":\"ws-1\",\"url\":\"wss://partner.example/socket.io/\"}"));
+
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-1", 1, "42[\"order\",{\"orderId\":\"ZMT-WS\"}]"));
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-1", 1, "451-[\"order\",{\"_placeholder\":true,\"num\":0}]"));
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-2", 2, Base64.getEncoder().encodeToString(new byte[]{0, 1})));
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-1", 2, Base64.getEncoder().encodeToString(attachment)));
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-2", 9, ""));
+
+        assertThat(payloads).containsExactly("{\"orderId\":\"ZMT-WS\"}");
+        assertThat(binaryPayloads).containsExactly(attachment);
+        assertThat(frameDecoder.getCount(WebSocketFrameDecoder.MessageType.BINARY)).isEqualTo(1);
+        assertThat(capture.getOpenChannelCount()).isEqualTo(2);
+        assertThat(socketUrls).containsExactly("wss://partner.example/socket.io/", null);
+
+        capture.onWebSocketClosed(json("{\"requestId\":\"ws-1\"}"));
+        assertThat(capture.getOpenChannelCount()).isEqualTo(1);
+    }
+
+    @Test
+    void stopShouldDetachAndTolerateClosedSession() {
+        capture.onResponseReceived(responseReceived("1", "XHR", "https://partner.example/orders", "application/json"));
+        doThrow(new PlaywrightException("Target closed")).when(session).detach();
+
+        capture.onWebSocketFrameReceived(webSocketFrame("ws-1", 1, "3"));
+
+        capture.stop();
+
+        verify(session).detach();
+        assertThat(capture.getPendingRequestCount()).isZero();
+        assertThat(capture.getOpenChannelCount()).isZero();
+        verify(session, never()).send(anyString());
+    }
+
+    private static JsonObject responseReceived(String requestId, String type, String url, String mimeType) {
+        JsonObject response = new JsonObject();
+        response.addProperty("url", url);
+        response.addProperty("mimeType", mimeType);
+        JsonObject event = new JsonObject();
+        event.addProperty("requestId", requestId);
+        event.addProperty("type", type);
+        event.add("response", response);
+        return event;
+    }
+
+    private static JsonObject webSocketFrame(String requestId, int opcode, String payloadData) {
+        JsonObject frame = new JsonObject();
+        frame.addProperty("opcode", opcode);
+        frame.addProperty("mask", false);
+        frame.addProperty("payloadData", payloadData);
+        JsonObject event = new JsonObject();
+        event.addProperty("requestId", requestId);
+        event.add("response", frame);
+        return event;
+    }
+
+    private static JsonObject json(String json) {
+        return JsonParser.parseString(json).getAsJsonObject();
+    }
+}
@@ -8,11 +8,13 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -111,15 +113,94 @@ class ConnectionServiceTest {
 
     @Test
     void isConnectedShouldReturnTrueWhenActiveConnectionExists() {
-        when(repository.findFirstByConnectedTrue()).thenReturn(Optional.of(new ConnectionConfig()));
+        when(repository.findByConnectedTrue()).thenReturn(List.of(config("testuser")));
+
+        connectionService.reloadConnectionState();
 
         assertThat(connectionService.isConnected()).isTrue();
+        assertThat(connectionService.getConnectedCount()).isEqualTo(1);
     }
 
     @Test
     void isConnectedShouldReturnFalseWhenNoActiveConnection() {
-        when(repository.findFirstByConnectedTrue()).thenReturn(Optional.empty());
+        when(repository.findByConnectedTrue()).thenReturn(List.of(config("testuser")), List.of());
+
+        connectionService.reloadConnectionState();
+        connectionService.reloadConnectionState();
 
         assertThat(connectionService.isConnected()).isFalse();
     }
+
+    @Test
+    void isConnectedShouldFollowConnectAndDisconnectWithoutQuerying() {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setUsername("testuser");
+        when(repository.findByUsername("testuser")).thenReturn(Optional.of(config));
+        when(repository.save(any(ConnectionConfig.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        connectionService.connect("testuser", "session.json");
+        assertThat(connectionService.isConnected()).isTrue();
+        assertThat(connectionService.isConnected()).isTrue();
+
+        connectionService.disconnect("testuser");
+        assertThat(connectionService.isConnected()).isFalse();
+        verify(repository, never()).findFirstByConnectedTrue();
+        verify(repository, never()).findByConnectedTrue();
+    }
+
+    @Test
+    void disconnectShouldStayConnectedWhileAnotherAccountIsConnected() {
+        when(repository.findByUsername(any())).thenReturn(Optional.empty());
+        when(repository.save(any(ConnectionConfig.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        connectionService.connect("outlet-1", "session-outlet-1.json");
+        connectionService.connect("outlet-2", "session-outlet-2.json");
+        when(repository.findByUsername("outlet-1")).thenReturn(Optional.of(config("outlet-1")));
+
+        connectionService.disconnect("outlet-1");
+
+        assertThat(connectionService.isConnected()).isTrue();
+        assertThat(connectionService.getConnectedCount()).isEqualTo(1);
+    }
+
+    // A disconnect must not read back another account's connect before it commits
+    @Test
+    void concurrentConnectsAndDisconnectsShouldLeaveOnlyTheConnectedAccounts() throws InterruptedException {
+        when(repository.findByUsername(any())).thenAnswer(invocation -> Optional.of(config(invocation.getArgument(0))));
+        when(repository.save(any(ConnectionConfig.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            String username = "outlet-" + i;
+            boolean stayConnected = i % 2 == 0;
+            threads[i] = new Thread(() -> {
+                for (int n = 0; n < 200; n++) {
+                    connectionService.connect(username, "session.json");
+                    connectionService.disconnect(username);
+                }
+                if (stayConnected) {
+                    connectionService.connect(username, "session.json");
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(connectionService.getConnectedCount()).isEqualTo(4);
+        verify(repository, never()).findFirstByConnectedTrue();
+    }
+
+    private static ConnectionConfig config(String username) {
+        ConnectionConfig config = new ConnectionConfig();
+        config.setUsername(username);
+        return config;
+    }
+
+    @Test
+    void getAllConnectionsShouldReturnMostRecentFirst() {
+        ConnectionConfig config = new ConnectionConfig();
+        when(repository.findAllByOrderByConnectedAtDesc()).thenReturn(List.of(config));
+
+        assertThat(connectionService.getAllConnections()).containsExactly(config);
+    }
 }
@@ -0,0 +1,139 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.repository.OrderPayloadRepository;
+import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.repository.PayloadCodec;
+import jdk.jfr.Event;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FlightEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final List<Order> persisted = new ArrayList<>();
+    private final OrderLatencyMetrics latencyMetrics = new OrderLatencyMetrics(2000);
+
+    @Test
+    void playwrightServiceShouldRecordCapturesAndListenerChanges() throws IOException {
+        PlaywrightService playwrightService = new PlaywrightService(pipeline(),
+                new ResponseFilter(List.of("xhr"), List.of("*/orders*"), List.of("application/json")),
+                new WebSocketFrameDecoder(List.of("order")), new ResourceBlocker(false, List.of(), List.of(), List.of()),
+                new CaptureRecorder(tempDir.resolve("captures").toString(), false, 0, 1000), latencyMetrics);
+
+        List<RecordedEvent> events = record(() -> {
+            playwrightService.startListening("outlet-1");
+            playwrightService.captureOrderJson(CaptureRecord.Source.XHR, "https://partner.example/api/orders",
+                    "{\"orderId\":\"ZMT-1\"}");
+            playwrightService.captureOrderBytes("wss://partner.example/socket",
+                    "{\"orderId\":\"ZMT-2\"}".getBytes(StandardCharsets.UTF_8));
+            playwrightService.stopListening("outlet-1");
+        }, FlightEvents.OrderCaptured.class, FlightEvents.ListenerStateChanged.class);
+
+        assertThat(events).filteredOn(event -> named(event, "OrderCaptured"))
+                .extracting(event -> event.getString("channel"), event -> event.getInt("payloadLength"),
+                        event -> event.getBoolean("accepted"))
+                .containsExactly(tuple("XHR", 19, true),
+                        tuple("WS", 19, true));
+        assertThat(events).filteredOn(event -> named(event, "ListenerStateChanged"))
+                .extracting(event -> event.getString("account") + "=" + event.getBoolean("listening"))
+                .containsExactly("outlet-1=true", "outlet-1=false");
+    }
+
+    @Test
+    void pipelineShouldRecordParsedPayloads() throws IOException {
+        OrderPipeline pipeline = pipeline();
+        CaptureChannelSource source = new CaptureChannelSource("xhr");
+        pipeline.start(source);
+
+        List<RecordedEvent> events = record(() -> {
+            source.submit("[{\"orderId\":\"ZMT-1\",\"status\":\"NEW\"},{\"orderId\":\"ZMT-2\"}]");
+            source.submit("not json");
+        }, FlightEvents.OrderParsed.class);
+
+        assertThat(events).extracting(event -> event.getString("source"), event -> event.getInt("orders"),
+                        event -> event.getInt("fieldCount"), event -> event.getBoolean("failed"))
+                .containsExactly(tuple("xhr", 2, 3, false),
+                        tuple("xhr", 0, 0, true));
+    }
+
+    @Test
+    void orderServiceShouldRecordEachSaveWithItsOutcome() throws IOException {
+        OrderRepository repository = mock(OrderRepository.class);
+        OrderService orderService = new OrderService(repository, mock(OrderPayloadRepository.class),
+                mock(PayloadCodec.class), mock(ApplicationEventPublisher.class), latencyMetrics);
+        Order stored = order("ZMT-1");
+        Order fresh = order("ZMT-2");
+        when(repository.insertIfAbsent(stored)).thenReturn(0);
+        when(repository.insertIfAbsent(fresh)).thenReturn(1);
+        when(repository.insertAllIfAbsent(any())).thenReturn(new int[]{0, 1});
+
+        List<RecordedEvent> events = record(() -> {
+            orderService.saveOrder(stored);
+            orderService.saveOrder(fresh);
+            orderService.saveOrders(List.of(stored, fresh));
+        }, FlightEvents.OrderPersisted.class);
+
+        assertThat(events).extracting(event -> event.getString("orderId"), event -> event.getString("outcome"),
+                        event -> event.getInt("orders"), event -> event.getInt("inserted"))
+                .containsExactly(tuple("ZMT-1", "duplicate", 1, 0),
+                        tuple("ZMT-2", "new", 1, 1),
+                        tuple(null, "mixed", 2, 1));
+    }
+
+    @SafeVarargs
+    private List<RecordedEvent> record(Runnable action, Class<? extends Event>... types) throws IOException {
+        try (Recording recording = new Recording()) {
+            for (Class<? extends Event> type : types) {
+                recording.enable(type);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            Path file = tempDir.resolve("events.jfr");
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("com.zomato.plugin."))
+                    .sorted((a, b) -> a.getStartTime().compareTo(b.getStartTime()))
+                    .toList();
+        }
+    }
+
+    private OrderPipeline pipeline() {
+        IngestionExecutor ingestionExecutor = mock(IngestionExecutor.class);
+        when(ingestionExecutor.submit(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        return new OrderPipeline(ingestionExecutor, new HandoverDeduplicator(100, 0), persisted::addAll,
+                latencyMetrics, 100);
+    }
+
+    private static boolean named(RecordedEvent event, String name) {
+        return event.getEventType().getName().equals("com.zomato.plugin." + name);
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
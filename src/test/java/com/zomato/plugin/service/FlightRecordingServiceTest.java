@@ -0,0 +1,114 @@
+package com.zomato.plugin.service;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecordingServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private FlightRecordingService service;
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+    }
+
+    @Test
+    void bundledSettingsShouldEnableTheOrderEvents() throws IOException {
+        service = newService();
+        Configuration settings = FlightRecordingService.loadSettings(FlightRecordingService.SETTINGS);
+
+        assertThat(settings.getSettings())
+                .containsEntry("com.zomato.plugin.OrderCaptured#enabled", "true")
+                .containsEntry("com.zomato.plugin.OrderPersisted#threshold", "0 ms")
+                .containsEntry("jdk.GarbageCollection#enabled", "true");
+    }
+
+    @Test
+    void missingOrInvalidSettingsShouldFail() {
+        service = newService();
+
+        assertThatThrownBy(() -> FlightRecordingService.loadSettings("jfr/missing.jfc"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Missing");
+        assertThatThrownBy(() -> FlightRecordingService.loadSettings("application.yml"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Invalid");
+    }
+
+    @Test
+    void dumpsShouldHoldOrderEventsAndGetFilesOfTheirOwn() throws IOException {
+        service = newService();
+        assertThat(service.isRecording()).isFalse();
+        assertThat(service.getStartTime()).isNull();
+
+        service.start();
+        service.start();
+        listenerStateChanged("outlet-1");
+        Path first = service.dump();
+        Path second = service.dump();
+
+        assertThat(service.isRecording()).isTrue();
+        assertThat(service.getStartTime()).isNotNull();
+        assertThat(first).hasParent(tempDir.resolve("recordings")).isNotEqualTo(second);
+        assertThat(second.getFileName().toString()).startsWith("orders-").endsWith(".jfr");
+        assertThat(service.getLastDump()).isEqualTo(second);
+        assertThat(listenerAccounts(first)).containsExactly("outlet-1");
+    }
+
+    @Test
+    void stoppedRecordingShouldStillDumpUntilTheNextStart() throws IOException {
+        service = newService();
+        service.start();
+        listenerStateChanged("outlet-2");
+        service.stop();
+        service.stop();
+        listenerStateChanged("outlet-3");
+
+        assertThat(service.isRecording()).isFalse();
+        assertThat(listenerAccounts(service.dump())).containsExactly("outlet-2");
+
+        service.start();
+        assertThat(service.isRecording()).isTrue();
+    }
+
+    @Test
+    void dumpWithoutRecordingShouldFail() {
+        service = newService();
+
+        assertThatThrownBy(service::dump).isInstanceOf(IllegalStateException.class);
+        assertThat(service.getMaxAge()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(service.getMaxSizeBytes()).isEqualTo(16L * 1024 * 1024);
+    }
+
+    private static void listenerStateChanged(String account) {
+        FlightEvents.ListenerStateChanged event = new FlightEvents.ListenerStateChanged();
+        event.account = account;
+        event.listening = true;
+        event.commit();
+    }
+
+    private static List<String> listenerAccounts(Path dump) throws IOException {
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(recorded -> recorded.getEventType().getName().equals("com.zomato.plugin.ListenerStateChanged"))
+                .map(recorded -> recorded.getString("account"))
+                .toList();
+    }
+
+    private FlightRecordingService newService() {
+        return new FlightRecordingService(tempDir.resolve("recordings").toString(), 300_000, 16, 60_000);
+    }
+}
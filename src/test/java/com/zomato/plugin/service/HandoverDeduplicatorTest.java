@@ -0,0 +1,94 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class HandoverDeduplicatorTest {
+
+    @Test
+    void shouldPassRepeatedCapturesOutsideHandover() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(10, 0);
+
+        assertThat(deduplicator.accept(order("ZMT-1"))).isTrue();
+        assertThat(deduplicator.accept(order("ZMT-1"))).isTrue();
+        assertThat(deduplicator.isInHandover()).isFalse();
+        assertThat(deduplicator.getDroppedCount()).isZero();
+    }
+
+    @Test
+    void shouldDropOrdersSeenBeforeOrDuringHandover() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(10, 0);
+        deduplicator.accept(order("ZMT-1"));
+
+        deduplicator.beginHandover();
+
+        assertThat(deduplicator.accept(order("ZMT-1"))).isFalse();
+        assertThat(deduplicator.accept(order("ZMT-2"))).isTrue();
+        assertThat(deduplicator.accept(order("ZMT-2"))).isFalse();
+        assertThat(deduplicator.accept(order(null))).isTrue();
+        assertThat(deduplicator.getDroppedCount()).isEqualTo(2);
+
+        deduplicator.endHandover();
+        assertThat(deduplicator.accept(order("ZMT-1"))).isTrue();
+    }
+
+    @Test
+    void shouldKeepDroppingDuringGracePeriod() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(10, 60_000);
+        deduplicator.accept(order("ZMT-1"));
+
+        deduplicator.beginHandover();
+        deduplicator.endHandover();
+
+        assertThat(deduplicator.isInHandover()).isTrue();
+        assertThat(deduplicator.accept(order("ZMT-1"))).isFalse();
+    }
+
+    @Test
+    void shouldForgetLeastRecentlySeenOrdersBeyondCapacity() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(2, 0);
+        deduplicator.accept(order("ZMT-1"));
+        deduplicator.accept(order("ZMT-2"));
+        deduplicator.accept(order("ZMT-1"));
+        deduplicator.accept(order("ZMT-3"));
+
+        deduplicator.beginHandover();
+
+        assertThat(deduplicator.accept(order("ZMT-1"))).isFalse();
+        assertThat(deduplicator.accept(order("ZMT-2"))).isTrue();
+    }
+
+    @Test
+    void filterShouldKeepOnlyAcceptedOrdersInOrder() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(10, 0);
+        deduplicator.accept(order("ZMT-2"));
+        deduplicator.beginHandover();
+
+        List<Order> accepted = deduplicator.filter(List.of(order("ZMT-1"), order("ZMT-2"), order("ZMT-3")));
+
+        assertThat(accepted).extracting(Order::getOrderId).containsExactly("ZMT-1", "ZMT-3");
+    }
+
+    @Test
+    void bindToShouldRegisterDroppedCounter() {
+        HandoverDeduplicator deduplicator = new HandoverDeduplicator(10, 0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        deduplicator.bindTo(registry);
+        deduplicator.accept(order("ZMT-1"));
+        deduplicator.beginHandover();
+        deduplicator.accept(order("ZMT-1"));
+
+        assertThat(registry.get("order.capture.handover.duplicates").functionCounter().count()).isEqualTo(1);
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
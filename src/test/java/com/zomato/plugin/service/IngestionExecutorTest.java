@@ -0,0 +1,222 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IngestionExecutorTest {
+
+    private IngestionExecutor executor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+    }
+
+    @Test
+    void submitShouldRunTaskOffTheCallingThread() throws InterruptedException {
+        executor = new IngestionExecutor(false, 2, 10, 1000);
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        boolean accepted = executor.submit(() -> {
+            worker.set(Thread.currentThread());
+            done.countDown();
+        });
+
+        assertThat(accepted).isTrue();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(worker.get()).isNotSameAs(Thread.currentThread());
+        assertThat(worker.get().getName()).startsWith("order-ingest-");
+        assertThat(worker.get().isDaemon()).isTrue();
+        assertThat(executor.isVirtualThreads()).isFalse();
+    }
+
+    @Test
+    void submitShouldParkTasksInOverflowWhenBacklogIsFull() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 2, 2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        AtomicReference<Thread> overflow = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        assertThat(executor.submit(blocked)).isTrue();
+        assertThat(executor.submit(blocked)).isTrue();
+        assertThat(executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        })).isTrue();
+        assertThat(executor.submit(() -> {
+            overflow.set(Thread.currentThread());
+            done.countDown();
+        })).isTrue();
+        assertThat(executor.submit(() -> { })).isFalse();
+
+        assertThat(overflow.get()).isNull();
+        assertThat(executor.getInFlight()).isEqualTo(2);
+        assertThat(executor.getOverflowSize()).isEqualTo(2);
+        assertThat(executor.getOverflowedCount()).isEqualTo(2);
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitInFlight(0);
+        assertThat(overflow.get()).isNotSameAs(Thread.currentThread());
+        assertThat(overflow.get().getName()).startsWith("order-ingest-");
+        assertThat(executor.getOverflowSize()).isZero();
+        assertThat(executor.submit(() -> { })).isTrue();
+    }
+
+    @Test
+    void noOverflowTaskShouldBeStrandedUnderConcurrentSubmission() throws InterruptedException {
+        executor = new IngestionExecutor(false, 2, 1, 100_000);
+        AtomicLong ran = new AtomicLong();
+        AtomicLong accepted = new AtomicLong();
+        Thread[] submitters = new Thread[4];
+        for (int i = 0; i < submitters.length; i++) {
+            submitters[i] = new Thread(() -> {
+                for (int n = 0; n < 20_000; n++) {
+                    if (executor.submit(ran::incrementAndGet)) {
+                        accepted.incrementAndGet();
+                    }
+                }
+            });
+            submitters[i].start();
+        }
+        for (Thread submitter : submitters) {
+            submitter.join();
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (ran.get() < accepted.get() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(ran.get()).isEqualTo(accepted.get()).isEqualTo(80_000);
+        assertThat(executor.getOverflowedCount()).isPositive();
+        awaitInFlight(0);
+    }
+
+    @Test
+    void submitAndWaitingOverflowShouldBeRejectedOnceShutdownBegan() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        assertThat(executor.submit(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })).isTrue();
+        AtomicLong ran = new AtomicLong();
+        assertThat(executor.submit(ran::incrementAndGet)).isTrue();
+        Thread stopper = new Thread(() -> {
+            try {
+                executor.shutdown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        stopper.start();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.submit(() -> { }) && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        stopper.join();
+
+        // The submit that saw the shutdown, plus every task still waiting in the overflow queue
+        assertThat(ran.get()).isZero();
+        assertThat(executor.getOverflowedCount()).isPositive();
+        assertThat(executor.getRejectedCount()).isEqualTo(1 + executor.getOverflowedCount());
+        assertThat(executor.getOverflowSize()).isZero();
+    }
+
+    @Test
+    void failingTaskShouldReleaseItsSlot() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 1, 1000);
+
+        assertThat(executor.submit(() -> {
+            throw new IllegalStateException("boom");
+        })).isTrue();
+
+        awaitInFlight(0);
+        CountDownLatch done = new CountDownLatch(1);
+        assertThat(executor.submit(done::countDown)).isTrue();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void submitShouldRejectAfterShutdown() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 5, 1000);
+        executor.shutdown();
+
+        assertThat(executor.submit(() -> { })).isFalse();
+        assertThat(executor.getInFlight()).isZero();
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void putShouldWaitForAFreeSlotInsteadOfRejecting() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 1, 1000);
+        CountDownLatch release = new CountDownLatch(1);
+        assertThat(executor.put(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        })).isTrue();
+        CountDownLatch done = new CountDownLatch(1);
+        Thread producer = new Thread(() -> {
+            try {
+                executor.put(done::countDown);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        assertThat(done.await(100, TimeUnit.MILLISECONDS)).isFalse();
+        release.countDown();
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        producer.join();
+        assertThat(executor.getRejectedCount()).isZero();
+    }
+
+    @Test
+    void putShouldRejectAfterShutdown() throws InterruptedException {
+        executor = new IngestionExecutor(false, 1, 5, 1000);
+        executor.shutdown();
+
+        assertThat(executor.put(() -> { })).isFalse();
+        assertThat(executor.getInFlight()).isZero();
+        assertThat(executor.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPreferVirtualThreadsOnlyWhenRuntimeHasThem() {
+        executor = new IngestionExecutor(true, 1, 5, 1000);
+
+        assertThat(executor.isVirtualThreads()).isEqualTo(Runtime.version().feature() >= 21);
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getInFlight() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(executor.getInFlight()).isEqualTo(expected);
+    }
+}
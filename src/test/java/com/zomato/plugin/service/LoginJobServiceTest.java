@@ -0,0 +1,200 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class LoginJobServiceTest {
+
+    private PlaywrightService playwrightService;
+    private ConnectionService connectionService;
+    private BrowserPool browserPool;
+    private LoginJobService service;
+
+    @BeforeEach
+    void setUp() {
+        playwrightService = mock(PlaywrightService.class);
+        connectionService = mock(ConnectionService.class);
+        browserPool = mock(BrowserPool.class);
+        when(playwrightService.login(anyString(), anyString()))
+                .thenAnswer(invocation -> "zomato-session-" + invocation.getArgument(0) + ".json");
+        when(browserPool.open(anyString(), any())).thenReturn(CompletableFuture.completedFuture(null));
+        service = service(2, 10, 600_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        service.shutdown();
+    }
+
+    @Test
+    void jobShouldLogInRecordConnectionAndOpenPortal() throws InterruptedException {
+        LoginJob job = service.submit("outlet-1", "secret");
+
+        awaitFinished(job);
+
+        assertThat(job.getStage()).isEqualTo(LoginJob.Stage.CONNECTED);
+        assertThat(job.getError()).isNull();
+        assertThat(job.getUpdatedAt()).isAfterOrEqualTo(job.getCreatedAt());
+        assertThat(service.getJob(job.getId())).contains(job);
+        verify(connectionService).connect("outlet-1", "zomato-session-outlet-1.json");
+        verify(playwrightService).startListening("outlet-1");
+        verify(browserPool).open("outlet-1", Path.of("zomato-session-outlet-1.json"));
+        assertThat(service.getConnectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void secondConnectForSameAccountShouldReturnRunningJob() throws InterruptedException {
+        CountDownLatch release = blockLogin();
+
+        LoginJob first = service.submit("outlet-1", "secret");
+        LoginJob again = service.submit("outlet-1", "secret");
+        LoginJob other = service.submit("outlet-2", "secret");
+
+        assertThat(again).isSameAs(first);
+        assertThat(other).isNotSameAs(first);
+        assertThat(service.getActiveJobCount()).isEqualTo(2);
+        release.countDown();
+        awaitFinished(first);
+        awaitFinished(other);
+        verify(browserPool).open("outlet-1", Path.of("zomato-session-outlet-1.json"));
+        assertThat(service.getActiveJobCount()).isZero();
+        assertThat(service.submit("outlet-1", "secret")).isNotSameAs(first);
+    }
+
+    @Test
+    void failedLoginShouldFailJobWithoutRecordingConnection() throws InterruptedException {
+        when(playwrightService.login("outlet-1", "wrong")).thenThrow(new IllegalArgumentException("Invalid credentials"));
+
+        LoginJob job = service.submit("outlet-1", "wrong");
+        awaitFinished(job);
+
+        assertThat(job.getStage()).isEqualTo(LoginJob.Stage.FAILED);
+        assertThat(job.getError()).isEqualTo("Invalid credentials");
+        verify(connectionService, never()).connect(anyString(), anyString());
+        verify(connectionService, never()).disconnect(anyString());
+        assertThat(service.getFailedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void failedPortalOpenShouldRollBackConnection() throws InterruptedException {
+        when(browserPool.open(anyString(), any())).thenReturn(
+                CompletableFuture.failedFuture(new IllegalStateException("Browser context pool is full")));
+        doThrow(new IllegalArgumentException("No connection found")).when(connectionService).disconnect("outlet-2");
+
+        LoginJob job = service.submit("outlet-1", "secret");
+        LoginJob other = service.submit("outlet-2", "secret");
+        awaitFinished(job);
+        awaitFinished(other);
+
+        assertThat(job.getStage()).isEqualTo(LoginJob.Stage.FAILED);
+        assertThat(job.getError()).isEqualTo("Browser context pool is full");
+        verify(playwrightService).stopListening("outlet-1");
+        verify(browserPool).release("outlet-1");
+        verify(connectionService).disconnect("outlet-1");
+        assertThat(other.getStage()).isEqualTo(LoginJob.Stage.FAILED);
+    }
+
+    @Test
+    void portalThatNeverOpensShouldFailJobAfterTimeout() throws InterruptedException {
+        service.shutdown();
+        service = new LoginJobService(playwrightService, connectionService, browserPool, 1, 10, 600_000, 50);
+        when(browserPool.open(anyString(), any())).thenReturn(new CompletableFuture<>());
+
+        LoginJob job = service.submit("outlet-1", "secret");
+        awaitFinished(job);
+
+        assertThat(job.getStage()).isEqualTo(LoginJob.Stage.FAILED);
+        assertThat(job.getError()).isEqualTo("Partner portal did not open within 50 ms");
+        verify(connectionService).disconnect("outlet-1");
+        verify(browserPool).release("outlet-1");
+        awaitFinished(service.submit("outlet-2", "secret"));
+    }
+
+    @Test
+    void fullQueueShouldRefuseNewConnects() throws InterruptedException {
+        service.shutdown();
+        service = service(1, 1, 600_000);
+        CountDownLatch release = blockLogin();
+        LoginJob running = service.submit("outlet-1", "secret");
+        LoginJob queued = service.submit("outlet-2", "secret");
+
+        assertThatThrownBy(() -> service.submit("outlet-3", "secret"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Too many connects in progress");
+
+        assertThat(service.getRejectedCount()).isEqualTo(1);
+        assertThat(queued.getStage()).isEqualTo(LoginJob.Stage.QUEUED);
+        release.countDown();
+        awaitFinished(running);
+        awaitFinished(queued);
+    }
+
+    @Test
+    void finishedJobsShouldExpireAfterRetention() throws InterruptedException {
+        service.shutdown();
+        service = service(1, 1, 0);
+        LoginJob job = service.submit("outlet-1", "secret");
+        awaitFinished(job);
+
+        LoginJob next = service.submit("outlet-2", "secret");
+
+        assertThat(service.getJob(job.getId())).isEmpty();
+        assertThat(service.getJob(next.getId())).contains(next);
+        awaitFinished(next);
+    }
+
+    @Test
+    void bindToShouldRegisterJobMeters() throws InterruptedException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        service.bindTo(registry);
+
+        awaitFinished(service.submit("outlet-1", "secret"));
+
+        assertThat(registry.get("order.capture.login.jobs.active").gauge().value()).isZero();
+        assertThat(registry.get("order.capture.login.jobs").tag("result", "connected").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.login.jobs").tag("result", "failed").functionCounter().count())
+                .isZero();
+        assertThat(registry.get("order.capture.login.jobs").tag("result", "rejected").functionCounter().count())
+                .isZero();
+    }
+
+    private LoginJobService service(int threads, int queueCapacity, long retentionMs) {
+        return new LoginJobService(playwrightService, connectionService, browserPool,
+                threads, queueCapacity, retentionMs, 2000);
+    }
+
+    private CountDownLatch blockLogin() {
+        CountDownLatch release = new CountDownLatch(1);
+        when(playwrightService.login(anyString(), anyString())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "zomato-session-" + invocation.getArgument(0) + ".json";
+        });
+        return release;
+    }
+
+    private static void awaitFinished(LoginJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!job.isFinished() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(job.isFinished()).isTrue();
+    }
+}
@@ -0,0 +1,412 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.service.OrderBatchWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OrderBatchWriterTest {
+
+    @Mock
+    private OrderService orderService;
+
+    private OrderBatchWriter writer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldFlushFullBatchesAndRemainderAfterFlushWindow() {
+        writer = writer(3, 100, 10);
+
+        writer.enqueueAll(List.of(order("A"), order("B"), order("C"), order("D"), order("E"), order("F"), order("G")));
+        writer.start();
+
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(2000).times(3)).saveOrders(captor.capture());
+        assertThat(captor.getAllValues()).extracting(List::size).containsExactly(3, 3, 1);
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldFlushSingleOrderWithinFlushWindow() {
+        writer = writer(100, 50, 10);
+        writer.start();
+
+        Order order = order("SOLO");
+        writer.enqueue(order);
+
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(2000)).saveOrders(captor.capture());
+        assertThat(captor.getValue()).containsExactly(order);
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldCollectOrdersArrivingWithinFlushWindowIntoOneBatch() throws InterruptedException {
+        writer = writer(10, 1000, 10);
+        writer.start();
+
+        Order first = order("FIRST");
+        Order second = order("SECOND");
+        writer.enqueue(first);
+        Thread.sleep(100);
+        writer.enqueue(second);
+
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(3000)).saveOrders(captor.capture());
+        assertThat(captor.getValue()).containsExactly(first, second);
+    }
+
+    @Test
+    void drainThreadShouldExitWhenInterrupted() throws InterruptedException {
+        writer = writer(10, 1000, 10);
+        writer.start();
+        Thread drainThread = (Thread) ReflectionTestUtils.getField(writer, "drainThread");
+
+        drainThread.interrupt();
+        drainThread.join(2000);
+
+        assertThat(drainThread.isAlive()).isFalse();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void shouldRetryFailedBatchBeforeMovingOn() {
+        AtomicInteger attempts = new AtomicInteger();
+        when(orderService.saveOrders(anyList())).thenAnswer(invocation -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new IllegalStateException("database unavailable");
+            }
+            return List.of();
+        });
+        writer = writer(1, 20, 10);
+        writer.start();
+
+        writer.enqueue(order("FAIL"));
+        writer.enqueue(order("OK"));
+
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(2000).times(4)).saveOrders(captor.capture());
+        assertThat(captor.getAllValues()).extracting(batch -> batch.get(0).getOrderId())
+                .containsExactly("FAIL", "FAIL", "FAIL", "OK");
+        assertThat(writer.getFailedFlushCount()).isEqualTo(2);
+    }
+
+    @Test
+    void failedBatchShouldBeSpilledAtShutdown(@TempDir Path dir) throws Exception {
+        when(orderService.saveOrders(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        Path spill = dir.resolve("spill.jsonl");
+        writer = new OrderBatchWriter(orderService, 10, 20, 10, OverflowPolicy.SPILL, spill.toString(), 10);
+        writer.start();
+        writer.enqueue(order("UNSAVED"));
+        verify(orderService, timeout(2000).atLeastOnce()).saveOrders(anyList());
+
+        writer.stop();
+
+        assertThat(new OrderSpillFile(spill).read(10)).extracting(Order::getOrderId).containsExactly("UNSAVED");
+    }
+
+    @Test
+    void interruptedRetryShouldSpillBatchAndQueuedOrders(@TempDir Path dir) throws Exception {
+        when(orderService.saveOrders(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        Path spill = dir.resolve("spill.jsonl");
+        writer = new OrderBatchWriter(orderService, 1, 5000, 10, OverflowPolicy.SPILL, spill.toString(), 10);
+        writer.start();
+        writer.enqueue(order("A"));
+        verify(orderService, timeout(2000)).saveOrders(anyList());
+        writer.enqueue(order("B"));
+        Thread drainThread = (Thread) ReflectionTestUtils.getField(writer, "drainThread");
+
+        drainThread.interrupt();
+        drainThread.join(2000);
+
+        assertThat(drainThread.isAlive()).isFalse();
+        assertThat(writer.getSpilledCount()).isEqualTo(2);
+        assertThat(new OrderSpillFile(spill).read(10)).extracting(Order::getOrderId).containsExactly("A", "B");
+    }
+
+    @Test
+    void interruptWhileFillingABatchShouldSpillThePartialBatchAndQueuedOrders(@TempDir Path dir) throws Exception {
+        Path spill = dir.resolve("spill.jsonl");
+        writer = new OrderBatchWriter(orderService, 10, 5000, 10, OverflowPolicy.SPILL, spill.toString(), 10);
+        writer.start();
+        writer.enqueue(order("A"));
+        awaitUntil(() -> writer.getQueueDepth() == 0);
+        Thread drainThread = (Thread) ReflectionTestUtils.getField(writer, "drainThread");
+
+        drainThread.interrupt();
+        drainThread.join(2000);
+
+        assertThat(drainThread.isAlive()).isFalse();
+        assertThat(new OrderSpillFile(spill).read(10)).extracting(Order::getOrderId).containsExactly("A");
+        verify(orderService, never()).saveOrders(anyList());
+    }
+
+    @Test
+    void shouldGiveUpOnABatchAfterMaxFlushAttempts(@TempDir Path dir) throws Exception {
+        when(orderService.saveOrders(anyList())).thenAnswer(invocation -> {
+            List<Order> batch = invocation.getArgument(0);
+            if (batch.get(0).getOrderId().equals("FAIL")) {
+                throw new IllegalStateException("constraint violated");
+            }
+            return List.of();
+        });
+        Path spill = dir.resolve("spill.jsonl");
+        writer = new OrderBatchWriter(orderService, 1, 5, 10, OverflowPolicy.SPILL, spill.toString(), 3);
+        writer.start();
+
+        writer.enqueue(order("FAIL"));
+        writer.enqueue(order("OK"));
+
+        verify(orderService, timeout(2000)).saveOrders(argThat(orders -> orders.get(0).getOrderId().equals("OK")));
+        assertThat(writer.getFailedFlushCount()).isGreaterThanOrEqualTo(3);
+        writer.stop();
+        assertThat(new OrderSpillFile(spill).read(10)).extracting(Order::getOrderId).contains("FAIL");
+    }
+
+    @Test
+    void stopShouldCutARetryBackoffShort() throws InterruptedException {
+        when(orderService.saveOrders(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        writer = writer(1, 60_000, 10);
+        writer.start();
+        writer.enqueue(order("LOST"));
+        verify(orderService, timeout(2000)).saveOrders(anyList());
+        Thread drainThread = (Thread) ReflectionTestUtils.getField(writer, "drainThread");
+
+        long started = System.nanoTime();
+        writer.stop();
+
+        assertThat(drainThread.isAlive()).isFalse();
+        assertThat(System.nanoTime() - started).isLessThan(TimeUnit.SECONDS.toNanos(5));
+        verify(orderService, atMost(2)).saveOrders(anyList());
+    }
+
+    @Test
+    void failedBatchShouldBeDroppedAtShutdownWithoutSpillFile() throws InterruptedException {
+        when(orderService.saveOrders(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        writer = writer(10, 20, 10);
+        writer.start();
+        writer.enqueue(order("LOST"));
+        verify(orderService, timeout(2000).atLeastOnce()).saveOrders(anyList());
+
+        writer.stop();
+
+        assertThat(writer.getQueueDepth()).isZero();
+        assertThat(writer.getFailedFlushCount()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void unwritableSpillFileShouldNotStopShutdown(@TempDir Path dir) throws InterruptedException {
+        when(orderService.saveOrders(anyList())).thenThrow(new IllegalStateException("database unavailable"));
+        String spill = dir.resolve("missing").resolve("spill.jsonl").toString();
+        writer = new OrderBatchWriter(orderService, 10, 20, 10, OverflowPolicy.SPILL, spill, 10);
+        writer.start();
+        writer.enqueue(order("LOST"));
+        verify(orderService, timeout(2000).atLeastOnce()).saveOrders(anyList());
+
+        writer.stop();
+
+        assertThat(dir.resolve("missing")).doesNotExist();
+        assertThat(writer.getSpilledCount()).isZero();
+    }
+
+    @Test
+    void stopShouldFlushQueuedOrders() throws InterruptedException {
+        writer = writer(100, 1000, 10);
+        writer.start();
+        writer.enqueue(order("LAST"));
+
+        writer.stop();
+
+        verify(orderService, times(1)).saveOrders(anyList());
+        writer = null;
+    }
+
+    @Test
+    void enqueueShouldRestoreInterruptFlagWhenInterrupted() {
+        writer = writer(100, 20, 10);
+
+        Thread.currentThread().interrupt();
+        writer.enqueue(order("INTERRUPTED"));
+
+        assertThat(Thread.interrupted()).isTrue();
+        assertThat(writer.getQueueDepth()).isZero();
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void dropDuplicatePolicyShouldDropOlderCapturesOfTheSameOrder() {
+        writer = new OrderBatchWriter(orderService, 10, 50, 3, OverflowPolicy.DROP_DUPLICATE, "unused.jsonl", 10);
+        Order a = order("A");
+        Order b = order("B");
+        Order laterA = order("A");
+        Order c = order("C");
+        Order laterB = order("B");
+
+        writer.enqueueAll(List.of(a, b, laterA, c, laterB));
+
+        assertThat(writer.getQueueDepth()).isEqualTo(3);
+        assertThat(writer.getDroppedDuplicateCount()).isEqualTo(2);
+        writer.start();
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(2000)).saveOrders(captor.capture());
+        assertThat(captor.getValue()).containsExactly(laterA, c, laterB);
+    }
+
+    @Test
+    void dropDuplicatePolicyShouldWaitForRoomWhenNothingIsDuplicated() throws InterruptedException {
+        writer = new OrderBatchWriter(orderService, 1, 50, 1, OverflowPolicy.DROP_DUPLICATE, "unused.jsonl", 10);
+        writer.enqueue(order("A"));
+
+        Thread producer = new Thread(() -> writer.enqueue(order("B")));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+
+        writer.start();
+        producer.join(2000);
+        assertThat(producer.isAlive()).isFalse();
+        assertThat(writer.getDroppedDuplicateCount()).isZero();
+        verify(orderService, timeout(2000).times(2)).saveOrders(anyList());
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void spillPolicyShouldSpillOverflowAndReplayItInCaptureOrder(@TempDir Path dir) {
+        writer = new OrderBatchWriter(orderService, 2, 20, 2, OverflowPolicy.SPILL, dir.resolve("spill.jsonl").toString(), 10);
+
+        writer.enqueueAll(List.of(order("A"), order("B"), order("C"), order("D"), order("E")));
+
+        assertThat(writer.getQueueDepth()).isEqualTo(2);
+        assertThat(writer.getSpilledCount()).isEqualTo(3);
+        assertThat(writer.getSpillSizeBytes()).isPositive();
+        writer.start();
+        ArgumentCaptor<List<Order>> captor = ArgumentCaptor.forClass(List.class);
+        verify(orderService, timeout(3000).times(3)).saveOrders(captor.capture());
+        assertThat(captor.getAllValues()).flatExtracting(batch -> batch).extracting(Order::getOrderId)
+                .containsExactly("A", "B", "C", "D", "E");
+        assertThat(writer.getSpilledCount()).isZero();
+        assertThat(writer.getSpillSizeBytes()).isZero();
+    }
+
+    @Test
+    void spillPolicyShouldReplayOrdersLeftFromPreviousRun(@TempDir Path dir) throws IOException {
+        Path spill = dir.resolve("spill.jsonl");
+        new OrderSpillFile(spill).append(order("LEFTOVER"));
+
+        writer = new OrderBatchWriter(orderService, 10, 20, 10, OverflowPolicy.SPILL, spill.toString(), 10);
+        assertThat(writer.getSpilledCount()).isEqualTo(1);
+        writer.start();
+
+        verify(orderService, timeout(2000)).saveOrders(argThat(orders -> orders.size() == 1
+                && orders.get(0).getOrderId().equals("LEFTOVER")));
+    }
+
+    @Test
+    void spillPolicyShouldWaitForRoomWhenSpillFileIsUnwritable(@TempDir Path dir) throws InterruptedException {
+        String spill = dir.resolve("missing").resolve("spill.jsonl").toString();
+        writer = new OrderBatchWriter(orderService, 1, 20, 1, OverflowPolicy.SPILL, spill, 10);
+        writer.enqueue(order("A"));
+
+        Thread producer = new Thread(() -> writer.enqueue(order("B")));
+        producer.start();
+        producer.join(200);
+        assertThat(producer.isAlive()).isTrue();
+
+        writer.start();
+        producer.join(2000);
+        assertThat(producer.isAlive()).isFalse();
+        verify(orderService, timeout(2000).times(2)).saveOrders(anyList());
+    }
+
+    @Test
+    void spillPolicyShouldKeepRunningWhenSpillFileDisappears(@TempDir Path dir) throws Exception {
+        Path spill = dir.resolve("spill.jsonl");
+        new OrderSpillFile(spill).append(order("LOST-FILE"));
+        writer = new OrderBatchWriter(orderService, 10, 20, 10, OverflowPolicy.SPILL, spill.toString(), 10);
+        Files.delete(spill);
+
+        writer.start();
+        Thread.sleep(100);
+        writer.enqueue(order("A"));
+
+        verify(orderService, timeout(2000)).saveOrders(argThat(orders -> orders.size() == 1
+                && orders.get(0).getOrderId().equals("A")));
+        assertThat(writer.getSpilledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void bindToShouldRegisterQueueAndSpillGauges(@TempDir Path dir) {
+        writer = new OrderBatchWriter(orderService, 10, 20, 1, OverflowPolicy.SPILL, dir.resolve("spill.jsonl").toString(), 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        writer.bindTo(registry);
+
+        writer.enqueueAll(List.of(order("A"), order("B")));
+
+        assertThat(registry.get("order.capture.queue.depth").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("order.capture.spill.pending").gauge().value()).isEqualTo(1.0);
+        assertThat(registry.get("order.capture.spill.size").gauge().value()).isPositive();
+        assertThat(registry.get("order.capture.dropped.duplicates").functionCounter().count()).isZero();
+        assertThat(registry.get("order.capture.flush.failures").functionCounter().count()).isZero();
+    }
+
+    @Test
+    void spillGettersShouldBeZeroWithoutSpillPolicy() {
+        writer = writer(10, 20, 1);
+
+        assertThat(writer.getSpilledCount()).isZero();
+        assertThat(writer.getSpillSizeBytes()).isZero();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 2000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private OrderBatchWriter writer(int batchSize, long flushIntervalMs, int queueCapacity) {
+        return new OrderBatchWriter(orderService, batchSize, flushIntervalMs, queueCapacity,
+                OverflowPolicy.BLOCK, "unused.jsonl", 10);
+    }
+
+    private Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+}
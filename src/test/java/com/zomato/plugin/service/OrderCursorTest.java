@@ -0,0 +1,46 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.repository.OrderSummary;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderCursorTest {
+
+    @Test
+    void encodeAndDecodeShouldRoundTrip() {
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2026, 1, 15, 10, 30, 5, 123_000_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(OrderCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void ofShouldUseOrderTimeAndId() {
+        OrderSummary order = new OrderSummary(7L, "ORD-007", null, null, LocalDateTime.of(2026, 1, 15, 11, 0), null);
+
+        assertThat(OrderCursor.of(order)).isEqualTo(new OrderCursor(LocalDateTime.of(2026, 1, 15, 11, 0), 7L));
+    }
+
+    @Test
+    void decodeShouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> OrderCursor.decode("***"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid order cursor");
+        assertThatThrownBy(() -> OrderCursor.decode(encode("no-separator")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(encode("yesterday|1")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> OrderCursor.decode(encode("2026-01-15T10:30|x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private String encode(String raw) {
+        return java.util.Base64.getUrlEncoder().encodeToString(raw.getBytes());
+    }
+}
@@ -0,0 +1,162 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderJsonParserTest {
+
+    private final OrderJsonParser parser = new OrderJsonParser();
+
+    @Test
+    void parseShouldReadAllOrderFields() {
+        String json = "{\"orderId\":\"ZMT-001\",\"customerName\":\"Alice\",\"totalAmount\":250.50,\"status\":\"NEW\"}";
+
+        Order order = parser.parse(json);
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-001");
+        assertThat(order.getCustomerName()).isEqualTo("Alice");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("250.50"));
+        assertThat(order.getStatus()).isEqualTo("NEW");
+        assertThat(order.getOrderTime()).isNotNull();
+        assertThat(order.getRawJson()).isEqualTo(json);
+    }
+
+    @Test
+    void parseShouldAcceptQuotedAmountAndNumericOrderId() {
+        Order order = parser.parse("{\"orderId\":12345,\"totalAmount\":\"99.90\"}");
+
+        assertThat(order.getOrderId()).isEqualTo("12345");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("99.90"));
+    }
+
+    @Test
+    void parseShouldUnescapeStringValues() {
+        Order order = parser.parse("{\"orderId\":\"ZMT-002\",\"customerName\":\"Bob \\\"The Chef\\\" Rao\"}");
+
+        assertThat(order.getCustomerName()).isEqualTo("Bob \"The Chef\" Rao");
+    }
+
+    @Test
+    void parseShouldOnlyReadTopLevelFields() {
+        String json = "{\"restaurant\":{\"orderId\":\"NESTED\",\"status\":\"CLOSED\"},"
+                + "\"items\":[{\"customerName\":\"Nobody\"}],"
+                + "\"orderId\":\"ZMT-003\",\"status\":\"PREPARING\"}";
+
+        Order order = parser.parse(json);
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-003");
+        assertThat(order.getStatus()).isEqualTo("PREPARING");
+        assertThat(order.getCustomerName()).isNull();
+    }
+
+    @Test
+    void parseShouldIgnoreNonScalarValuesForOrderFields() {
+        Order order = parser.parse("{\"orderId\":{\"value\":\"X\"},\"customerName\":[\"A\"],"
+                + "\"totalAmount\":{\"amount\":1},\"status\":null}");
+
+        assertThat(order.getOrderId()).isNull();
+        assertThat(order.getCustomerName()).isNull();
+        assertThat(order.getTotalAmount()).isNull();
+        assertThat(order.getStatus()).isNull();
+    }
+
+    @Test
+    void parseShouldStopOnceAllFieldsAreFound() {
+        // Trailing garbage after the last needed field is never tokenized
+        Order order = parser.parse("{\"orderId\":\"ZMT-004\",\"customerName\":\"C\",\"totalAmount\":1,\"status\":\"NEW\",!!!");
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-004");
+    }
+
+    @Test
+    void parseShouldHandleEscapesInStringsAndFieldNames() {
+        Order order = parser.parse("{\"note\":\"say \\\"hi\\\" \\\\\",\"order\\u0049d\":\"ZMT-005\","
+                + "\"status\":\"A\\tB\\nC\\rD\\bE\\fF\\/G\\u00e9\",\"other\\u0021\":1}");
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-005");
+        assertThat(order.getStatus()).isEqualTo("A\tB\nC\rD\bE\fF/G\u00e9");
+    }
+
+    @Test
+    void parseShouldAcceptEmptyObjectAndWhitespace() {
+        assertThat(parser.parse("{ }").getOrderId()).isNull();
+
+        Order order = parser.parse(" {\n\t\"orderId\" : \"ZMT-006\" ,\r\n \"flag\" : true , \"count\": 3 }");
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-006");
+    }
+
+    @Test
+    void parseShouldRejectNonObjectPayload() {
+        assertThatThrownBy(() -> parser.parse("[1,2,3]"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Expected '{'");
+    }
+
+    @Test
+    void parseShouldRejectMalformedJson() {
+        assertThatThrownBy(() -> parser.parse("{\"orderId\":"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unexpected end of input");
+        assertThatThrownBy(() -> parser.parse("{orderId:1}"))
+                .hasMessageContaining("Expected field name");
+        assertThatThrownBy(() -> parser.parse("{\"orderId\" 1}"))
+                .hasMessageContaining("Expected ':'");
+        assertThatThrownBy(() -> parser.parse("{\"orderId\":\"1\" \"x\"}"))
+                .hasMessageContaining("Expected ',' or '}'");
+        assertThatThrownBy(() -> parser.parse("{\"orderId\":,}"))
+                .hasMessageContaining("Expected value");
+        assertThatThrownBy(() -> parser.parse("{\"orderId\":\"open"))
+                .hasMessageContaining("Unterminated string");
+        assertThatThrownBy(() -> parser.parse("{\"items\":[{\"a\":1}"))
+                .hasMessageContaining("Unterminated object or array");
+        assertThatThrownBy(() -> parser.parse("{\"orderId\":\"\\u12\"}"))
+                .hasMessageContaining("Invalid unicode escape");
+    }
+
+    @Test
+    void parseShouldRejectInvalidAmount() {
+        assertThatThrownBy(() -> parser.parse("{\"totalAmount\":\"abc\"}"))
+                .isInstanceOf(NumberFormatException.class);
+    }
+
+    @Test
+    void parseBatchShouldReadEveryOrderWithItsOwnRawJson() {
+        String first = "{\"orderId\":\"ZMT-101\",\"customerName\":\"A\",\"totalAmount\":10,\"status\":\"NEW\",\"items\":[{\"orderId\":\"X\"}]}";
+        String second = "{\"status\":\"READY\",\"orderId\":\"ZMT-102\"}";
+
+        List<Order> orders = parser.parseBatch(" [ " + first + " ,\n" + second + " ] ");
+
+        assertThat(orders).extracting(Order::getOrderId).containsExactly("ZMT-101", "ZMT-102");
+        assertThat(orders.get(0).getRawJson()).isEqualTo(first);
+        assertThat(orders.get(1).getRawJson()).isEqualTo(second);
+        assertThat(orders.get(1).getStatus()).isEqualTo("READY");
+    }
+
+    @Test
+    void parseBatchShouldSkipNonObjectElements() {
+        List<Order> orders = parser.parseBatch("[1,\"x\",null,[{\"orderId\":\"NESTED\"}],{}]");
+
+        assertThat(orders).hasSize(1);
+        assertThat(orders.get(0).getOrderId()).isNull();
+    }
+
+    @Test
+    void parseBatchShouldReturnEmptyListForEmptyArray() {
+        assertThat(parser.parseBatch("[ ]")).isEmpty();
+    }
+
+    @Test
+    void parseBatchShouldRejectMalformedArrays() {
+        assertThatThrownBy(() -> parser.parseBatch("{\"orderId\":\"1\"}"))
+                .hasMessageContaining("Expected '['");
+        assertThatThrownBy(() -> parser.parseBatch("[{\"orderId\":\"1\"} {}]"))
+                .hasMessageContaining("Expected ',' or ']'");
+    }
+}
@@ -0,0 +1,64 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderLatencyMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderLatencyMetrics latencyMetrics = new OrderLatencyMetrics(1500);
+
+    @Test
+    void timingsBeforeBindingShouldBeDropped() {
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PARSE, 1_000);
+        latencyMetrics.recordVisible(System.nanoTime());
+        latencyMetrics.bindTo(meterRegistry);
+
+        assertThat(meterRegistry.get("order.capture.stage.latency").timers()).hasSize(5)
+                .allSatisfy(timer -> assertThat(timer.count()).isZero());
+        assertThat(meterRegistry.get("order.capture.visible.latency").timer().count()).isZero();
+    }
+
+    @Test
+    void stagesShouldBeTimedSeparately() {
+        latencyMetrics.bindTo(meterRegistry);
+
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PARSE, TimeUnit.MICROSECONDS.toNanos(300));
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PERSIST, TimeUnit.MILLISECONDS.toNanos(4));
+        latencyMetrics.record(OrderLatencyMetrics.Stage.PERSIST, TimeUnit.MILLISECONDS.toNanos(6));
+
+        Timer persist = meterRegistry.get("order.capture.stage.latency").tag("stage", "persist").timer();
+        assertThat(persist.count()).isEqualTo(2);
+        assertThat(persist.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(10.0);
+        assertThat(meterRegistry.get("order.capture.stage.latency").tag("stage", "parse").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("order.capture.stage.latency").tag("stage", "deliver").timer().count())
+                .isZero();
+    }
+
+    @Test
+    void visibleLatencyShouldCountAgainstTheObjective() {
+        latencyMetrics.bindTo(meterRegistry);
+
+        latencyMetrics.recordVisible(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(200));
+        latencyMetrics.recordVisible(System.nanoTime() - TimeUnit.SECONDS.toNanos(3));
+        latencyMetrics.recordVisible(0);
+
+        Timer visible = meterRegistry.get("order.capture.visible.latency").timer();
+        assertThat(visible.count()).isEqualTo(2);
+        CountAtBucket objective = Arrays.stream(visible.takeSnapshot().histogramCounts())
+                .filter(bucket -> bucket.bucket(TimeUnit.MILLISECONDS) == 1500.0)
+                .findFirst().orElseThrow();
+        assertThat(objective.count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.capture.visible.objective").gauge().value()).isEqualTo(1.5);
+        assertThat(latencyMetrics.getVisibleObjective()).isEqualTo(Duration.ofMillis(1500));
+    }
+}
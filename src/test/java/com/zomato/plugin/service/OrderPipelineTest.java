@@ -0,0 +1,343 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderPipelineTest {
+
+    private IngestionExecutor ingestionExecutor;
+    private HandoverDeduplicator deduplicator;
+    private List<List<Order>> persisted;
+    private SimpleMeterRegistry latencyRegistry;
+    private OrderLatencyMetrics latencyMetrics;
+    private OrderPipeline pipeline;
+
+    @BeforeEach
+    void setUp() throws InterruptedException {
+        // Runs every task inline, so each submit goes through the whole pipeline
+        ingestionExecutor = mock(IngestionExecutor.class);
+        when(ingestionExecutor.submit(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        when(ingestionExecutor.put(any())).thenAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return true;
+        });
+        deduplicator = new HandoverDeduplicator(100, 0);
+        persisted = new ArrayList<>();
+        latencyRegistry = new SimpleMeterRegistry();
+        latencyMetrics = new OrderLatencyMetrics(2000);
+        latencyMetrics.bindTo(latencyRegistry);
+        pipeline = new OrderPipeline(ingestionExecutor, deduplicator, persisted::add, latencyMetrics, 100);
+    }
+
+    @Test
+    void singleOrderPayloadShouldBeParsedAndPersisted() {
+        String json = "{\"orderId\":\"ZMT-100\",\"customerName\":\"Jane\",\"totalAmount\":\"350.75\",\"status\":\"NEW\"}";
+
+        assertThat(start("xhr").sink.submit(json)).isTrue();
+
+        assertThat(persisted).hasSize(1);
+        Order order = persisted.get(0).get(0);
+        assertThat(order.getOrderId()).isEqualTo("ZMT-100");
+        assertThat(order.getCustomerName()).isEqualTo("Jane");
+        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("350.75"));
+        assertThat(order.getStatus()).isEqualTo("NEW");
+        assertThat(order.getOrderTime()).isNotNull();
+        assertThat(order.getRawJson()).isEqualTo(json);
+    }
+
+    @Test
+    void ordersShouldCarryTheirCaptureTimeAndEveryPayloadShouldBeTimed() throws InterruptedException {
+        OrderSink sink = start("xhr").sink;
+        long capturedNanos = System.nanoTime() - 5_000_000;
+
+        sink.submit("[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-2\"}]", capturedNanos);
+        sink.put("{\"orderId\":\"ZMT-3\"}");
+        sink.submit("not json");
+
+        assertThat(persisted.get(0)).extracting(Order::getCapturedNanos).containsOnly(capturedNanos);
+        assertThat(persisted.get(1).get(0).getCapturedNanos()).isNotZero().isNotEqualTo(capturedNanos);
+        assertThat(latencyRegistry.get("order.capture.stage.latency").tag("stage", "parse").timer().count())
+                .isEqualTo(3);
+        assertThat(latencyRegistry.get("order.capture.stage.latency").tag("stage", "queue").timer().count())
+                .isEqualTo(3);
+    }
+
+    @Test
+    void listPayloadShouldBePersistedInOnePiece() {
+        start("xhr").sink.submit("  [{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-2\"}]");
+
+        assertThat(persisted).hasSize(1);
+        assertThat(persisted.get(0)).extracting(Order::getOrderId).containsExactly("ZMT-1", "ZMT-2");
+        assertThat(pipeline.getStats("xhr")).get()
+                .extracting(OrderSourceStats::getSubmitted, OrderSourceStats::getProcessed, OrderSourceStats::getOrders)
+                .containsExactly(1L, 1L, 2L);
+    }
+
+    @Test
+    void repeatsFromTheSameSourceShouldNotBePersistedAgainOnceSaved() {
+        OrderSink first = start("xhr").sink;
+        OrderSink second = start("ws").sink;
+
+        first.submit("{\"orderId\":\"ZMT-1\"}");
+        saveAll();
+        first.submit("[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-2\"},{\"customerName\":\"No id\"}]");
+        saveAll();
+        first.submit("[{\"orderId\":\"ZMT-2\"},{\"customerName\":\"No id\"}]");
+        second.submit("{\"orderId\":\"ZMT-1\"}");
+
+        assertThat(persisted).extracting(orders -> orders.stream().map(Order::getOrderId).toList())
+                .containsExactly(List.of("ZMT-1"), List.of("ZMT-2"), List.of("ZMT-1"));
+        OrderSourceStats stats = pipeline.getStats("xhr").orElseThrow();
+        assertThat(stats.getOrders()).isEqualTo(4);
+        assertThat(stats.getDuplicates()).isEqualTo(2);
+        assertThat(pipeline.getStats("ws").orElseThrow().getDuplicates()).isZero();
+    }
+
+    @Test
+    void repeatsShouldBePersistedAgainWhileTheFirstCaptureIsUnsaved() {
+        OrderSink sink = start("xhr").sink;
+
+        sink.submit("[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-1\"}]");
+        sink.submit("{\"orderId\":\"ZMT-1\"}");
+        pipeline.onOrdersSaved(new OrdersSavedEvent(List.of(order("ZMT-2"))));
+        sink.submit("{\"orderId\":\"ZMT-1\"}");
+        saveAll();
+        sink.submit("{\"orderId\":\"ZMT-1\"}");
+
+        assertThat(persisted).extracting(orders -> orders.stream().map(Order::getOrderId).toList())
+                .containsExactly(List.of("ZMT-1"), List.of("ZMT-1"), List.of("ZMT-1"));
+        assertThat(pipeline.getStats("xhr").orElseThrow().getDuplicates()).isEqualTo(2);
+    }
+
+    @Test
+    void recentIdsShouldBeBoundedByCapacity() {
+        pipeline = new OrderPipeline(ingestionExecutor, deduplicator, persisted::add, latencyMetrics, 1);
+        OrderSink sink = start("xhr").sink;
+
+        sink.submit("{\"orderId\":\"ZMT-1\"}");
+        saveAll();
+        sink.submit("{\"orderId\":\"ZMT-2\"}");
+        saveAll();
+        sink.submit("{\"orderId\":\"ZMT-1\"}");
+
+        assertThat(persisted).hasSize(3);
+    }
+
+    @Test
+    void repeatsAcrossSourcesShouldBeDroppedDuringHandover() {
+        start("xhr").sink.submit("{\"orderId\":\"ZMT-1\"}");
+        deduplicator.beginHandover();
+
+        start("ws").sink.submit("[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-2\"}]");
+
+        assertThat(persisted.get(1)).extracting(Order::getOrderId).containsExactly("ZMT-2");
+        assertThat(pipeline.getStats("ws").orElseThrow().getDuplicates()).isEqualTo(1);
+        assertThat(deduplicator.getDroppedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void unparseablePayloadsShouldCountAsFailures() {
+        OrderSink sink = start("xhr").sink;
+
+        sink.submit("[]");
+        sink.submit("[{\"orderId\":");
+        sink.submit("not valid json at all {{{");
+        sink.submit("   ");
+        sink.submit((String) null);
+
+        assertThat(persisted).isEmpty();
+        assertThat(pipeline.getStats("xhr")).get()
+                .extracting(OrderSourceStats::getProcessed, OrderSourceStats::getFailures, OrderSourceStats::getOrders)
+                .containsExactly(5L, 4L, 0L);
+    }
+
+    @Test
+    void ordersWithoutOrderIdShouldBeDroppedAsFailures() {
+        OrderSink sink = start("xhr").sink;
+
+        sink.submit("{}");
+        sink.submit("[{\"orderId\":\"ZMT-1\"},{\"customerName\":\"No id\"},{\"orderId\":null}]");
+
+        assertThat(persisted).extracting(orders -> orders.stream().map(Order::getOrderId).toList())
+                .containsExactly(List.of("ZMT-1"));
+        assertThat(pipeline.getStats("xhr")).get()
+                .extracting(OrderSourceStats::getProcessed, OrderSourceStats::getFailures, OrderSourceStats::getOrders)
+                .containsExactly(2L, 3L, 1L);
+    }
+
+    @Test
+    void bytesShouldBeDecodedOnTheIngestionThread() {
+        long capturedNanos = System.nanoTime() - 5_000_000;
+        start("ws").sink.submit("{\"orderId\":\"ZMT-BIN\"}".getBytes(StandardCharsets.UTF_8), capturedNanos);
+
+        assertThat(persisted.get(0)).extracting(Order::getOrderId, Order::getCapturedNanos)
+                .containsExactly(tuple("ZMT-BIN", capturedNanos));
+    }
+
+    @Test
+    void putShouldWaitForIngestionCapacity() throws InterruptedException {
+        assertThat(start("replay").sink.put("{\"orderId\":\"ZMT-1\"}")).isTrue();
+
+        verify(ingestionExecutor).put(any());
+        verify(ingestionExecutor, never()).submit(any());
+        assertThat(persisted).hasSize(1);
+    }
+
+    @Test
+    void droppedPayloadsShouldCountAsRejected() throws InterruptedException {
+        OrderSink sink = start("xhr").sink;
+        doReturn(false).when(ingestionExecutor).submit(any());
+
+        assertThat(sink.submit("{}")).isFalse();
+        assertThat(sink.submit(new byte[0])).isFalse();
+
+        OrderSourceStats stats = pipeline.getStats("xhr").orElseThrow();
+        assertThat(stats.getRejected()).isEqualTo(2);
+        assertThat(stats.getSubmitted()).isZero();
+        assertThat(stats.awaitProcessed(0)).isTrue();
+    }
+
+    @Test
+    void awaitProcessedShouldTimeOutWhilePayloadsArePending() throws InterruptedException {
+        OrderSink sink = start("xhr").sink;
+        doReturn(true).when(ingestionExecutor).submit(any());
+
+        sink.submit("{}");
+
+        assertThat(pipeline.getStats("xhr").orElseThrow().awaitProcessed(20)).isFalse();
+    }
+
+    @Test
+    void sourceNamesShouldBeUniqueWhileRunning() {
+        TestSource first = start("xhr");
+        TestSource other = new TestSource("xhr");
+
+        assertThatThrownBy(() -> pipeline.start(other))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("An order source named xhr is already running");
+        pipeline.stop(other);
+        assertThat(first.stopped).isFalse();
+        assertThat(other.sink).isNull();
+
+        pipeline.stop(first);
+        pipeline.stop(first);
+        assertThat(first.stopped).isTrue();
+        assertThat(first.sink.submit("{}")).isFalse();
+        OrderSourceStats stats = pipeline.start(other);
+        assertThat(stats).isSameAs(pipeline.getStats("xhr").orElseThrow());
+        assertThat(stats.getRejected()).isEqualTo(1);
+        assertThat(stats.isRunning()).isTrue();
+    }
+
+    @Test
+    void stopAllShouldStopEveryRunningSource() throws InterruptedException {
+        TestSource xhr = start("xhr");
+        TestSource replay = start("replay");
+
+        pipeline.stopAll();
+
+        assertThat(xhr.stopped).isTrue();
+        assertThat(replay.sink.put("{}")).isFalse();
+        assertThat(pipeline.getStats()).extracting(OrderSourceStats::getName).containsExactlyInAnyOrder("xhr", "replay");
+        assertThat(pipeline.getStats()).extracting(OrderSourceStats::isRunning).containsOnly(false);
+        verify(ingestionExecutor, never()).put(any());
+    }
+
+    @Test
+    void bindToShouldRegisterMetersPerSourceIncludingLaterOnes() {
+        start("xhr").sink.submit("[{\"orderId\":\"ZMT-1\"},{\"orderId\":\"ZMT-1\"}]");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        pipeline.bindTo(registry);
+        start("synthetic").sink.submit("oops");
+
+        assertThat(registry.get("order.capture.source.payloads").tag("source", "xhr").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.source.orders").tag("source", "xhr").functionCounter().count())
+                .isEqualTo(2);
+        assertThat(registry.get("order.capture.source.duplicates").tag("source", "xhr").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.source.failures").tag("source", "synthetic").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.source.rejected").tag("source", "synthetic").functionCounter().count())
+                .isZero();
+    }
+
+    @Test
+    void parseOrderFromJsonShouldIgnoreNestedFieldsWithSameName() {
+        String json = "{\"items\":[{\"status\":\"OUT_OF_STOCK\"}],\"orderId\":\"ZMT-300\",\"status\":\"NEW\"}";
+
+        Order order = pipeline.parseOrderFromJson(json);
+
+        assertThat(order.getOrderId()).isEqualTo("ZMT-300");
+        assertThat(order.getStatus()).isEqualTo("NEW");
+    }
+
+    @Test
+    void parseOrderFromJsonShouldReturnNullOnException() {
+        assertThat(pipeline.parseOrderFromJson(null)).isNull();
+        assertThat(pipeline.parseOrdersFromJson("[{\"orderId\":")).isNull();
+    }
+
+    private TestSource start(String name) {
+        TestSource source = new TestSource(name);
+        pipeline.start(source);
+        return source;
+    }
+
+    // Stands in for the batch writer reporting everything persisted so far as stored
+    private void saveAll() {
+        persisted.forEach(orders -> pipeline.onOrdersSaved(new OrdersSavedEvent(orders)));
+    }
+
+    private static Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    private static class TestSource implements OrderSource {
+
+        private final String name;
+        private OrderSink sink;
+        private boolean stopped;
+
+        TestSource(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public void start(OrderSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void stop() {
+            stopped = true;
+        }
+    }
+}
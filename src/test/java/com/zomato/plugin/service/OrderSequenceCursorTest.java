@@ -0,0 +1,31 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderSequenceCursorTest {
+
+    @Test
+    void encodeAndDecodeShouldRoundTrip() {
+        OrderSequenceCursor cursor = new OrderSequenceCursor(1_234_567L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("=", "+", "/");
+        assertThat(OrderSequenceCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void decodeShouldRejectMalformedAndPageTokens() {
+        assertThatThrownBy(() -> OrderSequenceCursor.decode("***"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Invalid order cursor");
+        assertThatThrownBy(() -> OrderSequenceCursor.decode(
+                new OrderCursor(LocalDateTime.of(2026, 1, 15, 10, 0), 3L).encode()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,12 +1,22 @@
 package com.zomato.plugin.service;
 
 import com.zomato.plugin.entity.Order;
+import com.zomato.plugin.entity.OrderPayload;
+import com.zomato.plugin.repository.OrderPayloadRepository;
 import com.zomato.plugin.repository.OrderRepository;
+import com.zomato.plugin.repository.OrderSummary;
+import com.zomato.plugin.repository.PayloadCodec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,6 +26,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -25,67 +36,203 @@ class OrderServiceTest {
     @Mock
     private OrderRepository repository;
 
+    @Mock
+    private OrderPayloadRepository payloadRepository;
+
+    @Mock
+    private PayloadCodec payloadCodec;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private OrderLatencyMetrics latencyMetrics = new OrderLatencyMetrics(2000);
+
     @InjectMocks
     private OrderService orderService;
 
     @Test
-    void saveOrderShouldSaveNewOrderWhenOrderIdDoesNotExist() {
+    void saveOrderShouldReturnTrueWhenOrderIsInserted() {
         Order order = new Order();
         order.setOrderId("ZMT-001");
         order.setCustomerName("Alice");
         order.setTotalAmount(new BigDecimal("250.00"));
 
-        when(repository.existsByOrderId("ZMT-001")).thenReturn(false);
-        when(repository.save(order)).thenReturn(order);
+        when(repository.insertIfAbsent(order)).thenReturn(1);
+
+        assertThat(orderService.saveOrder(order)).isTrue();
+        verify(repository, never()).existsByOrderId(any());
+        verify(repository, never()).save(any(Order.class));
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(order));
+    }
+
+    @Test
+    void saveOrderShouldReturnFalseWhenOrderIdAlreadyExists() {
+        Order order = new Order();
+        order.setOrderId("ZMT-002");
+
+        when(repository.insertIfAbsent(order)).thenReturn(0);
+
+        assertThat(orderService.saveOrder(order)).isFalse();
+        verify(eventPublisher, never()).publishEvent(any(OrderCreatedEvent.class));
+        verify(eventPublisher).publishEvent(new OrdersSavedEvent(List.of(order)));
+    }
+
+    @Test
+    void saveOrderShouldReturnFalseWhenConcurrentInsertWins() {
+        Order order = new Order();
+        order.setOrderId("ZMT-003");
 
-        Order result = orderService.saveOrder(order);
+        when(repository.insertIfAbsent(order)).thenThrow(new DuplicateKeyException("duplicate key"));
 
-        assertThat(result.getOrderId()).isEqualTo("ZMT-001");
-        assertThat(result.getCustomerName()).isEqualTo("Alice");
-        verify(repository).save(order);
+        assertThat(orderService.saveOrder(order)).isFalse();
+        assertThat(orderService.getExistingCount()).isEqualTo(1);
+        verify(eventPublisher).publishEvent(new OrdersSavedEvent(List.of(order)));
     }
 
     @Test
-    void saveOrderShouldReturnExistingOrderWhenOrderIdAlreadyExists() {
-        Order newOrder = new Order();
-        newOrder.setOrderId("ZMT-002");
-        newOrder.setCustomerName("Bob");
+    void saveOrderShouldCountOtherIntegrityViolationsAsFailures() {
+        Order order = new Order();
+        order.setOrderId("ZMT-004");
 
-        Order existingOrder = new Order();
-        existingOrder.setId(5L);
-        existingOrder.setOrderId("ZMT-002");
-        existingOrder.setCustomerName("Bob");
+        when(repository.insertIfAbsent(order)).thenThrow(new DataIntegrityViolationException("Value too long"));
 
-        when(repository.existsByOrderId("ZMT-002")).thenReturn(true);
-        when(repository.findByOrderId("ZMT-002")).thenReturn(Optional.of(existingOrder));
+        assertThat(orderService.saveOrder(order)).isFalse();
+        assertThat(orderService.getFailedCount()).isEqualTo(1);
+        assertThat(orderService.getExistingCount()).isZero();
+        verify(eventPublisher, never()).publishEvent(any());
+    }
 
-        Order result = orderService.saveOrder(newOrder);
+    @Test
+    void saveOrdersShouldSendDistinctOrdersAsOneBatchAndReturnInsertedOnes() {
+        Order first = new Order();
+        first.setOrderId("ZMT-010");
+        Order repeated = new Order();
+        repeated.setOrderId("ZMT-010");
+        Order stored = new Order();
+        stored.setOrderId("ZMT-011");
+        Order fresh = new Order();
+        fresh.setOrderId("ZMT-012");
 
-        assertThat(result.getId()).isEqualTo(5L);
-        assertThat(result.getOrderId()).isEqualTo("ZMT-002");
-        verify(repository, never()).save(any(Order.class));
+        when(repository.insertAllIfAbsent(List.of(first, stored, fresh))).thenReturn(new int[]{1, 0, 1});
+
+        List<Order> result = orderService.saveOrders(List.of(first, repeated, stored, fresh));
+
+        assertThat(result).containsExactly(first, fresh);
+        verify(repository, never()).insertIfAbsent(any());
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(first));
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(fresh));
+        verify(eventPublisher, times(2)).publishEvent(any(OrderCreatedEvent.class));
+        verify(eventPublisher).publishEvent(new OrdersSavedEvent(List.of(first, stored, fresh)));
     }
 
     @Test
-    void getAllOrdersShouldDelegateToRepository() {
-        Order order1 = new Order();
-        order1.setOrderId("ZMT-001");
-        order1.setOrderTime(LocalDateTime.now());
+    void savesShouldBeTimedAndCountedByResult() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        latencyMetrics.bindTo(meterRegistry);
+        orderService.bindTo(meterRegistry);
+        Order stored = new Order();
+        stored.setOrderId("ZMT-030");
+        Order fresh = new Order();
+        fresh.setOrderId("ZMT-031");
+        when(repository.insertIfAbsent(stored)).thenReturn(0);
+        when(repository.insertAllIfAbsent(List.of(stored, fresh))).thenReturn(new int[]{0, 1});
+
+        orderService.saveOrder(stored);
+        orderService.saveOrders(List.of(stored, fresh, fresh));
+
+        assertThat(orderService.getOrderCount()).isEqualTo(1);
+        assertThat(meterRegistry.get("order.capture.persisted").tag("result", "inserted").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.capture.persisted").tag("result", "existing").functionCounter().count())
+                .isEqualTo(3.0);
+        assertThat(meterRegistry.get("order.capture.stage.latency").tag("stage", "persist").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void saveOrdersShouldFallBackToSingleInsertsWhenBatchHitsConcurrentInsert() {
+        Order raced = new Order();
+        raced.setOrderId("ZMT-020");
+        Order fresh = new Order();
+        fresh.setOrderId("ZMT-021");
 
-        Order order2 = new Order();
-        order2.setOrderId("ZMT-002");
-        order2.setOrderTime(LocalDateTime.now().minusHours(1));
+        when(repository.insertAllIfAbsent(List.of(raced, fresh)))
+                .thenThrow(new DuplicateKeyException("duplicate key"));
+        when(repository.insertIfAbsent(raced)).thenReturn(0);
+        when(repository.insertIfAbsent(fresh)).thenReturn(1);
+
+        assertThat(orderService.saveOrders(List.of(raced, fresh))).containsExactly(fresh);
+        verify(eventPublisher).publishEvent(new OrderCreatedEvent(fresh));
+        verify(eventPublisher, times(1)).publishEvent(any(OrderCreatedEvent.class));
+    }
+
+    @Test
+    void saveOrdersShouldIsolateAnOrderTheDatabaseRejects() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        orderService.bindTo(meterRegistry);
+        Order oversized = new Order();
+        oversized.setOrderId("ZMT-022");
+        Order fresh = new Order();
+        fresh.setOrderId("ZMT-023");
+
+        when(repository.insertAllIfAbsent(List.of(oversized, fresh)))
+                .thenThrow(new DataIntegrityViolationException("Value too long"));
+        when(repository.insertIfAbsent(oversized)).thenThrow(new DataIntegrityViolationException("Value too long"));
+        when(repository.insertIfAbsent(fresh)).thenReturn(1);
+
+        assertThat(orderService.saveOrders(List.of(oversized, fresh))).containsExactly(fresh);
+        verify(eventPublisher).publishEvent(new OrdersSavedEvent(List.of(fresh)));
+        assertThat(meterRegistry.get("order.capture.persisted").tag("result", "failed").functionCounter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.capture.persisted").tag("result", "existing").functionCounter().count())
+                .isZero();
+    }
+
+    @Test
+    void saveOrdersShouldReturnEmptyListForEmptyBatch() {
+        when(repository.insertAllIfAbsent(List.of())).thenReturn(new int[0]);
+
+        assertThat(orderService.saveOrders(List.of())).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any(OrdersSavedEvent.class));
+    }
+
+    @Test
+    void getAllOrdersShouldDelegateToRepository() {
+        OrderSummary order1 = new OrderSummary(1L, "ZMT-001", null, null, LocalDateTime.now(), null);
+        OrderSummary order2 = new OrderSummary(2L, "ZMT-002", null, null, LocalDateTime.now().minusHours(1), null);
 
         when(repository.findAllByOrderByOrderTimeDesc()).thenReturn(List.of(order1, order2));
 
-        List<Order> result = orderService.getAllOrders();
+        List<OrderSummary> result = orderService.getAllOrders();
 
         assertThat(result).hasSize(2);
-        assertThat(result.get(0).getOrderId()).isEqualTo("ZMT-001");
-        assertThat(result.get(1).getOrderId()).isEqualTo("ZMT-002");
+        assertThat(result.get(0).orderId()).isEqualTo("ZMT-001");
+        assertThat(result.get(1).orderId()).isEqualTo("ZMT-002");
         verify(repository).findAllByOrderByOrderTimeDesc();
     }
 
+    @Test
+    void getOrdersPageShouldUseLatestOrOlderThanQuery() {
+        OrderSummary order = new OrderSummary(1L, "ZMT-001", null, null, LocalDateTime.now(), null);
+        OrderCursor cursor = new OrderCursor(LocalDateTime.of(2026, 1, 15, 10, 0), 9L);
+        when(repository.findLatest(PageRequest.of(0, 20))).thenReturn(List.of(order));
+        when(repository.findOlderThan(cursor.orderTime(), 9L, PageRequest.of(0, 20))).thenReturn(List.of());
+
+        assertThat(orderService.getOrdersPage(null, 20)).containsExactly(order);
+        assertThat(orderService.getOrdersPage(cursor, 20)).isEmpty();
+    }
+
+    @Test
+    void getOrdersSinceShouldFollowInsertOrder() {
+        OrderSummary order = new OrderSummary(10L, "ZMT-001", null, null, LocalDateTime.now(), null);
+        when(repository.findInsertedAfter(9L, PageRequest.of(0, 50))).thenReturn(List.of(order));
+        when(repository.findLastInsertedId()).thenReturn(10L);
+
+        assertThat(orderService.getOrdersSince(new OrderSequenceCursor(9L), 50)).containsExactly(order);
+        assertThat(orderService.getLatestCursor()).isEqualTo(new OrderSequenceCursor(10L));
+    }
+
     @Test
     void getOrderByOrderIdShouldDelegateToRepository() {
         Order order = new Order();
@@ -100,12 +247,50 @@ class OrderServiceTest {
     }
 
     @Test
-    void getOrderCountShouldDelegateToRepository() {
+    void getRawJsonShouldReadFromPayloadStore() {
+        OrderPayload payload = new OrderPayload();
+        payload.setOrderId("ZMT-004");
+        payload.setCompressedJson(new byte[]{1, 2, 3});
+        when(payloadRepository.findById("ZMT-004")).thenReturn(Optional.of(payload));
+        when(payloadCodec.decompress(payload.getCompressedJson())).thenReturn("{\"orderId\":\"ZMT-004\"}");
+        when(payloadRepository.findById("ZMT-005")).thenReturn(Optional.empty());
+
+        assertThat(orderService.getRawJson("ZMT-004")).contains("{\"orderId\":\"ZMT-004\"}");
+        assertThat(orderService.getRawJson("ZMT-005")).isEmpty();
+        verify(repository, never()).findByOrderId(any());
+    }
+
+    @Test
+    void getOrderCountShouldBeSeededFromRepositoryOnce() {
         when(repository.count()).thenReturn(42L);
 
-        long result = orderService.getOrderCount();
+        orderService.reloadOrderCount();
+
+        assertThat(orderService.getOrderCount()).isEqualTo(42L);
+        assertThat(orderService.getOrderCount()).isEqualTo(42L);
+        verify(repository, times(1)).count();
+    }
+
+    @Test
+    void getOrderCountShouldAdvanceOnlyOnConfirmedInserts() {
+        Order first = new Order();
+        first.setOrderId("ZMT-010");
+        Order duplicate = new Order();
+        duplicate.setOrderId("ZMT-011");
+        Order second = new Order();
+        second.setOrderId("ZMT-012");
+        Order third = new Order();
+        third.setOrderId("ZMT-013");
+
+        when(repository.insertIfAbsent(first)).thenReturn(1);
+        when(repository.insertIfAbsent(duplicate)).thenReturn(0);
+        when(repository.insertAllIfAbsent(List.of(second, third))).thenReturn(new int[]{1, 0});
+
+        orderService.saveOrder(first);
+        orderService.saveOrder(duplicate);
+        orderService.saveOrders(List.of(second, third));
 
-        assertThat(result).isEqualTo(42L);
-        verify(repository).count();
+        assertThat(orderService.getOrderCount()).isEqualTo(2L);
+        verify(repository, never()).count();
     }
 }
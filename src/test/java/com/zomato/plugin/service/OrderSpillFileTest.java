@@ -0,0 +1,149 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderSpillFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readShouldReturnAppendedOrdersWithAllFields() throws IOException {
+        OrderSpillFile spill = new OrderSpillFile(dir.resolve("spill.jsonl"));
+        Order order = new Order();
+        order.setOrderId("ZMT-1");
+        order.setCustomerName("Zoë \"Z\" ☕");
+        order.setTotalAmount(new BigDecimal("1249.50"));
+        order.setOrderTime(LocalDateTime.of(2026, 1, 15, 10, 30, 5));
+        order.setStatus("NEW");
+        order.setRawJson("{\n  \"orderId\": \"ZMT-1\"\n}");
+        order.setCapturedNanos(123_456_789L);
+
+        spill.append(order);
+        List<Order> read = spill.read(10);
+
+        assertThat(read).hasSize(1);
+        Order restored = read.get(0);
+        assertThat(restored.getOrderId()).isEqualTo("ZMT-1");
+        assertThat(restored.getCustomerName()).isEqualTo("Zoë \"Z\" ☕");
+        assertThat(restored.getTotalAmount()).isEqualByComparingTo("1249.50");
+        assertThat(restored.getOrderTime()).isEqualTo(LocalDateTime.of(2026, 1, 15, 10, 30, 5));
+        assertThat(restored.getStatus()).isEqualTo("NEW");
+        assertThat(restored.getRawJson()).isEqualTo(order.getRawJson());
+        assertThat(restored.getCapturedNanos()).isEqualTo(123_456_789L);
+    }
+
+    @Test
+    void readShouldContinueFromLastOffsetAndTruncateOnceDrained() throws IOException {
+        Path path = dir.resolve("spill.jsonl");
+        OrderSpillFile spill = new OrderSpillFile(path);
+        spill.append(order("A"));
+        spill.append(order("B"));
+        spill.append(order("C"));
+
+        assertThat(spill.read(2)).extracting(Order::getOrderId).containsExactly("A", "B");
+        assertThat(spill.getPendingCount()).isEqualTo(1);
+        assertThat(spill.getSizeBytes()).isPositive();
+
+        spill.append(order("D"));
+        assertThat(spill.read(10)).extracting(Order::getOrderId).containsExactly("C", "D");
+        assertThat(spill.getPendingCount()).isZero();
+        assertThat(Files.size(path)).isZero();
+
+        spill.append(order("E"));
+        assertThat(spill.read(10)).extracting(Order::getOrderId).containsExactly("E");
+    }
+
+    @Test
+    void readShouldReturnNothingWhenEmptyOrNoRoom() throws IOException {
+        OrderSpillFile spill = new OrderSpillFile(dir.resolve("spill.jsonl"));
+
+        assertThat(spill.read(10)).isEmpty();
+        assertThat(spill.getSizeBytes()).isZero();
+
+        spill.append(order("A"));
+        assertThat(spill.read(0)).isEmpty();
+        assertThat(spill.getPendingCount()).isEqualTo(1);
+    }
+
+    @Test
+    void constructorShouldPickUpOrdersLeftByPreviousRun() throws IOException {
+        Path path = dir.resolve("spill.jsonl");
+        OrderSpillFile previous = new OrderSpillFile(path);
+        previous.append(order("A"));
+        previous.append(order("B"));
+        Files.writeString(path, "\n", StandardOpenOption.APPEND);
+
+        OrderSpillFile spill = new OrderSpillFile(path);
+        spill.append(order("C"));
+
+        assertThat(spill.getPendingCount()).isEqualTo(3);
+        // Capture times of the previous run were taken on another clock
+        assertThat(spill.read(10)).extracting(Order::getOrderId, Order::getCapturedNanos)
+                .containsExactly(tuple("A", 0L), tuple("B", 0L), tuple("C", 42L));
+    }
+
+    @Test
+    void constructorShouldDiscardALineCutShortByACrash() throws IOException {
+        Path path = dir.resolve("spill.jsonl");
+        new OrderSpillFile(path).append(order("A"));
+        Files.writeString(path, "{\"orderId\":\"CU", StandardOpenOption.APPEND);
+
+        OrderSpillFile spill = new OrderSpillFile(path);
+        spill.append(order("B"));
+
+        assertThat(spill.getPendingCount()).isEqualTo(2);
+        assertThat(spill.read(10)).extracting(Order::getOrderId).containsExactly("A", "B");
+        assertThat(spill.getPendingCount()).isZero();
+        assertThat(spill.getSizeBytes()).isZero();
+    }
+
+    @Test
+    void readShouldSkipUnreadableLinesAndStillDrain() throws IOException {
+        Path path = dir.resolve("spill.jsonl");
+        OrderSpillFile previous = new OrderSpillFile(path);
+        previous.append(order("A"));
+        Files.writeString(path, "not json\n", StandardOpenOption.APPEND);
+        previous.append(order("B"));
+
+        OrderSpillFile spill = new OrderSpillFile(path);
+        spill.append(order("C"));
+
+        assertThat(spill.getPendingCount()).isEqualTo(4);
+        // The skipped line takes none of the room asked for
+        assertThat(spill.read(2)).extracting(Order::getOrderId, Order::getCapturedNanos)
+                .containsExactly(tuple("A", 0L), tuple("B", 0L));
+        assertThat(spill.getPendingCount()).isEqualTo(1);
+        assertThat(spill.read(10)).extracting(Order::getOrderId, Order::getCapturedNanos)
+                .containsExactly(tuple("C", 42L));
+        assertThat(spill.getPendingCount()).isZero();
+        assertThat(spill.getSizeBytes()).isZero();
+    }
+
+    @Test
+    void constructorShouldFailWhenSpillFileIsUnreadable() {
+        assertThrows(UncheckedIOException.class, () -> new OrderSpillFile(dir));
+    }
+
+    private Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        order.setCapturedNanos(42L);
+        return order;
+    }
+}
@@ -0,0 +1,287 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+class OrderStreamServiceTest {
+
+    private final Deque<SseEmitter> createdEmitters = new ArrayDeque<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OrderLatencyMetrics latencyMetrics = new OrderLatencyMetrics(2000);
+
+    private OrderStreamService streamService;
+
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+    }
+
+    @Test
+    void subscribersShouldReceiveNewOrdersWithIncreasingIds() throws IOException {
+        streamService = newService(10, 5);
+        SseEmitter emitter = streamService.subscribe(null);
+
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-2")));
+
+        verify(emitter, timeout(2000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(streamService.getLastEventId()).isEqualTo(2);
+        assertThat(streamService.getEmitterCount()).isEqualTo(1);
+    }
+
+    @Test
+    void firstDeliveryShouldMakeCapturedOrdersVisible() throws Exception {
+        latencyMetrics.bindTo(meterRegistry);
+        streamService = newService(10, 5);
+        streamService.bindTo(meterRegistry);
+        streamService.onOrderCreated(new OrderCreatedEvent(captured("ZMT-1", 50)));
+        SseEmitter broken = streamService.subscribe(null);
+        doThrow(new IOException("client gone")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        streamService.subscribe(null);
+        streamService.subscribe(null);
+        assertThat(meterRegistry.get("order.capture.stream.clients").gauge().value()).isEqualTo(3.0);
+
+        streamService.onOrderCreated(new OrderCreatedEvent(captured("ZMT-2", 50)));
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-3")));
+
+        Timer deliver = meterRegistry.get("order.capture.stage.latency").tag("stage", "deliver").timer();
+        Timer visible = meterRegistry.get("order.capture.visible.latency").timer();
+        awaitUntil(() -> deliver.count() == 2 && visible.count() == 1 && streamService.getEmitterCount() == 2);
+        assertThat(visible.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(50.0);
+        assertThat(meterRegistry.get("order.capture.stream.clients").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void subscribeShouldReplayOnlyEventsAfterLastEventId() throws IOException {
+        streamService = newService(10, 5);
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-2")));
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-3")));
+
+        SseEmitter emitter = streamService.subscribe(1L);
+        SseEmitter upToDate = streamService.subscribe(3L);
+
+        verify(emitter, timeout(2000).times(2)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(upToDate, after(100).never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void lastEventIdOlderThanTheReplayBufferShouldGetReload() throws IOException {
+        streamService = newService(10, 2);
+        for (int i = 1; i <= 5; i++) {
+            streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-" + i)));
+        }
+
+        SseEmitter resumed = streamService.subscribe(3L);
+        SseEmitter tooOld = streamService.subscribe(2L);
+
+        assertThat(sentEventNames(resumed, 2)).containsExactly("order", "order");
+        assertThat(sentEventNames(tooOld, 1)).containsExactly("reload");
+    }
+
+    @Test
+    void lastEventIdFromBeforeARestartShouldGetReload() throws IOException {
+        streamService = newService(10, 5);
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+
+        SseEmitter emitter = streamService.subscribe(37L);
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-2")));
+
+        assertThat(sentEventNames(emitter, 2)).containsExactly("reload", "order");
+        assertThat(sentEventNames(streamService.subscribe(5L), 1)).containsExactly("reload");
+        verify(streamService.subscribe(1L), timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void slowClientShouldNotHoldUpPublishingOrOtherClients() throws Exception {
+        streamService = newService(10, 5, 2);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SseEmitter slow = streamService.subscribe(null);
+        doAnswer(invocation -> {
+            sending.countDown();
+            return release.await(5, TimeUnit.SECONDS);
+        }).when(slow).send(any(SseEmitter.SseEventBuilder.class));
+        SseEmitter fast = streamService.subscribe(null);
+
+        // Publishing returns while the slow client is still stuck on its first event
+        for (int i = 1; i <= 5; i++) {
+            streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-" + i)));
+            verify(fast, timeout(2000).times(i)).send(any(SseEmitter.SseEventBuilder.class));
+            if (i == 1) {
+                assertThat(sending.await(2, TimeUnit.SECONDS)).isTrue();
+            }
+        }
+
+        // Its queue of two overflowed on the fourth event
+        verify(slow, timeout(2000)).complete();
+        verify(slow, times(1)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(release.getCount()).isOne();
+        assertThat(streamService.getEmitterCount()).isEqualTo(1);
+        release.countDown();
+    }
+
+    @Test
+    void subscribeShouldReturnNullWhenEmitterCapReached() {
+        streamService = newService(1, 5);
+
+        assertThat(streamService.subscribe(null)).isNotNull();
+        assertThat(streamService.subscribe(null)).isNull();
+    }
+
+    @Test
+    void failedReplayShouldUnregisterEmitter() throws Exception {
+        streamService = newService(10, 5);
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+        SseEmitter broken = mock(SseEmitter.class);
+        doThrow(new IOException("client gone")).when(broken).send(any(SseEmitter.SseEventBuilder.class));
+        createdEmitters.add(broken);
+
+        assertThat(streamService.subscribe(0L)).isSameAs(broken);
+        awaitUntil(() -> streamService.getEmitterCount() == 0);
+    }
+
+    @Test
+    void failingEmittersShouldBeDroppedOnPublishAndHeartbeat() throws Exception {
+        streamService = newService(10, 5);
+        SseEmitter onPublish = streamService.subscribe(null);
+        SseEmitter onHeartbeat = streamService.subscribe(null);
+        doThrow(new IOException("client gone")).when(onPublish).send(any(SseEmitter.SseEventBuilder.class));
+        // Stubbed up front: the fan-out threads may be sending to it meanwhile
+        AtomicBoolean completed = new AtomicBoolean();
+        doAnswer(invocation -> {
+            if (completed.get()) {
+                throw new IllegalStateException("completed");
+            }
+            return null;
+        }).when(onHeartbeat).send(any(SseEmitter.SseEventBuilder.class));
+
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+        awaitUntil(() -> streamService.getEmitterCount() == 1);
+        verify(onHeartbeat, timeout(2000)).send(any(SseEmitter.SseEventBuilder.class));
+
+        completed.set(true);
+        streamService.sendHeartbeat();
+        awaitUntil(() -> streamService.getEmitterCount() == 0);
+    }
+
+    @Test
+    void heartbeatShouldBeSentPeriodically() throws IOException {
+        streamService = newService(10, 5);
+        streamService.start();
+        SseEmitter emitter = streamService.subscribe(null);
+
+        verify(emitter, timeout(2000).atLeast(2)).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    void emitterCallbacksShouldUnregisterEmitter() {
+        streamService = newService(10, 5);
+        SseEmitter completed = streamService.subscribe(null);
+        SseEmitter timedOut = streamService.subscribe(null);
+        SseEmitter errored = streamService.subscribe(null);
+
+        ArgumentCaptor<Runnable> completion = ArgumentCaptor.forClass(Runnable.class);
+        verify(completed).onCompletion(completion.capture());
+        completion.getValue().run();
+        ArgumentCaptor<Runnable> timeoutCallback = ArgumentCaptor.forClass(Runnable.class);
+        verify(timedOut).onTimeout(timeoutCallback.capture());
+        timeoutCallback.getValue().run();
+        ArgumentCaptor<Consumer<Throwable>> error = ArgumentCaptor.forClass(Consumer.class);
+        verify(errored).onError(error.capture());
+        error.getValue().accept(new IOException("reset"));
+
+        assertThat(streamService.getEmitterCount()).isZero();
+    }
+
+    @Test
+    void stopShouldCompleteOpenEmittersAndIgnoreLaterEvents() {
+        streamService = newService(10, 5);
+        SseEmitter emitter = streamService.subscribe(null);
+
+        streamService.stop();
+        streamService.onOrderCreated(new OrderCreatedEvent(order("ZMT-1")));
+
+        verify(emitter).complete();
+        assertThat(streamService.getEmitterCount()).isZero();
+    }
+
+    @Test
+    void newEmitterShouldCreateRealEmitterWithConfiguredTimeout() {
+        streamService = new OrderStreamService(latencyMetrics, 10, 5, 50, 1234, 1, 10);
+
+        assertThat(streamService.newEmitter().getTimeout()).isEqualTo(1234L);
+    }
+
+    // Names of the first events sent to a mocked emitter, "heartbeat" for comments
+    private static List<String> sentEventNames(SseEmitter emitter, int count) throws IOException {
+        ArgumentCaptor<SseEmitter.SseEventBuilder> captor = ArgumentCaptor.forClass(SseEmitter.SseEventBuilder.class);
+        verify(emitter, timeout(2000).atLeast(count)).send(captor.capture());
+        return captor.getAllValues().stream().limit(count).map(builder -> {
+            String text = builder.build().stream()
+                    .map(data -> String.valueOf(data.getData()))
+                    .reduce("", String::concat);
+            int name = text.indexOf("event:");
+            return name < 0 ? "heartbeat" : text.substring(name + 6, text.indexOf('\n', name));
+        }).toList();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+
+    private OrderStreamService newService(int maxEmitters, int replaySize) {
+        return newService(maxEmitters, replaySize, 100);
+    }
+
+    private OrderStreamService newService(int maxEmitters, int replaySize, int clientQueueSize) {
+        return new OrderStreamService(latencyMetrics, maxEmitters, replaySize, 50, 1000, 2, clientQueueSize) {
+            @Override
+            SseEmitter newEmitter() {
+                return createdEmitters.isEmpty() ? mock(SseEmitter.class) : createdEmitters.poll();
+            }
+        };
+    }
+
+    private Order order(String orderId) {
+        Order order = new Order();
+        order.setOrderId(orderId);
+        return order;
+    }
+
+    private Order captured(String orderId, long agoMs) {
+        Order order = order(orderId);
+        order.setCapturedNanos(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(agoMs));
+        return order;
+    }
+}
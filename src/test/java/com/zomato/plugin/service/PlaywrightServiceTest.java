@@ -1,25 +1,129 @@
 package com.zomato.plugin.service;
 
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.Request;
+import com.microsoft.playwright.Response;
+import com.microsoft.playwright.WebSocket;
+import com.microsoft.playwright.WebSocketFrame;
 import com.zomato.plugin.entity.Order;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.springframework.test.util.ReflectionTestUtils;
 
-import java.math.BigDecimal;
-import java.util.concurrent.atomic.AtomicReference;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 class PlaywrightServiceTest {
 
+    private static final String USER = "outlet-1";
+
+    @TempDir
+    Path tempDir;
+
+    private IngestionExecutor ingestionExecutor;
+    private ResponseFilter responseFilter;
+    private WebSocketFrameDecoder frameDecoder;
+    private ResourceBlocker resourceBlocker;
+    private OrderPipeline orderPipeline;
+    private List<Order> persisted;
+    private CaptureRecorder captureRecorder;
+    private SimpleMeterRegistry meterRegistry;
+    private OrderLatencyMetrics latencyMetrics;
     private PlaywrightService playwrightService;
 
     @BeforeEach
     void setUp() {
-        playwrightService = new PlaywrightService();
-        ReflectionTestUtils.setField(playwrightService, "headless", true);
+        ingestionExecutor = mock(IngestionExecutor.class);
+        responseFilter = new ResponseFilter(List.of("xhr", "fetch"), List.of("*/orders*"), List.of("application/json"));
+        frameDecoder = new WebSocketFrameDecoder(List.of("order"));
+        resourceBlocker = new ResourceBlocker(true, List.of("image"), List.of(), List.of());
+        persisted = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        latencyMetrics = new OrderLatencyMetrics(2000);
+        latencyMetrics.bindTo(meterRegistry);
+        orderPipeline = new OrderPipeline(ingestionExecutor, new HandoverDeduplicator(100, 0), persisted::addAll,
+                latencyMetrics, 100);
+        captureRecorder = new CaptureRecorder(tempDir.resolve("captures").toString(), false, 0, 1000);
+        playwrightService = new PlaywrightService(orderPipeline, responseFilter, frameDecoder, resourceBlocker,
+                captureRecorder, latencyMetrics);
         ReflectionTestUtils.setField(playwrightService, "sessionFile", "test-session.json");
-        ReflectionTestUtils.setField(playwrightService, "partnerUrl", "https://www.zomato.com/partners");
+    }
+
+    @Test
+    void captureOrderJsonShouldHandPayloadToPipelineThroughXhrSource() {
+        when(ingestionExecutor.submit(any())).thenReturn(true);
+
+        boolean accepted = playwrightService.captureOrderJson(CaptureRecord.Source.XHR,
+                "https://partner.example/api/orders", "{\"orderId\":\"ZMT-CAP\"}");
+
+        assertThat(accepted).isTrue();
+        assertThat(persisted).isEmpty();
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(ingestionExecutor).submit(task.capture());
+        task.getValue().run();
+        assertThat(persisted).extracting(Order::getOrderId).containsExactly("ZMT-CAP");
+        assertThat(orderPipeline.getStats("xhr")).get().extracting(OrderSourceStats::getOrders).isEqualTo(1L);
+        assertThat(orderPipeline.getStats("ws")).get().extracting(OrderSourceStats::isRunning).isEqualTo(true);
+    }
+
+    @Test
+    void onResponseShouldReadBodyOnlyForAcceptedResponses() {
+        playwrightService.startListening(USER);
+        Response order = response("xhr", "https://partner.example/api/orders?page=1", "application/json; charset=utf-8");
+        when(order.text()).thenReturn("{\"orderId\":\"ZMT-XHR\"}");
+        Response image = response("image", "https://cdn.example/logo.png", "image/png");
+        Response html = response("fetch", "https://partner.example/orders/", "text/html");
+
+        playwrightService.onResponse(playwrightService.account(USER), order);
+        playwrightService.onResponse(playwrightService.account(USER), image);
+        playwrightService.onResponse(playwrightService.account(USER), html);
+
+        verify(ingestionExecutor).submit(any());
+        assertThat(meterRegistry.get("order.capture.stage.latency").tag("stage", "intercept").timer().count())
+                .isEqualTo(1);
+        verify(image, never()).text();
+        verify(html, never()).text();
+        assertThat(responseFilter.getHitCount("*/orders*")).isEqualTo(1);
+        assertThat(responseFilter.getMissCount("*/orders*")).isEqualTo(1);
+        assertThat(responseFilter.getSkippedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onResponseShouldIgnoreResponsesWhileNotListening() {
+        Response order = mock(Response.class);
+
+        playwrightService.onResponse(playwrightService.account(USER), order);
+
+        verifyNoInteractions(order, ingestionExecutor);
+    }
+
+    @Test
+    void captureOrderJsonShouldReportDroppedPayload() {
+        when(ingestionExecutor.submit(any())).thenReturn(false);
+
+        assertThat(playwrightService.captureOrderJson(CaptureRecord.Source.XHR, null, "{}")).isFalse();
     }
 
     @Test
@@ -29,6 +133,39 @@ class PlaywrightServiceTest {
         assertThat(playwrightService.hasExistingSession()).isFalse();
     }
 
+    @Test
+    void hasExistingSessionShouldCheckTheAccountSessionFile() throws IOException {
+        Path sessionFile = tempDir.resolve("session.json");
+        ReflectionTestUtils.setField(playwrightService, "sessionFile", sessionFile.toString());
+        Files.writeString(tempDir.resolve("session-outlet-1.json"), "{}");
+
+        assertThat(playwrightService.hasExistingSession(USER)).isTrue();
+        assertThat(playwrightService.hasExistingSession("outlet-2")).isFalse();
+    }
+
+    @Test
+    void findStoredSessionsShouldBeEmptyWhenTheSessionDirectoryIsMissing() {
+        ReflectionTestUtils.setField(playwrightService, "sessionFile",
+                tempDir.resolve("missing").resolve("session").toString());
+
+        assertThat(playwrightService.findStoredSessions()).isEmpty();
+    }
+
+    @Test
+    void findStoredSessionsShouldGiveBackTheUsernamesTheFilesWereWrittenFor() throws IOException {
+        ReflectionTestUtils.setField(playwrightService, "sessionFile", tempDir.resolve("session.json").toString());
+        for (String username : List.of("owner@example.com", "a/b", "café", "owner_example.com")) {
+            Files.writeString(Path.of(playwrightService.getSessionFilePath(username)), "{}");
+        }
+        Files.writeString(tempDir.resolve("session-bad%2.json"), "{}");
+        Files.writeString(tempDir.resolve("session-bad%zz.json"), "{}");
+
+        assertThat(playwrightService.findStoredSessions())
+                .containsOnlyKeys("owner@example.com", "a/b", "café", "owner_example.com")
+                .containsEntry("owner@example.com", tempDir.resolve("session-owner%40example.com.json"));
+        assertThat(PlaywrightService.decodeAccount("caf\u00e9")).isNull();
+    }
+
     @Test
     void getSessionFilePathShouldReturnConfiguredPath() {
         assertThat(playwrightService.getSessionFilePath()).isEqualTo("test-session.json");
@@ -41,143 +178,207 @@ class PlaywrightServiceTest {
 
     @Test
     void startListeningShouldSetListeningToTrue() {
-        playwrightService.startListening();
+        playwrightService.startListening(USER);
 
         assertThat(playwrightService.isListening()).isTrue();
     }
 
     @Test
     void stopListeningShouldSetListeningToFalse() {
-        playwrightService.startListening();
-        playwrightService.stopListening();
+        playwrightService.startListening(USER);
+        playwrightService.stopListening(USER);
 
         assertThat(playwrightService.isListening()).isFalse();
     }
 
     @Test
     void startListeningShouldBeIdempotent() {
-        playwrightService.startListening();
-        playwrightService.startListening();
+        playwrightService.startListening(USER);
+        playwrightService.startListening(USER);
 
         assertThat(playwrightService.isListening()).isTrue();
     }
 
     @Test
-    void processOrderJsonShouldCallCallbackWithParsedOrder() {
-        AtomicReference<Order> capturedOrder = new AtomicReference<>();
-        playwrightService.setOrderCallback(capturedOrder::set);
-
-        String json = "{\"orderId\":\"ZMT-100\",\"customerName\":\"Jane\",\"totalAmount\":\"350.75\",\"status\":\"NEW\"}";
-        playwrightService.processOrderJson(json);
-
-        assertThat(capturedOrder.get()).isNotNull();
-        assertThat(capturedOrder.get().getOrderId()).isEqualTo("ZMT-100");
-        assertThat(capturedOrder.get().getCustomerName()).isEqualTo("Jane");
-        assertThat(capturedOrder.get().getTotalAmount()).isEqualByComparingTo(new BigDecimal("350.75"));
-        assertThat(capturedOrder.get().getStatus()).isEqualTo("NEW");
-        assertThat(capturedOrder.get().getOrderTime()).isNotNull();
-        assertThat(capturedOrder.get().getRawJson()).isEqualTo(json);
+    void boundGaugesShouldCountAccountsByListenerState() {
+        playwrightService.bindTo(meterRegistry);
+        playwrightService.startListening(USER);
+        playwrightService.startListening("outlet-2");
+        playwrightService.stopListening("outlet-2");
+
+        assertThat(meterRegistry.get("order.capture.accounts").tag("state", "listening").gauge().value())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("order.capture.accounts").tag("state", "paused").gauge().value())
+                .isEqualTo(1.0);
     }
 
     @Test
-    void processOrderJsonShouldDoNothingWhenNoCallbackSet() {
-        String json = "{\"orderId\":\"ZMT-100\",\"customerName\":\"Jane\",\"totalAmount\":\"350.75\",\"status\":\"NEW\"}";
-
-        // Should not throw any exception
-        playwrightService.processOrderJson(json);
+    void loginShouldReturnSessionFilePath() {
+        assertThat(playwrightService.login("user@example.com", "password123"))
+                .isEqualTo("test-session-user%40example.com.json");
     }
 
     @Test
-    void parseOrderFromJsonShouldCorrectlyParseValidJsonWithStringAndNumericFields() {
-        String json = "{\"orderId\":\"ZMT-200\",\"customerName\":\"Bob\",\"totalAmount\":999.50,\"status\":\"DELIVERED\"}";
+    void cleanupShouldStopListening() {
+        playwrightService.startListening(USER);
+        assertThat(playwrightService.isListening()).isTrue();
 
-        Order order = playwrightService.parseOrderFromJson(json);
+        playwrightService.cleanup();
 
-        assertThat(order).isNotNull();
-        assertThat(order.getOrderId()).isEqualTo("ZMT-200");
-        assertThat(order.getCustomerName()).isEqualTo("Bob");
-        assertThat(order.getTotalAmount()).isEqualByComparingTo(new BigDecimal("999.50"));
-        assertThat(order.getStatus()).isEqualTo("DELIVERED");
-        assertThat(order.getOrderTime()).isNotNull();
-        assertThat(order.getRawJson()).isEqualTo(json);
+        assertThat(playwrightService.isListening()).isFalse();
     }
 
     @Test
-    void parseOrderFromJsonShouldReturnNullForInvalidJson() {
-        Order order = playwrightService.parseOrderFromJson("not valid json at all {{{");
+    void cleanupShouldStopTheCaptureSources() {
+        playwrightService.cleanup();
 
-        assertThat(order).isNotNull();
-        // With invalid JSON, fields will be null but no exception thrown
-        // The method only returns null on exception; malformed but parseable input returns an order with null fields
+        assertThat(playwrightService.captureOrderJson(CaptureRecord.Source.WS, null, "{}")).isFalse();
+        assertThat(orderPipeline.getStats()).extracting(OrderSourceStats::isRunning).containsOnly(false);
+        verifyNoInteractions(ingestionExecutor);
     }
 
     @Test
-    void parseOrderFromJsonShouldReturnNullOnException() {
-        // Pass null to trigger NullPointerException inside the method
-        Order order = playwrightService.parseOrderFromJson(null);
-
-        assertThat(order).isNull();
+    @SuppressWarnings("unchecked")
+    void attachShouldRegisterPageListenersInPageMode() {
+        Page page = mock(Page.class);
+        playwrightService.startListening(USER);
+        when(ingestionExecutor.submit(any())).thenReturn(true);
+
+        playwrightService.attach(page, USER);
+
+        assertThat(playwrightService.getCaptureMode()).isEqualTo(PlaywrightService.CaptureMode.PAGE);
+        verify(page).route(eq("**/*"), any(Consumer.class));
+        verify(page).onResponse(any());
+        ArgumentCaptor<Consumer<WebSocket>> onWebSocket = ArgumentCaptor.forClass(Consumer.class);
+        verify(page).onWebSocket(onWebSocket.capture());
+        WebSocket webSocket = mock(WebSocket.class);
+        onWebSocket.getValue().accept(webSocket);
+        ArgumentCaptor<Consumer<WebSocketFrame>> onFrame = ArgumentCaptor.forClass(Consumer.class);
+        verify(webSocket).onFrameReceived(onFrame.capture());
+        WebSocketFrame order = mock(WebSocketFrame.class);
+        when(order.binary()).thenReturn("42[\"order\",{\"orderId\":\"ZMT-WS\"}]".getBytes(StandardCharsets.UTF_8));
+        WebSocketFrame ping = mock(WebSocketFrame.class);
+        when(ping.binary()).thenReturn("2".getBytes(StandardCharsets.UTF_8));
+        onFrame.getValue().accept(order);
+        onFrame.getValue().accept(ping);
+        verify(ingestionExecutor).submit(any());
+        assertThat(frameDecoder.getCount(WebSocketFrameDecoder.MessageType.ORDER)).isEqualTo(1);
+        assertThat(frameDecoder.getCount(WebSocketFrameDecoder.MessageType.CONTROL)).isEqualTo(1);
     }
 
     @Test
-    void extractJsonFieldShouldExtractStringValues() {
-        String json = "{\"name\":\"John Doe\",\"city\":\"Mumbai\"}";
+    @SuppressWarnings("unchecked")
+    void onWebSocketShouldIgnoreFramesWhileNotListening() {
+        WebSocket webSocket = mock(WebSocket.class);
+        playwrightService.onWebSocket(playwrightService.account(USER), webSocket);
+        ArgumentCaptor<Consumer<WebSocketFrame>> onFrame = ArgumentCaptor.forClass(Consumer.class);
+        verify(webSocket).onFrameReceived(onFrame.capture());
+        WebSocketFrame frame = mock(WebSocketFrame.class);
 
-        assertThat(playwrightService.extractJsonField(json, "name")).isEqualTo("John Doe");
-        assertThat(playwrightService.extractJsonField(json, "city")).isEqualTo("Mumbai");
-    }
+        onFrame.getValue().accept(frame);
 
-    @Test
-    void extractJsonFieldShouldExtractNumericValues() {
-        String json = "{\"amount\":450.99,\"count\":10}";
-
-        assertThat(playwrightService.extractJsonField(json, "amount")).isEqualTo("450.99");
-        assertThat(playwrightService.extractJsonField(json, "count")).isEqualTo("10");
+        verifyNoInteractions(frame, ingestionExecutor);
     }
 
     @Test
-    void extractJsonFieldShouldReturnNullForMissingFields() {
-        String json = "{\"name\":\"John\"}";
-
-        assertThat(playwrightService.extractJsonField(json, "missing")).isNull();
+    void captureOrderBytesShouldDecodeOnIngestionThread() {
+        when(ingestionExecutor.submit(any())).thenReturn(true);
+        long before = System.nanoTime();
+
+        assertThat(playwrightService.captureOrderBytes("wss://partner.example/socket",
+                "{\"orderId\":\"ZMT-BIN\"}".getBytes(StandardCharsets.UTF_8))).isTrue();
+        long submitted = System.nanoTime();
+
+        ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(ingestionExecutor).submit(task.capture());
+        task.getValue().run();
+        assertThat(persisted).extracting(Order::getOrderId).containsExactly("ZMT-BIN");
+        // Stamped at interception, not when the ingestion thread decodes the frame
+        assertThat(persisted.get(0).getCapturedNanos()).isBetween(before, submitted);
+        assertThat(orderPipeline.getStats("ws")).get().extracting(OrderSourceStats::getOrders).isEqualTo(1L);
     }
 
     @Test
-    void loginShouldReturnSessionFilePath() {
-        assertThat(playwrightService.login("user@example.com", "password123"))
-                .isEqualTo("test-session.json");
+    void capturesShouldBeRecordedWithSourceAndUrlWhileRecording() throws IOException {
+        when(ingestionExecutor.submit(any())).thenReturn(true);
+        playwrightService.captureOrderJson(CaptureRecord.Source.XHR, "https://partner.example/api/orders", "[]");
+        captureRecorder.startRecording();
+
+        playwrightService.captureOrderJson(CaptureRecord.Source.XHR, "https://partner.example/api/orders",
+                "[{\"orderId\":\"ZMT-REC\"}]");
+        WebSocketFrameDecoder.Channel channel = playwrightService.openWebSocketChannel("wss://partner.example/socket");
+        channel.onText("42[\"order\",{\"orderId\":\"ZMT-TXT\"}]");
+        channel.onBinary("{\"orderId\":\"ZMT-BIN\"}".getBytes(StandardCharsets.UTF_8));
+        Path file = captureRecorder.stopRecording();
+
+        verify(ingestionExecutor, times(4)).submit(any());
+        try (CaptureFileReader reader = new CaptureFileReader(file)) {
+            assertThat(reader.read()).extracting(CaptureRecord::source, CaptureRecord::url, CaptureRecord::body)
+                    .containsExactly(CaptureRecord.Source.XHR, "https://partner.example/api/orders",
+                            "[{\"orderId\":\"ZMT-REC\"}]");
+            assertThat(reader.read()).extracting(CaptureRecord::source, CaptureRecord::url, CaptureRecord::body)
+                    .containsExactly(CaptureRecord.Source.WS, "wss://partner.example/socket",
+                            "{\"orderId\":\"ZMT-TXT\"}");
+            assertThat(reader.read().body()).isEqualTo("{\"orderId\":\"ZMT-BIN\"}");
+            assertThat(reader.read()).isNull();
+        }
     }
 
     @Test
-    void extractJsonFieldShouldReturnNullForNonStringNonNumericValue() {
-        // Value starts with 't' (boolean true) which is neither quoted string nor digit
-        String json = "{\"active\":true}";
+    @SuppressWarnings("unchecked")
+    void attachShouldUseCdpSessionInCdpModeAndDetachOnCleanup() {
+        orderPipeline.stopAll();
+        playwrightService = new PlaywrightService(orderPipeline, responseFilter, frameDecoder,
+                new ResourceBlocker(false, List.of("image"), List.of(), List.of()), captureRecorder,
+                latencyMetrics);
+        playwrightService.setCaptureMode(PlaywrightService.CaptureMode.CDP);
+        Page page = mock(Page.class);
+        BrowserContext context = mock(BrowserContext.class);
+        CDPSession session = mock(CDPSession.class);
+        when(page.context()).thenReturn(context);
+        when(context.newCDPSession(page)).thenReturn(session);
+
+        playwrightService.attach(page, USER);
+
+        verify(session).on(eq("Network.responseReceived"), any());
+        verify(session).on(eq("Network.webSocketClosed"), any());
+        verify(session).send("Network.enable");
+        verify(page, never()).onResponse(any());
+        verify(page, never()).onWebSocket(any());
+        verify(page, never()).route(anyString(), any(Consumer.class));
 
-        assertThat(playwrightService.extractJsonField(json, "active")).isNull();
+        playwrightService.cleanup();
+        playwrightService.cleanup();
+        verify(session).detach();
     }
 
     @Test
-    void extractJsonFieldShouldReturnNullWhenValueStartsAfterEnd() {
-        // Field with colon but nothing after it
-        String json = "{\"key\":}";
+    void accountsShouldKeepSeparateListenerState() {
+        playwrightService.startListening("outlet-2");
 
-        assertThat(playwrightService.extractJsonField(json, "key")).isNull();
+        assertThat(playwrightService.isListening(USER)).isFalse();
+        assertThat(playwrightService.isListening("outlet-2")).isTrue();
+        assertThat(playwrightService.isListening("unknown")).isFalse();
+        assertThat(playwrightService.isListening()).isTrue();
+        playwrightService.stopListening("unknown");
+        playwrightService.stopListening("outlet-2");
+        assertThat(playwrightService.isListening()).isFalse();
     }
 
     @Test
-    void extractJsonFieldShouldHandleNoColonAfterField() {
-        String json = "{\"key\"}";
-
-        assertThat(playwrightService.extractJsonField(json, "key")).isNull();
+    void getSessionFilePathShouldDeriveOneFilePerAccount() {
+        assertThat(playwrightService.getSessionFilePath("outlet-1")).isEqualTo("test-session-outlet-1.json");
+        ReflectionTestUtils.setField(playwrightService, "sessionFile", "sessions/zomato");
+        assertThat(playwrightService.getSessionFilePath("a/b")).isEqualTo(Path.of("sessions", "zomato-a%2Fb").toString());
     }
 
-    @Test
-    void cleanupShouldStopListening() {
-        playwrightService.startListening();
-        assertThat(playwrightService.isListening()).isTrue();
-
-        playwrightService.cleanup();
-
-        assertThat(playwrightService.isListening()).isFalse();
+    private Response response(String resourceType, String url, String contentType) {
+        Request request = mock(Request.class);
+        when(request.resourceType()).thenReturn(resourceType);
+        Response response = mock(Response.class);
+        when(response.request()).thenReturn(request);
+        when(response.url()).thenReturn(url);
+        when(response.headers()).thenReturn(Map.of("content-type", contentType));
+        return response;
     }
 }
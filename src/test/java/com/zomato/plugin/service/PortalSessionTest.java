@@ -0,0 +1,196 @@
+package com.zomato.plugin.service;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.CDPSession;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.PlaywrightException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PortalSessionTest {
+
+    private static final String USER = "outlet-1";
+    private static final String PARTNER_URL = "https://partner.example/orders";
+
+    @TempDir
+    Path tempDir;
+
+    private Browser browser;
+    private PlaywrightService playwrightService;
+    private HandoverDeduplicator deduplicator;
+    private Path sessionFile;
+
+    @BeforeEach
+    void setUp() {
+        browser = mock(Browser.class);
+        playwrightService = mock(PlaywrightService.class);
+        deduplicator = new HandoverDeduplicator(100, 0);
+        sessionFile = tempDir.resolve("session.json");
+    }
+
+    @Test
+    void openShouldLoadSavedSessionAndAttachBeforeNavigating() throws IOException {
+        Files.writeString(sessionFile, "{\"cookies\":[],\"origins\":[]}");
+        Tab tab = tab(metrics(10, 10));
+        when(browser.newContext(any())).thenReturn(tab.context);
+        PortalSession session = session(new BrowserMemoryWatchdog(60_000, 512, 200_000));
+
+        session.open();
+        session.pump(250);
+        session.checkMemoryIfDue(System.nanoTime());
+        session.close();
+
+        ArgumentCaptor<Browser.NewContextOptions> options = ArgumentCaptor.forClass(Browser.NewContextOptions.class);
+        verify(browser).newContext(options.capture());
+        assertThat(options.getValue().storageStatePath).isEqualTo(sessionFile);
+        var order = inOrder(playwrightService, tab.page);
+        order.verify(playwrightService).attach(tab.page, USER);
+        order.verify(tab.page).navigate(PARTNER_URL);
+        order.verify(tab.page).waitForTimeout(250);
+        verify(tab.metrics).send("Performance.enable");
+        verify(tab.metrics, never()).send("Performance.getMetrics");
+        verify(tab.context).close();
+        assertThat(session.getUsername()).isEqualTo(USER);
+    }
+
+    @Test
+    void checkMemoryShouldRecycleOverThresholdAndSwitchToFreshPage() {
+        Tab first = tab(metrics(600L * 1024 * 1024, 1_000));
+        Tab second = tab(metrics(10, 10));
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+        BrowserMemoryWatchdog watchdog = new BrowserMemoryWatchdog(0, 512, 200_000);
+        PortalSession session = session(watchdog);
+        doAnswer(invocation -> {
+            Files.writeString(sessionFile, "{}");
+            return "{}";
+        }).when(first.context).storageState(any());
+
+        session.open();
+        session.checkMemoryIfDue(System.nanoTime());
+        session.checkMemoryIfDue(System.nanoTime());
+        session.pump(250);
+
+        ArgumentCaptor<Browser.NewContextOptions> options = ArgumentCaptor.forClass(Browser.NewContextOptions.class);
+        verify(browser, times(2)).newContext(options.capture());
+        assertThat(options.getAllValues().get(0).storageStatePath).isNull();
+        assertThat(options.getAllValues().get(1).storageStatePath).isEqualTo(sessionFile);
+        var order = inOrder(first.context, playwrightService, second.page);
+        order.verify(first.context).storageState(any());
+        order.verify(playwrightService).attach(second.page, USER);
+        order.verify(second.page).navigate(PARTNER_URL);
+        order.verify(first.context).close();
+        verify(second.page).waitForTimeout(250);
+        verify(first.page, never()).waitForTimeout(anyDouble());
+        assertThat(watchdog.getRecycleCount()).isEqualTo(1);
+        assertThat(watchdog.getLastSample().jsHeapUsedBytes()).isEqualTo(10);
+        assertThat(deduplicator.isInHandover()).isFalse();
+    }
+
+    @Test
+    void recycleFailureShouldKeepCurrentContext() {
+        Tab first = tab(metrics(600L * 1024 * 1024, 1_000));
+        Tab second = tab(metrics(10, 10));
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+        when(second.page.navigate(PARTNER_URL)).thenThrow(new PlaywrightException("net::ERR_INTERNET_DISCONNECTED"));
+        BrowserMemoryWatchdog watchdog = new BrowserMemoryWatchdog(0, 512, 200_000);
+        PortalSession session = session(watchdog);
+
+        session.open();
+        session.checkMemoryIfDue(System.nanoTime());
+        session.pump(250);
+
+        verify(second.context).close();
+        verify(first.context, never()).close();
+        verify(first.page).waitForTimeout(250);
+        assertThat(watchdog.getRecycleCount()).isZero();
+        assertThat(deduplicator.isInHandover()).isFalse();
+    }
+
+    @Test
+    void failingToCloseTheOldContextShouldStillEndTheHandover() {
+        Tab first = tab(metrics(600L * 1024 * 1024, 1_000));
+        Tab second = tab(metrics(10, 10));
+        when(browser.newContext(any())).thenReturn(first.context, second.context);
+        doThrow(new PlaywrightException("Target closed")).when(first.context).close();
+        BrowserMemoryWatchdog watchdog = new BrowserMemoryWatchdog(0, 512, 200_000);
+        PortalSession session = session(watchdog);
+
+        session.open();
+        assertThatThrownBy(() -> session.checkMemoryIfDue(System.nanoTime()))
+                .isInstanceOf(PlaywrightException.class);
+        session.pump(250);
+
+        assertThat(deduplicator.isInHandover()).isFalse();
+        assertThat(watchdog.getRecycleCount()).isEqualTo(1);
+        verify(second.page).waitForTimeout(250);
+    }
+
+    @Test
+    void openShouldCloseContextWhenPortalCannotBeLoaded() {
+        Tab tab = tab(metrics(10, 10));
+        when(browser.newContext(any())).thenReturn(tab.context);
+        when(tab.page.navigate(PARTNER_URL)).thenThrow(new PlaywrightException("Target closed"));
+        PortalSession session = session(new BrowserMemoryWatchdog(60_000, 512, 200_000));
+
+        assertThatThrownBy(session::open).isInstanceOf(PlaywrightException.class);
+
+        verify(tab.context).close();
+    }
+
+    @Test
+    void shouldTrackIdleState() {
+        PortalSession session = session(new BrowserMemoryWatchdog(60_000, 512, 200_000));
+        assertThat(session.isIdle()).isFalse();
+
+        session.markIdle(42);
+        assertThat(session.isIdle()).isTrue();
+        assertThat(session.getIdleSinceNanos()).isEqualTo(42);
+
+        session.markActive();
+        assertThat(session.isIdle()).isFalse();
+    }
+
+    private PortalSession session(BrowserMemoryWatchdog watchdog) {
+        return new PortalSession(browser, USER, playwrightService, watchdog, deduplicator, sessionFile, PARTNER_URL);
+    }
+
+    static Tab tab(JsonObject metrics) {
+        BrowserContext context = mock(BrowserContext.class);
+        Page page = mock(Page.class);
+        CDPSession cdp = mock(CDPSession.class);
+        when(context.newPage()).thenReturn(page);
+        when(context.newCDPSession(page)).thenReturn(cdp);
+        when(cdp.send("Performance.getMetrics")).thenReturn(metrics);
+        return new Tab(context, page, cdp);
+    }
+
+    static JsonObject metrics(long jsHeapUsed, long nodes) {
+        return JsonParser.parseString("{\"metrics\":[{\"name\":\"JSHeapUsedSize\",\"value\":" + jsHeapUsed + "},"
+                + "{\"name\":\"Nodes\",\"value\":" + nodes + "}]}").getAsJsonObject();
+    }
+
+    record Tab(BrowserContext context, Page page, CDPSession metrics) {
+    }
+}
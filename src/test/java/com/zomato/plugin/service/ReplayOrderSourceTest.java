@@ -0,0 +1,98 @@
+package com.zomato.plugin.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReplayOrderSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldPutEveryRecordBodyAndReportProgress() throws Exception {
+        Path file = CaptureFileReaderTest.write(tempDir.resolve("friday.gz"),
+                record(0, "{\"orderId\":\"ZMT-1\"}"),
+                record(1_000, "{\"orderId\":\"ZMT-2\"}"),
+                record(2_000, "[{\"orderId\":\"ZMT-3\"}]"));
+        ReplayOrderSource source = new ReplayOrderSource("replay", file, 100);
+        OrderSink sink = mock(OrderSink.class);
+        when(sink.put(anyString())).thenReturn(true);
+        source.start(sink);
+        List<Long> progress = new ArrayList<>();
+
+        assertThat(source.replay(progress::add)).isEqualTo(3);
+
+        verify(sink).put("{\"orderId\":\"ZMT-1\"}");
+        verify(sink).put("[{\"orderId\":\"ZMT-3\"}]");
+        assertThat(progress).containsExactly(1L, 2L);
+        assertThat(source.getRecords()).isEqualTo(3);
+        assertThat(source.getName()).isEqualTo("replay");
+    }
+
+    @Test
+    void maxSpeedReplayShouldReportProgressEveryThousandRecords() throws Exception {
+        CaptureRecord[] records = new CaptureRecord[2_500];
+        for (int i = 0; i < records.length; i++) {
+            records[i] = record(i, "{\"orderId\":\"ZMT-" + i + "\"}");
+        }
+        ReplayOrderSource source = new ReplayOrderSource("replay",
+                CaptureFileReaderTest.write(tempDir.resolve("busy.gz"), records), 0);
+        OrderSink sink = mock(OrderSink.class);
+        when(sink.put(anyString())).thenReturn(true);
+        source.start(sink);
+        List<Long> progress = new ArrayList<>();
+
+        assertThat(source.replay(progress::add)).isEqualTo(2_500);
+
+        assertThat(progress).containsExactly(1_000L, 2_000L);
+    }
+
+    @Test
+    void replayShouldEndOnceThePipelineStopsTakingRecords() throws Exception {
+        Path file = CaptureFileReaderTest.write(tempDir.resolve("stopped.gz"),
+                record(0, "{\"orderId\":\"ZMT-1\"}"),
+                record(0, "{\"orderId\":\"ZMT-2\"}"));
+        ReplayOrderSource source = new ReplayOrderSource("replay", file, 0);
+        OrderSink sink = mock(OrderSink.class);
+        when(sink.put(anyString())).thenReturn(true, false);
+        source.start(sink);
+
+        assertThat(source.replay(records -> { })).isEqualTo(1);
+
+        source.stop();
+        assertThatThrownBy(() -> source.replay(records -> { }))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Order source replay is not started");
+    }
+
+    @Test
+    void stoppedSourceShouldNotFeedFurtherRecords() throws Exception {
+        Path file = CaptureFileReaderTest.write(tempDir.resolve("manual.gz"),
+                record(0, "{\"orderId\":\"ZMT-1\"}"),
+                record(0, "{\"orderId\":\"ZMT-2\"}"));
+        ReplayOrderSource source = new ReplayOrderSource("replay", file, 0);
+        OrderSink sink = mock(OrderSink.class);
+        when(sink.put(anyString())).thenAnswer(invocation -> {
+            source.stop();
+            return true;
+        });
+        source.start(sink);
+
+        assertThat(source.replay(records -> { })).isEqualTo(1);
+    }
+
+    private static CaptureRecord record(long timestampMicros, String body) {
+        return new CaptureRecord(timestampMicros, CaptureRecord.Source.XHR, "https://partner.example/orders", body);
+    }
+}
@@ -0,0 +1,79 @@
+package com.zomato.plugin.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseFilterTest {
+
+    private final ResponseFilter filter = new ResponseFilter(
+            List.of("xhr", " fetch"),
+            List.of("*/api/v?/orders*", "https://partner.example/order/*.json", " */live+feed"),
+            List.of("application/json", "TEXT/JSON "));
+
+    @Test
+    void acceptShouldMatchGlobsAgainstTheWholeUrl() {
+        assertThat(filter.accept("xhr", "https://partner.example/api/v2/orders?since=1", "application/json")).isTrue();
+        assertThat(filter.accept("fetch", "https://partner.example/order/123.json", "application/json")).isTrue();
+        assertThat(filter.accept("xhr", "https://partner.example/live+feed", "application/json")).isTrue();
+
+        assertThat(filter.accept("xhr", "https://partner.example/api/v10/orders", "application/json")).isFalse();
+        assertThat(filter.accept("xhr", "https://partner.example/order/123xjson", "application/json")).isFalse();
+        assertThat(filter.accept("xhr", "https://partner.example/livefeed", "application/json")).isFalse();
+        assertThat(filter.getSkippedCount()).isEqualTo(3);
+    }
+
+    @Test
+    void acceptShouldSkipOtherResourceTypesWithoutMatchingUrl() {
+        assertThat(filter.accept("image", "https://partner.example/api/v2/orders", "application/json")).isFalse();
+        assertThat(filter.accept("document", "https://partner.example/api/v2/orders", "application/json")).isFalse();
+
+        assertThat(filter.getSkippedCount()).isEqualTo(2);
+        assertThat(filter.getHitCount("*/api/v?/orders*")).isZero();
+        assertThat(filter.getMissCount("*/api/v?/orders*")).isZero();
+    }
+
+    @Test
+    void acceptShouldCompareMediaTypeIgnoringParametersAndCase() {
+        assertThat(filter.accept("xhr", "https://partner.example/api/v1/orders", "Application/JSON; charset=UTF-8")).isTrue();
+        assertThat(filter.accept("xhr", "https://partner.example/api/v1/orders", "text/json")).isTrue();
+        assertThat(filter.accept("xhr", "https://partner.example/api/v1/orders", "text/html")).isFalse();
+        assertThat(filter.accept("xhr", "https://partner.example/api/v1/orders", null)).isFalse();
+
+        assertThat(filter.getHitCount("*/api/v?/orders*")).isEqualTo(2);
+        assertThat(filter.getMissCount("*/api/v?/orders*")).isEqualTo(2);
+    }
+
+    @Test
+    void firstMatchingPatternShouldBeCredited() {
+        ResponseFilter overlapping = new ResponseFilter(List.of("xhr"), List.of("*/orders/live", "*/orders/*"),
+                List.of("application/json"));
+
+        overlapping.accept("xhr", "https://partner.example/orders/live", "application/json");
+        overlapping.accept("xhr", "https://partner.example/orders/42", "application/json");
+
+        assertThat(overlapping.getHitCount("*/orders/live")).isEqualTo(1);
+        assertThat(overlapping.getHitCount("*/orders/*")).isEqualTo(1);
+    }
+
+    @Test
+    void bindToShouldRegisterPerPatternCounters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        filter.accept("xhr", "https://partner.example/api/v2/orders", "application/json");
+        filter.accept("xhr", "https://partner.example/api/v2/orders", "text/html");
+        filter.accept("xhr", "https://partner.example/config", "application/json");
+
+        assertThat(registry.get("order.capture.filter.matches")
+                .tags("pattern", "*/api/v?/orders*", "result", "hit").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("order.capture.filter.matches")
+                .tags("pattern", "*/api/v?/orders*", "result", "miss").functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("order.capture.filter.matches")
+                .tags("pattern", "*/live+feed", "result", "hit").functionCounter().count()).isZero();
+        assertThat(registry.get("order.capture.filter.skipped").functionCounter().count()).isEqualTo(1.0);
+    }
+}
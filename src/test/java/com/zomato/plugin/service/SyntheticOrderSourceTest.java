@@ -0,0 +1,134 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.entity.Order;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SyntheticOrderSourceTest {
+
+    private IngestionExecutor ingestionExecutor;
+    private List<Order> persisted;
+    private OrderPipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        ingestionExecutor = new IngestionExecutor(false, 2, 10, 1000);
+        persisted = Collections.synchronizedList(new ArrayList<>());
+        pipeline = new OrderPipeline(ingestionExecutor, new HandoverDeduplicator(100, 0), this::save,
+                new OrderLatencyMetrics(2000), 10_000);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionExecutor.shutdown();
+    }
+
+    @Test
+    void unpacedLoadShouldReachThePipelineWithoutDrops() throws InterruptedException {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic", SyntheticOrderSource.Load.of(500), 42);
+        OrderSourceStats stats = pipeline.start(source);
+
+        assertThat(source.run()).isEqualTo(500);
+
+        assertThat(stats.awaitProcessed(5_000)).isTrue();
+        assertThat(stats.getRejected()).isZero();
+        assertThat(stats.getOrders()).isEqualTo(500);
+        assertThat(stats.getDuplicates()).isZero();
+        assertThat(persisted).extracting(Order::getOrderId).doesNotHaveDuplicates().allMatch(id -> id.startsWith("SYN-"));
+        assertThat(persisted.get(0).getStatus()).isEqualTo("NEW");
+        assertThat(persisted.get(0).getTotalAmount()).isNotNull();
+    }
+
+    @Test
+    void duplicateRatioShouldRepeatEarlierOrderIds() throws InterruptedException {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic", SyntheticOrderSource.Load.of(200)
+                .withOrdersPerPayload(5)
+                .withDuplicateRatio(0.5), 7);
+        OrderSourceStats stats = pipeline.start(source);
+
+        source.run();
+
+        assertThat(stats.awaitProcessed(5_000)).isTrue();
+        assertThat(stats.getOrders()).isEqualTo(1_000);
+        assertThat(stats.getDuplicates()).isBetween(400L, 600L);
+        assertThat(persisted).hasSize((int) (stats.getOrders() - stats.getDuplicates()));
+    }
+
+    @Test
+    void payloadsShouldHaveTheConfiguredShape() {
+        SyntheticOrderSource single = new SyntheticOrderSource("synthetic",
+                SyntheticOrderSource.Load.of(1).withOrderBytes(2_000), 1);
+        SyntheticOrderSource list = new SyntheticOrderSource("synthetic",
+                SyntheticOrderSource.Load.of(1).withOrdersPerPayload(3).withOrderBytes(10), 1);
+
+        String order = single.nextPayload();
+        String orders = list.nextPayload();
+
+        assertThat(order).startsWith("{\"orderId\":\"SYN-").hasSize(2_000);
+        assertThat(new OrderJsonParser().parse(order).getCustomerName()).isEqualTo("Load Test 0");
+        assertThat(new OrderJsonParser().parseBatch(orders)).extracting(Order::getOrderId)
+                .doesNotHaveDuplicates().hasSize(3);
+    }
+
+    @Test
+    void pacedLoadShouldKeepItsRate() throws InterruptedException {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic",
+                SyntheticOrderSource.Load.of(5).withPayloadsPerSecond(20), 1);
+        pipeline.start(source);
+        long start = System.nanoTime();
+
+        source.run();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isBetween(150L, 2_000L);
+        assertThat(source.getEmitted()).isEqualTo(5);
+    }
+
+    @Test
+    void stoppingTheSourceShouldEndTheRun() throws InterruptedException {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic",
+                SyntheticOrderSource.Load.of(1_000).withPayloadsPerSecond(100), 1);
+        pipeline.start(source);
+        CountDownLatch finished = new CountDownLatch(1);
+        Thread runner = new Thread(() -> {
+            try {
+                source.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        });
+        runner.start();
+
+        Thread.sleep(50);
+        pipeline.stop(source);
+
+        assertThat(finished.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(source.getEmitted()).isBetween(1L, 999L);
+    }
+
+    @Test
+    void runShouldRequireAStartedSource() {
+        SyntheticOrderSource source = new SyntheticOrderSource("synthetic", SyntheticOrderSource.Load.of(1), 1);
+
+        assertThatThrownBy(source::run)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Order source synthetic is not started");
+        assertThat(source.getName()).isEqualTo("synthetic");
+    }
+
+    // Stored at once, as far as the pipeline's repeat check is concerned
+    private void save(List<Order> orders) {
+        persisted.addAll(orders);
+        pipeline.onOrdersSaved(new OrdersSavedEvent(orders));
+    }
+}
@@ -0,0 +1,210 @@
+package com.zomato.plugin.service;
+
+import com.zomato.plugin.service.WebSocketFrameDecoder.MessageType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WebSocketFrameDecoderTest {
+
+    private WebSocketFrameDecoder decoder;
+    private List<String> texts;
+    private List<byte[]> binaries;
+    private WebSocketFrameDecoder.Channel channel;
+
+    @BeforeEach
+    void setUp() {
+        decoder = new WebSocketFrameDecoder(List.of("order", " order:updated "));
+        texts = new ArrayList<>();
+        binaries = new ArrayList<>();
+        channel = decoder.open(texts::add, binaries::add);
+    }
+
+    @Test
+    void shouldPassFirstArgumentOfOrderEvents() {
+        channel.onText("42[\"order\",{\"orderId\":\"ZMT-1\",\"items\":[1,2]},{\"ack\":true}]");
+        channel.onText("42/partner,17[ \"order:updated\" , {\"orderId\":\"ZMT-2\"} ]");
+
+        assertThat(texts).containsExactly("{\"orderId\":\"ZMT-1\",\"items\":[1,2]}", "{\"orderId\":\"ZMT-2\"}");
+        assertThat(decoder.getCount(MessageType.ORDER)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldSkipStringsContainingBracketsWhenFindingArgumentEnd() {
+        channel.onText("42[\"order\",{\"note\":\"no ] or } \\\" here\",\"orderId\":\"ZMT-3\"},\"extra\"]");
+
+        assertThat(texts).containsExactly("{\"note\":\"no ] or } \\\" here\",\"orderId\":\"ZMT-3\"}");
+    }
+
+    @Test
+    void shouldPassScalarArgumentsAsIs() {
+        channel.onText("42[\"order\",\"ZMT-4\"]");
+        channel.onText("42[\"order\",17]");
+        channel.onText("42[\"order\"]");
+
+        assertThat(texts).containsExactly("\"ZMT-4\"", "17");
+        assertThat(decoder.getCount(MessageType.ORDER)).isEqualTo(3);
+    }
+
+    @Test
+    void shouldCountOtherEventsWithoutPassingThemOn() {
+        channel.onText("42[\"rider:location\",{\"lat\":12.9}]");
+        channel.onText("42[\"ord\\\"er\",{}]");
+
+        assertThat(texts).isEmpty();
+        assertThat(decoder.getCount(MessageType.EVENT)).isEqualTo(2);
+    }
+
+    @Test
+    void shouldCountControlPackets() {
+        for (String frame : List.of("0{\"sid\":\"abc\"}", "2", "3", "6", "40", "40/partner,{\"sid\":\"x\"}", "41",
+                "43[{\"ok\":true}]", "44{\"message\":\"denied\"}")) {
+            channel.onText(frame);
+        }
+
+        assertThat(texts).isEmpty();
+        assertThat(decoder.getCount(MessageType.CONTROL)).isEqualTo(9);
+    }
+
+    @Test
+    void shouldPassBareJsonAndPlainEngineMessages() {
+        channel.onText("{\"orderId\":\"ZMT-5\"}");
+        channel.onText("[{\"orderId\":\"ZMT-6\"}]");
+        channel.onText("4{\"orderId\":\"ZMT-7\"}");
+
+        assertThat(texts).containsExactly("{\"orderId\":\"ZMT-5\"}", "[{\"orderId\":\"ZMT-6\"}]", "{\"orderId\":\"ZMT-7\"}");
+    }
+
+    @Test
+    void shouldSplitBatchedMessages() {
+        channel.onText("42[\"order\",{\"orderId\":\"A\"}]\u001e2\u001e\u001e42[\"order\",{\"orderId\":\"B\"}]\u001e");
+
+        assertThat(texts).containsExactly("{\"orderId\":\"A\"}", "{\"orderId\":\"B\"}");
+        assertThat(decoder.getCount(MessageType.ORDER)).isEqualTo(2);
+        assertThat(decoder.getCount(MessageType.CONTROL)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldPassAttachmentsOfBinaryOrderEvents() {
+        byte[] first = bytes("{\"orderId\":\"ZMT-8\"}");
+        byte[] second = new byte[]{(byte) 0x82, 0x01};
+
+        channel.onText("452-[\"order\",{\"_placeholder\":true,\"num\":0},{\"_placeholder\":true,\"num\":1}]");
+        assertThat(channel.getPendingAttachments()).isEqualTo(2);
+        channel.onBinary(first);
+        channel.onBinary(second);
+        channel.onBinary(new byte[]{0x00});
+
+        assertThat(texts).isEmpty();
+        assertThat(binaries).containsExactly(first, second);
+        assertThat(decoder.getCount(MessageType.ATTACHMENT)).isEqualTo(2);
+        assertThat(decoder.getCount(MessageType.BINARY)).isEqualTo(1);
+        assertThat(channel.getPendingAttachments()).isZero();
+    }
+
+    @Test
+    void shouldDropAttachmentsOfOtherEventsAndAcks() {
+        channel.onText("451-[\"avatar\",{\"_placeholder\":true,\"num\":0}]");
+        channel.onBinary(bytes("{\"not\":\"an order\"}"));
+        channel.onText("461-/partner,5[{\"_placeholder\":true,\"num\":0}]");
+        channel.onBinary(bytes("{\"ack\":1}"));
+
+        assertThat(binaries).isEmpty();
+        assertThat(decoder.getCount(MessageType.ATTACHMENT)).isEqualTo(2);
+        assertThat(decoder.getCount(MessageType.EVENT)).isEqualTo(1);
+        assertThat(decoder.getCount(MessageType.CONTROL)).isEqualTo(1);
+    }
+
+    @Test
+    void binaryEventWithoutAttachmentsShouldPassItsArgument() {
+        channel.onText("450-[\"order\",{\"orderId\":\"ZMT-9\"}]");
+
+        assertThat(texts).containsExactly("{\"orderId\":\"ZMT-9\"}");
+        assertThat(channel.getPendingAttachments()).isZero();
+    }
+
+    @Test
+    void shouldPassJsonBinaryFramesAsBytes() {
+        byte[] json = bytes(" \n{\"orderId\":\"ZMT-10\"}");
+        byte[] list = bytes("[]");
+
+        channel.onBinary(json);
+        channel.onBinary(list);
+        channel.onBinary(new byte[0]);
+        channel.onBinary(bytes("   "));
+        channel.onBinary(new byte[]{(byte) 0x93, 0x01, 0x02});
+
+        assertThat(binaries).containsExactly(json, list);
+        assertThat(decoder.getCount(MessageType.ORDER)).isEqualTo(2);
+        assertThat(decoder.getCount(MessageType.BINARY)).isEqualTo(3);
+    }
+
+    @Test
+    void onFrameShouldDecodePacketsAsTextAndKeepOtherFramesAsBytes() {
+        byte[] json = bytes("{\"orderId\":\"ZMT-11\"}");
+        byte[] attachment = bytes("4{\"looks\":\"like a packet\"}");
+
+        channel.onFrame(bytes("42[\"order\",{\"orderId\":\"ZMT-12\"}]"));
+        channel.onFrame(json);
+        channel.onFrame(bytes("451-[\"order\",{\"_placeholder\":true,\"num\":0}]"));
+        channel.onFrame(attachment);
+        channel.onFrame(new byte[0]);
+
+        assertThat(texts).containsExactly("{\"orderId\":\"ZMT-12\"}");
+        assertThat(binaries).containsExactly(json, attachment);
+        assertThat(decoder.getCount(MessageType.ATTACHMENT)).isEqualTo(1);
+        assertThat(decoder.getCount(MessageType.BINARY)).isEqualTo(1);
+    }
+
+    @Test
+    void shouldCountMalformedMessagesAndKeepDecoding() {
+        List<String> malformed = List.of("hello", "4", "42", "45[\"order\"]", "45x-[\"order\"]", "42/partner",
+                "49[\"order\"]", "42{\"order\":1}", "42[order]", "42[\"order", "42[\"order\",{\"orderId\":\"X\"",
+                "42[\"order\",\"unterminated]");
+        for (String frame : malformed) {
+            channel.onText(frame);
+        }
+        channel.onText("42[\"order\",{\"orderId\":\"ZMT-13\"}]");
+
+        assertThat(decoder.getCount(MessageType.MALFORMED)).isEqualTo(malformed.size());
+        assertThat(texts).containsExactly("{\"orderId\":\"ZMT-13\"}");
+    }
+
+    @Test
+    void channelsShouldKeepTheirOwnAttachmentState() {
+        List<byte[]> other = new ArrayList<>();
+        WebSocketFrameDecoder.Channel second = decoder.open(texts::add, other::add);
+        byte[] json = bytes("{\"orderId\":\"ZMT-14\"}");
+
+        channel.onText("451-[\"avatar\",{\"_placeholder\":true,\"num\":0}]");
+        second.onBinary(json);
+
+        assertThat(other).containsExactly(json);
+        assertThat(channel.getPendingAttachments()).isEqualTo(1);
+    }
+
+    @Test
+    void bindToShouldRegisterCounterPerMessageType() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        decoder.bindTo(registry);
+
+        channel.onText("42[\"order\",{}]");
+        channel.onText("2");
+
+        assertThat(registry.get("order.capture.websocket.messages").tag("type", "order").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.websocket.messages").tag("type", "control").functionCounter().count())
+                .isEqualTo(1);
+        assertThat(registry.get("order.capture.websocket.messages").functionCounters()).hasSize(MessageType.values().length);
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+}